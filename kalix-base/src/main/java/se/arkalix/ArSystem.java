@@ -4,6 +4,7 @@ import se.arkalix._internal.DefaultSystem;
 import se.arkalix.plugin.Plugin;
 import se.arkalix.plugin.PluginFacade;
 import se.arkalix.query.ServiceQuery;
+import se.arkalix.query.ServiceQueryResolution;
 import se.arkalix.security.SecurityDisabled;
 import se.arkalix.security.identity.OwnedIdentity;
 import se.arkalix.security.identity.SystemIdentity;
@@ -447,6 +448,46 @@ public interface ArSystem extends SystemRecordWithIdentity {
             return this;
         }
 
+        /**
+         * Sets how {@link Plugin plugins} are asked to resolve {@link
+         * ServiceQuery service queries} that cannot be resolved using the
+         * {@link #serviceCache(ArServiceRecordCache) service cache} of the
+         * created system. If not set, {@link
+         * ServiceQueryResolution#sequential()} is used.
+         * <p>
+         * If more than one plugin is able to resolve service queries, such
+         * as a plugin for querying an Arrowhead service registry and another
+         * reading services from a local configuration file, resolving them
+         * {@link ServiceQueryResolution#firstMatch() concurrently} prevents
+         * queries from having to wait for every plugin in turn.
+         *
+         * @param serviceQueryResolution Desired service query resolution.
+         * @return This builder.
+         */
+        public Builder serviceQueryResolution(final ServiceQueryResolution serviceQueryResolution) {
+            inner.serviceQueryResolution(serviceQueryResolution);
+            return this;
+        }
+
+        /**
+         * Sets how the threads of the {@link Schedulers#fixed() fixed
+         * scheduler} used by this system are to be organized.
+         * <p>
+         * As the fixed scheduler is shared by all systems in the same
+         * application, this configuration must either be provided before the
+         * fixed scheduler is first used or be equal to the configuration
+         * already in use. Otherwise, {@link #build()} throws an {@link
+         * IllegalStateException}.
+         *
+         * @param config Desired fixed scheduler configuration.
+         * @return This builder.
+         * @see Schedulers#configureFixed(FixedSchedulerConfig)
+         */
+        public Builder fixedScheduler(final FixedSchedulerConfig config) {
+            inner.fixedSchedulerConfig(config);
+            return this;
+        }
+
         /**
          * Finalizes construction of new {@link ArSystem} and then blocks the
          * current thread until all of its {@link #plugins(Plugin...) plugins}
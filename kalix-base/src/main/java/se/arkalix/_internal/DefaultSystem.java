@@ -12,9 +12,11 @@ import se.arkalix.plugin._internal.PluginNotifier;
 import se.arkalix.plugin.Plugin;
 import se.arkalix.plugin.PluginFacade;
 import se.arkalix.query.ServiceQuery;
+import se.arkalix.query.ServiceQueryResolution;
 import se.arkalix.security.SecurityDisabled;
 import se.arkalix.security.identity.OwnedIdentity;
 import se.arkalix.security.identity.TrustStore;
+import se.arkalix.util.Result;
 import se.arkalix.util.annotation.Internal;
 import se.arkalix.util.concurrent.*;
 
@@ -23,6 +25,7 @@ import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Internal
@@ -95,6 +98,9 @@ public class DefaultSystem implements ArSystem {
         consumedServices = Objects.requireNonNullElseGet(builder.serviceCache,
             ArServiceRecordCache::withDefaultEntryLifetimeLimit);
 
+        if (builder.fixedSchedulerConfig != null) {
+            Schedulers.configureFixed(builder.fixedSchedulerConfig);
+        }
         scheduler = Schedulers.fixed();
         schedulerShutdownListener = (scheduler) -> shutdown()
             .onFailure(fault -> {
@@ -106,7 +112,9 @@ public class DefaultSystem implements ArSystem {
 
         pluginNotifier = new PluginNotifier(this, builder.plugins != null
             ? builder.plugins
-            : Collections.emptyList());
+            : Collections.emptyList(), builder.serviceQueryResolution != null
+            ? builder.serviceQueryResolution
+            : ServiceQueryResolution.sequential());
     }
 
     private Future<?> attachPlugins() {
@@ -269,6 +277,7 @@ public class DefaultSystem implements ArSystem {
         scheduler.removeShutdownListener(schedulerShutdownListener);
 
         final var closingServers = new ArrayList<Future<?>>();
+        final var closingFault = new AtomicReference<Throwable>(null);
 
         for (final var entry : servers.entrySet()) {
             final var announcement = entry.getValue();
@@ -285,14 +294,23 @@ public class DefaultSystem implements ArSystem {
                 continue;
             }
             final var server = result.value();
-            closingServers.add(server.close());
+            // Failing to close one server must not prevent the others from
+            // being waited for, which is why faults are collected here.
+            closingServers.add(server.close()
+                .mapCatch(Throwable.class, fault -> {
+                    if (!closingFault.compareAndSet(null, fault)) {
+                        closingFault.get().addSuppressed(fault);
+                    }
+                    return null;
+                }));
         }
 
-        return Futures.serialize(closingServers)
+        return Futures.all(closingServers)
             .mapResult(result -> {
                 pluginNotifier.onDetach();
                 servers.clear();
-                return result;
+                final var fault = closingFault.get();
+                return fault != null ? Result.failure(fault) : result;
             });
     }
 
@@ -316,6 +334,8 @@ public class DefaultSystem implements ArSystem {
         private Collection<Plugin> plugins;
         private ArServiceRecordCache serviceCache;
         private Map<String, String> metadata = null;
+        private FixedSchedulerConfig fixedSchedulerConfig;
+        private ServiceQueryResolution serviceQueryResolution;
 
         public void name(final String name) {
             this.name = name;
@@ -384,6 +404,14 @@ public class DefaultSystem implements ArSystem {
             this.metadata = metadata;
         }
 
+        public void fixedSchedulerConfig(final FixedSchedulerConfig fixedSchedulerConfig) {
+            this.fixedSchedulerConfig = fixedSchedulerConfig;
+        }
+
+        public void serviceQueryResolution(final ServiceQueryResolution serviceQueryResolution) {
+            this.serviceQueryResolution = serviceQueryResolution;
+        }
+
         public ArSystem build() {
             final var system = new DefaultSystem(this);
             try {
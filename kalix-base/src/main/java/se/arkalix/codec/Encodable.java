@@ -16,4 +16,19 @@ public interface Encodable {
      * @throws NullPointerException If {@code writer} is {@code null}.
      */
     CodecType encode(BufferWriter writer);
+
+    /**
+     * Gets an estimate of the number of bytes that will be written by a call
+     * to {@link #encode(BufferWriter)}, or {@code 0} if no estimate is
+     * available.
+     * <p>
+     * The estimate is used to size buffers before encoding starts, and should
+     * therefore be cheap to compute rather than precise.
+     *
+     * @return Estimated encoded size, in bytes.
+     * @see EncodableSizeEstimator
+     */
+    default int sizeHint() {
+        return 0;
+    }
 }
@@ -0,0 +1,84 @@
+package se.arkalix.codec;
+
+import se.arkalix.io.buf.BufferWriter;
+
+import java.util.Objects;
+
+/**
+ * Keeps track of the encoded sizes of some kind of {@link Encodable}, using
+ * a moving average of recently encoded sizes as {@link Encodable#sizeHint()
+ * size hint} for the next encoding.
+ * <p>
+ * Each recorded size contributes a quarter of the new average, which means
+ * that a single unusually large encoding only affects the hints of a few
+ * subsequent encodings. Hints never exceed {@link #MAX_SIZE_HINT}, which
+ * limits how much memory may be allocated up front for a single encoding.
+ * <p>
+ * One estimator is meant to be shared by all instances of the same class,
+ * with one estimator being used for each supported codec. Generated DTO
+ * classes use estimators in this way. Estimators are safe to use from
+ * multiple threads, but do not synchronize their recorded sizes, as an
+ * occasionally stale estimate is harmless.
+ */
+public final class EncodableSizeEstimator {
+    /**
+     * The largest size hint ever provided by an estimator, in bytes.
+     */
+    public static final int MAX_SIZE_HINT = 1024 * 1024;
+
+    private int averageEncodedSize = 0;
+
+    /**
+     * Wraps given {@code encodable} into an object that records its encoded
+     * size in this estimator when encoded, and which uses the current
+     * {@link #sizeHint() size hint} of this estimator as its size hint.
+     *
+     * @param encodable Encodable to wrap.
+     * @return Wrapped encodable.
+     */
+    public Encodable estimate(final Encodable encodable) {
+        Objects.requireNonNull(encodable, "encodable");
+        return new Encodable() {
+            @Override
+            public CodecType encode(final BufferWriter writer) {
+                if (writer == null) {
+                    throw new NullPointerException("writer");
+                }
+                final var writeOffset0 = writer.writeOffset();
+                final var codecType = encodable.encode(writer);
+                record(writer.writeOffset() - writeOffset0);
+                return codecType;
+            }
+
+            @Override
+            public int sizeHint() {
+                return EncodableSizeEstimator.this.sizeHint();
+            }
+        };
+    }
+
+    /**
+     * Records given encoded size, updating the size hint of this estimator.
+     *
+     * @param encodedSize Encoded size, in bytes.
+     */
+    public void record(final int encodedSize) {
+        if (encodedSize < 0) {
+            throw new IllegalArgumentException("encodedSize < 0");
+        }
+        final var averageEncodedSize0 = averageEncodedSize;
+        averageEncodedSize = averageEncodedSize0 == 0
+            ? encodedSize
+            : averageEncodedSize0 + (encodedSize - averageEncodedSize0) / 4;
+    }
+
+    /**
+     * Gets the moving average of recorded encoded sizes, limited to {@link
+     * #MAX_SIZE_HINT}, or {@code 0} if no size has been recorded yet.
+     *
+     * @return Estimated encoded size, in bytes.
+     */
+    public int sizeHint() {
+        return Math.min(averageEncodedSize, MAX_SIZE_HINT);
+    }
+}
@@ -1,5 +1,7 @@
 package se.arkalix.codec;
 
+import se.arkalix.io.buf.BufferReader;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -83,29 +85,34 @@ public class MultiDecoderForLists<T> implements MultiDecoder<List<T>> {
 
                 final var list = new ArrayList<T>();
 
-                loop:
-                while (true) {
-                    do {
-                        b = reader.readS8();
-                    } while (b == ' ' || b == '\t' || b == '\r' || b == '\n');
-
-                    list.add(decoder.decoder(CodecType.JSON).decode(reader));
-
-                    do {
-                        b = reader.readS8();
-                    } while (b == ' ' || b == '\t' || b == '\r' || b == '\n');
-
-                    switch (b) {
-                    case ',':
-                        continue;
-
-                    case ']':
-                        break loop;
-
-                    default:
-                        throw new DecoderException(
-                            CodecType.JSON, reader, Character.toString(b),
-                            reader.readOffset(), "expected ',' or ']'");
+                skipWhitespace(reader);
+                if (reader.peekS8() == ']') {
+                    reader.skip(1);
+                }
+                else {
+                    final var itemDecoder = decoder.decoder(CodecType.JSON);
+
+                    loop:
+                    while (true) {
+                        skipWhitespace(reader);
+                        list.add(itemDecoder.decode(reader));
+
+                        do {
+                            b = reader.readS8();
+                        } while (b == ' ' || b == '\t' || b == '\r' || b == '\n');
+
+                        switch (b) {
+                        case ',':
+                            continue;
+
+                        case ']':
+                            break loop;
+
+                        default:
+                            throw new DecoderException(
+                                CodecType.JSON, reader, Character.toString(b),
+                                reader.readOffset(), "expected ',' or ']'");
+                        }
                     }
                 }
 
@@ -127,4 +134,13 @@ public class MultiDecoderForLists<T> implements MultiDecoder<List<T>> {
             }
         };
     }
+
+    // Skips any whitespace at the current read offset of given reader,
+    // leaving the first non-whitespace byte unread.
+    private static void skipWhitespace(final BufferReader reader) {
+        byte b;
+        while ((b = reader.peekS8()) == ' ' || b == '\t' || b == '\r' || b == '\n') {
+            reader.skip(1);
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package se.arkalix.codec;
 
+import se.arkalix.io.buf.BufferWriter;
+
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -65,24 +67,40 @@ public class MultiEncodableForLists implements MultiEncodable {
      * Gets {@link Encodable} producing JSON arrays.
      */
     public Encodable encodableForJson() {
-        return writer -> {
-            if (writer == null) {
-                throw new NullPointerException("writer");
-            }
+        return new Encodable() {
+            @Override
+            public CodecType encode(final BufferWriter writer) {
+                if (writer == null) {
+                    throw new NullPointerException("writer");
+                }
 
-            writer.writeS8((byte) '[');
+                writer.writeS8((byte) '[');
 
-            if (items.size() > 0) {
-                items.get(0).encodable(CodecType.JSON).encode(writer);
-            }
-            for (final var item : items.subList(1, items.size())) {
-                writer.writeS8((byte) ',');
-                item.encodable(CodecType.JSON).encode(writer);
-            }
+                if (items.size() > 0) {
+                    items.get(0).encodable(CodecType.JSON).encode(writer);
+                }
+                for (final var item : items.subList(1, items.size())) {
+                    writer.writeS8((byte) ',');
+                    item.encodable(CodecType.JSON).encode(writer);
+                }
 
-            writer.writeS8((byte) ']');
+                writer.writeS8((byte) ']');
 
-            return CodecType.JSON;
+                return CodecType.JSON;
+            }
+
+            @Override
+            public int sizeHint() {
+                // Assumes that all items are of roughly the same size.
+                if (items.isEmpty()) {
+                    return 2;
+                }
+                final var itemSizeHint = items.get(0).encodable(CodecType.JSON).sizeHint();
+                if (itemSizeHint <= 0) {
+                    return 0;
+                }
+                return (int) Math.min(Integer.MAX_VALUE, (itemSizeHint + 1L) * items.size() + 1L);
+            }
         };
     }
 }
@@ -0,0 +1,221 @@
+package se.arkalix.codec.json;
+
+import se.arkalix.codec.CodecType;
+import se.arkalix.codec.DecoderException;
+import se.arkalix.codec.json._internal.JsonPrimitives;
+import se.arkalix.codec.json._internal.JsonTokenBuffer;
+import se.arkalix.codec.json._internal.JsonTokenizer;
+import se.arkalix.io.buf.Buffer;
+import se.arkalix.io.buf.BufferReader;
+import se.arkalix.io.buf.BufferWriter;
+import se.arkalix.util.annotation.Internal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * JSON string kept in its escaped form.
+ * <p>
+ * Unlike a {@link JsonString}, the contents of which are unescaped when
+ * decoded, a decoded escaped string retains its contents exactly as they
+ * appeared in the JSON source, escape sequences included. The contents are
+ * only unescaped if {@link #toString()} is called, which makes this class
+ * useful for large strings that may never have to be inspected, or that are
+ * forwarded to other JSON documents untouched. Escaped strings can be used
+ * as custom DTO types.
+ *
+ * @see <a href="https://tools.ietf.org/html/rfc8259">RFC 8259</a>
+ */
+@SuppressWarnings("unused")
+public final class JsonEscapedString implements JsonValue {
+    private final byte[] escaped;
+    private final boolean hasEscapes;
+    private String string;
+
+    private JsonEscapedString(final byte[] escaped, final boolean hasEscapes, final String string) {
+        this.escaped = escaped;
+        this.hasEscapes = hasEscapes;
+        this.string = string;
+    }
+
+    /**
+     * Creates new escaped JSON string from given Java {@link String}. The
+     * string is escaped only if and when required.
+     *
+     * @param string String.
+     */
+    public JsonEscapedString(final String string) {
+        this(null, false, Objects.requireNonNull(string, "string"));
+    }
+
+    /**
+     * Creates new escaped JSON string from given UTF-8 encoded JSON string
+     * contents, excluding the surrounding quotation marks. The contents are
+     * not validated until unescaped.
+     *
+     * @param escaped Escaped JSON string contents.
+     * @return New escaped JSON string.
+     */
+    public static JsonEscapedString ofEscaped(final byte[] escaped) {
+        Objects.requireNonNull(escaped, "escaped");
+        return new JsonEscapedString(escaped.clone(), hasEscapes(escaped), null);
+    }
+
+    private static boolean hasEscapes(final byte[] escaped) {
+        for (final var b : escaped) {
+            if (b == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public JsonType type() {
+        return JsonType.STRING;
+    }
+
+    /**
+     * Gets the UTF-8 representation of this string, unescaping it only if it
+     * contains any escape sequences.
+     *
+     * @return UTF-8 encoded string.
+     * @throws DecoderException If this string contains invalid escape
+     *                          sequences.
+     */
+    public byte[] toBytes() {
+        if (escaped != null && !hasEscapes) {
+            return escaped.clone();
+        }
+        return toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gets the contents of this string as they would appear in a JSON
+     * document, including any escape sequences but excluding the surrounding
+     * quotation marks. If this string was decoded, its contents are returned
+     * exactly as they were decoded.
+     *
+     * @return UTF-8 encoded JSON string contents.
+     */
+    public byte[] toEscapedBytes() {
+        return escaped != null ? escaped.clone() : escaped();
+    }
+
+    private byte[] escaped() {
+        if (escaped != null) {
+            return escaped;
+        }
+        final var buffer = Buffer.allocate(string.length() + 16, Integer.MAX_VALUE);
+        try {
+            JsonPrimitives.write(string, buffer);
+            final var escaped = new byte[buffer.readableBytes()];
+            buffer.read(escaped);
+            return escaped;
+        }
+        finally {
+            buffer.close();
+        }
+    }
+
+    /**
+     * Reads escaped JSON string from given {@code reader}.
+     *
+     * @param reader Source containing JSON string at the current read offset,
+     *               ignoring any whitespace.
+     * @return Decoded JSON string.
+     * @throws DecoderException If the reader does not contain a valid JSON
+     *                          string at the current read offset.
+     */
+    public static JsonEscapedString decodeJson(final BufferReader reader) {
+        return decodeJson_(JsonTokenizer.tokenize(reader));
+    }
+
+    /**
+     * <i>Internal API</i>. Might change in breaking ways between patch
+     * versions of the Kalix library. Use is not advised.
+     *
+     * @param buffer Buffer of JSON tokens.
+     * @return Decoded string.
+     */
+    @Internal
+    public static JsonEscapedString decodeJson_(final JsonTokenBuffer buffer) {
+        final var reader = buffer.reader();
+        var token = buffer.next();
+        if (token.type() != JsonType.STRING) {
+            throw new DecoderException(
+                CodecType.JSON,
+                reader,
+                JsonPrimitives.readStringRaw(token, reader),
+                token.begin(),
+                "expected string");
+        }
+        final var escaped = new byte[token.length()];
+        reader.getAt(token.begin(), escaped);
+        return new JsonEscapedString(escaped, hasEscapes(escaped), null);
+    }
+
+    @Override
+    public CodecType encodeJson(final BufferWriter writer) {
+        writer.writeS8((byte) '"');
+        writer.write(escaped());
+        writer.writeS8((byte) '"');
+        return CodecType.JSON;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) { return true; }
+        if (other == null || getClass() != other.getClass()) { return false; }
+        final JsonEscapedString that = (JsonEscapedString) other;
+        if (escaped != null && that.escaped != null && !hasEscapes && !that.hasEscapes) {
+            return Arrays.equals(escaped, that.escaped);
+        }
+        return toString().equals(that.toString());
+    }
+
+    @Override
+    public int hashCode() {
+        // Hashes the UTF-8 representation of this string, which does not
+        // require unescaping strings without escape sequences.
+        if (escaped != null && !hasEscapes) {
+            return Arrays.hashCode(escaped);
+        }
+        return Arrays.hashCode(toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets this string as a Java {@link String}, unescaping it if not
+     * already done.
+     *
+     * @return Unescaped string.
+     * @throws DecoderException If this string contains invalid escape
+     *                          sequences.
+     */
+    @Override
+    public String toString() {
+        var string = this.string;
+        if (string == null) {
+            if (!hasEscapes) {
+                string = new String(escaped, StandardCharsets.UTF_8);
+            }
+            else {
+                final var quoted = new byte[escaped.length + 2];
+                quoted[0] = '"';
+                System.arraycopy(escaped, 0, quoted, 1, escaped.length);
+                quoted[quoted.length - 1] = '"';
+                final var reader = Buffer.wrap(quoted);
+                string = JsonPrimitives.readString(JsonTokenizer.tokenize(reader).next(), reader);
+            }
+            this.string = string;
+        }
+        return string;
+    }
+
+    @Override
+    public Optional<String> tryToString() {
+        return Optional.of(toString());
+    }
+}
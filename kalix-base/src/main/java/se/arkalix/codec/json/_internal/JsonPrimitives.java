@@ -5,6 +5,7 @@ import se.arkalix.codec.DecoderException;
 import se.arkalix.codec.EncodableException;
 import se.arkalix.io.buf.BufferReader;
 import se.arkalix.io.buf.BufferWriter;
+import se.arkalix.io.buf._internal.UncheckedBufferView;
 import se.arkalix.util.annotation.Internal;
 
 import java.math.BigDecimal;
@@ -52,7 +53,13 @@ public final class JsonPrimitives {
         String error;
         error:
         {
-            var b = reader.getS8At(c0);
+            if (c0 == c1) {
+                error = "bad JSON character string; must contain exactly " +
+                    "one valid character or escape sequence";
+                break error;
+            }
+            final var view = UncheckedBufferView.of(reader, c0, c1 - c0);
+            var b = view.getS8At(c0);
             if (b < 0) {
                 if (b < -64) {
                     error = "bad JSON character string; invalid UTF-8 " +
@@ -66,7 +73,7 @@ public final class JsonPrimitives {
                         break error;
                     }
                     return (char) (((0x1F & b) << 6) |
-                        (0x3F & reader.getS8At(c0 + 1)));
+                        (0x3F & view.getS8At(c0 + 1)));
                 }
                 if (b < -16) { // 3 byte UTF-8 code point.
                     if (c0 + 3 != c1) {
@@ -75,8 +82,8 @@ public final class JsonPrimitives {
                         break error;
                     }
                     return (char) (((0x0F & b) << 12) |
-                        ((0x3F & reader.getS8At(c0 + 1)) << 6) |
-                        (0x3F & reader.getS8At(c0 + 2)));
+                        ((0x3F & view.getS8At(c0 + 1)) << 6) |
+                        (0x3F & view.getS8At(c0 + 2)));
                 }
                 error = "bad JSON character string; 4-byte UTF-8 code " +
                     "points do not fit in a java char";
@@ -88,7 +95,11 @@ public final class JsonPrimitives {
                 break error;
             }
             if (b == '\\') {
-                b = reader.getS8At(++c0);
+                if (c0 + 1 == c1) {
+                    error = "bad JSON character string; bad escape sequence";
+                    break error;
+                }
+                b = view.getS8At(++c0);
                 switch (b) {
                 case '\"':
                 case '/':
@@ -105,7 +116,7 @@ public final class JsonPrimitives {
                     final var uBuffer = new byte[4];
                     if (++c0 + 4 == c1) {
                         try {
-                            reader.getAt(c0, uBuffer);
+                            view.getAt(c0, uBuffer, 0, 4);
                             final var uString = new String(uBuffer, StandardCharsets.ISO_8859_1);
                             final var uNumber = Integer.parseUnsignedInt(uString, 16);
                             return (char) uNumber;
@@ -196,6 +207,7 @@ public final class JsonPrimitives {
         var p1 = p0; // Current reader offset.
         final var p2 = token.end(); // End of string reader region.
 
+        final var view = UncheckedBufferView.of(reader, p1, p2 - p1);
         final var buffer = new byte[p2 - p1];
         var b0 = 0; // Index of first unwritten byte in buffer.
 
@@ -203,13 +215,13 @@ public final class JsonPrimitives {
         error:
         {
             while (p1 < p2) {
-                var b = reader.getS8At(p1);
+                var b = view.getS8At(p1);
                 if (b == '\\') {
                     // Collect bytes before escape sequence into buffer.
                     {
                         final var length = p1 - p0;
                         if (length > 0) {
-                            reader.getAt(p0, buffer, b0, length);
+                            view.getAt(p0, buffer, b0, length);
                             b0 += length;
                         }
                         p0 = ++p1;
@@ -220,7 +232,7 @@ public final class JsonPrimitives {
                         break error;
                     }
 
-                    b = reader.getS8At(p1++);
+                    b = view.getS8At(p1++);
                     switch (b) {
                     case '\"':
                     case '/':
@@ -237,7 +249,7 @@ public final class JsonPrimitives {
                         final var uBuffer = new byte[4];
                         if (p1 + 4 <= p2) {
                             try {
-                                reader.getAt(p1, uBuffer);
+                                view.getAt(p1, uBuffer, 0, 4);
                                 final var uString = new String(uBuffer, StandardCharsets.ISO_8859_1);
                                 final var uNumber = Integer.parseUnsignedInt(uString, 16);
                                 final var uBytes = Character.toString(uNumber)
@@ -252,7 +264,7 @@ public final class JsonPrimitives {
                             catch (final NumberFormatException ignored) {}
                         }
                         else {
-                            reader.getAt(p1, uBuffer, 0, p2 - p1);
+                            view.getAt(p1, uBuffer, 0, p2 - p1);
                         }
                         badEscapeBuilder.append("\\u").append(new String(uBuffer, StandardCharsets.US_ASCII));
                         break error;
@@ -270,7 +282,7 @@ public final class JsonPrimitives {
             }
             final var length = p1 - p0;
             if (length > 0) {
-                reader.getAt(p0, buffer, b0, length);
+                view.getAt(p0, buffer, b0, length);
                 b0 += length;
             }
             return new String(b0 < buffer.length
@@ -385,7 +397,7 @@ public final class JsonPrimitives {
 
         for (var i = 0; i < bytes.length; ++i) {
             var b = bytes[i];
-            if (b >= 0 && b < ' ' || b == '"' || b == 0x7F) {
+            if (b >= 0 && b < ' ' || b == '"' || b == '\\' || b == 0x7F) {
                 writer.writeS8((byte) '\\');
                 switch (b) {
                 case '\b': b = 'b'; break;
@@ -393,6 +405,7 @@ public final class JsonPrimitives {
                 case '\n': b = 'n'; break;
                 case '\r': b = 'r'; break;
                 case '"': break;
+                case '\\': break;
                 default:
                     writer.write(new byte[]{'u', '0', '0'});
                     writer.writeS8(HEX[(b & 0xF0) >>> 4]);
@@ -4,6 +4,7 @@ import se.arkalix.codec.CodecType;
 import se.arkalix.codec.DecoderException;
 import se.arkalix.codec.json.JsonType;
 import se.arkalix.io.buf.BufferReader;
+import se.arkalix.io.buf._internal.UncheckedBufferView;
 import se.arkalix.util.annotation.Internal;
 
 import java.nio.charset.StandardCharsets;
@@ -14,52 +15,62 @@ import java.util.Objects;
 @SuppressWarnings("unused")
 public final class JsonTokenizer {
     private final BufferReader reader;
+    private final UncheckedBufferView view;
     private final ArrayList<JsonToken> tokens;
 
-    private int p0;
+    private int p0; // Offset of first byte of current candidate.
+    private int p1; // Current read offset.
+    private final int p2; // End of readable region.
     private DecoderException error = null;
 
     private JsonTokenizer(final BufferReader reader) {
         this.reader = Objects.requireNonNull(reader, "reader");
+        this.view = UncheckedBufferView.ofReadable(reader);
         this.tokens = new ArrayList<>(reader.readableBytes() / 16);
-        this.p0 = reader.readOffset();
+        this.p0 = view.offset();
+        this.p1 = view.offset();
+        this.p2 = view.end();
     }
 
     public static JsonTokenBuffer tokenize(final BufferReader reader) {
         final var tokenizer = new JsonTokenizer(reader);
-        if (tokenizer.tokenizeValue()) {
+        final var isValid = tokenizer.tokenizeValue();
+        if (isValid) {
             tokenizer.discardWhitespace();
+        }
+        reader.readOffset(tokenizer.p1);
+        if (isValid) {
             return new JsonTokenBuffer(tokenizer.tokens, reader);
         }
         throw tokenizer.error;
     }
 
     private JsonToken collectCandidate(final JsonType type) {
-        final var token = new JsonToken(type, p0, reader.readOffset(), 0);
+        final var token = new JsonToken(type, p0, p1, 0);
         tokens.add(token);
         discardCandidate();
         return token;
     }
 
     private void discardCandidate() {
-        p0 = reader.readOffset();
+        p0 = p1;
     }
 
     private void saveCandidateAsError(final String message) {
-        final var buffer = new byte[reader.readOffset() - p0];
-        reader.getAt(p0, buffer);
+        final var buffer = new byte[p1 - p0];
+        view.getAt(p0, buffer, 0, buffer.length);
         error = new DecoderException(
             CodecType.JSON, reader, new String(buffer, StandardCharsets.UTF_8),
             p0, message);
     }
 
     private void discardWhitespace() {
-        for (byte b; reader.readableBytes() > 0; ) {
-            b = reader.peekS8();
+        for (byte b; p1 < p2; ) {
+            b = view.getS8At(p1);
             if (b != '\t' && b != '\r' && b != '\n' && b != ' ') {
                 break;
             }
-            reader.skip(1);
+            p1 += 1;
         }
         discardCandidate();
     }
@@ -102,13 +113,13 @@ public final class JsonTokenizer {
 
         discardWhitespace();
 
-        if (reader.readableBytes() == 0) {
+        if (p1 == p2) {
             saveCandidateAsError("unexpected end of object");
             return false;
         }
-        var b = reader.peekS8();
+        var b = view.getS8At(p1);
         if (b == '}') {
-            reader.skip(1);
+            p1 += 1;
             return true;
         }
 
@@ -139,20 +150,20 @@ public final class JsonTokenizer {
 
             discardWhitespace();
 
-            if (reader.readableBytes() == 0) {
+            if (p1 == p2) {
                 saveCandidateAsError("unexpected end of object");
                 return false;
             }
-            b = reader.peekS8();
+            b = view.getS8At(p1);
             if (b == ',') {
-                reader.skip(1);
+                p1 += 1;
                 continue;
             }
             if (b != '}') {
                 saveCandidateAsError("expected `,` or `}`");
                 return false;
             }
-            reader.skip(1);
+            p1 += 1;
             return true;
         }
     }
@@ -162,13 +173,13 @@ public final class JsonTokenizer {
 
         discardWhitespace();
 
-        if (reader.readableBytes() == 0) {
+        if (p1 == p2) {
             saveCandidateAsError("unexpected end of array");
             return false;
         }
-        byte b = reader.peekS8();
+        byte b = view.getS8At(p1);
         if (b == ']') {
-            reader.skip(1);
+            p1 += 1;
             return true;
         }
 
@@ -193,8 +204,8 @@ public final class JsonTokenizer {
     }
 
     private boolean tokenizeString() {
-        while (reader.readableBytes() > 0) {
-            byte b = reader.readS8();
+        while (p1 < p2) {
+            byte b = view.getS8At(p1++);
             if (b == '\"') {
                 final var token = collectCandidate(JsonType.STRING);
 
@@ -205,14 +216,14 @@ public final class JsonTokenizer {
                 return true;
             }
             if (b == '\\') {
-                if (reader.readableBytes() == 0) {
+                if (p1 == p2) {
                     break;
                 }
-                if (reader.readS8() == 'u') {
-                    if (reader.readableBytes() < 4) {
+                if (view.getS8At(p1++) == 'u') {
+                    if (p2 - p1 < 4) {
                         break;
                     }
-                    reader.skip(4);
+                    p1 += 4;
                 }
             }
         }
@@ -222,8 +233,8 @@ public final class JsonTokenizer {
 
     private void tokenizeNumber() {
         number:
-        while (reader.readableBytes() > 0) {
-            switch (reader.peekS8()) {
+        while (p1 < p2) {
+            switch (view.getS8At(p1)) {
             case '\0':
             case ',':
             case '}':
@@ -235,7 +246,7 @@ public final class JsonTokenizer {
                 break number;
 
             default:
-                reader.skip(1);
+                p1 += 1;
                 break;
             }
         }
@@ -304,8 +315,8 @@ public final class JsonTokenizer {
 
     private void expandAndSaveCandidateAsError(final String message) {
         expand:
-        while (reader.readableBytes() > 0) {
-            switch (reader.peekS8()) {
+        while (p1 < p2) {
+            switch (view.getS8At(p1)) {
             case '\0':
             case ',':
             case '}':
@@ -317,7 +328,7 @@ public final class JsonTokenizer {
                 break expand;
 
             default:
-                reader.skip(1);
+                p1 += 1;
                 break;
             }
         }
@@ -325,8 +336,8 @@ public final class JsonTokenizer {
     }
 
     private byte readByteOrZero() {
-        if (reader.readableBytes() > 0) {
-            return reader.readS8();
+        if (p1 < p2) {
+            return view.getS8At(p1++);
         }
         else {
             return 0;
@@ -1,12 +1,19 @@
 package se.arkalix.io.buf;
 
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import se.arkalix.io.buf._internal.BufferLeakDetector;
 import se.arkalix.io.buf._internal.DefaultBufferReader;
 import se.arkalix.io.buf._internal.DefaultBufferWriter;
 import se.arkalix.io.buf._internal.EmptyBuffer;
 import se.arkalix.io.buf._internal.NettyBuffer;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
 
 /**
  * A collection of memory that can be read from or written to.
@@ -50,6 +57,76 @@ public interface Buffer extends BufferReader, BufferWriter {
         return new NettyBuffer(Unpooled.directBuffer(initialCapacity, maximumCapacity));
     }
 
+    /**
+     * Allocates a new pooled buffer with given initial and maximum capacities.
+     * <p>
+     * The buffer is taken from a pool shared by all pooled buffers, which can
+     * make allocation significantly cheaper than {@link #allocate(int, int)}
+     * for short-lived buffers. The memory of the buffer is returned to the
+     * pool when it is {@link #close() closed}, which means that pooled
+     * buffers <i>must</i> be closed once they are no longer needed. Use
+     * {@link #leakDetectionEnabled(boolean)} to find buffers that are never
+     * closed.
+     *
+     * @param initialCapacity Desired initial capacity, in bytes.
+     * @param maximumCapacity Desired maximum capacity, in bytes.
+     * @return Allocated pooled buffer.
+     */
+    static Buffer allocatePooled(final int initialCapacity, final int maximumCapacity) {
+        if (initialCapacity < 0 || initialCapacity > maximumCapacity) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new NettyBuffer(PooledByteBufAllocator.DEFAULT.heapBuffer(initialCapacity, maximumCapacity), true);
+    }
+
+    /**
+     * Allocates a new pooled direct buffer with given initial and maximum
+     * capacities.
+     * <p>
+     * The buffer is taken from a pool shared by all pooled buffers and will
+     * reside in memory <i>not</i> managed by the JVM. Its memory is returned
+     * to the pool when it is {@link #close() closed}, which means that pooled
+     * buffers <i>must</i> be closed once they are no longer needed. Use
+     * {@link #leakDetectionEnabled(boolean)} to find buffers that are never
+     * closed.
+     *
+     * @param initialCapacity Desired initial capacity, in bytes.
+     * @param maximumCapacity Desired maximum capacity, in bytes.
+     * @return Allocated pooled direct memory buffer.
+     */
+    static Buffer allocatePooledDirect(final int initialCapacity, final int maximumCapacity) {
+        if (initialCapacity < 0 || initialCapacity > maximumCapacity) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new NettyBuffer(PooledByteBufAllocator.DEFAULT.directBuffer(initialCapacity, maximumCapacity), true);
+    }
+
+    /**
+     * Determines whether or not pooled buffers allocated from now on are
+     * tracked for leaks.
+     * <p>
+     * A tracked buffer that is garbage collected without first being closed
+     * is reported via the logger of this interface, together with the stack
+     * trace of the call that allocated it. As capturing a stack trace for
+     * every allocation is costly, leak detection is disabled by default.
+     *
+     * @param isEnabled {@code true} only if leak detection is to be enabled.
+     */
+    static void leakDetectionEnabled(final boolean isEnabled) {
+        BufferLeakDetector.isEnabled(isEnabled);
+    }
+
+    /**
+     * Determines whether or not pooled buffers are currently being tracked
+     * for leaks.
+     *
+     * @return {@code true} only if leak detection is enabled.
+     * @see #leakDetectionEnabled(boolean)
+     */
+    static boolean leakDetectionEnabled() {
+        return BufferLeakDetector.isEnabled();
+    }
+
     /**
      * Gets reference to singleton buffer that always reports being empty.
      *
@@ -59,6 +136,72 @@ public interface Buffer extends BufferReader, BufferWriter {
         return EmptyBuffer.instance();
     }
 
+    /**
+     * Maps the entire file at {@code path} into memory and returns a
+     * read-only buffer containing its contents.
+     *
+     * @param path Path to file to map.
+     * @return Read-only buffer.
+     * @throws IOException If the file cannot be opened, is larger than
+     *                     {@link Integer#MAX_VALUE} bytes, or cannot be
+     *                     mapped.
+     * @see #map(Path, long, int)
+     */
+    static Buffer map(final Path path) throws IOException {
+        Objects.requireNonNull(path, "path");
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final var size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to be mapped into " +
+                    "buffer; " + path + " is " + size + " bytes");
+            }
+            return new NettyBuffer(Unpooled.wrappedBuffer(channel.map(FileChannel.MapMode.READ_ONLY, 0, size)));
+        }
+    }
+
+    /**
+     * Maps {@code length} bytes of the file at {@code path}, starting at
+     * {@code offset}, into memory and returns a read-only buffer containing
+     * those bytes.
+     * <p>
+     * The contents of the buffer are read by the operating system from the
+     * file, or from its page cache, as they are accessed, which means that
+     * large files can be read without first being copied into memory managed
+     * by the JVM. Any attempt to write to the returned buffer causes an
+     * exception to be thrown. The mapping remains valid until the buffer has
+     * been closed and garbage collected, even if the file is deleted.
+     * Modifications made to the file while it is mapped may or may not be
+     * visible via the buffer.
+     * <p>
+     * <b>The file must not be truncated while it is mapped.</b> Reading
+     * mapped bytes that no longer exist in the file causes the JVM to
+     * receive a bus error signal, which is reported as an {@link
+     * InternalError} or may crash the JVM.
+     *
+     * @param path   Path to file to map.
+     * @param offset Position in file from which mapping is to start.
+     * @param length Number of bytes from {@code offset} to map.
+     * @return Read-only buffer.
+     * @throws IndexOutOfBoundsException If {@code offset} or {@code length}
+     *                                   is negative, or if the specified
+     *                                   range extends beyond the end of the
+     *                                   file.
+     * @throws IOException               If the file cannot be opened or
+     *                                   mapped.
+     */
+    static Buffer map(final Path path, final long offset, final int length) throws IOException {
+        Objects.requireNonNull(path, "path");
+        if (offset < 0 || length < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (offset + length > channel.size()) {
+                throw new IndexOutOfBoundsException();
+            }
+            return new NettyBuffer(Unpooled.wrappedBuffer(channel.map(FileChannel.MapMode.READ_ONLY, offset, length)));
+        }
+    }
+
     /**
      * Wraps given {@link ByteBuffer} into a {@link Buffer}.
      *
@@ -146,7 +289,12 @@ public interface Buffer extends BufferReader, BufferWriter {
      * Creates a new buffer being a dupe of this buffer.
      * <p>
      * The dupe has its own internal read and write offsets, but shares memory
-     * with this buffer.
+     * with this buffer. If this buffer is {@link #allocatePooled(int, int)
+     * pooled}, the dupe must be closed separately, and the shared memory is
+     * only returned to the pool after both buffers have been closed. Dupes of
+     * other buffers do not own the shared memory, which means that closing
+     * such a dupe only prevents it from being used, while closing this
+     * buffer also makes the memory of the dupe unavailable.
      *
      * @return New dupe buffer.
      */
@@ -0,0 +1,82 @@
+package se.arkalix.io.buf;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Utilities for managing {@link MappedByteBuffer MappedByteBuffers}, such as
+ * those used to implement {@link Buffer#map(java.nio.file.Path) mapped
+ * buffers}.
+ */
+public final class MappedByteBuffers {
+    private static final Logger logger = LoggerFactory.getLogger(MappedByteBuffers.class);
+
+    private static final Object unsafe;
+    private static final Method invokeCleaner;
+
+    static {
+        Object unsafe0 = null;
+        Method invokeCleaner0 = null;
+        try {
+            final var unsafeClass = Class.forName("sun.misc.Unsafe");
+            final var theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe0 = theUnsafe.get(null);
+            invokeCleaner0 = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        }
+        catch (final Throwable throwable) {
+            logger.warn("Mapped byte buffers cannot be unmapped explicitly; " +
+                "their memory is released only when garbage collected", throwable);
+        }
+        unsafe = unsafe0;
+        invokeCleaner = invokeCleaner0;
+    }
+
+    private MappedByteBuffers() {}
+
+    /**
+     * Determines whether or not mapped byte buffers can be unmapped
+     * explicitly on the current platform.
+     *
+     * @return {@code true} only if {@link #unmap(MappedByteBuffer)} is able
+     * to release mappings before they are garbage collected.
+     */
+    public static boolean isUnmapSupported() {
+        return invokeCleaner != null;
+    }
+
+    /**
+     * Releases the memory mapping of given {@code buffer} without waiting for
+     * it to be garbage collected.
+     * <p>
+     * This is useful when mapping many files, or when mapped files are to be
+     * deleted, as some platforms do not allow mapped files to be deleted. If
+     * explicit unmapping is not supported by the current platform, or if
+     * {@code buffer} is {@code null}, this method does nothing.
+     * <p>
+     * <b>Neither {@code buffer} nor any of its duplicates or slices may be
+     * used after this method returns</b>, as any access to its memory could
+     * crash the JVM. Note that {@code buffer} may not itself be a duplicate
+     * or a slice of another buffer.
+     *
+     * @param buffer Buffer to unmap.
+     * @return {@code true} only if {@code buffer} was unmapped.
+     */
+    public static boolean unmap(final MappedByteBuffer buffer) {
+        if (buffer == null || invokeCleaner == null) {
+            return false;
+        }
+        try {
+            invokeCleaner.invoke(unsafe, buffer);
+            return true;
+        }
+        catch (final ReflectiveOperationException exception) {
+            logger.warn("Failed to unmap mapped byte buffer", exception);
+            return false;
+        }
+    }
+}
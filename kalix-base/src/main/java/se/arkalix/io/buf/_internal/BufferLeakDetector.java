@@ -0,0 +1,103 @@
+package se.arkalix.io.buf._internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.arkalix.io.buf.Buffer;
+import se.arkalix.util.annotation.Internal;
+
+import java.lang.ref.Cleaner;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Reports buffers that are garbage collected without first being closed.
+ * <p>
+ * Tracking is disabled by default, as every tracked buffer causes an extra
+ * stack trace to be captured when allocated. When enabled, each leaked buffer
+ * is logged together with the stack trace of the call that allocated it.
+ */
+@Internal
+public final class BufferLeakDetector {
+    private static final Logger logger = LoggerFactory.getLogger(Buffer.class);
+
+    private static final Consumer<Throwable> defaultReporter = allocation ->
+        logger.error("Buffer garbage collected without first being " +
+            "closed; its memory is likely to have been leaked", allocation);
+
+    private static volatile boolean isEnabled = false;
+    private static volatile Consumer<Throwable> reporter = defaultReporter;
+
+    private BufferLeakDetector() {}
+
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    public static void isEnabled(final boolean isEnabled) {
+        BufferLeakDetector.isEnabled = isEnabled;
+    }
+
+    /**
+     * Starts tracking given {@code buffer}, if leak detection is enabled.
+     *
+     * @param buffer Buffer to track.
+     * @return Tracker to close when {@code buffer} is closed, or {@code null}
+     * if leak detection is disabled.
+     */
+    // Replaces the logging of leaks, which is useful when testing. A null
+    // reporter restores the default one.
+    static void reporter(final Consumer<Throwable> reporter) {
+        BufferLeakDetector.reporter = reporter != null ? reporter : defaultReporter;
+    }
+
+    public static Tracker track(final Buffer buffer) {
+        Objects.requireNonNull(buffer, "buffer");
+        if (!isEnabled) {
+            return null;
+        }
+        final var state = new State(new Allocation(buffer.getClass().getSimpleName()));
+        return new Tracker(state, CleanerHolder.cleaner.register(buffer, state));
+    }
+
+    public static final class Tracker {
+        private final State state;
+        private final Cleaner.Cleanable cleanable;
+
+        private Tracker(final State state, final Cleaner.Cleanable cleanable) {
+            this.state = state;
+            this.cleanable = cleanable;
+        }
+
+        public void close() {
+            state.isClosed = true;
+            cleanable.clean();
+        }
+    }
+
+    private static final class State implements Runnable {
+        private final Allocation allocation;
+
+        private volatile boolean isClosed = false;
+
+        private State(final Allocation allocation) {
+            this.allocation = allocation;
+        }
+
+        @Override
+        public void run() {
+            if (!isClosed) {
+                reporter.accept(allocation);
+            }
+        }
+    }
+
+    private static final class Allocation extends Throwable {
+        private Allocation(final String bufferType) {
+            super(bufferType + " allocated at", null, false, true);
+        }
+    }
+
+    private static final class CleanerHolder {
+        private static final Cleaner cleaner = Cleaner.create();
+    }
+}
@@ -17,6 +17,9 @@ public abstract class CheckedBuffer implements Buffer {
 
     @Override
     public void close() {
+        if (isClosed) {
+            return;
+        }
         isClosed = true;
         onClose();
     }
@@ -53,6 +56,28 @@ public abstract class CheckedBuffer implements Buffer {
 
     protected abstract void onClose();
 
+    /**
+     * Validates that {@code length} bytes starting at {@code offset} can be
+     * read from this buffer and creates a view of those bytes, which can be
+     * read without any further checks being performed.
+     *
+     * @param offset Offset of first byte to include in view.
+     * @param length Number of bytes to include in view.
+     * @return New view.
+     * @see UncheckedBufferView
+     */
+    public UncheckedBufferView view(final int offset, final int length) {
+        checkIfOpen();
+        checkReadRange(offset, length);
+        return viewUnchecked(offset, length);
+    }
+
+    // Creates a view that reads via the checked accessors of this buffer.
+    // Subclasses able to share their memory with views should override it.
+    protected UncheckedBufferView viewUnchecked(final int offset, final int length) {
+        return new UncheckedBufferView(this, offset, length);
+    }
+
     @Override
     public BufferReader asReader() {
         checkIfOpen();
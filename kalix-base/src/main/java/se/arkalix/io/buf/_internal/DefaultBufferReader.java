@@ -15,6 +15,10 @@ public class DefaultBufferReader implements BufferReader {
         this.inner = Objects.requireNonNull(inner, "inner");
     }
 
+    BufferReader inner() {
+        return inner;
+    }
+
     @Override
     public ByteBuffer asByteBuffer() {
         return inner.asByteBuffer()
@@ -14,9 +14,27 @@ import java.util.Objects;
 @Internal
 public class NettyBuffer extends CheckedBuffer {
     private final ByteBuf buf;
+    private final boolean isPooled;
+    private final boolean isOwner;
+    private final BufferLeakDetector.Tracker tracker;
 
     public NettyBuffer(final ByteBuf buf) {
+        this(buf, false);
+    }
+
+    public NettyBuffer(final ByteBuf buf, final boolean isPooled) {
+        this(buf, isPooled, true);
+    }
+
+    private NettyBuffer(final ByteBuf buf, final boolean isPooled, final boolean isOwner) {
         this.buf = Objects.requireNonNull(buf, "buf");
+        this.isPooled = isPooled;
+        this.isOwner = isOwner;
+        this.tracker = isPooled ? BufferLeakDetector.track(this) : null;
+    }
+
+    public ByteBuf byteBuf() {
+        return buf;
     }
 
     @Override
@@ -31,7 +49,22 @@ public class NettyBuffer extends CheckedBuffer {
 
     @Override
     protected Buffer dupeUnchecked() {
-        return new NettyBuffer(buf.slice());
+        // Only pooled dupes hold their own reference to the shared memory, as
+        // pooled memory must not be returned while any dupe is still in use.
+        // Other dupes leave the reference count of this buffer untouched.
+        return isPooled
+            ? new NettyBuffer(buf.retainedSlice(), true, true)
+            : new NettyBuffer(buf.slice(), false, false);
+    }
+
+    @Override
+    protected UncheckedBufferView viewUnchecked(final int offset, final int length) {
+        // Buffers consisting of several components would have to be copied
+        // into a single ByteBuffer, which is avoided.
+        if (buf.nioBufferCount() != 1) {
+            return super.viewUnchecked(offset, length);
+        }
+        return new UncheckedBufferView(buf.nioBuffer(offset, length), offset);
     }
 
     @Override
@@ -166,7 +199,12 @@ public class NettyBuffer extends CheckedBuffer {
 
     @Override
     protected void onClose() {
-        buf.release();
+        if (isOwner) {
+            buf.release();
+        }
+        if (tracker != null) {
+            tracker.close();
+        }
     }
 
     @Override
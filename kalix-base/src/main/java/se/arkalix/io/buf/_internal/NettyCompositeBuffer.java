@@ -0,0 +1,94 @@
+package se.arkalix.io.buf._internal;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import se.arkalix.util.annotation.Internal;
+
+import java.util.Objects;
+
+/**
+ * A buffer consisting of a sequence of separately allocated chunks.
+ * <p>
+ * Whenever more room is needed, a new chunk of at least a fixed size is
+ * appended, which means that no memory is ever reallocated or copied as the
+ * buffer grows. When written to a Netty channel, the chunks are sent using
+ * gathering writes.
+ */
+@Internal
+public class NettyCompositeBuffer extends NettyBuffer {
+    private final CompositeByteBuf buf;
+    private final ByteBufAllocator allocator;
+    private final int chunkSize;
+    private final int maxCapacity;
+
+    public NettyCompositeBuffer(final ByteBufAllocator allocator, final int chunkSize) {
+        this(allocator, chunkSize, 0);
+    }
+
+    public NettyCompositeBuffer(final ByteBufAllocator allocator, final int chunkSize, final int initialCapacity) {
+        this(allocator, chunkSize, initialCapacity, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates new composite buffer.
+     *
+     * @param allocator       Allocator to use for allocating chunks.
+     * @param chunkSize       Minimum size of each allocated chunk, in bytes.
+     * @param initialCapacity Size of first chunk, if larger than {@code
+     *                        chunkSize}. Should be set to the number of bytes
+     *                        expected to be written, if known.
+     * @param maxCapacity     Maximum number of bytes that may be written to
+     *                        the buffer. The last allocated chunk is made
+     *                        smaller than {@code chunkSize} if required for
+     *                        this limit not to be exceeded.
+     */
+    public NettyCompositeBuffer(
+        final ByteBufAllocator allocator,
+        final int chunkSize,
+        final int initialCapacity,
+        final int maxCapacity)
+    {
+        this(Objects.requireNonNull(allocator, "allocator").compositeBuffer(Integer.MAX_VALUE), allocator,
+            chunkSize, maxCapacity);
+        if (initialCapacity > 0) {
+            writeEndUnchecked(Math.min(initialCapacity, maxCapacity));
+        }
+    }
+
+    private NettyCompositeBuffer(
+        final CompositeByteBuf buf,
+        final ByteBufAllocator allocator,
+        final int chunkSize,
+        final int maxCapacity)
+    {
+        super(buf);
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize <= 0");
+        }
+        if (maxCapacity < 0 || maxCapacity > buf.maxCapacity()) {
+            throw new IllegalArgumentException("maxCapacity < 0 || maxCapacity > " + buf.maxCapacity());
+        }
+        this.buf = buf;
+        this.allocator = allocator;
+        this.chunkSize = chunkSize;
+        this.maxCapacity = maxCapacity;
+    }
+
+    @Override
+    public int writeEndMax() {
+        return maxCapacity;
+    }
+
+    @Override
+    protected void writeEndUnchecked(final int writeEnd) {
+        final var capacity = buf.capacity();
+        if (writeEnd <= capacity) {
+            buf.capacity(writeEnd);
+            return;
+        }
+        final var chunkLength = Math.min(Math.max(chunkSize, writeEnd - capacity), maxCapacity - capacity);
+        final var chunk = allocator.buffer(chunkLength, chunkLength);
+        chunk.writerIndex(chunkLength);
+        buf.addComponent(false, chunk);
+    }
+}
@@ -0,0 +1,157 @@
+package se.arkalix.io.buf._internal;
+
+import se.arkalix.io.buf.BufferIsClosed;
+import se.arkalix.io.buf.BufferReader;
+import se.arkalix.util._internal.BinaryMath;
+import se.arkalix.util.annotation.Internal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Objects;
+
+/**
+ * A read-only view of a range of bytes in some {@link BufferReader}, which
+ * was validated once when the view was created.
+ * <p>
+ * If the memory of the viewed reader can be shared with the view, the
+ * methods of this class perform no closed-state or range checks beyond those
+ * the JVM always performs when accessing memory, which makes them suitable
+ * for codecs reading one byte at a time. Otherwise, rather than copying the
+ * viewed range, the view reads via the regular accessors of the reader,
+ * which means that the checks of the reader are performed just as if the
+ * view had not been used. Offsets are the same as those of the buffer the
+ * view was created from. A view must not be used after the buffer it was
+ * created from has been closed.
+ */
+@Internal
+public final class UncheckedBufferView {
+    private final ByteBuffer bytes;
+    private final BufferReader reader;
+    private final int offset;
+    private final int end;
+
+    UncheckedBufferView(final ByteBuffer bytes, final int offset) {
+        this.bytes = Objects.requireNonNull(bytes, "bytes").slice().order(ByteOrder.BIG_ENDIAN);
+        this.reader = null;
+        this.offset = offset;
+        this.end = offset + this.bytes.remaining();
+    }
+
+    UncheckedBufferView(final BufferReader reader, final int offset, final int length) {
+        this.bytes = null;
+        this.reader = Objects.requireNonNull(reader, "reader");
+        this.offset = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * Validates that {@code length} bytes starting at {@code offset} can be
+     * read from {@code reader} and creates a view of those bytes.
+     * <p>
+     * Whenever possible, the view shares memory with {@code reader}. If not
+     * possible, the view reads via the checked accessors of {@code reader}.
+     *
+     * @param reader Reader to create view of.
+     * @param offset Offset of first byte in {@code reader} to include.
+     * @param length Number of bytes to include.
+     * @return New view.
+     * @throws BufferIsClosed            If {@code reader} is closed.
+     * @throws IndexOutOfBoundsException If the specified range is outside
+     *                                   the readable region of {@code
+     *                                   reader}.
+     */
+    public static UncheckedBufferView of(final BufferReader reader, final int offset, final int length) {
+        Objects.requireNonNull(reader, "reader");
+        var reader0 = reader;
+        if (reader0 instanceof DefaultBufferReader) {
+            reader0 = ((DefaultBufferReader) reader0).inner();
+        }
+        if (reader0 instanceof CheckedBuffer) {
+            return ((CheckedBuffer) reader0).view(offset, length);
+        }
+        if (reader0.isClosed()) {
+            throw new BufferIsClosed();
+        }
+        if (BinaryMath.isRangeOutOfBounds(offset, length, reader0.readEnd())) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new UncheckedBufferView(reader0, offset, length);
+    }
+
+    /**
+     * Creates a view of all bytes that can currently be read from
+     * {@code reader}.
+     *
+     * @param reader Reader to create view of.
+     * @return New view.
+     * @throws BufferIsClosed If {@code reader} is closed.
+     */
+    public static UncheckedBufferView ofReadable(final BufferReader reader) {
+        Objects.requireNonNull(reader, "reader");
+        return of(reader, reader.readOffset(), reader.readableBytes());
+    }
+
+    /**
+     * @return Offset of first byte in view.
+     */
+    public int offset() {
+        return offset;
+    }
+
+    /**
+     * @return Offset right after last byte in view.
+     */
+    public int end() {
+        return end;
+    }
+
+    /**
+     * @return {@code true} only if this view shares memory with the viewed
+     * reader, which means that no checks are performed when it is read.
+     */
+    public boolean isUnchecked() {
+        return bytes != null;
+    }
+
+    public void getAt(final int offset, final byte[] destination, final int destinationOffset, final int length) {
+        if (bytes == null) {
+            reader.getAt(offset, destination, destinationOffset, length);
+            return;
+        }
+        bytes.duplicate()
+            .position(offset - this.offset)
+            .get(destination, destinationOffset, length);
+    }
+
+    public byte getS8At(final int offset) {
+        return bytes != null ? bytes.get(offset - this.offset) : reader.getS8At(offset);
+    }
+
+    public int getU8At(final int offset) {
+        return Byte.toUnsignedInt(getS8At(offset));
+    }
+
+    public short getS16BeAt(final int offset) {
+        return bytes != null ? bytes.getShort(offset - this.offset) : reader.getS16BeAt(offset);
+    }
+
+    public short getS16LeAt(final int offset) {
+        return bytes != null ? Short.reverseBytes(bytes.getShort(offset - this.offset)) : reader.getS16LeAt(offset);
+    }
+
+    public int getS32BeAt(final int offset) {
+        return bytes != null ? bytes.getInt(offset - this.offset) : reader.getS32BeAt(offset);
+    }
+
+    public int getS32LeAt(final int offset) {
+        return bytes != null ? Integer.reverseBytes(bytes.getInt(offset - this.offset)) : reader.getS32LeAt(offset);
+    }
+
+    public long getS64BeAt(final int offset) {
+        return bytes != null ? bytes.getLong(offset - this.offset) : reader.getS64BeAt(offset);
+    }
+
+    public long getS64LeAt(final int offset) {
+        return bytes != null ? Long.reverseBytes(bytes.getLong(offset - this.offset)) : reader.getS64LeAt(offset);
+    }
+}
@@ -6,7 +6,7 @@ import io.netty.channel.DefaultFileRegion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import se.arkalix.codec.CodecType;
-import se.arkalix.io.buf._internal.NettyBuffer;
+import se.arkalix.io.buf._internal.NettyCompositeBuffer;
 import se.arkalix.net.BodyOutgoing;
 
 import java.io.IOException;
@@ -17,6 +17,8 @@ import java.util.Optional;
 public class NettyBodyOutgoing {
     private static final Logger logger = LoggerFactory.getLogger(BodyOutgoing.class);
 
+    private static final int ENCODE_CHUNK_SIZE = 8192;
+
     private final CodecType codecType;
     private final long length;
     private final Object content;
@@ -35,11 +37,16 @@ public class NettyBodyOutgoing {
         }
         else if (body.asEncodable().isPresent()) {
             final var encodable = body.asEncodable().get();
-            final var buffer = allocator.buffer();
-            final var bufferWriter = new NettyBuffer(buffer);
-            codecType = encodable.encode(bufferWriter);
+            final var buffer = new NettyCompositeBuffer(allocator, ENCODE_CHUNK_SIZE, encodable.sizeHint());
+            try {
+                codecType = encodable.encode(buffer);
+            }
+            catch (final Throwable throwable) {
+                buffer.close();
+                throw throwable;
+            }
             length = buffer.readableBytes();
-            content = buffer;
+            content = buffer.byteBuf();
         }
         else if (body.asPath().isPresent()) {
             final var path = body.asPath().get();
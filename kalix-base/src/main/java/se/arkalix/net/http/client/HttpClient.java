@@ -1,6 +1,7 @@
 package se.arkalix.net.http.client;
 
 import se.arkalix.ArSystem;
+import se.arkalix.net.http.HttpOutgoingRequestException;
 import se.arkalix.net.http.client._internal.NettyHttpClient;
 import se.arkalix.net.http.consumer._internal.DefaultHttpConsumer;
 import se.arkalix.security.identity.OwnedIdentity;
@@ -11,8 +12,11 @@ import se.arkalix.util.concurrent.Future;
 import java.net.InetSocketAddress;
 import java.security.PrivateKey;
 import java.security.cert.Certificate;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Client useful for sending HTTP messages via TCP connections to arbitrary
@@ -133,6 +137,9 @@ public interface HttpClient {
      * Connects to remote host at {@code remoteSocketAddress}, sends
      * {@code request}, closes connection and then completes the returned
      * {@code Future} with the result.
+     * <p>
+     * If the request has a {@link HttpClientRequest#deadline(Instant)
+     * deadline}, it also applies to establishing the connection.
      *
      * @param remoteSocketAddress Remote socket address.
      * @param request             Request to send.
@@ -145,7 +152,18 @@ public interface HttpClient {
         final HttpClientRequest request
     ) {
         Objects.requireNonNull(request, "request");
+        final var deadline = request.deadline().orElse(null);
+        if (deadline == null) {
+            return connect(remoteSocketAddress, localSocketAddress().orElse(null))
+                .flatMap(connection -> connection.sendAndClose(request));
+        }
+        if (!deadline.isAfter(Instant.now())) {
+            return Future.failure(new HttpOutgoingRequestException(request, "Deadline exceeded; request not sent"));
+        }
         return connect(remoteSocketAddress, localSocketAddress().orElse(null))
+            .timeout(Duration.between(Instant.now(), deadline))
+            .mapFault(TimeoutException.class, fault ->
+                new HttpOutgoingRequestException(request, "Deadline exceeded; no connection established"))
             .flatMap(connection -> connection.sendAndClose(request));
     }
 
@@ -8,6 +8,7 @@ import se.arkalix.net.http.HttpVersion;
 import se.arkalix.net.http._internal.DefaultHttpOutgoing;
 import se.arkalix.net.http._internal.NettyHttpHeaders;
 
+import java.time.Instant;
 import java.util.*;
 
 /**
@@ -23,6 +24,7 @@ public class HttpClientRequest
     private HttpMethod method = null;
     private String path = null;
     private HttpVersion version = null;
+    private Instant deadline = null;
 
     @Override
     public Optional<HttpMethod> method() {
@@ -73,6 +75,38 @@ public class HttpClientRequest
         return this;
     }
 
+    /**
+     * @return Instant, if any, after which the response to this request is
+     * no longer of any use.
+     */
+    public Optional<Instant> deadline() {
+        return Optional.ofNullable(deadline);
+    }
+
+    /**
+     * Sets instant after which the response to this request is no longer of
+     * any use.
+     * <p>
+     * If the deadline has passed when the request is about to be sent, the
+     * request is never sent. If the deadline passes before a response is
+     * received, the request is cancelled. As responses are received in the
+     * order their requests were sent, the response to a cancelled request is
+     * read and discarded if the response to an earlier request is still
+     * pending. Otherwise, the connection the request was sent via is closed,
+     * failing any other requests waiting for responses via it. In every
+     * case, the sending fails with an {@link
+     * se.arkalix.net.http.HttpOutgoingRequestException
+     * HttpOutgoingRequestException}.
+     *
+     * @param deadline Response deadline. Use {@code null} to wait for as
+     *                 long as the connection remains open.
+     * @return This request.
+     */
+    public HttpClientRequest deadline(final Instant deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
     @Override
     public HttpClientRequest header(final CharSequence name, final CharSequence value) {
         headers.set(name, value);
@@ -32,9 +32,12 @@ import javax.net.ssl.SSLSession;
 import java.net.InetSocketAddress;
 import java.nio.channels.ClosedChannelException;
 import java.security.cert.Certificate;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.LinkedList;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.TimeoutException;
 
 import static io.netty.handler.codec.http.HttpHeaderNames.*;
 import static se.arkalix.net.http._internal.NettyHttpConverters.convert;
@@ -80,6 +83,11 @@ public class NettyHttpClientConnection
                     Throwable cause;
                     try {
                         if (future.isSuccess()) {
+                            if (futureConnection.isCancelled()) {
+                                futureConnection = null;
+                                ctx.close();
+                                return;
+                            }
                             sslSession = sslHandler.engine().getSession();
                             futureConnection.complete(Result.success(this));
                             futureConnection = null;
@@ -144,27 +152,34 @@ public class NettyHttpClientConnection
             }
             return;
         }
+        if (futureRequestResponse.isDiscarded) {
+            // The request was cancelled after being sent. Its response is
+            // read and then ignored, which leaves the connection usable by
+            // the requests sent after it.
+            return;
+        }
         incomingResponse = new NettyHttpClientResponse(ctx.alloc(), this, futureRequestResponse.request(), response);
         futureRequestResponse.complete(Result.success(incomingResponse));
     }
 
 
     private void readContent(final ChannelHandlerContext ctx, final HttpContent content) {
-        if (incomingResponse == null) {
-            return;
-        }
-        final var body = incomingResponse.body();
-        if (body.isCancelled()) {
-            return;
-        }
-        body.write(content.content());
-        if (content instanceof LastHttpContent) {
-            incomingResponse.unwrap().headers().add(((LastHttpContent) content).trailingHeaders());
-            incomingResponse = null;
-            body.close();
-            if (isClosing && requestResponseQueue.isEmpty()) {
-                ctx.close();
+        final var isLast = content instanceof LastHttpContent;
+        if (incomingResponse != null) {
+            final var body = incomingResponse.body();
+            if (!body.isCancelled()) {
+                body.write(content.content());
+                if (isLast) {
+                    incomingResponse.unwrap().headers().add(((LastHttpContent) content).trailingHeaders());
+                    body.close();
+                }
             }
+            if (isLast) {
+                incomingResponse = null;
+            }
+        }
+        if (isLast && isClosing && requestResponseQueue.isEmpty()) {
+            ctx.close();
         }
     }
 
@@ -196,6 +211,26 @@ public class NettyHttpClientConnection
         ctx.fireExceptionCaught(cause);
     }
 
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        // No responses will be received for requests still waiting for them
+        // when the connection is closed.
+        if (incomingResponse != null) {
+            final var body = incomingResponse.body();
+            if (!body.isDone()) {
+                body.abort(new HttpOutgoingRequestException(incomingResponse.request(),
+                    "Connection closed before response body was received"));
+            }
+            incomingResponse = null;
+        }
+        FutureRequestResponse pending;
+        while ((pending = requestResponseQueue.poll()) != null) {
+            pending.complete(Result.failure(new HttpOutgoingRequestException(pending.request(),
+                "Connection closed before response was received")));
+        }
+        super.channelInactive(ctx);
+    }
+
     @Override
     public void userEventTriggered(final ChannelHandlerContext ctx, final Object evt) {
         if (!(evt instanceof IdleStateEvent)) {
@@ -294,10 +329,42 @@ public class NettyHttpClientConnection
     }
 
     private Future<HttpClientResponse> send(final HttpClientRequest request, final boolean close) {
+        // The request/response queue, as well as the closing flag, are also
+        // used by the event loop of the connection when responses arrive,
+        // which is why they may only be touched by that event loop. Requests
+        // sent from other threads are therefore written by the event loop,
+        // in the order they were sent. Sending from the event loop itself,
+        // which is what all handlers of incoming messages do, is unaffected.
+        final var eventLoop = channel.eventLoop();
+        if (!eventLoop.inEventLoop()) {
+            final var completion = new FutureCompletion<HttpClientResponse>();
+            try {
+                eventLoop.execute(() -> {
+                    if (completion.isCancelled()) {
+                        return;
+                    }
+                    final var future = send(request, close);
+                    completion.setCancelCallback(future::cancel);
+                    future.onResult(completion::complete);
+                });
+            }
+            catch (final Throwable throwable) {
+                return Future.failure(throwable);
+            }
+            return completion;
+        }
         try {
             if (isClosing) {
                 throw new HttpOutgoingRequestException(request, "Client is closing; cannot send request");
             }
+            if (!channel.isActive()) {
+                throw new HttpOutgoingRequestException(request, "Connection closed; cannot send request");
+            }
+            final var deadline = request.deadline().orElse(null);
+            if (deadline != null && !deadline.isAfter(Instant.now())) {
+                throw new HttpOutgoingRequestException(request, "Deadline exceeded; request not sent");
+            }
+
             isClosing = close;
 
             final var method = request.method()
@@ -342,14 +409,51 @@ public class NettyHttpClientConnection
             channel.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
 
             final var futureRequestResponse = new FutureRequestResponse(request);
+            futureRequestResponse.setCancelCallback(ignored -> abort(futureRequestResponse));
             requestResponseQueue.add(futureRequestResponse);
-            return futureRequestResponse;
+            if (deadline == null) {
+                return futureRequestResponse;
+            }
+            return futureRequestResponse
+                .timeout(Duration.between(Instant.now(), deadline))
+                .mapFault(TimeoutException.class, fault ->
+                    new HttpOutgoingRequestException(request, "Deadline exceeded; no response received"));
         }
         catch (final Throwable throwable) {
             return Future.failure(throwable);
         }
     }
 
+    // Responses are received in the same order as their requests were sent,
+    // which means that the response to a cancelled request must still be
+    // read before the responses to any requests sent after it. If some other
+    // response must be received first anyway, the response to the cancelled
+    // request is read and discarded when it arrives. Otherwise, the remote
+    // host is the reason for the cancelled request not having been responded
+    // to, and all other requests would have to wait for it, which is why the
+    // connection is closed and those requests are failed instead.
+    private void abort(final FutureRequestResponse cancelled) {
+        final var eventLoop = channel.eventLoop();
+        if (!eventLoop.inEventLoop()) {
+            eventLoop.execute(() -> abort(cancelled));
+            return;
+        }
+        if (!requestResponseQueue.contains(cancelled)) {
+            return;
+        }
+        if (incomingResponse != null || requestResponseQueue.peek() != cancelled) {
+            cancelled.isDiscarded = true;
+            return;
+        }
+        requestResponseQueue.remove();
+        FutureRequestResponse pending;
+        while ((pending = requestResponseQueue.poll()) != null) {
+            pending.complete(Result.failure(new HttpOutgoingRequestException(pending.request(),
+                "Connection closed due to other request being cancelled")));
+        }
+        channel.close();
+    }
+
     @Override
     public Future<?> close() {
         var future = adapt(channel.close());
@@ -363,6 +467,9 @@ public class NettyHttpClientConnection
     static class FutureRequestResponse extends FutureCompletionUnsafe<HttpClientResponse> {
         private final HttpClientRequest request;
 
+        // Only accessed by the event loop of the connection.
+        private boolean isDiscarded = false;
+
         private FutureRequestResponse(final HttpClientRequest request) {
             this.request = request;
         }
@@ -6,14 +6,18 @@ import se.arkalix.ArSystem;
 import se.arkalix.ServiceRecord;
 import se.arkalix.codec.CodecType;
 import se.arkalix.net.ProtocolType;
+import se.arkalix.net.http.HttpOutgoingRequestException;
 import se.arkalix.net.http.consumer._internal.DefaultHttpConsumer;
 import se.arkalix.net.http.client.HttpClient;
 import se.arkalix.util.concurrent.Future;
 
 import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Objects;
+import java.util.concurrent.TimeoutException;
 
 import static se.arkalix.net.ProtocolType.HTTP;
 
@@ -85,6 +89,9 @@ public interface HttpConsumer extends ArConsumer {
      * Connects to remote host at {@code remoteSocketAddress}, sends
      * {@code request}, closes connection and then completes the returned
      * {@code Future} with the result.
+     * <p>
+     * If the request has a {@link HttpConsumerRequest#deadline(Instant)
+     * deadline}, it also applies to establishing the connection.
      *
      * @param request Request to send.
      * @return Future completed with the request response or an error.
@@ -93,7 +100,19 @@ public interface HttpConsumer extends ArConsumer {
      */
     default Future<HttpConsumerResponse> send(final HttpConsumerRequest request) {
         Objects.requireNonNull(request, "request");
+        final var deadline = request.deadline().orElse(null);
+        if (deadline == null) {
+            return connect()
+                .flatMap(connection -> connection.sendAndClose(request));
+        }
+        if (!deadline.isAfter(Instant.now())) {
+            return Future.failure(new HttpOutgoingRequestException(request.unwrap(),
+                "Deadline exceeded; request not sent"));
+        }
         return connect()
+            .timeout(Duration.between(Instant.now(), deadline))
+            .mapFault(TimeoutException.class, fault -> new HttpOutgoingRequestException(request.unwrap(),
+                "Deadline exceeded; no connection established"))
             .flatMap(connection -> connection.sendAndClose(request));
     }
 
@@ -14,6 +14,7 @@ import se.arkalix.util.annotation.Internal;
 
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -61,6 +62,28 @@ public class HttpConsumerRequest
         return this;
     }
 
+    /**
+     * @return Instant, if any, after which the response to this request is
+     * no longer of any use.
+     */
+    public Optional<Instant> deadline() {
+        return inner.deadline();
+    }
+
+    /**
+     * Sets instant after which the response to this request is no longer of
+     * any use.
+     *
+     * @param deadline Response deadline. Use {@code null} to wait for as
+     *                 long as the connection remains open.
+     * @return This request.
+     * @see HttpClientRequest#deadline(Instant)
+     */
+    public HttpConsumerRequest deadline(final Instant deadline) {
+        inner.deadline(deadline);
+        return this;
+    }
+
     @Override
     public HttpConsumerRequest header(final CharSequence name, final CharSequence value) {
         inner.header(name, value);
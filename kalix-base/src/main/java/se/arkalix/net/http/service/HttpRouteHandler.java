@@ -1,7 +1,9 @@
 package se.arkalix.net.http.service;
 
 import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.service._internal.HttpRouteHandlerBlocking;
 import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Schedulers;
 
 /**
  * A route handler, meant to process incoming HTTP requests matching some
@@ -28,4 +30,25 @@ public interface HttpRouteHandler {
      *                   enabled).
      */
     Future<?> handle(HttpServiceRequest request, HttpServiceResponse response) throws Exception;
+
+    /**
+     * Marks given route handler as <i>blocking</i>, meaning that it may
+     * suspend the thread executing it for significant amounts of time, such
+     * as while waiting for a JDBC call to complete.
+     * <p>
+     * Blocking handlers are executed by the {@link Schedulers#virtual()
+     * virtual scheduler} rather than by the event loop of the connection that
+     * received the handled request. When the handler completes, its result is
+     * handed back to that event loop. As the request and response objects
+     * provided to the handler are not thread-safe, the handler must not make
+     * them available to any other threads than the one executing it.
+     *
+     * @param handler Blocking route handler.
+     * @return Route handler executing {@code handler} on the virtual
+     * scheduler.
+     * @throws NullPointerException If {@code handler} is {@code null}.
+     */
+    static HttpRouteHandler blocking(final HttpRouteHandler handler) {
+        return new HttpRouteHandlerBlocking(handler);
+    }
 }
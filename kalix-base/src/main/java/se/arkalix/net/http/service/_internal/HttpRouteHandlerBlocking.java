@@ -0,0 +1,66 @@
+package se.arkalix.net.http.service._internal;
+
+import io.netty.channel.EventLoop;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.arkalix.net.http.service.HttpRouteHandler;
+import se.arkalix.net.http.service.HttpServiceRequest;
+import se.arkalix.net.http.service.HttpServiceResponse;
+import se.arkalix.util.Result;
+import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Schedulers;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
+import se.arkalix.util.concurrent._internal.NettyThread;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A route handler that executes another route handler on the {@link
+ * Schedulers#virtual() virtual scheduler}, after which its result is handed
+ * back to the event loop of the connection that received the handled request.
+ */
+@Internal
+public class HttpRouteHandlerBlocking implements HttpRouteHandler {
+    private static final Logger logger = LoggerFactory.getLogger(HttpRouteHandlerBlocking.class);
+
+    private final HttpRouteHandler handler;
+
+    public HttpRouteHandlerBlocking(final HttpRouteHandler handler) {
+        this.handler = Objects.requireNonNull(handler, "handler");
+    }
+
+    @Override
+    public Future<?> handle(final HttpServiceRequest request, final HttpServiceResponse response) {
+        final var eventLoop = NettyThread.currentThreadEventLoop().orElse(null);
+        final var completion = new FutureCompletion<Object>();
+        final var task = Schedulers.virtual()
+            .submit(() -> handler.handle(request, response))
+            .flatMap(future -> future);
+        completion.setCancelCallback(task::cancel);
+        task.onResult(result -> join(eventLoop, completion, result));
+        return completion;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void join(
+        final EventLoop eventLoop,
+        final FutureCompletion<Object> completion,
+        final Result<?> result)
+    {
+        if (eventLoop == null || eventLoop.inEventLoop()) {
+            completion.complete((Result<Object>) result);
+            return;
+        }
+        try {
+            eventLoop.execute(() -> completion.complete((Result<Object>) result));
+        }
+        catch (final Throwable throwable) {
+            if (throwable instanceof RejectedExecutionException && eventLoop.isShuttingDown()) {
+                return;
+            }
+            logger.error("Failed to hand blocking route result back to event loop", throwable);
+        }
+    }
+}
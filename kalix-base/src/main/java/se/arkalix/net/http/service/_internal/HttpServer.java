@@ -2,6 +2,7 @@ package se.arkalix.net.http.service._internal;
 
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.handler.logging.LoggingHandler;
 import io.netty.handler.ssl.ClientAuth;
 import io.netty.handler.ssl.SslContext;
@@ -17,8 +18,10 @@ import se.arkalix.net.http.service.HttpService;
 import se.arkalix.util.Result;
 import se.arkalix.util.annotation.Internal;
 import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Futures;
 import se.arkalix.util.concurrent.Schedulers;
 
+import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -37,7 +40,7 @@ public class HttpServer implements ArServer {
     private final PluginNotifier pluginNotifier;
     private final ArSystem system;
 
-    private Channel channel;
+    private List<Channel> channels;
 
     private HttpServer(final ArSystem system, final PluginNotifier pluginNotifier) {
         this.pluginNotifier = Objects.requireNonNull(pluginNotifier, "pluginNotifier");
@@ -60,14 +63,49 @@ public class HttpServer implements ArServer {
 
             final var scheduler = (NettyScheduler) Schedulers.fixed();
             final var bootstrap = new ServerBootstrap()
-                .group(scheduler.eventLoopGroup())
+                .group(scheduler.acceptorEventLoopGroup(), scheduler.eventLoopGroup())
                 .channel(scheduler.serverSocketChannelClass())
                 .handler(new LoggingHandler())
                 .childHandler(new NettyHttpServiceConnectionInitializer(system, server::getServiceByPath, sslContext));
 
+            if (!scheduler.isReusePort() || scheduler.acceptorCount() < 2) {
+                return adapt(bootstrap.bind(system.address(), system.port()))
+                    .map(channel -> {
+                        server.channels = List.of(channel);
+                        return server;
+                    });
+            }
+
+            // Each bound socket is registered with its own acceptor event
+            // loop, letting the kernel spread incoming connections over all
+            // of them. The first socket determines what port the rest are
+            // bound to, which matters if an ephemeral port was requested.
+            bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
             return adapt(bootstrap.bind(system.address(), system.port()))
-                .map(channel -> {
-                    server.channel = channel;
+                .flatMap(channel -> {
+                    final var port = ((InetSocketAddress) channel.localAddress()).getPort();
+                    final var bound = Collections.synchronizedList(new ArrayList<Channel>());
+                    final var futures = new ArrayList<Future<Channel>>(scheduler.acceptorCount());
+                    bound.add(channel);
+                    futures.add(Future.success(channel));
+                    for (var i = 1; i < scheduler.acceptorCount(); ++i) {
+                        final var channelFuture = bootstrap.bind(system.address(), port);
+                        channelFuture.addListener(future -> {
+                            if (future.isSuccess()) {
+                                bound.add(channelFuture.channel());
+                            }
+                        });
+                        futures.add(adapt(channelFuture));
+                    }
+                    return Futures.all(futures)
+                        .ifFailure(Throwable.class, fault -> {
+                            synchronized (bound) {
+                                bound.forEach(Channel::close);
+                            }
+                        });
+                })
+                .map(channels -> {
+                    server.channels = channels;
                     return server;
                 });
         }
@@ -182,7 +220,7 @@ public class HttpServer implements ArServer {
             handle.dismiss();
         }
         handles.clear();
-        return adapt(channel.close());
+        return Futures.all(channels.stream().map(channel -> adapt(channel.close())));
     }
 
     private class ServiceHandle implements ArServiceHandle {
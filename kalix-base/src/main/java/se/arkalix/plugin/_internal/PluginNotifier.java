@@ -9,15 +9,18 @@ import se.arkalix.plugin.Plugin;
 import se.arkalix.plugin.PluginAttached;
 import se.arkalix.plugin.PluginFacade;
 import se.arkalix.query.ServiceQuery;
+import se.arkalix.query.ServiceQueryResolution;
 import se.arkalix.util.annotation.Internal;
 import se.arkalix.util.annotation.ThreadSafe;
 import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.FutureAnnouncement;
 import se.arkalix.util.concurrent.Futures;
 import se.arkalix.util.function.ThrowingFunction;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
@@ -27,47 +30,64 @@ public class PluginNotifier {
 
     private final ArSystem system;
     private final Collection<Plugin> plugins;
+    private final ServiceQueryResolution serviceQueryResolution;
 
-    private List<PluginHandler> handlers;
+    // Handlers are kept in attachment order, which means that every handler
+    // is preceded by its prerequisites, no matter in what order plugins
+    // finish being attached. Insertions are synchronized on the list.
+    private final List<PluginHandler> handlers = new CopyOnWriteArrayList<>();
 
     public PluginNotifier(final ArSystem system, final Collection<Plugin> plugins) {
+        this(system, plugins, ServiceQueryResolution.sequential());
+    }
+
+    public PluginNotifier(
+        final ArSystem system,
+        final Collection<Plugin> plugins,
+        final ServiceQueryResolution serviceQueryResolution)
+    {
         this.system = Objects.requireNonNull(system, "system");
         this.plugins = Objects.requireNonNull(plugins, "plugins");
+        this.serviceQueryResolution = Objects.requireNonNull(serviceQueryResolution, "serviceQueryResolution");
     }
 
+    /**
+     * Attaches all plugins, including any dependencies not explicitly
+     * provided.
+     * <p>
+     * Each plugin is attached as soon as its <i>prerequisites</i> have been
+     * attached, which are (1) its dependencies and (2) all plugins with lower
+     * ordinals, unless they depend on the plugin in question. Plugins without
+     * any prerequisites in common, such as plugins with the same ordinal and
+     * no dependencies on each other, are attached concurrently.
+     *
+     * @return Future completed with the facades of all attached plugins.
+     */
     public Future<Map<Class<? extends Plugin>, PluginFacade>> onAttach() {
-        final var handlers = new ArrayList<PluginHandler>();
-
-        this.handlers = Collections.unmodifiableList(handlers);
-
-        return Futures.serialize(plugins.stream()
-            .sorted((a, b) -> {
-                final var bClass = b.getClass();
-                final var aClass = a.getClass();
-
-                final var aLast = a.dependencies().contains(bClass);
-                final var bLast = b.dependencies().contains(aClass);
+        final var plugins = sortInAttachmentOrder(resolveDependencies());
+        final var announcements = new ArrayList<FutureAnnouncement<PluginHandler>>(plugins.size());
+        final var futures = new ArrayList<Future<PluginHandler>>(plugins.size());
 
-                if (aLast) {
-                    if (bLast) {
-                        throw new IllegalStateException(aClass + " and " +
-                            bClass + " both depend on each other; cannot " +
-                            "determine plugin attachment order; cannot " +
-                            "attach plugins to system \"" + system.name() +
-                            "\"");
-                    }
-                    return 1;
-                }
-                else if (bLast) {
-                    return -1;
+        for (var i = 0; i < plugins.size(); ++i) {
+            final var plugin = plugins.get(i);
+            final var prerequisites = new ArrayList<Future<PluginHandler>>();
+            for (var j = 0; j < i; ++j) {
+                final var other = plugins.get(j);
+                if (other.ordinal() < plugin.ordinal() || dependsOn(plugin, other)) {
+                    prerequisites.add(announcements.get(j).subscribe());
                 }
+            }
+            final var order = i;
+            final var announcement = Futures.all(prerequisites)
+                .flatMap(prerequisites0 -> attach(plugin, order, prerequisites0))
+                .toAnnouncement();
+            announcements.add(announcement);
+            futures.add(announcement.subscribe());
+        }
 
-                return a.ordinal() - b.ordinal();
-            })
-            .map(plugin -> attach(plugin, handlers)))
+        return Futures.all(futures)
             .map(ignored -> {
                 final var pluginClassToFacade = new HashMap<Class<? extends Plugin>, PluginFacade>();
-                handlers.trimToSize();
                 for (final var handler : handlers) {
                     handler.attached()
                         .facade()
@@ -89,26 +109,113 @@ public class PluginNotifier {
             });
     }
 
-    private Future<PluginHandler> attach(final Plugin plugin, final List<PluginHandler> handlers) {
-        return Futures.serialize(plugin.dependencies()
-            .stream()
-            .map(dependencyClass -> handlers.stream()
-                .filter(handler -> dependencyClass.isAssignableFrom(handler.plugin().getClass()))
-                .map(Future::success)
-                .findAny()
-                .orElseGet(() -> load(dependencyClass, handlers))))
-            .flatMap(handlers0 -> {
-                final var dependencies = new HashMap<Class<? extends Plugin>, PluginFacade>();
-                for (final var handler : handlers0) {
-                    handler.attached()
-                        .facade()
-                        .ifPresent(facade -> dependencies.put(handler.plugin().getClass(), facade));
+    private static boolean dependsOn(final Plugin plugin, final Plugin other) {
+        for (final var dependencyClass : plugin.dependencies()) {
+            if (dependencyClass.isAssignableFrom(other.getClass())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<Plugin> resolveDependencies() {
+        final var plugins = new ArrayList<>(this.plugins);
+        for (var i = 0; i < plugins.size(); ++i) {
+            for (final var dependencyClass : plugins.get(i).dependencies()) {
+                final var isProvided = plugins.stream()
+                    .anyMatch(plugin -> dependencyClass.isAssignableFrom(plugin.getClass()));
+                if (!isProvided) {
+                    plugins.add(load(dependencyClass));
                 }
-                return plugin.attachTo(system, dependencies);
-            })
+            }
+        }
+        return plugins;
+    }
+
+    // Sorts plugins topologically by their dependencies, preferring plugins
+    // with lower ordinals, and then plugins provided earlier, whenever more
+    // than one plugin could be next.
+    private List<Plugin> sortInAttachmentOrder(final List<Plugin> plugins) {
+        final var size = plugins.size();
+        final var dependents = new ArrayList<List<Integer>>(size);
+        final var dependencyCounts = new int[size];
+        for (var i = 0; i < size; ++i) {
+            dependents.add(new ArrayList<>());
+        }
+        for (var i = 0; i < size; ++i) {
+            for (var j = 0; j < size; ++j) {
+                if (i != j && dependsOn(plugins.get(i), plugins.get(j))) {
+                    dependents.get(j).add(i);
+                    dependencyCounts[i] += 1;
+                }
+            }
+        }
+
+        final var ready = new PriorityQueue<Integer>(Comparator
+            .comparingInt((Integer index) -> plugins.get(index).ordinal())
+            .thenComparingInt(index -> index));
+        for (var i = 0; i < size; ++i) {
+            if (dependencyCounts[i] == 0) {
+                ready.add(i);
+            }
+        }
+
+        final var sorted = new ArrayList<Plugin>(size);
+        while (!ready.isEmpty()) {
+            final int index = ready.poll();
+            sorted.add(plugins.get(index));
+            for (final var dependent : dependents.get(index)) {
+                if (--dependencyCounts[dependent] == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (sorted.size() < size) {
+            final var cyclic = new ArrayList<Class<?>>();
+            for (var i = 0; i < size; ++i) {
+                if (dependencyCounts[i] > 0) {
+                    cyclic.add(plugins.get(i).getClass());
+                }
+            }
+            throw new IllegalStateException("Plugins " + cyclic + " depend " +
+                "on each other; cannot determine plugin attachment order; " +
+                "cannot attach plugins to system \"" + system.name() + "\"");
+        }
+
+        return sorted;
+    }
+
+    private Future<PluginHandler> attach(
+        final Plugin plugin,
+        final int order,
+        final List<PluginHandler> prerequisites)
+    {
+        final var dependencies = new HashMap<Class<? extends Plugin>, PluginFacade>();
+        for (final var handler : prerequisites) {
+            if (dependsOn(plugin, handler.plugin())) {
+                handler.attached()
+                    .facade()
+                    .ifPresent(facade -> dependencies.put(handler.plugin().getClass(), facade));
+            }
+        }
+        Future<PluginAttached> future;
+        try {
+            future = plugin.attachTo(system, dependencies);
+        }
+        catch (final Throwable throwable) {
+            future = Future.failure(throwable);
+        }
+        return future
             .map(attached -> {
-                final var handler = new PluginHandler(attached, plugin);
-                handlers.add(handler);
+                final var handler = new PluginHandler(attached, plugin, order, prerequisites);
+                synchronized (handlers) {
+                    var index = handlers.size();
+                    while (index > 0 && handlers.get(index - 1).order() > order) {
+                        index -= 1;
+                    }
+                    handlers.add(index, handler);
+                }
                 return handler;
             })
             .mapFault(Throwable.class, throwable -> new IllegalStateException("" +
@@ -116,10 +223,7 @@ public class PluginNotifier {
                 "to system \"" + system.name() + "\"", throwable));
     }
 
-    private Future<PluginHandler> load(
-        final Class<? extends Plugin> dependencyClass,
-        final List<PluginHandler> handlers)
-    {
+    private Plugin load(final Class<? extends Plugin> dependencyClass) {
         Exception suppressedException = null;
         Object pluginObject = null;
         try {
@@ -156,9 +260,8 @@ public class PluginNotifier {
                 dependencyClass + "; cannot automatically satisfy plugin " +
                 "dependency of system \"" + system.name() + "\"", exception);
         }
-        final Plugin plugin;
         try {
-            plugin = dependencyClass.cast(pluginObject);
+            return dependencyClass.cast(pluginObject);
         }
         catch (final ClassCastException exception) {
             throw new IllegalStateException(dependencyClass + " returned an " +
@@ -166,7 +269,6 @@ public class PluginNotifier {
                 "called; cannot automatically satisfy plugin " +
                 "dependency", exception);
         }
-        return attach(plugin, handlers);
     }
 
     public void onDetach() {
@@ -183,12 +285,12 @@ public class PluginNotifier {
 
     @ThreadSafe
     public Future<?> onServicePrepared(final ArService service) {
-        return serialize(attached -> attached.onServicePrepared(service));
+        return notifyInOrder(attached -> attached.onServicePrepared(service));
     }
 
     @ThreadSafe
     public Future<?> onServiceProvided(final ServiceRecord service) {
-        return serialize(attached -> attached.onServiceProvided(service));
+        return notifyInOrder(attached -> attached.onServiceProvided(service));
     }
 
     @ThreadSafe
@@ -205,41 +307,108 @@ public class PluginNotifier {
 
     @ThreadSafe
     public Future<Set<ServiceRecord>> onServiceQueried(final ServiceQuery query) {
-        return Futures
-            .serialize(handlers.stream().map(handler -> {
-                try {
-                    return handler.attached().onServiceQueried(query);
-                }
-                catch (final Throwable throwable) {
-                    return Future.failure(throwable);
-                }
-            }))
-            .map(collections -> collections.stream()
-                .flatMap(Collection::stream)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toUnmodifiableSet()));
+        switch (serviceQueryResolution.mode()) {
+        case SEQUENTIAL:
+            return Futures.serialize(handlers.stream().map(handler -> query(handler, query)))
+                .map(PluginNotifier::merge);
+
+        case CONCURRENT:
+            return Futures.all(handlers.stream().map(handler -> query(handler, query)))
+                .map(PluginNotifier::merge);
+
+        case FIRST_MATCH:
+            final var futures = new ArrayList<Future<Collection<ServiceRecord>>>(handlers.size());
+            for (final var handler : handlers) {
+                futures.add(query(handler, query));
+            }
+            return new PluginQueryFirstMatch(futures, query, serviceQueryResolution.mergeWindow());
+
+        default:
+            throw new IllegalStateException("Unexpected service query " +
+                "resolution mode: " + serviceQueryResolution);
+        }
     }
 
-    private Future<?> serialize(final ThrowingFunction<PluginAttached, Future<?>> function) {
-        return Futures.serialize(handlers.stream()
-            .map(handler -> {
-                try {
-                    return function.apply(handler.attached());
-                }
-                catch (final Throwable throwable) {
-                    return Future.failure(throwable);
+    private static Future<Collection<ServiceRecord>> query(final PluginHandler handler, final ServiceQuery query) {
+        try {
+            return handler.attached().onServiceQueried(query);
+        }
+        catch (final Throwable throwable) {
+            return Future.failure(throwable);
+        }
+    }
+
+    private static Set<ServiceRecord> merge(final List<Collection<ServiceRecord>> collections) {
+        return collections.stream()
+            .filter(Objects::nonNull)
+            .flatMap(Collection::stream)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Notifies each attached plugin as soon as all of its prerequisites have
+    // been notified successfully, which means that plugins not depending on
+    // each other are notified concurrently.
+    private Future<?> notifyInOrder(final ThrowingFunction<PluginAttached, Future<?>> function) {
+        final var announcements = new IdentityHashMap<PluginHandler, FutureAnnouncement<?>>();
+        final var futures = new ArrayList<Future<?>>(handlers.size());
+        for (final var handler : handlers) {
+            final var prerequisites = new ArrayList<Future<?>>();
+            for (final var prerequisite : handler.prerequisites()) {
+                final var announcement = announcements.get(prerequisite);
+                if (announcement != null) {
+                    prerequisites.add(announcement.subscribe());
                 }
-            }));
+            }
+            final Future<?> future = prerequisites.isEmpty()
+                ? apply(function, handler)
+                : Futures.all(prerequisites).flatMap(ignored -> apply(function, handler));
+            if (handler.hasDependents()) {
+                final var announcement = future.toAnnouncement();
+                announcements.put(handler, announcement);
+                futures.add(announcement.subscribe());
+            }
+            else {
+                futures.add(future);
+            }
+        }
+        return Futures.all(futures);
+    }
+
+    private static Future<?> apply(
+        final ThrowingFunction<PluginAttached, Future<?>> function,
+        final PluginHandler handler)
+    {
+        try {
+            return function.apply(handler.attached());
+        }
+        catch (final Throwable throwable) {
+            return Future.failure(throwable);
+        }
     }
 
     private static class PluginHandler {
         private final AtomicBoolean isDetached = new AtomicBoolean(false);
         private final PluginAttached attached;
         private final Plugin plugin;
+        private final int order;
+        private final List<PluginHandler> prerequisites;
+
+        private volatile boolean hasDependents = false;
 
-        private PluginHandler(final PluginAttached attached, final Plugin plugin) {
+        private PluginHandler(
+            final PluginAttached attached,
+            final Plugin plugin,
+            final int order,
+            final List<PluginHandler> prerequisites)
+        {
             this.attached = Objects.requireNonNull(attached, "attached");
             this.plugin = Objects.requireNonNull(plugin, "plugin");
+            this.order = order;
+            this.prerequisites = Objects.requireNonNull(prerequisites, "prerequisites");
+            for (final var prerequisite : prerequisites) {
+                prerequisite.hasDependents = true;
+            }
         }
 
         public PluginAttached attached() {
@@ -250,6 +419,19 @@ public class PluginNotifier {
             return plugin;
         }
 
+        // Position of plugin in attachment order.
+        public int order() {
+            return order;
+        }
+
+        public List<PluginHandler> prerequisites() {
+            return prerequisites;
+        }
+
+        public boolean hasDependents() {
+            return hasDependents;
+        }
+
         public void detach() {
             if (!isDetached.compareAndSet(false, true)) {
                 return;
@@ -0,0 +1,162 @@
+package se.arkalix.plugin._internal;
+
+import se.arkalix.ServiceRecord;
+import se.arkalix.query.ServiceQuery;
+import se.arkalix.util.Result;
+import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Schedulers;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * A {@code Future} completed with the service records returned by a set of
+ * plugins as soon as any one of them returns records matching a given query,
+ * or a merge window has passed since that happened, or when all plugins have
+ * responded.
+ * <p>
+ * Any plugins that have yet to respond when this future completes are
+ * cancelled.
+ *
+ * @see se.arkalix.query.ServiceQueryResolution#firstMatch(Duration)
+ */
+@Internal
+class PluginQueryFirstMatch extends FutureCompletion<Set<ServiceRecord>> {
+    private final ServiceQuery query;
+    private final Duration mergeWindow;
+
+    private final Map<Integer, Future<Collection<ServiceRecord>>> pending = new HashMap<>();
+    private final Set<ServiceRecord> records = new HashSet<>();
+
+    private Throwable fault = null;
+    private Future<?> mergeTimeout = null;
+    private boolean isMatched = false;
+    private boolean isDone = false;
+
+    PluginQueryFirstMatch(
+        final List<Future<Collection<ServiceRecord>>> futures,
+        final ServiceQuery query,
+        final Duration mergeWindow)
+    {
+        this.query = Objects.requireNonNull(query, "query");
+        this.mergeWindow = Objects.requireNonNull(mergeWindow, "mergeWindow");
+
+        setCancelCallback(this::cancelPending);
+
+        if (futures.isEmpty()) {
+            isDone = true;
+            complete(Result.success(Collections.emptySet()));
+            return;
+        }
+
+        synchronized (this) {
+            for (var i = 0; i < futures.size(); ++i) {
+                pending.put(i, futures.get(i));
+            }
+        }
+        for (var i = 0; i < futures.size(); ++i) {
+            final var index = i;
+            futures.get(i).onResult(result -> onResult(index, result));
+        }
+    }
+
+    private void onResult(final int index, final Result<Collection<ServiceRecord>> result) {
+        final Result<Set<ServiceRecord>> result0;
+        final List<Future<?>> cancelled;
+        synchronized (this) {
+            if (isDone) {
+                return;
+            }
+            pending.remove(index);
+            if (result.isSuccess()) {
+                final var records0 = result.value();
+                if (records0 != null) {
+                    for (final var record : records0) {
+                        if (record == null) {
+                            continue;
+                        }
+                        records.add(record);
+                        if (!isMatched && query.matches(record)) {
+                            isMatched = true;
+                        }
+                    }
+                }
+            }
+            else if (fault == null) {
+                fault = result.fault();
+            }
+            else {
+                fault.addSuppressed(result.fault());
+            }
+
+            if (!pending.isEmpty()) {
+                if (!isMatched) {
+                    return;
+                }
+                if (!mergeWindow.isZero()) {
+                    if (mergeTimeout == null) {
+                        mergeTimeout = Schedulers.fixed()
+                            .scheduleCoarse(mergeWindow, this::onMergeWindowEnd);
+                    }
+                    return;
+                }
+            }
+            result0 = finish();
+            cancelled = takePending();
+        }
+        cancel(cancelled);
+        complete(result0);
+    }
+
+    private void onMergeWindowEnd() {
+        final Result<Set<ServiceRecord>> result0;
+        final List<Future<?>> cancelled;
+        synchronized (this) {
+            if (isDone) {
+                return;
+            }
+            result0 = finish();
+            cancelled = takePending();
+        }
+        cancel(cancelled);
+        complete(result0);
+    }
+
+    private Result<Set<ServiceRecord>> finish() {
+        isDone = true;
+        if (mergeTimeout != null) {
+            mergeTimeout.cancel();
+        }
+        return isMatched || fault == null
+            ? Result.success(Collections.unmodifiableSet(records))
+            : Result.failure(fault);
+    }
+
+    private List<Future<?>> takePending() {
+        final var futures = new ArrayList<Future<?>>(pending.values());
+        pending.clear();
+        return futures;
+    }
+
+    private void cancelPending(final boolean mayInterruptIfRunning) {
+        final List<Future<?>> cancelled;
+        synchronized (this) {
+            isDone = true;
+            if (mergeTimeout != null) {
+                mergeTimeout.cancel();
+            }
+            cancelled = takePending();
+        }
+        for (final var future : cancelled) {
+            future.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    private static void cancel(final List<Future<?>> futures) {
+        for (final var future : futures) {
+            future.cancel(false);
+        }
+    }
+}
@@ -10,7 +10,10 @@ import se.arkalix.util.Result;
 import se.arkalix.util.concurrent.Future;
 import se.arkalix.util.function.ThrowingFunction;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Stream;
 
 /**
@@ -56,6 +59,7 @@ public class ServiceQuery {
     private Integer version;
     private Integer versionMax;
     private Integer versionMin;
+    private Instant deadline;
 
     /**
      * Creates new service query.
@@ -219,6 +223,34 @@ public class ServiceQuery {
         return this;
     }
 
+    /**
+     * @return Instant, if any, after which the result of this query is no
+     * longer of any use.
+     */
+    public Optional<Instant> deadline() {
+        return Optional.ofNullable(deadline);
+    }
+
+    /**
+     * Sets instant after which the result of this query is no longer of any
+     * use.
+     * <p>
+     * If the deadline has passed when this query is resolved, resolution is
+     * never attempted. If the deadline passes while the query is being
+     * resolved, resolution is cancelled. In either case, the resolution fails
+     * with a {@link TimeoutException}. Resolvers are expected to pass the
+     * deadline on to any remote services they consult, such as orchestration
+     * or service discovery services.
+     *
+     * @param deadline Resolution deadline. Use {@code null} to wait for as
+     *                 long as resolution takes.
+     * @return This query.
+     */
+    public ServiceQuery deadline(final Instant deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
     /**
      * Uses provided {@code factory} to (1) add additional details to this
      * query, (2) resolve the query, and then (3) use the resolution result to
@@ -425,7 +457,15 @@ public class ServiceQuery {
      */
     public Future<Set<ServiceRecord>> resolveAll() {
         try {
-            return resolver.apply(this);
+            if (deadline == null) {
+                return resolver.apply(this);
+            }
+            final var timeout = Duration.between(Instant.now(), deadline);
+            if (timeout.isNegative() || timeout.isZero()) {
+                return Future.failure(new TimeoutException("Deadline of " +
+                    this + " exceeded; query not resolved"));
+            }
+            return resolver.apply(this).timeout(timeout);
         }
         catch (final Throwable throwable) {
             return Future.failure(throwable);
@@ -518,6 +558,7 @@ public class ServiceQuery {
             ", version=" + version +
             ", versionMax=" + versionMax +
             ", versionMin=" + versionMin +
+            ", deadline=" + deadline +
             '}';
     }
 }
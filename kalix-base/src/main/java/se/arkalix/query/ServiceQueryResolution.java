@@ -0,0 +1,132 @@
+package se.arkalix.query;
+
+import se.arkalix.ArSystem;
+import se.arkalix.plugin.PluginAttached;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Determines how the {@link se.arkalix.plugin.Plugin plugins} of an {@link
+ * ArSystem} are asked to {@link PluginAttached#onServiceQueried(ServiceQuery)
+ * resolve} {@link ServiceQuery service queries} that cannot be resolved using
+ * the service cache of that system.
+ *
+ * @see ArSystem.Builder#serviceQueryResolution(ServiceQueryResolution)
+ */
+public final class ServiceQueryResolution {
+    private static final ServiceQueryResolution SEQUENTIAL = new ServiceQueryResolution(Mode.SEQUENTIAL, Duration.ZERO);
+    private static final ServiceQueryResolution CONCURRENT = new ServiceQueryResolution(Mode.CONCURRENT, Duration.ZERO);
+    private static final ServiceQueryResolution FIRST_MATCH = new ServiceQueryResolution(Mode.FIRST_MATCH, Duration.ZERO);
+
+    private final Mode mode;
+    private final Duration mergeWindow;
+
+    private ServiceQueryResolution(final Mode mode, final Duration mergeWindow) {
+        this.mode = mode;
+        this.mergeWindow = mergeWindow;
+    }
+
+    /**
+     * Plugins are queried one at a time, in the order they were attached,
+     * and the records they return are merged. Fails if any plugin fails.
+     * <p>
+     * This is the default resolution mode.
+     *
+     * @return Sequential resolution mode.
+     */
+    public static ServiceQueryResolution sequential() {
+        return SEQUENTIAL;
+    }
+
+    /**
+     * Plugins are queried concurrently and the records they return are merged
+     * once all of them have responded. Fails if any plugin fails.
+     *
+     * @return Concurrent resolution mode.
+     */
+    public static ServiceQueryResolution concurrent() {
+        return CONCURRENT;
+    }
+
+    /**
+     * Plugins are queried concurrently and resolution completes as soon as
+     * any one plugin returns at least one record matching the query, at which
+     * point all plugins that have yet to respond are cancelled.
+     * <p>
+     * Failing plugins are ignored if some other plugin returns matching
+     * records. If no plugin does, resolution fails if any plugin failed, or
+     * completes with the records returned by all plugins otherwise.
+     *
+     * @return First match resolution mode.
+     */
+    public static ServiceQueryResolution firstMatch() {
+        return FIRST_MATCH;
+    }
+
+    /**
+     * Like {@link #firstMatch()}, but with the records of other plugins that
+     * respond within given {@code mergeWindow} after the first matching
+     * records were received being merged into the result.
+     * <p>
+     * This is useful if plugins are known to respond at about the same time,
+     * but the records of each of them are of interest.
+     *
+     * @param mergeWindow Time to wait for other plugins to respond after
+     *                    matching records are first received.
+     * @return First match resolution mode with merge window.
+     */
+    public static ServiceQueryResolution firstMatch(final Duration mergeWindow) {
+        Objects.requireNonNull(mergeWindow, "mergeWindow");
+        if (mergeWindow.isNegative()) {
+            throw new IllegalArgumentException("mergeWindow < 0");
+        }
+        return mergeWindow.isZero()
+            ? FIRST_MATCH
+            : new ServiceQueryResolution(Mode.FIRST_MATCH, mergeWindow);
+    }
+
+    /**
+     * @return Resolution mode.
+     */
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * @return Time to wait for more plugins to respond after the first
+     * matching records are received, if using the {@link Mode#FIRST_MATCH}
+     * mode.
+     */
+    public Duration mergeWindow() {
+        return mergeWindow;
+    }
+
+    @Override
+    public String toString() {
+        return mode == Mode.FIRST_MATCH && !mergeWindow.isZero()
+            ? mode + "(" + mergeWindow + ")"
+            : mode.toString();
+    }
+
+    /**
+     * Service query resolution modes.
+     */
+    public enum Mode {
+        /**
+         * @see #sequential()
+         */
+        SEQUENTIAL,
+
+        /**
+         * @see #concurrent()
+         */
+        CONCURRENT,
+
+        /**
+         * @see #firstMatch()
+         * @see #firstMatch(Duration)
+         */
+        FIRST_MATCH,
+    }
+}
@@ -0,0 +1,257 @@
+package se.arkalix.util.concurrent;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Describes how the threads of the {@link Schedulers#fixed() fixed scheduler}
+ * are to be organized.
+ * <p>
+ * The fixed scheduler consists of <i>worker</i> threads, which perform all
+ * network I/O as well as execute all jobs submitted to the scheduler, and
+ * optional <i>acceptor</i> threads, which do nothing but accept incoming
+ * network connections. If no acceptor threads are requested, connections are
+ * accepted by the worker threads.
+ *
+ * @see Schedulers#configureFixed(FixedSchedulerConfig)
+ */
+public final class FixedSchedulerConfig {
+    private final int workerThreads;
+    private final int acceptorThreads;
+    private final boolean isReusePort;
+    private final boolean isCpuAffinity;
+    private final Duration monitorInterval;
+    private final Duration blockedThreshold;
+
+    private FixedSchedulerConfig(final Builder builder) {
+        workerThreads = builder.workerThreads;
+        acceptorThreads = builder.acceptorThreads;
+        isReusePort = builder.isReusePort;
+        isCpuAffinity = builder.isCpuAffinity;
+        monitorInterval = builder.monitorInterval;
+        blockedThreshold = builder.blockedThreshold;
+    }
+
+    /**
+     * @return Configuration used if none other is provided.
+     */
+    public static FixedSchedulerConfig defaults() {
+        return new Builder().build();
+    }
+
+    /**
+     * @return Number of worker threads, or {@code 0} if the number is to be
+     * chosen from the number of available system CPUs.
+     */
+    public int workerThreads() {
+        return workerThreads;
+    }
+
+    /**
+     * @return Number of acceptor threads, or {@code 0} if connections are to
+     * be accepted by worker threads.
+     */
+    public int acceptorThreads() {
+        return acceptorThreads;
+    }
+
+    /**
+     * @return {@code true} only if servers are to bind one socket per
+     * acceptor thread to the same port, if supported by the current platform.
+     */
+    public boolean isReusePort() {
+        return isReusePort;
+    }
+
+    /**
+     * @return {@code true} only if each thread is to be pinned to a CPU of its
+     * own, if supported.
+     */
+    public boolean isCpuAffinity() {
+        return isCpuAffinity;
+    }
+
+    /**
+     * @return Interval at which the health of scheduler threads is probed, or
+     * {@link Duration#ZERO} if no probing is to take place.
+     * @see Scheduler#metrics()
+     */
+    public Duration monitorInterval() {
+        return monitorInterval;
+    }
+
+    /**
+     * @return Duration after which a scheduler thread not executing a probe
+     * job is considered blocked.
+     * @see Scheduler#metrics()
+     */
+    public Duration blockedThreshold() {
+        return blockedThreshold;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) { return true; }
+        if (other == null || getClass() != other.getClass()) { return false; }
+        final var that = (FixedSchedulerConfig) other;
+        return workerThreads == that.workerThreads &&
+            acceptorThreads == that.acceptorThreads &&
+            isReusePort == that.isReusePort &&
+            isCpuAffinity == that.isCpuAffinity &&
+            monitorInterval.equals(that.monitorInterval) &&
+            blockedThreshold.equals(that.blockedThreshold);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(workerThreads, acceptorThreads, isReusePort, isCpuAffinity,
+            monitorInterval, blockedThreshold);
+    }
+
+    @Override
+    public String toString() {
+        return "FixedSchedulerConfig{" +
+            "workerThreads=" + workerThreads +
+            ", acceptorThreads=" + acceptorThreads +
+            ", isReusePort=" + isReusePort +
+            ", isCpuAffinity=" + isCpuAffinity +
+            ", monitorInterval=" + monitorInterval +
+            ", blockedThreshold=" + blockedThreshold +
+            '}';
+    }
+
+    /**
+     * Builder useful for creating {@link FixedSchedulerConfig} instances.
+     */
+    public static class Builder {
+        private int workerThreads = 0;
+        private int acceptorThreads = 0;
+        private boolean isReusePort = false;
+        private boolean isCpuAffinity = false;
+        private Duration monitorInterval = Duration.ZERO;
+        private Duration blockedThreshold = Duration.ofSeconds(1);
+
+        /**
+         * Sets number of worker threads. If not set, or if set to {@code 0},
+         * twice the number of available system CPUs are used.
+         *
+         * @param workerThreads Number of worker threads.
+         * @return This builder.
+         */
+        public Builder workerThreads(final int workerThreads) {
+            if (workerThreads < 0) {
+                throw new IllegalArgumentException("workerThreads < 0");
+            }
+            this.workerThreads = workerThreads;
+            return this;
+        }
+
+        /**
+         * Sets number of threads dedicated to accepting incoming network
+         * connections. If not set, or if set to {@code 0}, connections are
+         * accepted by the worker threads.
+         * <p>
+         * Dedicated acceptor threads prevent connection attempts from having
+         * to wait while worker threads are busy processing requests.
+         *
+         * @param acceptorThreads Number of acceptor threads.
+         * @return This builder.
+         */
+        public Builder acceptorThreads(final int acceptorThreads) {
+            if (acceptorThreads < 0) {
+                throw new IllegalArgumentException("acceptorThreads < 0");
+            }
+            this.acceptorThreads = acceptorThreads;
+            return this;
+        }
+
+        /**
+         * Sets whether or not servers are to bind one socket per acceptor
+         * thread to the same port, using the {@code SO_REUSEPORT} socket
+         * option. If no acceptor threads are configured, one socket is bound
+         * per worker thread.
+         * <p>
+         * This lets the operating system kernel spread incoming connections
+         * over multiple threads. It is only supported on Linux, and is
+         * ignored on other platforms.
+         *
+         * @param isReusePort {@code true} if {@code SO_REUSEPORT} is to be
+         *                    used.
+         * @return This builder.
+         */
+        public Builder reusePort(final boolean isReusePort) {
+            this.isReusePort = isReusePort;
+            return this;
+        }
+
+        /**
+         * Sets whether or not each thread is to be pinned to a CPU of its
+         * own.
+         * <p>
+         * As CPU affinity cannot be controlled via the standard Java API,
+         * this requires that the <a
+         * href="https://github.com/OpenHFT/Java-Thread-Affinity">OpenHFT
+         * Java Thread Affinity</a> library be available on the class path. If
+         * it is not, this setting is ignored and a warning is logged.
+         *
+         * @param isCpuAffinity {@code true} if threads are to be pinned to
+         *                      CPUs.
+         * @return This builder.
+         */
+        public Builder cpuAffinity(final boolean isCpuAffinity) {
+            this.isCpuAffinity = isCpuAffinity;
+            return this;
+        }
+
+        /**
+         * Sets interval at which probe jobs are submitted to each scheduler
+         * thread in order to measure its {@link Scheduler#metrics() health}.
+         * Probing is disabled if not set, or if set to {@link Duration#ZERO},
+         * in which case only the number of pending tasks of each thread is
+         * reported.
+         * <p>
+         * Enabling probing starts an additional daemon thread, as well as all
+         * scheduler threads, which would otherwise only be started when
+         * first given jobs to execute.
+         *
+         * @param monitorInterval Probe interval.
+         * @return This builder.
+         */
+        public Builder monitorInterval(final Duration monitorInterval) {
+            Objects.requireNonNull(monitorInterval, "monitorInterval");
+            if (monitorInterval.isNegative()) {
+                throw new IllegalArgumentException("monitorInterval < 0");
+            }
+            this.monitorInterval = monitorInterval;
+            return this;
+        }
+
+        /**
+         * Sets duration after which a scheduler thread that has not yet
+         * executed a probe job is considered blocked, which causes its stack
+         * trace to be captured and logged. If not set, one second is used.
+         * <p>
+         * As threads are only checked once every {@link
+         * #monitorInterval(Duration) monitor interval}, blocked threads may
+         * be detected up to one such interval later than this threshold.
+         *
+         * @param blockedThreshold Blocked thread threshold.
+         * @return This builder.
+         */
+        public Builder blockedThreshold(final Duration blockedThreshold) {
+            Objects.requireNonNull(blockedThreshold, "blockedThreshold");
+            if (blockedThreshold.isNegative() || blockedThreshold.isZero()) {
+                throw new IllegalArgumentException("blockedThreshold <= 0");
+            }
+            this.blockedThreshold = blockedThreshold;
+            return this;
+        }
+
+        /**
+         * @return New fixed scheduler configuration.
+         */
+        public FixedSchedulerConfig build() {
+            return new FixedSchedulerConfig(this);
+        }
+    }
+}
@@ -15,6 +15,7 @@ import java.time.Instant;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -97,6 +98,7 @@ import java.util.function.Consumer;
  *             <ol>
  *                 <li>{@link #delay(Duration)}</li>
  *                 <li>{@link #delayUntil(Instant)}</li>
+ *                 <li>{@link #timeout(Duration)}</li>
  *             </ol>
  *     <li>
  *         <b>Thread Management</b>
@@ -1028,6 +1030,57 @@ public interface Future<V> {
         return future;
     }
 
+    /**
+     * Limits the time this {@code Future} may take to complete.
+     * <p>
+     * If this {@code Future} does not complete within the given {@code
+     * timeout}, it is {@link #cancel(boolean) cancelled} and the returned
+     * {@code Future} is failed with a {@link TimeoutException}. Otherwise, the
+     * result of this {@code Future} is passed on as is.
+     * <p>
+     * Timeouts are tracked with {@link Scheduler#scheduleCoarse(Duration,
+     * Runnable) coarse granularity}, which means that the returned {@code
+     * Future} may fail a few tens of milliseconds later than requested. If
+     * the scheduler tracking the timeout shuts down before this {@code
+     * Future} completes, it is cancelled and the returned {@code Future} is
+     * failed with a {@link java.util.concurrent.RejectedExecutionException
+     * RejectedExecutionException}.
+     *
+     * @param timeout Maximum duration to wait for this {@code Future} to
+     *                complete.
+     * @return New {@code Future} that eventually completes with the result of
+     * this {@code Future} or fails with a {@link TimeoutException}.
+     * @throws NullPointerException If {@code timeout} is {@code null}.
+     */
+    default Future<V> timeout(final Duration timeout) {
+        if (timeout == null) {
+            throw new NullPointerException("timeout");
+        }
+        final var future = new FutureConsumptionWithExtraCancelTarget<V>(this);
+        final var isDone = new AtomicBoolean(false);
+        final var timer = Schedulers.fixed().scheduleCoarse(timeout, () -> {
+            if (isDone.compareAndSet(false, true)) {
+                cancel(true);
+                future.consume(Result.failure(new TimeoutException("Result " +
+                    "of " + this + " did not become available in " + timeout)));
+            }
+        });
+        future.extraCancelTarget(timer);
+        timer.onFailure(fault -> {
+            if (isDone.compareAndSet(false, true)) {
+                cancel(true);
+                future.consume(Result.failure(fault));
+            }
+        });
+        onResult(result -> {
+            if (isDone.compareAndSet(false, true)) {
+                timer.cancel();
+                future.consume(result);
+            }
+        });
+        return future;
+    }
+
     /**
      * Returns new {@code Future} that is completed successfully only if this
      * {@code Future} completes successfully and its result can be provided to
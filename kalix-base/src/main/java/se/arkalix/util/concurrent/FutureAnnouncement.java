@@ -4,9 +4,10 @@ import se.arkalix.util.concurrent._internal.FutureCompletion;
 import se.arkalix.util.Result;
 import se.arkalix.util.annotation.ThreadSafe;
 
-import java.util.HashSet;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
 import java.util.Optional;
-import java.util.Set;
 
 /**
  * Announces when the result of some {@link Future} becomes available to a set
@@ -21,22 +22,47 @@ import java.util.Set;
  */
 @SuppressWarnings("unused")
 public class FutureAnnouncement<V> {
+    private static final VarHandle SUBSCRIBERS;
+
+    static {
+        try {
+            SUBSCRIBERS = MethodHandles.lookup()
+                .findVarHandle(FutureAnnouncement.class, "subscribers", Subscriber.class);
+        }
+        catch (final ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    // Replaces the stack of subscribers when the announcement is made.
+    private static final Subscriber<?> ANNOUNCED = new Subscriber<>(null, null, 0, 0);
+
+    // Smallest stack size at which cancelled subscribers are swept.
+    private static final int MIN_SWEEP_SIZE = 16;
+
     private final Future<V> future;
-    private final Set<FutureCompletion<V>> subscribers = new HashSet<>();
 
-    private Result<V> result = null;
-    private boolean isAnnouncing = false;
+    private volatile Subscriber<V> subscribers = null; // Lock-free stack.
+    private volatile Result<V> result = null;
 
+    @SuppressWarnings("unchecked")
     FutureAnnouncement(final Future<V> future) {
         this.future = future;
         future.onResult(result -> {
-            synchronized (this) {
-                this.result = result;
-                isAnnouncing = true;
-                for (final var subscriber : subscribers) {
-                    subscriber.complete(result);
+            this.result = result;
+            var subscriber = (Subscriber<V>) SUBSCRIBERS.getAndSet(this, ANNOUNCED);
+
+            // Reverse stack to notify subscribers in subscription order.
+            Subscriber<V> reversed = null;
+            while (subscriber != null) {
+                if (!subscriber.completion.isCancelled()) {
+                    reversed = new Subscriber<>(subscriber.completion, reversed, 0, 0);
                 }
-                subscribers.clear();
+                subscriber = subscriber.next;
+            }
+            while (reversed != null) {
+                reversed.completion.complete(result);
+                reversed = reversed.next;
             }
         });
     }
@@ -67,7 +93,7 @@ public class FutureAnnouncement<V> {
      *
      * @return Result of this {@code FutureAnnouncement}, if available.
      */
-    public synchronized Optional<Result<V>> resultIfAvailable() {
+    public Optional<Result<V>> resultIfAvailable() {
         return Optional.ofNullable(result);
     }
 
@@ -87,21 +113,73 @@ public class FutureAnnouncement<V> {
      */
     @ThreadSafe
     public Future<V> subscribe() {
-        final FutureCompletion<V> completion;
-        synchronized (this) {
-            if (result != null) {
+        final var completion = new FutureCompletion<V>();
+        while (true) {
+            final var head = subscribers;
+            if (head == ANNOUNCED) {
                 return Future.of(result);
             }
-            completion = new FutureCompletion<>();
-            completion.setCancelCallback(ignored -> {
-                synchronized (this) {
-                    if (!isAnnouncing) {
-                        subscribers.remove(completion);
-                    }
-                }
-            });
-            subscribers.add(completion);
+            final Subscriber<V> head0;
+            if (head == null) {
+                head0 = new Subscriber<>(completion, null, 1, MIN_SWEEP_SIZE);
+            }
+            else if (head.size < head.sweepAt) {
+                head0 = new Subscriber<>(completion, head, head.size + 1, head.sweepAt);
+            }
+            else {
+                head0 = sweep(head, completion);
+            }
+            if (SUBSCRIBERS.compareAndSet(this, head, head0)) {
+                return completion;
+            }
+        }
+    }
+
+    /**
+     * @return Number of subscribers currently kept by this announcement,
+     * including cancelled subscribers not yet swept.
+     */
+    int subscriberCount() {
+        final var head = subscribers;
+        return head != null ? head.size : 0;
+    }
+
+    // Creates a copy of the given stack without any cancelled subscribers,
+    // with the given completion on top. As this happens whenever the stack
+    // has doubled in size since it was last swept, the stack is never much
+    // larger than twice the number of subscribers not cancelled, and the
+    // cost of sweeping is spread out over the subscriptions causing it.
+    private static <V> Subscriber<V> sweep(final Subscriber<V> head, final FutureCompletion<V> completion) {
+        final var completions = new ArrayList<FutureCompletion<V>>(head.size + 1);
+        for (var subscriber = head; subscriber != null; subscriber = subscriber.next) {
+            if (!subscriber.completion.isCancelled()) {
+                completions.add(subscriber.completion);
+            }
+        }
+        final var sweepAt = Math.max(MIN_SWEEP_SIZE, (completions.size() + 1) * 2);
+        Subscriber<V> head0 = null;
+        for (var i = completions.size(); i-- > 0; ) {
+            head0 = new Subscriber<>(completions.get(i), head0, completions.size() - i, sweepAt);
+        }
+        return new Subscriber<>(completion, head0, completions.size() + 1, sweepAt);
+    }
+
+    private static final class Subscriber<V> {
+        private final FutureCompletion<V> completion;
+        private final Subscriber<V> next;
+        private final int size; // Size of stack with this subscriber on top.
+        private final int sweepAt; // Size at which stack is to be swept.
+
+        private Subscriber(
+            final FutureCompletion<V> completion,
+            final Subscriber<V> next,
+            final int size,
+            final int sweepAt)
+        {
+            this.completion = completion;
+            this.next = next;
+            this.size = size;
+            this.sweepAt = sweepAt;
         }
-        return completion;
     }
 }
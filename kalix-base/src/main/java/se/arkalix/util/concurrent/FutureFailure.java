@@ -300,6 +300,12 @@ class FutureFailure<V> implements Future<V> {
         };
     }
 
+    @Override
+    public Future<V> timeout(final Duration timeout) {
+        Objects.requireNonNull(timeout, "Expected timeout");
+        return this;
+    }
+
     @Override
     public Future<?> fork(final Consumer<V> consumer) {
         Objects.requireNonNull(consumer, "Expected consumer");
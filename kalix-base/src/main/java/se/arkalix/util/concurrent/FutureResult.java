@@ -384,6 +384,12 @@ class FutureResult<V> implements Future<V> {
         };
     }
 
+    @Override
+    public Future<V> timeout(final Duration timeout) {
+        Objects.requireNonNull(timeout, "timeout");
+        return this;
+    }
+
     @Override
     public V await() {
         return result.valueOrThrow();
@@ -270,6 +270,12 @@ class FutureSuccess<V> implements Future<V> {
         };
     }
 
+    @Override
+    public Future<V> timeout(final Duration timeout) {
+        Objects.requireNonNull(timeout, "Expected timeout");
+        return this;
+    }
+
     @Override
     public V await() {
         return value;
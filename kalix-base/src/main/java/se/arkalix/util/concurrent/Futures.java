@@ -1,11 +1,13 @@
 package se.arkalix.util.concurrent;
 
+import se.arkalix.util.concurrent._internal.FutureAll;
+import se.arkalix.util.concurrent._internal.FutureAny;
+import se.arkalix.util.concurrent._internal.FutureMapBounded;
 import se.arkalix.util.function.ThrowingBiFunction;
+import se.arkalix.util.function.ThrowingFunction;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
@@ -575,6 +577,187 @@ public final class Futures {
         return serializeInner(iterator, new ArrayList<>(), null);
     }
 
+    /**
+     * Waits for every future in {@code array} to complete, collecting every
+     * successful result into a list.
+     * <p>
+     * Unlike {@link #serialize(Future[])}, this method waits for all futures
+     * at once. If any future fails, all other futures are cancelled and the
+     * returned future is failed with the same {@code Throwable}. If the
+     * returned future is cancelled, all futures in {@code array} are
+     * cancelled.
+     *
+     * @param <V>   Type of value futures completes with if successful.
+     * @param array Array of futures.
+     * @return Future completed with list of results from all provided futures,
+     * with the results being in the same order as the futures in the given
+     * {@code array}.
+     */
+    @SafeVarargs
+    public static <V> Future<List<V>> all(final Future<? extends V>... array) {
+        return new FutureAll<>(Arrays.asList(array));
+    }
+
+    /**
+     * Waits for every future in {@code stream} to complete, collecting every
+     * successful result into a list.
+     * <p>
+     * Unlike {@link #serialize(Stream)}, this method waits for all futures
+     * at once, which means that the stream is fully consumed before this
+     * method returns. If any future fails, all other futures are cancelled
+     * and the returned future is failed with the same {@code Throwable}. If
+     * the returned future is cancelled, all futures in {@code stream} are
+     * cancelled.
+     *
+     * @param <V>    Type of value futures completes with if successful.
+     * @param stream Stream of futures.
+     * @return Future completed with list of results from all provided futures,
+     * with the results being in the same order as the futures in the given
+     * {@code stream}.
+     */
+    public static <V> Future<List<V>> all(final Stream<? extends Future<? extends V>> stream) {
+        return new FutureAll<>(stream.collect(Collectors.toList()));
+    }
+
+    /**
+     * Waits for every future in {@code collection} to complete, collecting
+     * every successful result into a list.
+     * <p>
+     * Unlike {@link #serialize(Iterable)}, this method waits for all futures
+     * at once. If any future fails, all other futures are cancelled and the
+     * returned future is failed with the same {@code Throwable}. If the
+     * returned future is cancelled, all futures in {@code collection} are
+     * cancelled.
+     *
+     * @param <V>        Type of value futures completes with if successful.
+     * @param collection Collection of futures.
+     * @return Future completed with list of results from all provided futures,
+     * with the results being in the same order as the futures in the given
+     * {@code collection}.
+     */
+    public static <V> Future<List<V>> all(final Collection<? extends Future<? extends V>> collection) {
+        return new FutureAll<>(new ArrayList<>(collection));
+    }
+
+    /**
+     * Waits for any future in {@code array} to complete successfully.
+     * <p>
+     * As soon as one future completes successfully, all other futures are
+     * cancelled. If all futures fail, the returned future is failed with the
+     * fault of the first failing future, with the faults of the other futures
+     * being suppressed by it. If the returned future is cancelled, all futures
+     * in {@code array} are cancelled.
+     *
+     * @param <V>   Type of value futures completes with if successful.
+     * @param array Array of futures.
+     * @return Future completed with the result of the first future to succeed.
+     * If {@code array} is empty, the future is failed with a {@link
+     * NoSuchElementException}.
+     */
+    @SafeVarargs
+    public static <V> Future<V> any(final Future<? extends V>... array) {
+        return new FutureAny<>(Arrays.asList(array));
+    }
+
+    /**
+     * Waits for any future in {@code stream} to complete successfully.
+     * <p>
+     * The stream is fully consumed before this method returns. As soon as one
+     * future completes successfully, all other futures are cancelled. If all
+     * futures fail, the returned future is failed with the fault of the first
+     * failing future, with the faults of the other futures being suppressed by
+     * it. If the returned future is cancelled, all futures in {@code stream}
+     * are cancelled.
+     *
+     * @param <V>    Type of value futures completes with if successful.
+     * @param stream Stream of futures.
+     * @return Future completed with the result of the first future to succeed.
+     * If {@code stream} is empty, the future is failed with a {@link
+     * NoSuchElementException}.
+     */
+    public static <V> Future<V> any(final Stream<? extends Future<? extends V>> stream) {
+        return new FutureAny<>(stream.collect(Collectors.toList()));
+    }
+
+    /**
+     * Waits for any future in {@code collection} to complete successfully.
+     * <p>
+     * As soon as one future completes successfully, all other futures are
+     * cancelled. If all futures fail, the returned future is failed with the
+     * fault of the first failing future, with the faults of the other futures
+     * being suppressed by it. If the returned future is cancelled, all futures
+     * in {@code collection} are cancelled.
+     *
+     * @param <V>        Type of value futures completes with if successful.
+     * @param collection Collection of futures.
+     * @return Future completed with the result of the first future to succeed.
+     * If {@code collection} is empty, the future is failed with a {@link
+     * NoSuchElementException}.
+     */
+    public static <V> Future<V> any(final Collection<? extends Future<? extends V>> collection) {
+        return new FutureAny<>(new ArrayList<>(collection));
+    }
+
+    /**
+     * Applies {@code mapper} to every element in {@code iterable}, while
+     * making sure that no more than {@code maxInFlight} of the futures
+     * returned by {@code mapper} are incomplete at any one time.
+     * <p>
+     * This method is useful for fanning out requests to remote systems
+     * without exhausting local or remote resources. Elements are mapped in
+     * iteration order. If any future fails, no more elements are mapped, all
+     * incomplete futures are cancelled and the returned future is failed with
+     * the same {@code Throwable}. If the returned future is cancelled, no more
+     * elements are mapped and all incomplete futures are cancelled.
+     *
+     * @param <T>         Type of mapped elements.
+     * @param <U>         Type of value futures completes with if successful.
+     * @param iterable    Iterable of elements to map.
+     * @param maxInFlight Maximum number of incomplete futures at any one time.
+     * @param mapper      Function mapping elements to futures.
+     * @return Future completed with list of results from all futures returned
+     * by {@code mapper}, with the results being in the same order as the
+     * elements in the given {@code iterable}.
+     * @throws IllegalArgumentException If {@code maxInFlight} is less than 1.
+     */
+    public static <T, U> Future<List<U>> mapBounded(
+        final Iterable<? extends T> iterable,
+        final int maxInFlight,
+        final ThrowingFunction<? super T, ? extends Future<? extends U>> mapper)
+    {
+        return new FutureMapBounded<>(iterable.iterator(), maxInFlight, mapper);
+    }
+
+    /**
+     * Applies {@code mapper} to every element in {@code stream}, while
+     * making sure that no more than {@code maxInFlight} of the futures
+     * returned by {@code mapper} are incomplete at any one time.
+     * <p>
+     * This method is useful for fanning out requests to remote systems
+     * without exhausting local or remote resources. Elements are mapped in
+     * stream order. If any future fails, no more elements are mapped, all
+     * incomplete futures are cancelled and the returned future is failed with
+     * the same {@code Throwable}. If the returned future is cancelled, no more
+     * elements are mapped and all incomplete futures are cancelled.
+     *
+     * @param <T>         Type of mapped elements.
+     * @param <U>         Type of value futures completes with if successful.
+     * @param stream      Stream of elements to map.
+     * @param maxInFlight Maximum number of incomplete futures at any one time.
+     * @param mapper      Function mapping elements to futures.
+     * @return Future completed with list of results from all futures returned
+     * by {@code mapper}, with the results being in the same order as the
+     * elements in the given {@code stream}.
+     * @throws IllegalArgumentException If {@code maxInFlight} is less than 1.
+     */
+    public static <T, U> Future<List<U>> mapBounded(
+        final Stream<? extends T> stream,
+        final int maxInFlight,
+        final ThrowingFunction<? super T, ? extends Future<? extends U>> mapper)
+    {
+        return new FutureMapBounded<>(stream.iterator(), maxInFlight, mapper);
+    }
+
     private static <V> Future<List<V>> serializeInner(
         final Iterator<? extends Future<? extends V>> iterator,
         final List<V> values,
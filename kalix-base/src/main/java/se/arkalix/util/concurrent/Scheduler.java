@@ -109,6 +109,33 @@ public interface Scheduler {
     @ThreadSafe
     <V> Future<V> schedule(final Duration delay, final Callable<V> callable);
 
+    /**
+     * Executes given {@code command} no sooner than indicated by given
+     * {@code delay}, using a timer with coarse granularity.
+     * <p>
+     * Unlike {@link #schedule(Duration, Runnable)}, this method schedules and
+     * cancels commands in constant time, at the expense of commands being
+     * executed up to a few tens of milliseconds later than requested. It is
+     * meant for timeouts and expiration times, which tend to be numerous,
+     * most of which are cancelled before they are due.
+     * <p>
+     * The default implementation of this method delegates to {@link
+     * #schedule(Duration, Runnable)}.
+     *
+     * @param delay   Delay after which to execute given {@code command}.
+     * @param command Command to execute.
+     * @return {@code Future} completed with {@code null} when the given
+     * {@code command} completes. If the task throws an exception while being
+     * executed, it is rejected with the same exception. If the scheduler
+     * cannot execute the command, the returned {@code Future} is failed with
+     * a {@link RejectedExecutionException}.
+     * @throws NullPointerException If {@code task} is {@code null}.
+     */
+    @ThreadSafe
+    default Future<?> scheduleCoarse(final Duration delay, final Runnable command) {
+        return schedule(delay, command);
+    }
+
     /**
      * Executes given {@code command} no sooner than indicated by given
      * {@code initialDelay}. The command is then scheduled for repeated
@@ -164,6 +191,20 @@ public interface Scheduler {
     @ThreadSafe
     Future<?> scheduleWithFixedDelay(final Duration initialDelay, final Duration delay, final Runnable command);
 
+    /**
+     * Collects a snapshot of the current health of this scheduler, useful for
+     * determining if its threads are saturated or blocked.
+     * <p>
+     * The default implementation of this method returns {@link
+     * SchedulerMetrics#empty() empty} metrics.
+     *
+     * @return Current scheduler metrics.
+     */
+    @ThreadSafe
+    default SchedulerMetrics metrics() {
+        return SchedulerMetrics.empty();
+    }
+
     /**
      * @return {@code true} if the scheduler is currently in the process of, or
      * already has, shut down.
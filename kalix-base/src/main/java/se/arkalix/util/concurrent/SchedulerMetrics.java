@@ -0,0 +1,71 @@
+package se.arkalix.util.concurrent;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A snapshot of the health of a {@link Scheduler}.
+ * <p>
+ * Consists of the metrics of each thread of the scheduler that reports them.
+ * Schedulers not collecting any metrics report no threads at all.
+ *
+ * @see Scheduler#metrics()
+ */
+public final class SchedulerMetrics {
+    private static final SchedulerMetrics EMPTY = new SchedulerMetrics(List.of());
+
+    private final List<SchedulerThreadMetrics> threads;
+
+    /**
+     * Creates new scheduler metrics snapshot.
+     *
+     * @param threads Metrics of each thread of some scheduler.
+     */
+    public SchedulerMetrics(final List<SchedulerThreadMetrics> threads) {
+        this.threads = List.copyOf(Objects.requireNonNull(threads, "threads"));
+    }
+
+    /**
+     * @return Scheduler metrics snapshot without any threads.
+     */
+    public static SchedulerMetrics empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return Metrics of each thread of the scheduler.
+     */
+    public List<SchedulerThreadMetrics> threads() {
+        return threads;
+    }
+
+    /**
+     * @return Total number of jobs waiting to be executed by the threads of
+     * the scheduler.
+     */
+    public int pendingTasks() {
+        var pendingTasks = 0;
+        for (final var thread : threads) {
+            pendingTasks += thread.pendingTasks();
+        }
+        return pendingTasks;
+    }
+
+    /**
+     * @return {@code true} only if at least one thread of the scheduler was
+     * found to be blocked when last checked.
+     */
+    public boolean isAnyBlocked() {
+        for (final var thread : threads) {
+            if (thread.isBlocked()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulerMetrics{threads=" + threads + '}';
+    }
+}
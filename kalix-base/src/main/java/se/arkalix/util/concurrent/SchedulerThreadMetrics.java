@@ -0,0 +1,238 @@
+package se.arkalix.util.concurrent;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A snapshot of the health of a single {@link Scheduler} thread.
+ * <p>
+ * Apart from the number of pending tasks, all metrics are sampled
+ * periodically by submitting probe jobs to the thread in question:
+ * <ul>
+ *     <li><i>Queue wait</i> is the time a probe job submitted for immediate
+ *         execution had to wait before being executed.</li>
+ *     <li><i>Lag</i> is how much later than scheduled a delayed probe job
+ *         was executed.</li>
+ *     <li>A thread is <i>blocked</i> if a probe job has been waiting to be
+ *         executed for longer than a configured threshold. When that happens,
+ *         the current stack trace of the thread is captured, which tells
+ *         what job is preventing the thread from executing other jobs.</li>
+ * </ul>
+ * Probing is disabled by default, in which case all metrics but the number
+ * of pending tasks are zero. It is enabled via {@link
+ * FixedSchedulerConfig.Builder#monitorInterval(Duration)}.
+ *
+ * @see SchedulerMetrics
+ */
+public final class SchedulerThreadMetrics {
+    private final String threadName;
+    private final int pendingTasks;
+    private final Duration queueWait;
+    private final Duration maxQueueWait;
+    private final Duration lag;
+    private final Duration maxLag;
+    private final boolean isBlocked;
+    private final long blockedCount;
+    private final List<StackTraceElement> blockedStackTrace;
+
+    private SchedulerThreadMetrics(final Builder builder) {
+        threadName = Objects.requireNonNull(builder.threadName, "threadName");
+        pendingTasks = builder.pendingTasks;
+        queueWait = Objects.requireNonNullElse(builder.queueWait, Duration.ZERO);
+        maxQueueWait = Objects.requireNonNullElse(builder.maxQueueWait, Duration.ZERO);
+        lag = Objects.requireNonNullElse(builder.lag, Duration.ZERO);
+        maxLag = Objects.requireNonNullElse(builder.maxLag, Duration.ZERO);
+        isBlocked = builder.isBlocked;
+        blockedCount = builder.blockedCount;
+        blockedStackTrace = builder.blockedStackTrace != null
+            ? List.copyOf(builder.blockedStackTrace)
+            : null;
+    }
+
+    /**
+     * @return Name of thread.
+     */
+    public String threadName() {
+        return threadName;
+    }
+
+    /**
+     * @return Number of jobs waiting to be executed by the thread.
+     */
+    public int pendingTasks() {
+        return pendingTasks;
+    }
+
+    /**
+     * @return Time most recent probe job waited before being executed.
+     */
+    public Duration queueWait() {
+        return queueWait;
+    }
+
+    /**
+     * @return Longest time any probe job has waited before being executed.
+     */
+    public Duration maxQueueWait() {
+        return maxQueueWait;
+    }
+
+    /**
+     * @return How much later than scheduled the most recent delayed probe
+     * job was executed.
+     */
+    public Duration lag() {
+        return lag;
+    }
+
+    /**
+     * @return How much later than scheduled any delayed probe job has been
+     * executed, at most.
+     */
+    public Duration maxLag() {
+        return maxLag;
+    }
+
+    /**
+     * @return {@code true} only if the thread was found to be blocked when
+     * last checked.
+     */
+    public boolean isBlocked() {
+        return isBlocked;
+    }
+
+    /**
+     * @return Number of times the thread has been found to be blocked.
+     */
+    public long blockedCount() {
+        return blockedCount;
+    }
+
+    /**
+     * @return Stack trace of thread captured the last time it was found to be
+     * blocked, if ever.
+     */
+    public Optional<List<StackTraceElement>> blockedStackTrace() {
+        return Optional.ofNullable(blockedStackTrace);
+    }
+
+    @Override
+    public String toString() {
+        return "SchedulerThreadMetrics{" +
+            "threadName='" + threadName + '\'' +
+            ", pendingTasks=" + pendingTasks +
+            ", queueWait=" + queueWait +
+            ", maxQueueWait=" + maxQueueWait +
+            ", lag=" + lag +
+            ", maxLag=" + maxLag +
+            ", isBlocked=" + isBlocked +
+            ", blockedCount=" + blockedCount +
+            '}';
+    }
+
+    /**
+     * Builder useful for creating {@link SchedulerThreadMetrics} instances.
+     */
+    public static class Builder {
+        private String threadName;
+        private int pendingTasks;
+        private Duration queueWait;
+        private Duration maxQueueWait;
+        private Duration lag;
+        private Duration maxLag;
+        private boolean isBlocked;
+        private long blockedCount;
+        private List<StackTraceElement> blockedStackTrace;
+
+        /**
+         * @param threadName Name of thread. <b>Must be specified.</b>
+         * @return This builder.
+         */
+        public Builder threadName(final String threadName) {
+            this.threadName = threadName;
+            return this;
+        }
+
+        /**
+         * @param pendingTasks Number of jobs waiting to be executed.
+         * @return This builder.
+         */
+        public Builder pendingTasks(final int pendingTasks) {
+            this.pendingTasks = pendingTasks;
+            return this;
+        }
+
+        /**
+         * @param queueWait Time most recent probe job waited.
+         * @return This builder.
+         */
+        public Builder queueWait(final Duration queueWait) {
+            this.queueWait = queueWait;
+            return this;
+        }
+
+        /**
+         * @param maxQueueWait Longest time any probe job waited.
+         * @return This builder.
+         */
+        public Builder maxQueueWait(final Duration maxQueueWait) {
+            this.maxQueueWait = maxQueueWait;
+            return this;
+        }
+
+        /**
+         * @param lag Lag of most recent delayed probe job.
+         * @return This builder.
+         */
+        public Builder lag(final Duration lag) {
+            this.lag = lag;
+            return this;
+        }
+
+        /**
+         * @param maxLag Largest lag of any delayed probe job.
+         * @return This builder.
+         */
+        public Builder maxLag(final Duration maxLag) {
+            this.maxLag = maxLag;
+            return this;
+        }
+
+        /**
+         * @param isBlocked Whether thread is currently blocked.
+         * @return This builder.
+         */
+        public Builder blocked(final boolean isBlocked) {
+            this.isBlocked = isBlocked;
+            return this;
+        }
+
+        /**
+         * @param blockedCount Number of times thread has been found blocked.
+         * @return This builder.
+         */
+        public Builder blockedCount(final long blockedCount) {
+            this.blockedCount = blockedCount;
+            return this;
+        }
+
+        /**
+         * @param blockedStackTrace Stack trace of thread when last found
+         *                          blocked.
+         * @return This builder.
+         */
+        public Builder blockedStackTrace(final List<StackTraceElement> blockedStackTrace) {
+            this.blockedStackTrace = blockedStackTrace;
+            return this;
+        }
+
+        /**
+         * @return New scheduler thread metrics snapshot.
+         */
+        public SchedulerThreadMetrics build() {
+            return new SchedulerThreadMetrics(this);
+        }
+    }
+}
@@ -2,20 +2,24 @@ package se.arkalix.util.concurrent;
 
 import se.arkalix.util.concurrent._internal.DynamicScheduler;
 import se.arkalix.util.concurrent._internal.NettyScheduler;
+import se.arkalix.util.concurrent._internal.VirtualScheduler;
 import se.arkalix.util.annotation.ThreadSafe;
 
+import java.util.Objects;
+
 /**
  * Kalix default schedulers.
  * <p>
  * These schedulers are used by default by all parts of the Kalix library that
  * need scheduling capabilities to operate. They are started up automatically
- * when this class is loaded for the first time, and are shut down
- * automatically when the application is terminated via an OS interrupt signal
- * or by calling {@link System#exit(int)}.
+ * when first used, and are shut down automatically when the application is
+ * terminated via an OS interrupt signal or by calling {@link
+ * System#exit(int)}.
  * <p>
  * Two default schedulers are provided, a <i>fixed</i> and a <i>dynamic</i>.
  * The former is fixed in the sense that it contains a fixed number of pooled
- * threads, chosen to make optimal use of the number of available system CPUs,
+ * threads, chosen to make optimal use of the number of available system CPUs
+ * unless {@link #configureFixed(FixedSchedulerConfig) configured} otherwise,
  * while the latter is dynamic in the sense that it will contain as many
  * threads as are necessary to prevent pending jobs from having to wait before
  * being executed.
@@ -35,45 +39,70 @@ import se.arkalix.util.annotation.ThreadSafe;
  * Furthermore, as a way to minimize synchronization between threads, the fixed
  * size scheduler guarantees that if a job is scheduled by one of its pooled
  * threads, the job will be executed by the thread that scheduled it.
+ * <p>
+ * If running on a JVM with support for virtual threads, a third <i>virtual</i>
+ * scheduler is also provided, which executes every job on a new virtual
+ * thread. Being much cheaper to create and block than regular threads,
+ * virtual threads make the virtual scheduler a better alternative than the
+ * dynamic scheduler for jobs that block while waiting for I/O, such as JDBC
+ * calls. The virtual scheduler is started the first time it is requested.
  */
 public class Schedulers {
     private static final DynamicScheduler dynamicScheduler = new DynamicScheduler();
-    private static final NettyScheduler fixedScheduler = new NettyScheduler();
+
+    private static FixedSchedulerConfig fixedSchedulerConfig = FixedSchedulerConfig.defaults();
+    private static volatile NettyScheduler fixedScheduler = null;
 
     static {
-        final var runtime = Runtime.getRuntime();
+        addShutdownHook(dynamicScheduler, dynamicScheduler::shutdown);
+    }
 
-        final Thread hookDynamic = new Thread(dynamicScheduler::shutdown);
-        runtime.addShutdownHook(hookDynamic);
-        dynamicScheduler.addShutdownListener(scheduler -> {
-            try {
-                runtime.removeShutdownHook(hookDynamic);
-            }
-            catch (final IllegalStateException exception) {
-                // Ignored.
-            }
-        });
+    private Schedulers() {}
 
-        final Thread hookFixed = new Thread(fixedScheduler::shutdown);
-        runtime.addShutdownHook(hookFixed);
-        fixedScheduler.addShutdownListener(scheduler -> {
-            try {
-                runtime.removeShutdownHook(hookFixed);
-            }
-            catch (final IllegalStateException exception) {
-                // Ignored.
+    /**
+     * Sets how the threads of the {@link #fixed() fixed scheduler} are to be
+     * organized.
+     * <p>
+     * As the fixed scheduler is shared by all parts of an application, this
+     * method must be called before the fixed scheduler is first used, which
+     * typically happens when the first {@link se.arkalix.ArSystem ArSystem}
+     * is created. Calling this method after that point has no effect if the
+     * given configuration is equal to the one already in use.
+     *
+     * @param config Desired fixed scheduler configuration.
+     * @throws IllegalStateException If the fixed scheduler has already been
+     *                               started with another configuration.
+     */
+    @ThreadSafe
+    public static synchronized void configureFixed(final FixedSchedulerConfig config) {
+        Objects.requireNonNull(config, "config");
+        if (fixedScheduler != null) {
+            if (!fixedSchedulerConfig.equals(config)) {
+                throw new IllegalStateException("Fixed scheduler already " +
+                    "started with " + fixedSchedulerConfig + "; cannot " +
+                    "reconfigure it to use " + config);
             }
-        });
+            return;
+        }
+        fixedSchedulerConfig = config;
     }
 
-    private Schedulers() {}
-
     /**
      * @return Reference to scheduler with a fixed-size thread pool.
      * @see Schedulers Class documentation for more details.
      */
     @ThreadSafe
     public static Scheduler fixed() {
+        final var scheduler = fixedScheduler;
+        return scheduler != null ? scheduler : startFixed();
+    }
+
+    private static synchronized Scheduler startFixed() {
+        if (fixedScheduler == null) {
+            final var scheduler = new NettyScheduler(fixedSchedulerConfig);
+            addShutdownHook(scheduler, scheduler::shutdown);
+            fixedScheduler = scheduler;
+        }
         return fixedScheduler;
     }
 
@@ -85,4 +114,47 @@ public class Schedulers {
     public static Scheduler dynamic() {
         return dynamicScheduler;
     }
+
+    /**
+     * @return Reference to a scheduler executing each job on a new virtual
+     * thread, or the {@link #dynamic() dynamic scheduler} if virtual threads
+     * are not supported by the current JVM.
+     * @see Schedulers Class documentation for more details.
+     */
+    @ThreadSafe
+    public static Scheduler virtual() {
+        return VirtualSchedulerHolder.scheduler;
+    }
+
+    /**
+     * @return {@code true} only if the {@link #virtual() virtual scheduler}
+     * executes its jobs on virtual threads.
+     */
+    @ThreadSafe
+    public static boolean isVirtualSupported() {
+        return VirtualSchedulerHolder.scheduler != dynamicScheduler;
+    }
+
+    private static void addShutdownHook(final Scheduler scheduler, final Runnable shutdown) {
+        final var runtime = Runtime.getRuntime();
+        final Thread hook = new Thread(shutdown);
+        runtime.addShutdownHook(hook);
+        scheduler.addShutdownListener(scheduler0 -> {
+            try {
+                runtime.removeShutdownHook(hook);
+            }
+            catch (final IllegalStateException exception) {
+                // Ignored.
+            }
+        });
+    }
+
+    private static final class VirtualSchedulerHolder {
+        private static final Scheduler scheduler = VirtualScheduler.tryCreate()
+            .map(virtualScheduler -> {
+                addShutdownHook(virtualScheduler, virtualScheduler::shutdown);
+                return (Scheduler) virtualScheduler;
+            })
+            .orElse(dynamicScheduler);
+    }
 }
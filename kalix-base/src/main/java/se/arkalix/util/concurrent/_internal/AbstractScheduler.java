@@ -1,5 +1,9 @@
 package se.arkalix.util.concurrent._internal;
 
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import se.arkalix.util.Result;
@@ -12,6 +16,8 @@ import java.time.Duration;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -20,9 +26,27 @@ import java.util.concurrent.atomic.AtomicBoolean;
 abstract class AbstractScheduler implements Scheduler {
     private static final Logger logger = LoggerFactory.getLogger(AbstractScheduler.class);
 
+    /**
+     * Tick duration of the timer used by {@link #scheduleCoarse(Duration,
+     * Runnable)}, in milliseconds.
+     */
+    private static final long TIMER_TICK_MS = 10;
+
+    /**
+     * Number of buckets in the wheel of the timer used by {@link
+     * #scheduleCoarse(Duration, Runnable)}. Timeouts due within one turn of
+     * the wheel, or about 10 seconds, are never visited before being due.
+     */
+    private static final int TIMER_WHEEL_SIZE = 1024;
+
     private final AtomicBoolean isShuttingDown = new AtomicBoolean(false);
     private final Set<SchedulerShutdownListener> shutdownListeners = new CopyOnWriteArraySet<>();
 
+    // The timer thread is only started when the first timeout is scheduled.
+    private final HashedWheelTimer timer = new HashedWheelTimer(
+        new DefaultThreadFactory("kalix-timer", true),
+        TIMER_TICK_MS, TimeUnit.MILLISECONDS, TIMER_WHEEL_SIZE);
+
     protected abstract ScheduledExecutorService executor();
 
     @Override
@@ -143,6 +167,27 @@ abstract class AbstractScheduler implements Scheduler {
         }
     }
 
+    @Override
+    public Future<?> scheduleCoarse(final Duration delay, final Runnable command) {
+        try {
+            // Commands are executed by the executor that would have executed
+            // them had they been scheduled via schedule().
+            final var task = new CoarseTask(executor(), command);
+            final Timeout timeout;
+            try {
+                timeout = timer.newTimeout(task, delay.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            catch (final IllegalStateException exception) {
+                throw new RejectedExecutionException("Scheduler shut down; command not scheduled", exception);
+            }
+            task.adapter.setCancelCallback(ignored -> timeout.cancel());
+            return task.adapter;
+        }
+        catch (final Throwable throwable) {
+            return Future.failure(throwable);
+        }
+    }
+
     @Override
     public Future<?> scheduleAtFixedRate(final Duration initialDelay, final Duration rate, final Runnable command) {
         try {
@@ -196,6 +241,18 @@ abstract class AbstractScheduler implements Scheduler {
         }
         executor().execute(this::notifyShutdownListeners);
         executor().shutdown();
+        stopTimer();
+    }
+
+    // Timeouts not yet due when the timer is stopped are never executed,
+    // which is why their futures are failed instead of left pending.
+    protected void stopTimer() {
+        for (final var timeout : timer.stop()) {
+            final var task = timeout.task();
+            if (task instanceof CoarseTask) {
+                ((CoarseTask) task).reject();
+            }
+        }
     }
 
     protected void notifyShutdownListeners() {
@@ -224,4 +281,43 @@ abstract class AbstractScheduler implements Scheduler {
         }
         shutdownListeners.remove(listener);
     }
+
+    private static class CoarseTask implements TimerTask {
+        private final Executor executor;
+        private final Runnable command;
+        private final FutureCompletion<Object> adapter = new FutureCompletion<>();
+
+        private CoarseTask(final Executor executor, final Runnable command) {
+            this.executor = executor;
+            this.command = command;
+        }
+
+        @Override
+        public void run(final Timeout timeout) {
+            try {
+                executor.execute(() -> {
+                    if (adapter.isCancelled()) {
+                        return;
+                    }
+                    Result<Object> result0;
+                    try {
+                        command.run();
+                        result0 = Result.done();
+                    }
+                    catch (final Throwable throwable) {
+                        result0 = Result.failure(throwable);
+                    }
+                    adapter.complete(result0);
+                });
+            }
+            catch (final Throwable throwable) {
+                adapter.complete(Result.failure(throwable));
+            }
+        }
+
+        private void reject() {
+            adapter.complete(Result.failure(new RejectedExecutionException("" +
+                "Scheduler shut down; command not executed")));
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package se.arkalix.util.concurrent._internal;
+
+import se.arkalix.util.Result;
+import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.Future;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@code Future} completed when all of a list of other futures have
+ * completed successfully, or when any one of them fails.
+ * <p>
+ * If any future fails, or if this future is cancelled, every other future is
+ * cancelled.
+ *
+ * @param <V> Type of values of completed futures.
+ */
+@Internal
+public class FutureAll<V> extends FutureCompletion<List<V>> {
+    private final List<? extends Future<? extends V>> futures;
+    private final Object[] values;
+    private final AtomicInteger remaining;
+    private final AtomicBoolean isDone = new AtomicBoolean(false);
+
+    public FutureAll(final List<? extends Future<? extends V>> futures) {
+        this.futures = Objects.requireNonNull(futures, "futures");
+        values = new Object[futures.size()];
+        remaining = new AtomicInteger(values.length);
+
+        setCancelCallback(mayInterruptIfRunning -> cancelAll(-1, mayInterruptIfRunning));
+
+        if (values.length == 0) {
+            complete(Result.success(List.of()));
+            return;
+        }
+        for (var i = 0; i < values.length; ++i) {
+            final var index = i;
+            futures.get(i).onResult(result -> onResult(index, result));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onResult(final int index, final Result<? extends V> result) {
+        if (result.isFailure()) {
+            if (isDone.compareAndSet(false, true)) {
+                cancelAll(index, false);
+                complete(Result.failure(result.fault()));
+            }
+            return;
+        }
+        values[index] = result.value();
+
+        // The decrement publishes the value written above to whatever thread
+        // ends up decrementing the counter to zero.
+        if (remaining.decrementAndGet() == 0 && isDone.compareAndSet(false, true)) {
+            complete(Result.success((List<V>) Arrays.asList(values)));
+        }
+    }
+
+    private void cancelAll(final int exceptIndex, final boolean mayInterruptIfRunning) {
+        for (var i = 0; i < futures.size(); ++i) {
+            if (i != exceptIndex) {
+                futures.get(i).cancel(mayInterruptIfRunning);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package se.arkalix.util.concurrent._internal;
+
+import se.arkalix.util.Result;
+import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.Future;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A {@code Future} completed when any one out of a list of other futures
+ * completes successfully, or when all of them have failed.
+ * <p>
+ * When any future succeeds, or if this future is cancelled, every other
+ * future is cancelled.
+ *
+ * @param <V> Type of values of completed futures.
+ */
+@Internal
+public class FutureAny<V> extends FutureCompletion<V> {
+    private final List<? extends Future<? extends V>> futures;
+    private final AtomicInteger remaining;
+    private final AtomicBoolean isDone = new AtomicBoolean(false);
+    private final AtomicReference<Throwable> fault = new AtomicReference<>(null);
+
+    public FutureAny(final List<? extends Future<? extends V>> futures) {
+        this.futures = Objects.requireNonNull(futures, "futures");
+        remaining = new AtomicInteger(futures.size());
+
+        setCancelCallback(mayInterruptIfRunning -> cancelAll(-1, mayInterruptIfRunning));
+
+        if (futures.isEmpty()) {
+            complete(Result.failure(new NoSuchElementException("No futures provided")));
+            return;
+        }
+        for (var i = 0; i < futures.size(); ++i) {
+            final var index = i;
+            futures.get(i).onResult(result -> onResult(index, result));
+        }
+    }
+
+    private void onResult(final int index, final Result<? extends V> result) {
+        if (result.isSuccess()) {
+            if (isDone.compareAndSet(false, true)) {
+                cancelAll(index, false);
+                complete(Result.success(result.value()));
+            }
+            return;
+        }
+        final var fault0 = result.fault();
+        if (!fault.compareAndSet(null, fault0)) {
+            fault.get().addSuppressed(fault0);
+        }
+        if (remaining.decrementAndGet() == 0 && isDone.compareAndSet(false, true)) {
+            complete(Result.failure(fault.get()));
+        }
+    }
+
+    private void cancelAll(final int exceptIndex, final boolean mayInterruptIfRunning) {
+        for (var i = 0; i < futures.size(); ++i) {
+            if (i != exceptIndex) {
+                futures.get(i).cancel(mayInterruptIfRunning);
+            }
+        }
+    }
+}
@@ -4,65 +4,128 @@ import se.arkalix.util.Result;
 import se.arkalix.util.annotation.Internal;
 import se.arkalix.util.concurrent.Future;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.function.Consumer;
 
 @Internal
 public class FutureCompletion<V> implements Future<V> {
-    private Consumer<Boolean> cancelCallback = null;
-    private Consumer<Result<V>> consumer = null;
-    private Result<V> result = null;
+    private static final VarHandle CANCEL_CALLBACK;
+    private static final VarHandle IS_COMPLETED;
+    private static final VarHandle STATE;
 
-    private boolean isCancelled = false;
-    private boolean isCompleted = false;
+    static {
+        try {
+            final var lookup = MethodHandles.lookup();
+            CANCEL_CALLBACK = lookup.findVarHandle(FutureCompletion.class, "cancelCallback", Consumer.class);
+            IS_COMPLETED = lookup.findVarHandle(FutureCompletion.class, "isCompleted", boolean.class);
+            STATE = lookup.findVarHandle(FutureCompletion.class, "state", Object.class);
+        }
+        catch (final ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
 
-    public synchronized boolean isCancelled() {
-        return isCancelled;
+    // Either null, if neither a consumer nor a result has been provided, a
+    // Waiting instance, a Done instance, DELIVERED or CANCELLED.
+    private static final Object DELIVERED = new Object();
+    private static final Object CANCELLED = new Object();
+
+    private volatile Consumer<Boolean> cancelCallback = null;
+    private volatile boolean isCompleted = false;
+    private volatile Object state = null;
+
+    public boolean isCancelled() {
+        return state == CANCELLED;
     }
 
-    public synchronized boolean isCompleted() {
+    public boolean isCompleted() {
         return isCompleted;
     }
 
-    public synchronized void complete(final Result<V> result) {
-        if (isCompleted) {
+    @SuppressWarnings("unchecked")
+    public void complete(final Result<V> result) {
+        if (!IS_COMPLETED.compareAndSet(this, false, true)) {
             throw new IllegalStateException("Already completed");
         }
-        if (consumer != null) {
-            consumer.accept(result);
-            consumer = null;
+        while (true) {
+            final var state = this.state;
+            if (state == null) {
+                if (STATE.compareAndSet(this, null, new Done<>(result))) {
+                    return;
+                }
+            }
+            else if (state instanceof Waiting) {
+                if (STATE.compareAndSet(this, state, DELIVERED)) {
+                    ((Waiting<V>) state).consumer.accept(result);
+                    return;
+                }
+            }
+            else {
+                return; // Cancelled.
+            }
         }
-        else if (!isCancelled) {
-            this.result = result;
-        }
-        isCompleted = true;
     }
 
-    public synchronized void setCancelCallback(final Consumer<Boolean> cancelCallback) {
-        if (!isCancelled) {
-            this.cancelCallback = cancelCallback;
+    public void setCancelCallback(final Consumer<Boolean> cancelCallback) {
+        if (state == CANCELLED) {
+            return;
+        }
+        this.cancelCallback = cancelCallback;
+
+        // If cancelled concurrently, the callback may or may not have been
+        // invoked, just as if the cancellation had happened before or after
+        // this method was called.
+        if (state == CANCELLED) {
+            CANCEL_CALLBACK.compareAndSet(this, cancelCallback, null);
         }
     }
 
     @Override
-    public synchronized void onResult(final Consumer<Result<V>> consumer) {
-        if (result != null) {
-            consumer.accept(result);
-            result = null;
-            isCompleted = true;
-        }
-        else if (!isCancelled) {
-            this.consumer = consumer;
+    @SuppressWarnings("unchecked")
+    public void onResult(final Consumer<Result<V>> consumer) {
+        while (true) {
+            final var state = this.state;
+            if (state == null || state instanceof Waiting) {
+                if (STATE.compareAndSet(this, state, new Waiting<>(consumer))) {
+                    return;
+                }
+            }
+            else if (state instanceof Done) {
+                if (STATE.compareAndSet(this, state, DELIVERED)) {
+                    consumer.accept(((Done<V>) state).result);
+                    return;
+                }
+            }
+            else {
+                return; // Delivered or cancelled.
+            }
         }
     }
 
     @Override
-    public synchronized void cancel(final boolean mayInterruptIfRunning) {
+    @SuppressWarnings("unchecked")
+    public void cancel(final boolean mayInterruptIfRunning) {
+        state = CANCELLED;
+        final var cancelCallback = (Consumer<Boolean>) CANCEL_CALLBACK.getAndSet(this, null);
         if (cancelCallback != null) {
             cancelCallback.accept(mayInterruptIfRunning);
-            cancelCallback = null;
         }
-        consumer = null;
-        result = null;
-        isCancelled = true;
+    }
+
+    private static final class Waiting<V> {
+        private final Consumer<Result<V>> consumer;
+
+        private Waiting(final Consumer<Result<V>> consumer) {
+            this.consumer = consumer;
+        }
+    }
+
+    private static final class Done<V> {
+        private final Result<V> result;
+
+        private Done(final Result<V> result) {
+            this.result = result;
+        }
     }
 }
@@ -1,53 +1,142 @@
 package se.arkalix.util.concurrent._internal;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import se.arkalix.util.Result;
 import se.arkalix.util.concurrent.Future;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Objects;
 import java.util.function.Consumer;
 
+/**
+ * A {@code Future} completed by the consumer of another {@code Future}.
+ * <p>
+ * If completed before a consumer is provided via {@link
+ * #onResult(Consumer)}, the result is retained and handed over to that
+ * consumer as soon as it is provided. This matters when this future is
+ * derived from another future that was already completed when it was
+ * consumed.
+ */
 public class FutureConsumption<V> implements Future<V> {
-    private static final Logger logger = LoggerFactory.getLogger(FutureConsumption.class);
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(FutureConsumption.class, "state", Object.class);
+        }
+        catch (final ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    // Either null, if neither a consumer nor a result has been provided, a
+    // Waiting instance, a Done instance, a Forwarded instance or DELIVERED.
+    private static final Object DELIVERED = new Object();
 
     private final Future<?> parent;
 
-    private Consumer<Result<V>> consumer;
+    private volatile Object state = null;
 
     public FutureConsumption(final Future<?> parent) {
         this.parent = Objects.requireNonNull(parent, "parent");
     }
 
+    @SuppressWarnings("unchecked")
     public void consume(final Result<V> result) {
-        if (consumer == null) {
-            if (logger.isTraceEnabled()) {
-                logger.trace("Future result ignored: {}", result);
+        while (true) {
+            final var state = this.state;
+            if (state == null) {
+                if (STATE.compareAndSet(this, null, new Done<>(result))) {
+                    return;
+                }
+            }
+            else if (state instanceof Waiting) {
+                if (STATE.compareAndSet(this, state, DELIVERED)) {
+                    ((Waiting<V>) state).consumer.accept(result);
+                    return;
+                }
+            }
+            else {
+                return; // Already completed.
             }
-        }
-        else {
-            consumer.accept(result);
         }
     }
 
+    @SuppressWarnings("unchecked")
     public void consume(final Future<V> future) {
-        if (consumer == null) {
-            if (logger.isTraceEnabled()) {
-                logger.trace("Future ignored: {}", future);
+        while (true) {
+            final var state = this.state;
+            if (state == null) {
+                if (STATE.compareAndSet(this, null, new Forwarded<>(future))) {
+                    return;
+                }
+            }
+            else if (state instanceof Waiting) {
+                if (STATE.compareAndSet(this, state, DELIVERED)) {
+                    future.onResult(((Waiting<V>) state).consumer);
+                    return;
+                }
+            }
+            else {
+                return; // Already completed.
             }
-        }
-        else {
-            future.onResult(consumer);
         }
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void onResult(final Consumer<Result<V>> consumer) {
-        this.consumer = consumer;
+        while (true) {
+            final var state = this.state;
+            if (state == null || state instanceof Waiting) {
+                if (STATE.compareAndSet(this, state, new Waiting<>(consumer))) {
+                    return;
+                }
+            }
+            else if (state instanceof Done) {
+                if (STATE.compareAndSet(this, state, DELIVERED)) {
+                    consumer.accept(((Done<V>) state).result);
+                    return;
+                }
+            }
+            else if (state instanceof Forwarded) {
+                if (STATE.compareAndSet(this, state, DELIVERED)) {
+                    ((Forwarded<V>) state).future.onResult(consumer);
+                    return;
+                }
+            }
+            else {
+                return; // Delivered.
+            }
+        }
     }
 
     @Override
     public void cancel(final boolean mayInterruptIfRunning) {
         parent.cancel(mayInterruptIfRunning);
     }
+
+    private static final class Waiting<V> {
+        private final Consumer<Result<V>> consumer;
+
+        private Waiting(final Consumer<Result<V>> consumer) {
+            this.consumer = consumer;
+        }
+    }
+
+    private static final class Done<V> {
+        private final Result<V> result;
+
+        private Done(final Result<V> result) {
+            this.result = result;
+        }
+    }
+
+    private static final class Forwarded<V> {
+        private final Future<V> future;
+
+        private Forwarded(final Future<V> future) {
+            this.future = future;
+        }
+    }
 }
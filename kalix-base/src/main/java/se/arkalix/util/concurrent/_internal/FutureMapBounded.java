@@ -0,0 +1,145 @@
+package se.arkalix.util.concurrent._internal;
+
+import se.arkalix.util.Result;
+import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.function.ThrowingFunction;
+
+import java.util.*;
+
+/**
+ * A {@code Future} completed when a mapping function has been applied to
+ * every element of an iterator and every {@code Future} returned by that
+ * function has completed successfully, or when any such {@code Future} fails.
+ * <p>
+ * The mapping function is never applied to more elements than there are
+ * permitted futures in flight. As soon as one future completes, the function
+ * is applied to the next element, if any. If any future fails, or if this
+ * future is cancelled, no more elements are mapped and every future still in
+ * flight is cancelled.
+ *
+ * @param <T> Type of mapped elements.
+ * @param <U> Type of values of completed futures.
+ */
+@Internal
+public class FutureMapBounded<T, U> extends FutureCompletion<List<U>> {
+    private final Iterator<? extends T> iterator;
+    private final int maxInFlight;
+    private final ThrowingFunction<? super T, ? extends Future<? extends U>> mapper;
+
+    private final Map<Integer, Future<? extends U>> inFlight = new HashMap<>();
+    private final List<U> values = new ArrayList<>();
+
+    private boolean isDone = false;
+    private boolean isMapping = false;
+    private List<Future<? extends U>> toCancel = null;
+
+    public FutureMapBounded(
+        final Iterator<? extends T> iterator,
+        final int maxInFlight,
+        final ThrowingFunction<? super T, ? extends Future<? extends U>> mapper)
+    {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight <= 0");
+        }
+        this.iterator = Objects.requireNonNull(iterator, "iterator");
+        this.maxInFlight = maxInFlight;
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+
+        setCancelCallback(this::cancelInFlight);
+
+        deliver(map());
+    }
+
+    // Returns a result only if this future is to be completed, which must
+    // happen after the lock of this object has been released, as completion
+    // causes arbitrary consumer code to be executed. The same applies to the
+    // cancellation of any futures in flight when the mapping is aborted.
+    private synchronized Result<List<U>> map() {
+        // Futures completing synchronously while being mapped cause this
+        // method to be called recursively, which is prevented by letting the
+        // outermost call do all mapping.
+        if (isMapping || isDone) {
+            return null;
+        }
+        isMapping = true;
+        try {
+            while (inFlight.size() < maxInFlight && iterator.hasNext()) {
+                final var index = values.size();
+                values.add(null);
+                final Future<? extends U> future;
+                try {
+                    future = mapper.apply(iterator.next());
+                }
+                catch (final Throwable throwable) {
+                    return abort(throwable);
+                }
+                inFlight.put(index, future);
+                future.onResult(result -> deliver(onResult(index, result)));
+                if (isDone) {
+                    return null;
+                }
+            }
+            if (inFlight.isEmpty()) {
+                isDone = true;
+                return Result.success(values);
+            }
+            return null;
+        }
+        finally {
+            isMapping = false;
+        }
+    }
+
+    private Result<List<U>> onResult(final int index, final Result<? extends U> result) {
+        synchronized (this) {
+            if (isDone) {
+                return null;
+            }
+            inFlight.remove(index);
+            if (result.isFailure()) {
+                return abort(result.fault());
+            }
+            values.set(index, result.value());
+        }
+        return map();
+    }
+
+    // Must be called while holding the lock of this object. The futures in
+    // flight are cancelled by deliver() after the lock has been released.
+    private Result<List<U>> abort(final Throwable fault) {
+        isDone = true;
+        toCancel = new ArrayList<>(inFlight.values());
+        inFlight.clear();
+        return Result.failure(fault);
+    }
+
+    private void cancelInFlight(final boolean mayInterruptIfRunning) {
+        final List<Future<? extends U>> futures;
+        synchronized (this) {
+            isDone = true;
+            futures = new ArrayList<>(inFlight.values());
+            inFlight.clear();
+        }
+        for (final var future : futures) {
+            future.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    private void deliver(final Result<List<U>> result) {
+        if (result == null) {
+            return;
+        }
+        final List<Future<? extends U>> futures;
+        synchronized (this) {
+            futures = toCancel;
+            toCancel = null;
+        }
+        if (futures != null) {
+            for (final var future : futures) {
+                future.cancel(false);
+            }
+        }
+        complete(result);
+    }
+}
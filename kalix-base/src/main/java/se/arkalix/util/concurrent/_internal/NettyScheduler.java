@@ -15,7 +15,11 @@ import io.netty.channel.socket.nio.NioSocketChannel;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.FixedSchedulerConfig;
+import se.arkalix.util.concurrent.SchedulerMetrics;
 
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
@@ -24,46 +28,130 @@ public final class NettyScheduler extends AbstractScheduler {
     private static final Logger logger = LoggerFactory.getLogger(NettyScheduler.class);
 
     private final EventLoopGroup eventLoopGroup;
+    private final EventLoopGroup acceptorEventLoopGroup;
     private final Class<? extends SocketChannel> socketChannelClass;
     private final Class<? extends ServerSocketChannel> serverSocketChannelClass;
+    private final int acceptorCount;
+    private final boolean isReusePort;
+    private final NettySchedulerMonitor monitor;
 
     public NettyScheduler() {
-        final var threadFactory = new NettyThreadFactory();
+        this(FixedSchedulerConfig.defaults());
+    }
+
+    public NettyScheduler(final FixedSchedulerConfig config) {
+        Objects.requireNonNull(config, "config");
+
+        final var threadFactory = new NettyThreadFactory("kalix-fixed-", config.isCpuAffinity());
+        final var acceptorThreadFactory = new NettyThreadFactory("kalix-acceptor-", config.isCpuAffinity());
+        final var workerThreads = config.workerThreads();
+        final var acceptorThreads = config.acceptorThreads();
         final var os = System.getProperty("os.name", "").toLowerCase();
 
         EventLoopGroup eventLoopGroup0 = null;
+        EventLoopGroup acceptorEventLoopGroup0 = null;
         Class<? extends SocketChannel> socketChannelClass0 = null;
         Class<? extends ServerSocketChannel> serverSocketChannelClass0 = null;
+        var isReusePort0 = false;
 
         try {
             if (os.contains("linux")) {
-                eventLoopGroup0 = new EpollEventLoopGroup(threadFactory);
+                eventLoopGroup0 = new EpollEventLoopGroup(workerThreads, threadFactory);
+                if (acceptorThreads > 0) {
+                    acceptorEventLoopGroup0 = new EpollEventLoopGroup(acceptorThreads, acceptorThreadFactory);
+                }
                 socketChannelClass0 = EpollSocketChannel.class;
                 serverSocketChannelClass0 = EpollServerSocketChannel.class;
+                isReusePort0 = config.isReusePort();
             }
             else if (os.contains("bsd")) {
-                eventLoopGroup0 = new KQueueEventLoopGroup(threadFactory);
+                eventLoopGroup0 = new KQueueEventLoopGroup(workerThreads, threadFactory);
+                if (acceptorThreads > 0) {
+                    acceptorEventLoopGroup0 = new KQueueEventLoopGroup(acceptorThreads, acceptorThreadFactory);
+                }
                 socketChannelClass0 = KQueueSocketChannel.class;
                 serverSocketChannelClass0 = KQueueServerSocketChannel.class;
             }
         }
-        catch (final UnsatisfiedLinkError ignored) {}
+        catch (final UnsatisfiedLinkError ignored) {
+            if (eventLoopGroup0 != null) {
+                eventLoopGroup0.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+                eventLoopGroup0 = null;
+            }
+            if (acceptorEventLoopGroup0 != null) {
+                acceptorEventLoopGroup0.shutdownGracefully(0, 0, TimeUnit.MILLISECONDS);
+                acceptorEventLoopGroup0 = null;
+            }
+            isReusePort0 = false;
+        }
 
         if (eventLoopGroup0 == null) {
-            eventLoopGroup0 = new NioEventLoopGroup(threadFactory);
+            eventLoopGroup0 = new NioEventLoopGroup(workerThreads, threadFactory);
+            if (acceptorThreads > 0) {
+                acceptorEventLoopGroup0 = new NioEventLoopGroup(acceptorThreads, acceptorThreadFactory);
+            }
             socketChannelClass0 = NioSocketChannel.class;
             serverSocketChannelClass0 = NioServerSocketChannel.class;
         }
 
+        if (config.isReusePort() && !isReusePort0) {
+            logger.warn("SO_REUSEPORT requested, but not supported on this " +
+                "platform; servers will bind only one socket each");
+        }
+
         eventLoopGroup = eventLoopGroup0;
+        acceptorEventLoopGroup = acceptorEventLoopGroup0 != null
+            ? acceptorEventLoopGroup0
+            : eventLoopGroup0;
         socketChannelClass = socketChannelClass0;
         serverSocketChannelClass = serverSocketChannelClass0;
+        acceptorCount = countEventLoopsOf(acceptorEventLoopGroup);
+        isReusePort = isReusePort0;
+        monitor = new NettySchedulerMonitor(acceptorEventLoopGroup != eventLoopGroup
+            ? List.of(eventLoopGroup, acceptorEventLoopGroup)
+            : List.of(eventLoopGroup), config);
+    }
+
+    private static int countEventLoopsOf(final EventLoopGroup eventLoopGroup) {
+        var count = 0;
+        for (final var ignored : eventLoopGroup) {
+            count += 1;
+        }
+        return count;
     }
 
+    /**
+     * @return Group of event loops performing network I/O and executing jobs
+     * submitted to this scheduler.
+     */
     public EventLoopGroup eventLoopGroup() {
         return eventLoopGroup;
     }
 
+    /**
+     * @return Group of event loops accepting incoming connections, which is
+     * the same as {@link #eventLoopGroup()} if no dedicated acceptor threads
+     * were configured.
+     */
+    public EventLoopGroup acceptorEventLoopGroup() {
+        return acceptorEventLoopGroup;
+    }
+
+    /**
+     * @return Number of event loops in {@link #acceptorEventLoopGroup()}.
+     */
+    public int acceptorCount() {
+        return acceptorCount;
+    }
+
+    /**
+     * @return {@code true} only if servers are to bind one socket per
+     * acceptor event loop using the {@code SO_REUSEPORT} socket option.
+     */
+    public boolean isReusePort() {
+        return isReusePort;
+    }
+
     public Class<? extends SocketChannel> socketChannelClass() {
         return socketChannelClass;
     }
@@ -78,12 +166,19 @@ public final class NettyScheduler extends AbstractScheduler {
             .orElseGet(eventLoopGroup::next);
     }
 
+    @Override
+    public SchedulerMetrics metrics() {
+        return monitor.metrics();
+    }
+
     @Override
     public void shutdown() {
         if (super.isShuttingDown()) {
             throw new IllegalStateException("Already shutting down");
         }
+        monitor.stop();
         notifyShutdownListeners();
+        stopTimer();
         eventLoopGroup
             .schedule(this::shutdownNow, 200, TimeUnit.MILLISECONDS)
             .addListener(future -> {
@@ -97,6 +192,9 @@ public final class NettyScheduler extends AbstractScheduler {
     }
 
     private void shutdownNow() {
+        if (acceptorEventLoopGroup != eventLoopGroup) {
+            acceptorEventLoopGroup.shutdownGracefully(0, 800, TimeUnit.MILLISECONDS);
+        }
         eventLoopGroup
             .shutdownGracefully(200, 800, TimeUnit.MILLISECONDS)
             .addListener(future -> {
@@ -0,0 +1,230 @@
+package se.arkalix.util.concurrent._internal;
+
+import io.netty.channel.EventLoop;
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.arkalix.util.annotation.Internal;
+import se.arkalix.util.concurrent.FixedSchedulerConfig;
+import se.arkalix.util.concurrent.SchedulerMetrics;
+import se.arkalix.util.concurrent.SchedulerThreadMetrics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically submits probe jobs to the event loops of a {@link
+ * NettyScheduler} in order to measure their health, as well as to detect and
+ * report event loops being blocked.
+ * <p>
+ * Probing is performed by a dedicated daemon thread, as a blocked event loop
+ * cannot be relied upon to report on itself. No such thread is started, nor
+ * are any jobs submitted to the event loops, unless probing is enabled.
+ */
+@Internal
+class NettySchedulerMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(NettySchedulerMonitor.class);
+
+    private final List<Probe> probes;
+    private final long intervalNanos;
+    private final long blockedThresholdNanos;
+    private final Thread thread;
+
+    NettySchedulerMonitor(final List<EventLoopGroup> eventLoopGroups, final FixedSchedulerConfig config) {
+        intervalNanos = config.monitorInterval().toNanos();
+        blockedThresholdNanos = config.blockedThreshold().toNanos();
+
+        final var probes = new ArrayList<Probe>();
+        for (final var eventLoopGroup : eventLoopGroups) {
+            for (final var executor : eventLoopGroup) {
+                probes.add(new Probe((EventLoop) executor, probes.size()));
+            }
+        }
+        this.probes = probes;
+
+        if (intervalNanos > 0) {
+            for (final var probe : probes) {
+                probe.start();
+            }
+            thread = new Thread(this::run, "kalix-monitor");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        else {
+            thread = null;
+        }
+    }
+
+    SchedulerMetrics metrics() {
+        final var threads = new ArrayList<SchedulerThreadMetrics>(probes.size());
+        for (final var probe : probes) {
+            threads.add(probe.metrics());
+        }
+        return new SchedulerMetrics(threads);
+    }
+
+    void stop() {
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void run() {
+        final var intervalMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(intervalNanos));
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(intervalMillis);
+                final var now = System.nanoTime();
+                for (final var probe : probes) {
+                    probe.check(now);
+                }
+            }
+        }
+        catch (final InterruptedException ignored) {
+            // Monitor stopped.
+        }
+    }
+
+    private final class Probe {
+        private final EventLoop eventLoop;
+        private final int index;
+
+        private volatile Thread thread = null;
+
+        // Set by the monitor thread and cleared by the event loop thread.
+        private volatile boolean isPending = false;
+        private volatile boolean isBlocked = false;
+
+        // Written only by the monitor thread.
+        private volatile long submittedAt = 0;
+        private volatile long blockedCount = 0;
+        private volatile StackTraceElement[] blockedStackTrace = null;
+
+        // Written only by the event loop thread.
+        private volatile long queueWait = 0;
+        private volatile long maxQueueWait = 0;
+        private volatile long lag = 0;
+        private volatile long maxLag = 0;
+        private long expectedAt = 0;
+
+        private Probe(final EventLoop eventLoop, final int index) {
+            this.eventLoop = eventLoop;
+            this.index = index;
+        }
+
+        private void start() {
+            // Lets blocked event loops be identified by thread name and
+            // stack trace even if blocked by the very first job they execute.
+            execute(() -> thread = Thread.currentThread());
+            execute(this::scheduleLagProbe);
+        }
+
+        private void scheduleLagProbe() {
+            expectedAt = System.nanoTime() + intervalNanos;
+            try {
+                eventLoop.schedule(this::onLagProbe, intervalNanos, TimeUnit.NANOSECONDS);
+            }
+            catch (final RejectedExecutionException ignored) {
+                // Event loop shutting down.
+            }
+        }
+
+        private void onLagProbe() {
+            final var lag0 = Math.max(0, System.nanoTime() - expectedAt);
+            lag = lag0;
+            if (lag0 > maxLag) {
+                maxLag = lag0;
+            }
+            scheduleLagProbe();
+        }
+
+        private void check(final long now) {
+            if (eventLoop.isShuttingDown()) {
+                return;
+            }
+            if (!isPending) {
+                submittedAt = now;
+                isPending = true;
+                if (!execute(this::onQueueProbe)) {
+                    isPending = false;
+                }
+                return;
+            }
+            if (isBlocked || now - submittedAt < blockedThresholdNanos) {
+                return;
+            }
+            final var thread0 = thread;
+            final var stackTrace = thread0 != null ? thread0.getStackTrace() : null;
+
+            // The probe job may have been executed while the stack trace was
+            // being captured, in which case the trace is of no interest.
+            if (!isPending) {
+                return;
+            }
+            isBlocked = true;
+            blockedCount += 1;
+            blockedStackTrace = stackTrace;
+
+            if (logger.isWarnEnabled()) {
+                final var trace = new Throwable("Stack trace of blocked thread");
+                trace.setStackTrace(stackTrace != null ? stackTrace : new StackTraceElement[0]);
+                logger.warn("Scheduler thread \"{}\" blocked; it has not " +
+                        "executed any other jobs for at least {} ms",
+                    threadName(), TimeUnit.NANOSECONDS.toMillis(now - submittedAt), trace);
+            }
+        }
+
+        private void onQueueProbe() {
+            final var queueWait0 = System.nanoTime() - submittedAt;
+            queueWait = queueWait0;
+            if (queueWait0 > maxQueueWait) {
+                maxQueueWait = queueWait0;
+            }
+            isBlocked = false;
+            isPending = false;
+        }
+
+        private boolean execute(final Runnable runnable) {
+            try {
+                eventLoop.execute(runnable);
+                return true;
+            }
+            catch (final RejectedExecutionException ignored) {
+                // Event loop shutting down.
+                return false;
+            }
+        }
+
+        private String threadName() {
+            final var thread0 = thread;
+            return thread0 != null
+                ? thread0.getName()
+                : "event-loop-" + index;
+        }
+
+        private SchedulerThreadMetrics metrics() {
+            final var pendingTasks = eventLoop instanceof SingleThreadEventExecutor
+                ? ((SingleThreadEventExecutor) eventLoop).pendingTasks()
+                : 0;
+            final var blockedStackTrace0 = blockedStackTrace;
+            return new SchedulerThreadMetrics.Builder()
+                .threadName(threadName())
+                .pendingTasks(pendingTasks)
+                .queueWait(Duration.ofNanos(queueWait))
+                .maxQueueWait(Duration.ofNanos(maxQueueWait))
+                .lag(Duration.ofNanos(lag))
+                .maxLag(Duration.ofNanos(maxLag))
+                .blocked(isBlocked)
+                .blockedCount(blockedCount)
+                .blockedStackTrace(blockedStackTrace0 != null
+                    ? Arrays.asList(blockedStackTrace0)
+                    : null)
+                .build();
+        }
+    }
+}
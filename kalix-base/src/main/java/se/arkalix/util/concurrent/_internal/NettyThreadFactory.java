@@ -1,13 +1,87 @@
 package se.arkalix.util.concurrent._internal;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import se.arkalix.util.annotation.Internal;
 
+import java.lang.reflect.Method;
+import java.util.Objects;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Internal
 public class NettyThreadFactory implements ThreadFactory {
+    private static final Logger logger = LoggerFactory.getLogger(NettyThreadFactory.class);
+
+    private final AtomicInteger threadCount = new AtomicInteger(0);
+    private final String namePrefix;
+    private final Method acquireAffinityLock;
+
+    public NettyThreadFactory() {
+        this("kalix-fixed-", false);
+    }
+
+    /**
+     * @param namePrefix    Prefix of the name of each created thread, which
+     *                      is followed by a sequence number.
+     * @param isCpuAffinity Whether or not to pin each created thread to a CPU
+     *                      of its own, which is only possible if the OpenHFT
+     *                      Java Thread Affinity library is available on the
+     *                      class path.
+     */
+    public NettyThreadFactory(final String namePrefix, final boolean isCpuAffinity) {
+        this.namePrefix = Objects.requireNonNull(namePrefix, "namePrefix");
+        acquireAffinityLock = isCpuAffinity ? findAcquireAffinityLock() : null;
+    }
+
+    private static Method findAcquireAffinityLock() {
+        try {
+            return Class.forName("net.openhft.affinity.AffinityLock").getMethod("acquireLock");
+        }
+        catch (final ReflectiveOperationException | LinkageError exception) {
+            logger.warn("CPU affinity requested, but the OpenHFT Java Thread " +
+                "Affinity library is not available; threads will not be " +
+                "pinned to CPUs", exception);
+            return null;
+        }
+    }
+
     @Override
     public Thread newThread(final Runnable runnable) {
-        return new NettyThread(runnable);
+        final var thread = newThread0(runnable);
+        thread.setName(namePrefix + threadCount.getAndIncrement());
+        return thread;
+    }
+
+    private Thread newThread0(final Runnable runnable) {
+        if (acquireAffinityLock == null) {
+            return new NettyThread(runnable);
+        }
+        return new NettyThread(() -> {
+            final AutoCloseable lock = acquireAffinityLock();
+            try {
+                runnable.run();
+            }
+            finally {
+                if (lock != null) {
+                    try {
+                        lock.close();
+                    }
+                    catch (final Exception exception) {
+                        logger.warn("Failed to release CPU affinity lock", exception);
+                    }
+                }
+            }
+        });
+    }
+
+    private AutoCloseable acquireAffinityLock() {
+        try {
+            return (AutoCloseable) acquireAffinityLock.invoke(null);
+        }
+        catch (final ReflectiveOperationException | RuntimeException exception) {
+            logger.warn("Failed to pin thread to CPU", exception);
+            return null;
+        }
     }
 }
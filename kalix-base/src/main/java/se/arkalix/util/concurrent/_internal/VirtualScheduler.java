@@ -0,0 +1,163 @@
+package se.arkalix.util.concurrent._internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.arkalix.util.annotation.Internal;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.*;
+
+/**
+ * A scheduler that executes every submitted job on a new virtual thread.
+ * <p>
+ * Virtual threads are only available on Java 21 and later, which is why they
+ * are created via reflection. Use {@link #tryCreate()} to create a scheduler
+ * only if virtual threads are supported by the current JVM.
+ * <p>
+ * Delayed and periodic jobs are kept by a single platform timer thread until
+ * due, after which they are handed over to virtual threads of their own.
+ */
+@Internal
+public final class VirtualScheduler extends AbstractScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualScheduler.class);
+
+    private final ScheduledExecutorService executor;
+
+    private VirtualScheduler(final ThreadFactory virtualThreadFactory) {
+        executor = new Executor(virtualThreadFactory);
+    }
+
+    /**
+     * Creates new virtual thread scheduler, if virtual threads are supported
+     * by the current JVM.
+     *
+     * @return New scheduler, if virtual threads are supported.
+     */
+    public static Optional<VirtualScheduler> tryCreate() {
+        return virtualThreadFactory().map(VirtualScheduler::new);
+    }
+
+    private static Optional<ThreadFactory> virtualThreadFactory() {
+        try {
+            final var builderClass = Class.forName("java.lang.Thread$Builder");
+            var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class)
+                .invoke(builder, "kalix-virtual-", 0L);
+            return Optional.of((ThreadFactory) builderClass.getMethod("factory").invoke(builder));
+        }
+        catch (final ReflectiveOperationException | RuntimeException exception) {
+            // Thrown if running on a JVM without virtual threads, or on a JVM
+            // where they are a preview feature that has not been enabled.
+            logger.debug("Virtual threads not available", exception);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    protected ScheduledExecutorService executor() {
+        return executor;
+    }
+
+    private static final class Executor extends ScheduledThreadPoolExecutor {
+        private final ThreadFactory virtualThreadFactory;
+
+        private Executor(final ThreadFactory virtualThreadFactory) {
+            super(1, runnable -> {
+                final var thread = new Thread(runnable, "kalix-virtual-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.virtualThreadFactory = Objects.requireNonNull(virtualThreadFactory, "virtualThreadFactory");
+        }
+
+        @Override
+        protected <V> RunnableScheduledFuture<V> decorateTask(
+            final Runnable runnable,
+            final RunnableScheduledFuture<V> task)
+        {
+            return new Dispatch<>(task, virtualThreadFactory);
+        }
+
+        @Override
+        protected <V> RunnableScheduledFuture<V> decorateTask(
+            final Callable<V> callable,
+            final RunnableScheduledFuture<V> task)
+        {
+            return new Dispatch<>(task, virtualThreadFactory);
+        }
+    }
+
+    /**
+     * A scheduled task that, when run by the timer thread, runs the task it
+     * wraps on a new virtual thread.
+     * <p>
+     * Cancelled tasks remain in the queue of the timer thread until due, at
+     * which point they are discarded without any virtual thread being
+     * started.
+     */
+    private static final class Dispatch<V> implements RunnableScheduledFuture<V> {
+        private final RunnableScheduledFuture<V> task;
+        private final ThreadFactory virtualThreadFactory;
+
+        private Dispatch(final RunnableScheduledFuture<V> task, final ThreadFactory virtualThreadFactory) {
+            this.task = task;
+            this.virtualThreadFactory = virtualThreadFactory;
+        }
+
+        @Override
+        public void run() {
+            if (task.isDone()) {
+                return;
+            }
+            final var thread = virtualThreadFactory.newThread(task);
+            if (thread == null) {
+                task.cancel(false);
+                return;
+            }
+            thread.start();
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return task.isPeriodic();
+        }
+
+        @Override
+        public long getDelay(final TimeUnit unit) {
+            return task.getDelay(unit);
+        }
+
+        @Override
+        public int compareTo(final Delayed other) {
+            return task.compareTo(other instanceof Dispatch ? ((Dispatch<?>) other).task : other);
+        }
+
+        @Override
+        public boolean cancel(final boolean mayInterruptIfRunning) {
+            return task.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return task.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            return task.get();
+        }
+
+        @Override
+        public V get(final long timeout, final TimeUnit unit)
+            throws InterruptedException, ExecutionException, TimeoutException
+        {
+            return task.get(timeout, unit);
+        }
+    }
+}
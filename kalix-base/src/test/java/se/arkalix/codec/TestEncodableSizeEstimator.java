@@ -0,0 +1,37 @@
+package se.arkalix.codec;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestEncodableSizeEstimator {
+    @Test
+    void shouldUseFirstRecordedSizeAsHint() {
+        final var estimator = new EncodableSizeEstimator();
+        assertEquals(0, estimator.sizeHint());
+        estimator.record(100);
+        assertEquals(100, estimator.sizeHint());
+    }
+
+    @Test
+    void shouldSmoothRecordedSizes() {
+        final var estimator = new EncodableSizeEstimator();
+        estimator.record(100);
+        estimator.record(500);
+        assertEquals(200, estimator.sizeHint());
+        estimator.record(100);
+        assertEquals(175, estimator.sizeHint());
+    }
+
+    @Test
+    void shouldLimitHintToMax() {
+        final var estimator = new EncodableSizeEstimator();
+        estimator.record(100);
+        estimator.record(100_000_000);
+        assertEquals(EncodableSizeEstimator.MAX_SIZE_HINT, estimator.sizeHint());
+        for (var i = 0; i < 64; ++i) {
+            estimator.record(100);
+        }
+        assertEquals(100, estimator.sizeHint(), 3);
+    }
+}
@@ -0,0 +1,37 @@
+package se.arkalix.codec;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.codec.json.JsonString;
+import se.arkalix.io.buf.Buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMultiDecoderForLists {
+    private static final MultiDecoderForLists<JsonString> decoder = MultiDecoderForLists
+        .of(codecType -> JsonString::decodeJson);
+
+    @Test
+    void shouldDecodeItemsOfArray() {
+        assertEquals(List.of(new JsonString("a"), new JsonString("b")), decode(" [ \"a\" ,\n\"b\"] "));
+        assertEquals(List.of(new JsonString("a")), decode("[\"a\"]"));
+    }
+
+    @Test
+    void shouldDecodeEmptyArray() {
+        assertEquals(List.of(), decode("[]"));
+        assertEquals(List.of(), decode("[ ]"));
+    }
+
+    @Test
+    void shouldRejectUnterminatedArray() {
+        assertThrows(DecoderException.class, () -> decode("[\"a\""));
+        assertThrows(DecoderException.class, () -> decode("[\"a\" \"b\"]"));
+    }
+
+    private static List<JsonString> decode(final String json) {
+        return decoder.decoderForJson().decode(Buffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,72 @@
+package se.arkalix.codec.json;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.codec.DecoderException;
+import se.arkalix.io.buf.Buffer;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestJsonEscapedString {
+    @Test
+    void shouldKeepEscapeSequencesWhenDecoded() {
+        final var string = decode("\"a\\n\\\"b\\u00F6\"");
+        assertArrayEquals(bytes("a\\n\\\"b\\u00F6"), string.toEscapedBytes());
+        assertEquals("a\n\"bö", string.toString());
+        assertArrayEquals(bytes("a\n\"bö"), string.toBytes());
+    }
+
+    @Test
+    void shouldEscapeStringsWhenEncoded() {
+        final var string = new JsonEscapedString("a\\b\"c\n");
+        assertArrayEquals(bytes("a\\\\b\\\"c\\n"), string.toEscapedBytes());
+
+        final var buffer = Buffer.allocate(64, 64);
+        string.encodeJson(buffer);
+        assertEquals(string, JsonEscapedString.decodeJson(buffer));
+        assertEquals("a\\b\"c\n", JsonValue.decodeJson(reencode(string)).tryToString().orElseThrow());
+    }
+
+    @Test
+    void shouldBeEqualToStringsWithSameContents() {
+        final var decoded = decode("\"x\\u0079z\"");
+        final var unescaped = decode("\"xyz\"");
+        final var created = new JsonEscapedString("xyz");
+
+        assertEquals(decoded, unescaped);
+        assertEquals(unescaped, created);
+        assertEquals(created, decoded);
+        assertEquals(decoded.hashCode(), unescaped.hashCode());
+        assertEquals(unescaped.hashCode(), created.hashCode());
+        assertNotEquals(created, new JsonEscapedString("xy"));
+    }
+
+    @Test
+    void shouldRejectNonStrings() {
+        assertThrows(DecoderException.class, () -> decode("123"));
+    }
+
+    @Test
+    void shouldCopyEscapedBytes() {
+        final var escaped = bytes("abc");
+        final var string = JsonEscapedString.ofEscaped(escaped);
+        escaped[0] = 'x';
+        string.toEscapedBytes()[1] = 'x';
+        assertEquals("abc", string.toString());
+    }
+
+    private static JsonEscapedString decode(final String json) {
+        return JsonEscapedString.decodeJson(Buffer.wrap(bytes(json)));
+    }
+
+    private static Buffer reencode(final JsonValue value) {
+        final var buffer = Buffer.allocate(64, 64);
+        value.encodeJson(buffer);
+        return buffer;
+    }
+
+    private static byte[] bytes(final String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,97 @@
+package se.arkalix.io.buf._internal;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import se.arkalix.io.buf.Buffer;
+import se.arkalix.io.buf.BufferIsClosed;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNettyBuffer {
+    @AfterEach
+    void restoreLeakDetector() {
+        BufferLeakDetector.isEnabled(false);
+        BufferLeakDetector.reporter(null);
+    }
+
+    @Test
+    void shouldAllocatePooledBuffersFromSharedPool() {
+        try (final var heap = Buffer.allocatePooled(16, 64); final var direct = Buffer.allocatePooledDirect(16, 64)) {
+            assertSame(PooledByteBufAllocator.DEFAULT, byteBufOf(heap).alloc());
+            assertFalse(byteBufOf(heap).isDirect());
+            assertSame(PooledByteBufAllocator.DEFAULT, byteBufOf(direct).alloc());
+            assertTrue(byteBufOf(direct).isDirect());
+        }
+    }
+
+    @Test
+    void shouldReleasePooledMemoryOnlyAfterBufferAndDupeAreClosed() {
+        final var buffer = Buffer.allocatePooled(16, 64);
+        final var byteBuf = byteBufOf(buffer);
+        buffer.writeS8((byte) 1);
+        final var dupe = buffer.dupe();
+        assertEquals(2, byteBuf.refCnt());
+
+        buffer.close();
+        assertEquals(1, byteBuf.refCnt());
+
+        assertEquals(1, dupe.readS8());
+        dupe.close();
+        dupe.close();
+        assertEquals(0, byteBuf.refCnt());
+    }
+
+    @Test
+    void shouldNotRetainUnpooledMemoryForDupes() {
+        final var buffer = Buffer.allocate(16, 64);
+        final var byteBuf = byteBufOf(buffer);
+        final var dupe = buffer.dupe();
+        assertEquals(1, byteBuf.refCnt());
+
+        dupe.close();
+        assertEquals(1, byteBuf.refCnt());
+        assertThrows(BufferIsClosed.class, () -> dupe.writeS8((byte) 1));
+        buffer.writeS8((byte) 1);
+
+        buffer.close();
+        assertEquals(0, byteBuf.refCnt());
+    }
+
+    @Test
+    void shouldReportPooledBufferNeverClosed() throws InterruptedException {
+        final var latch = new CountDownLatch(1);
+        BufferLeakDetector.reporter(allocation -> latch.countDown());
+        BufferLeakDetector.isEnabled(true);
+
+        allocateAndForget();
+        for (var i = 0; i < 50 && latch.getCount() > 0; ++i) {
+            System.gc();
+            latch.await(100, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(0, latch.getCount());
+    }
+
+    @Test
+    void shouldNotReportClosedPooledBuffer() throws InterruptedException {
+        final var latch = new CountDownLatch(1);
+        BufferLeakDetector.reporter(allocation -> latch.countDown());
+        BufferLeakDetector.isEnabled(true);
+
+        Buffer.allocatePooled(16, 64).close();
+        System.gc();
+        assertFalse(latch.await(200, TimeUnit.MILLISECONDS));
+    }
+
+    private static void allocateAndForget() {
+        Buffer.allocatePooled(16, 64).writeS8((byte) 1);
+    }
+
+    private static ByteBuf byteBufOf(final Buffer buffer) {
+        return ((NettyBuffer) buffer).byteBuf();
+    }
+}
@@ -0,0 +1,90 @@
+package se.arkalix.io.buf._internal;
+
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNettyCompositeBuffer {
+    private static final UnpooledByteBufAllocator allocator = UnpooledByteBufAllocator.DEFAULT;
+
+    @Test
+    void shouldGrowByAppendingChunks() {
+        try (final var buffer = new NettyCompositeBuffer(allocator, 1024)) {
+            final var data = bytes(3000);
+            writeInPieces(buffer, data, 100);
+            assertEquals(3, components(buffer));
+            assertEquals(3072, buffer.writeEnd());
+            assertArrayEquals(data, contentsOf(buffer));
+        }
+    }
+
+    @Test
+    void shouldAppendChunkLargerThanChunkSizeIfRequired() {
+        try (final var buffer = new NettyCompositeBuffer(allocator, 1024)) {
+            final var data = bytes(5000);
+            buffer.write(data);
+            assertEquals(1, components(buffer));
+            assertArrayEquals(data, contentsOf(buffer));
+        }
+    }
+
+    @Test
+    void shouldAllocateInitialCapacityAsFirstChunk() {
+        try (final var buffer = new NettyCompositeBuffer(allocator, 1024, 5000)) {
+            assertEquals(1, components(buffer));
+            assertEquals(5000, buffer.writeEnd());
+
+            final var data = bytes(6000);
+            writeInPieces(buffer, data, 100);
+            assertEquals(2, components(buffer));
+            assertEquals(6024, buffer.writeEnd());
+            assertArrayEquals(data, contentsOf(buffer));
+        }
+    }
+
+    @Test
+    void shouldClampLastChunkToMaxCapacity() {
+        try (final var buffer = new NettyCompositeBuffer(allocator, 1024, 0, 1500)) {
+            final var data = bytes(1500);
+            writeInPieces(buffer, data, 500);
+            assertEquals(2, components(buffer));
+            assertEquals(1500, buffer.writeEnd());
+            assertArrayEquals(data, contentsOf(buffer));
+            assertThrows(IndexOutOfBoundsException.class, () -> buffer.write(new byte[1]));
+        }
+    }
+
+    @Test
+    void shouldClampInitialCapacityToMaxCapacity() {
+        try (final var buffer = new NettyCompositeBuffer(allocator, 1024, 5000, 2000)) {
+            assertEquals(2000, buffer.writeEnd());
+            assertEquals(2000, buffer.writeEndMax());
+        }
+    }
+
+    private static byte[] bytes(final int length) {
+        final var bytes = new byte[length];
+        for (var i = 0; i < length; ++i) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    private static void writeInPieces(final NettyCompositeBuffer buffer, final byte[] data, final int pieceLength) {
+        for (var offset = 0; offset < data.length; offset += pieceLength) {
+            buffer.write(data, offset, Math.min(pieceLength, data.length - offset));
+        }
+    }
+
+    private static int components(final NettyCompositeBuffer buffer) {
+        return ((CompositeByteBuf) buffer.byteBuf()).numComponents();
+    }
+
+    private static byte[] contentsOf(final NettyCompositeBuffer buffer) {
+        final var contents = new byte[buffer.writeOffset()];
+        buffer.byteBuf().getBytes(0, contents);
+        return contents;
+    }
+}
@@ -0,0 +1,90 @@
+package se.arkalix.io.buf._internal;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import se.arkalix.codec.json.JsonValue;
+import se.arkalix.io.buf.Buffer;
+import se.arkalix.io.buf.BufferIsClosed;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestUncheckedBufferView {
+    private static final UnpooledByteBufAllocator allocator = UnpooledByteBufAllocator.DEFAULT;
+
+    private static final String JSON = "{\"name\":\"x\\n\\u00e5y\",\"values\":[1,-2.5e3,true,null]," +
+        "\"nested\":{\"text\":\"" + "abcdefghij".repeat(20) + "\"}}";
+
+    @Test
+    void shouldShareMemoryOfSingleComponentBuffer() {
+        try (final var buffer = Buffer.wrap(bytes(JSON))) {
+            final var view = UncheckedBufferView.ofReadable(buffer);
+            assertTrue(view.isUnchecked());
+            assertEquals(0, view.offset());
+            assertEquals(JSON.length(), view.end());
+            assertEquals('{', view.getS8At(0));
+        }
+    }
+
+    @Test
+    void shouldReadMultiComponentBufferViaCheckedAccessors() {
+        try (final var buffer = compositeOf(JSON)) {
+            final var view = UncheckedBufferView.ofReadable(buffer);
+            assertFalse(view.isUnchecked());
+            assertEquals(JSON.length(), view.end());
+            assertEquals('{', view.getS8At(0));
+            assertEquals('}', view.getS8At(JSON.length() - 1));
+
+            final var bytes = new byte[JSON.length()];
+            view.getAt(0, bytes, 0, bytes.length);
+            assertArrayEquals(bytes(JSON), bytes);
+        }
+    }
+
+    @Test
+    void shouldViewThroughBufferReader() {
+        try (final var buffer = Buffer.wrap(bytes(JSON))) {
+            assertTrue(UncheckedBufferView.ofReadable(buffer.asReader()).isUnchecked());
+        }
+        try (final var buffer = compositeOf(JSON)) {
+            assertFalse(UncheckedBufferView.ofReadable(buffer.asReader()).isUnchecked());
+        }
+    }
+
+    @Test
+    void shouldRefuseToViewClosedOrOutOfBoundsRanges() {
+        final var buffer = compositeOf(JSON);
+        final var reader = buffer.asReader();
+        assertThrows(IndexOutOfBoundsException.class, () -> UncheckedBufferView.of(reader, 1, JSON.length()));
+        reader.close();
+        assertThrows(BufferIsClosed.class, () -> UncheckedBufferView.of(reader, 0, 1));
+    }
+
+    @Test
+    void shouldDecodeSameJsonViaSharedAndCheckedViews() {
+        final JsonValue expected;
+        try (final var buffer = Buffer.wrap(bytes(JSON))) {
+            expected = JsonValue.decodeJson(buffer);
+        }
+        try (final var buffer = compositeOf(JSON)) {
+            assertEquals(expected, JsonValue.decodeJson(buffer));
+        }
+        try (final var buffer = compositeOf(JSON)) {
+            assertEquals(expected, JsonValue.decodeJson(buffer.asReader()));
+        }
+    }
+
+    private static byte[] bytes(final String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static NettyCompositeBuffer compositeOf(final String string) {
+        final var data = bytes(string);
+        final var buffer = new NettyCompositeBuffer(allocator, 16);
+        for (var offset = 0; offset < data.length; offset += 7) {
+            buffer.write(data, offset, Math.min(7, data.length - offset));
+        }
+        return buffer;
+    }
+}
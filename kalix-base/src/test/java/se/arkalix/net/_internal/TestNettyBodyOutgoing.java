@@ -0,0 +1,66 @@
+package se.arkalix.net._internal;
+
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import se.arkalix.codec.CodecType;
+import se.arkalix.codec.Encodable;
+import se.arkalix.codec.EncodableSizeEstimator;
+import se.arkalix.io.buf.Buffer;
+import se.arkalix.net.BodyOutgoing;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestNettyBodyOutgoing {
+    @Test
+    void shouldEncodeLargeEncodableIntoOnePresizedChunk() throws IOException {
+        // Generated DTO classes wrap their encodables in the same way.
+        final var estimator = new EncodableSizeEstimator();
+        final var data = new byte[100_000];
+        final var encodable = encodableOf(data);
+
+        try (final var buffer = Buffer.allocate(0, data.length)) {
+            estimator.estimate(encodable).encode(buffer);
+        }
+        assertEquals(data.length, estimator.sizeHint());
+
+        final var body = NettyBodyOutgoing.from(BodyOutgoing.create(estimator.estimate(encodable)),
+            UnpooledByteBufAllocator.DEFAULT);
+        final var content = (CompositeByteBuf) body.content();
+        try {
+            assertEquals(data.length, body.length());
+            assertEquals(1, content.numComponents());
+        }
+        finally {
+            content.release();
+        }
+    }
+
+    @Test
+    void shouldEncodeUnestimatedEncodableIntoSeveralChunks() throws IOException {
+        final var data = new byte[100_000];
+        final var encodable = encodableOf(data);
+
+        final var body = NettyBodyOutgoing.from(BodyOutgoing.create(encodable), UnpooledByteBufAllocator.DEFAULT);
+        final var content = (CompositeByteBuf) body.content();
+        try {
+            assertEquals(data.length, body.length());
+            assertEquals(13, content.numComponents());
+        }
+        finally {
+            content.release();
+        }
+    }
+
+    // Writes data in small pieces, as would a codec writing a large DTO.
+    private static Encodable encodableOf(final byte[] data) {
+        return writer -> {
+            for (var offset = 0; offset < data.length; offset += 1000) {
+                writer.write(data, offset, Math.min(1000, data.length - offset));
+            }
+            return CodecType.JSON;
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package se.arkalix.net.http.client._internal;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.junit.jupiter.api.Test;
+import se.arkalix.net.http.HttpMethod;
+import se.arkalix.net.http.HttpOutgoingRequestException;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.client.HttpClientConnection;
+import se.arkalix.net.http.client.HttpClientRequest;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
+import se.arkalix.util.concurrent._internal.NettyThread;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.netty.handler.codec.http.HttpVersion.HTTP_1_1;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNettyHttpClientConnection {
+    private EmbeddedChannel channel;
+    private HttpClientConnection connection;
+
+    @Test
+    void shouldDiscardResponseToCancelledRequestNotNextInLine() throws Throwable {
+        runConnected(() -> {
+            final var a = resultOf(connection.send(request("/a")));
+            final var b = connection.send(request("/b"));
+            final var c = resultOf(connection.send(request("/c")));
+
+            b.cancel(false);
+            assertTrue(channel.isActive());
+
+            respond(HttpResponseStatus.OK);
+            respond(HttpResponseStatus.NOT_FOUND);
+            respond(HttpResponseStatus.CREATED);
+
+            assertEquals(HttpStatus.OK, a.get().value().status());
+            assertEquals(HttpStatus.CREATED, c.get().value().status());
+            assertEquals("/c", c.get().value().request().path().orElseThrow());
+            assertTrue(channel.isActive());
+        });
+    }
+
+    @Test
+    void shouldCloseConnectionIfCancelledRequestIsNextInLine() throws Throwable {
+        runConnected(() -> {
+            final var a = connection.send(request("/a"));
+            final var b = resultOf(connection.send(request("/b")));
+
+            a.cancel(false);
+
+            assertFalse(channel.isActive());
+            assertTrue(b.get().fault() instanceof HttpOutgoingRequestException);
+        });
+    }
+
+    // Connection handlers expect to be executed by Kalix scheduler threads.
+    private void runConnected(final Runnable test) throws Throwable {
+        final var fault = new AtomicReference<Throwable>();
+        final var thread = new NettyThread(() -> {
+            final var futureConnection = new FutureCompletion<HttpClientConnection>();
+            channel = new EmbeddedChannel(new NettyHttpClientConnection(futureConnection, null)) {
+                @Override
+                protected SocketAddress remoteAddress0() {
+                    return new InetSocketAddress("127.0.0.1", 8080);
+                }
+            };
+            try {
+                connection = resultOf(futureConnection).get().value();
+                test.run();
+            }
+            catch (final Throwable throwable) {
+                fault.set(throwable);
+            }
+            finally {
+                channel.finishAndReleaseAll();
+            }
+        });
+        thread.start();
+        thread.join();
+        if (fault.get() != null) {
+            throw fault.get();
+        }
+    }
+
+    private static HttpClientRequest request(final String path) {
+        return new HttpClientRequest()
+            .method(HttpMethod.GET)
+            .path(path);
+    }
+
+    private void respond(final HttpResponseStatus status) {
+        channel.writeInbound(new DefaultHttpResponse(HTTP_1_1, status), LastHttpContent.EMPTY_LAST_CONTENT);
+    }
+
+    private static <V> AtomicReference<Result<V>> resultOf(final Future<V> future) {
+        final var result = new AtomicReference<Result<V>>(null);
+        future.onResult(result::set);
+        return result;
+    }
+}
@@ -0,0 +1,196 @@
+package se.arkalix.plugin._internal;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.ArSystem;
+import se.arkalix.ServiceRecord;
+import se.arkalix.plugin.Plugin;
+import se.arkalix.plugin.PluginAttached;
+import se.arkalix.plugin.PluginFacade;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestPluginNotifier {
+    private static final ArSystem system = (ArSystem) Proxy.newProxyInstance(
+        TestPluginNotifier.class.getClassLoader(),
+        new Class<?>[]{ArSystem.class},
+        (proxy, method, arguments) -> {
+            if (method.getName().equals("name")) {
+                return "test";
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+
+    @Test
+    void shouldNotifyPluginsInRegistrationOrderEvenIfAttachedOutOfOrder() {
+        final var events = new ArrayList<String>();
+        final var a = new RecordingPlugin("a", 0, events);
+        final var b = new RecordingPlugin("b", 0, events);
+        final var c = new RecordingPlugin("c", 0, events);
+        final var notifier = new PluginNotifier(system, List.of(a, b, c));
+        final var result = resultOf(notifier.onAttach());
+
+        // Plugins without prerequisites in common are attached concurrently.
+        assertEquals(List.of("attach a", "attach b", "attach c"), events);
+
+        c.attach();
+        b.attach();
+        a.attach();
+        assertTrue(result.get().isSuccess());
+
+        events.clear();
+        notifier.onServiceDismissed(null);
+        assertEquals(List.of("dismiss a", "dismiss b", "dismiss c"), events);
+
+        events.clear();
+        notifier.onDetach();
+        assertEquals(List.of("detach c", "detach b", "detach a"), events);
+    }
+
+    @Test
+    void shouldAttachPluginsOnlyAfterPluginsWithLowerOrdinals() {
+        final var events = new ArrayList<String>();
+        final var late = new RecordingPlugin("late", 10, events);
+        final var early = new RecordingPlugin("early", -10, events);
+        final var notifier = new PluginNotifier(system, List.of(late, early));
+        final var result = resultOf(notifier.onAttach());
+
+        assertEquals(List.of("attach early"), events);
+        early.attach();
+        assertEquals(List.of("attach early", "attach late"), events);
+        late.attach();
+        assertTrue(result.get().isSuccess());
+
+        events.clear();
+        notifier.onServiceDismissed(null);
+        assertEquals(List.of("dismiss early", "dismiss late"), events);
+    }
+
+    @Test
+    void shouldAttachPluginsOnlyAfterTheirDependencies() {
+        final var events = new ArrayList<String>();
+        final var dependent = new DependentPlugin(events);
+        final var dependency = new DependencyPlugin(events);
+        final var notifier = new PluginNotifier(system, List.of(dependent, dependency));
+        final var result = resultOf(notifier.onAttach());
+
+        assertEquals(List.of("attach dependency"), events);
+        dependency.attach();
+        assertEquals(List.of("attach dependency", "attach dependent"), events);
+        assertEquals(Set.of(DependencyPlugin.class), dependent.dependencies.get().keySet());
+        dependent.attach();
+
+        assertEquals(Set.of(DependencyPlugin.class), result.get().value().keySet());
+
+        events.clear();
+        notifier.onServiceDismissed(null);
+        assertEquals(List.of("dismiss dependency", "dismiss dependent"), events);
+    }
+
+    @Test
+    void shouldNeverAttachPluginsWhosePrerequisitesFail() {
+        final var events = new ArrayList<String>();
+        final var dependent = new DependentPlugin(events);
+        final var dependency = new DependencyPlugin(events);
+        final var notifier = new PluginNotifier(system, List.of(dependent, dependency));
+        final var result = resultOf(notifier.onAttach());
+
+        final var fault = new IllegalStateException("failed");
+        dependency.completion.complete(Result.failure(fault));
+
+        assertEquals(List.of("attach dependency"), events);
+        assertTrue(result.get().isFailure());
+        assertSame(fault, result.get().fault().getCause());
+
+        events.clear();
+        notifier.onServiceDismissed(null);
+        assertEquals(List.of(), events);
+    }
+
+    private static <V> AtomicReference<Result<V>> resultOf(final Future<V> future) {
+        final var result = new AtomicReference<Result<V>>(null);
+        future.onResult(result::set);
+        return result;
+    }
+
+    private static class RecordingPlugin implements Plugin {
+        private final String name;
+        private final int ordinal;
+        private final List<String> events;
+
+        final FutureCompletion<PluginAttached> completion = new FutureCompletion<>();
+        final AtomicReference<Map<Class<? extends Plugin>, PluginFacade>> dependencies = new AtomicReference<>();
+
+        RecordingPlugin(final String name, final int ordinal, final List<String> events) {
+            this.name = name;
+            this.ordinal = ordinal;
+            this.events = events;
+        }
+
+        void attach() {
+            completion.complete(Result.success(new PluginAttached() {
+                @Override
+                public Optional<PluginFacade> facade() {
+                    return hasFacade() ? Optional.of(new PluginFacade() {}) : Optional.empty();
+                }
+
+                @Override
+                public void onDetach() {
+                    events.add("detach " + name);
+                }
+
+                @Override
+                public void onServiceDismissed(final ServiceRecord service) {
+                    events.add("dismiss " + name);
+                }
+            }));
+        }
+
+        boolean hasFacade() {
+            return false;
+        }
+
+        @Override
+        public int ordinal() {
+            return ordinal;
+        }
+
+        @Override
+        public Future<PluginAttached> attachTo(
+            final ArSystem system,
+            final Map<Class<? extends Plugin>, PluginFacade> dependencies)
+        {
+            events.add("attach " + name);
+            this.dependencies.set(dependencies);
+            return completion;
+        }
+    }
+
+    private static class DependencyPlugin extends RecordingPlugin {
+        DependencyPlugin(final List<String> events) {
+            super("dependency", 0, events);
+        }
+
+        @Override
+        boolean hasFacade() {
+            return true;
+        }
+    }
+
+    private static class DependentPlugin extends RecordingPlugin {
+        DependentPlugin(final List<String> events) {
+            super("dependent", 0, events);
+        }
+
+        @Override
+        public Set<Class<? extends Plugin>> dependencies() {
+            return Set.of(DependencyPlugin.class);
+        }
+    }
+}
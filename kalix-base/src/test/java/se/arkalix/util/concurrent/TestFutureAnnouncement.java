@@ -0,0 +1,117 @@
+package se.arkalix.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFutureAnnouncement {
+    @Test
+    void shouldAnnounceToSubscribersInSubscriptionOrder() {
+        final var completion = new FutureCompletion<Integer>();
+        final var announcement = completion.toAnnouncement();
+        final var order = new ArrayList<Integer>();
+        for (var i = 0; i < 10; ++i) {
+            final var index = i;
+            announcement.subscribe().ifSuccess(ignored -> order.add(index));
+        }
+        completion.complete(Result.success(1));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), order);
+    }
+
+    @Test
+    void shouldCompleteSubscriptionsMadeAfterAnnouncement() {
+        final var completion = new FutureCompletion<Integer>();
+        final var announcement = completion.toAnnouncement();
+        completion.complete(Result.success(1));
+        final var result = new AtomicReference<Result<Integer>>();
+        announcement.subscribe().onResult(result::set);
+        assertEquals(1, result.get().value());
+        assertEquals(1, announcement.resultIfAvailable().orElseThrow().value());
+    }
+
+    @Test
+    void shouldSweepCancelledSubscribersBelowLiveOnes() {
+        final var completion = new FutureCompletion<Integer>();
+        final var announcement = completion.toAnnouncement();
+        final var deliveries = new AtomicInteger();
+        Future<Integer> live = announcement.subscribe();
+        for (var i = 0; i < 10_000; ++i) {
+            final var cancelled = announcement.subscribe();
+            final var live0 = announcement.subscribe();
+            cancelled.cancel();
+            live.cancel();
+            live = live0;
+            assertTrue(announcement.subscriberCount() <= 32, "iteration " + i);
+        }
+        live.onResult(ignored -> deliveries.incrementAndGet());
+        completion.complete(Result.success(1));
+        assertEquals(1, deliveries.get());
+    }
+
+    @Test
+    void shouldNotAnnounceToCancelledSubscribers() {
+        final var completion = new FutureCompletion<Integer>();
+        final var announcement = completion.toAnnouncement();
+        final var deliveries = new AtomicInteger();
+        final var cancelled = announcement.subscribe();
+        cancelled.onResult(ignored -> deliveries.incrementAndGet());
+        announcement.subscribe().onResult(ignored -> deliveries.incrementAndGet());
+        cancelled.cancel();
+        completion.complete(Result.success(1));
+        assertEquals(1, deliveries.get());
+    }
+
+    @Test
+    void shouldAnnounceExactlyOnceToManyConcurrentSubscribers() throws Exception {
+        final var nThreads = 8;
+        final var nSubscriptionsPerThread = 1000;
+        final var executor = Executors.newFixedThreadPool(nThreads + 1);
+        try {
+            for (var iteration = 0; iteration < 20; ++iteration) {
+                final var completion = new FutureCompletion<Integer>();
+                final var announcement = completion.toAnnouncement();
+                final var deliveries = new AtomicInteger();
+                final var faults = new AtomicInteger();
+                final var barrier = new CyclicBarrier(nThreads + 1);
+                final var futures = new ArrayList<java.util.concurrent.Future<?>>();
+                for (var t = 0; t < nThreads; ++t) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        for (var s = 0; s < nSubscriptionsPerThread; ++s) {
+                            announcement.subscribe().onResult(result -> {
+                                if (result.isSuccess() && result.value() == 42) {
+                                    deliveries.incrementAndGet();
+                                }
+                                else {
+                                    faults.incrementAndGet();
+                                }
+                            });
+                        }
+                        return null;
+                    }));
+                }
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    completion.complete(Result.success(42));
+                    return null;
+                }));
+                for (final var future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+                assertEquals(nThreads * nSubscriptionsPerThread, deliveries.get(), "iteration " + iteration);
+                assertEquals(0, faults.get());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package se.arkalix.util.concurrent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFutures {
+    @Test
+    void shouldCompleteAllInOrder() {
+        final var a = new FutureCompletion<Integer>();
+        final var b = new FutureCompletion<Integer>();
+        final var all = resultOf(Futures.all(a, b));
+
+        b.complete(Result.success(2));
+        assertNull(all.get());
+        a.complete(Result.success(1));
+        assertEquals(List.of(1, 2), all.get().value());
+    }
+
+    @Test
+    void shouldMapAllCompletedBeforeBeingMapped() {
+        final var a = new FutureCompletion<Integer>();
+        a.complete(Result.success(1));
+        final var all = resultOf(Futures.all(a, Future.success(2)).map(List::size));
+        assertEquals(2, all.get().value());
+    }
+
+    @Test
+    void shouldFailAllAndCancelOthers() {
+        final var a = new FutureCompletion<Integer>();
+        final var b = new FutureCompletion<Integer>();
+        final var fault = new IllegalStateException();
+        final var all = resultOf(Futures.all(a, b));
+
+        a.complete(Result.failure(fault));
+        assertSame(fault, all.get().fault());
+        assertTrue(b.isCancelled());
+    }
+
+    @Test
+    void shouldCancelAllFutures() {
+        final var a = new FutureCompletion<Integer>();
+        final var b = new FutureCompletion<Integer>();
+        Futures.all(a, b).cancel();
+        assertTrue(a.isCancelled());
+        assertTrue(b.isCancelled());
+    }
+
+    @Test
+    void shouldCompleteAnyWithFirstSuccess() {
+        final var a = new FutureCompletion<Integer>();
+        final var b = new FutureCompletion<Integer>();
+        final var c = new FutureCompletion<Integer>();
+        final var any = resultOf(Futures.any(a, b, c));
+
+        a.complete(Result.failure(new IllegalStateException()));
+        assertNull(any.get());
+        b.complete(Result.success(2));
+        assertEquals(2, any.get().value());
+        assertTrue(c.isCancelled());
+    }
+
+    @Test
+    void shouldFailAnyOnlyIfAllFail() {
+        final var a = new FutureCompletion<Integer>();
+        final var b = new FutureCompletion<Integer>();
+        final var faultA = new IllegalStateException();
+        final var faultB = new IllegalArgumentException();
+        final var any = resultOf(Futures.any(a, b));
+
+        a.complete(Result.failure(faultA));
+        assertNull(any.get());
+        b.complete(Result.failure(faultB));
+        assertSame(faultA, any.get().fault());
+        assertArrayEquals(new Throwable[]{faultB}, faultA.getSuppressed());
+    }
+
+    @Test
+    void shouldFailAnyIfEmpty() {
+        final var any = resultOf(Futures.any(List.<Future<Integer>>of()));
+        assertTrue(any.get().fault() instanceof NoSuchElementException);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 10})
+    void shouldMapBoundedWithinLimit(final int maxInFlight) {
+        final var pending = new ArrayList<FutureCompletion<Integer>>();
+        final var result = resultOf(Futures.mapBounded(IntStream.range(0, 10).boxed(), maxInFlight, item -> {
+            final var future = new FutureCompletion<Integer>();
+            pending.add(future);
+            return future.map(value -> value * item);
+        }));
+
+        var completed = 0;
+        while (completed < pending.size()) {
+            assertTrue(pending.size() - completed <= maxInFlight);
+            pending.get(completed++).complete(Result.success(2));
+        }
+        assertEquals(10, pending.size());
+        assertEquals(IntStream.range(0, 10).map(item -> item * 2).boxed().collect(Collectors.toList()),
+            result.get().value());
+    }
+
+    @Test
+    void shouldMapBoundedSynchronousFutures() {
+        final var result = resultOf(Futures.mapBounded(List.of(1, 2, 3), 2, Future::success));
+        assertEquals(List.of(1, 2, 3), result.get().value());
+    }
+
+    @Test
+    void shouldStopMapBoundedOnFailure() {
+        final var pending = new ArrayList<FutureCompletion<Integer>>();
+        final var fault = new IllegalStateException();
+        final var result = resultOf(Futures.mapBounded(List.of(1, 2, 3, 4), 2, item -> {
+            final var future = new FutureCompletion<Integer>();
+            pending.add(future);
+            return future;
+        }));
+
+        pending.get(0).complete(Result.failure(fault));
+        assertSame(fault, result.get().fault());
+        assertEquals(2, pending.size());
+        assertTrue(pending.get(1).isCancelled());
+    }
+
+    @Test
+    void shouldCancelMapBoundedFuturesWithoutHoldingLock() {
+        final var pending = new ArrayList<FutureCompletion<Integer>>();
+        final var mapped = new AtomicReference<Future<List<Integer>>>();
+        final var isLockHeld = new AtomicReference<Boolean>(null);
+        mapped.set(Futures.mapBounded(List.of(1, 2), 2, item -> {
+            final var future = new FutureCompletion<Integer>();
+            future.setCancelCallback(ignored -> isLockHeld.set(Thread.holdsLock(mapped.get())));
+            pending.add(future);
+            return future;
+        }));
+
+        pending.get(0).complete(Result.failure(new IllegalStateException()));
+        assertTrue(pending.get(1).isCancelled());
+        assertEquals(false, isLockHeld.get());
+    }
+
+    @Test
+    void shouldMapCompletedBeforeBeingMapped() {
+        final var a = new FutureCompletion<Integer>();
+        a.complete(Result.success(1));
+        final var mapped = resultOf(a.map(value -> value + 1));
+        assertEquals(2, mapped.get().value());
+    }
+
+    @Test
+    void shouldFlatMapCompletedBeforeBeingFlatMapped() {
+        final var a = new FutureCompletion<Integer>();
+        a.complete(Result.success(1));
+        final var mapped = resultOf(a.flatMap(value -> Future.success(value + 1)));
+        assertEquals(2, mapped.get().value());
+    }
+
+    private static <V> AtomicReference<Result<V>> resultOf(final Future<V> future) {
+        final var result = new AtomicReference<Result<V>>(null);
+        future.onResult(result::set);
+        return result;
+    }
+}
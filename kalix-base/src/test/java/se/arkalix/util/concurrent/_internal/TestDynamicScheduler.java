@@ -0,0 +1,42 @@
+package se.arkalix.util.concurrent._internal;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestDynamicScheduler {
+    @Test
+    void shouldFailPendingCoarseCommandsOnShutdown() {
+        final var scheduler = new DynamicScheduler();
+        final var isExecuted = new AtomicReference<>(false);
+        final var pending = resultOf(scheduler.scheduleCoarse(Duration.ofHours(1), () -> isExecuted.set(true)));
+        final var cancelled = scheduler.scheduleCoarse(Duration.ofHours(1), () -> isExecuted.set(true));
+        cancelled.cancel(false);
+
+        scheduler.shutdown();
+
+        assertTrue(pending.get().fault() instanceof RejectedExecutionException);
+        assertFalse(isExecuted.get());
+    }
+
+    @Test
+    void shouldRejectCoarseCommandsAfterShutdown() {
+        final var scheduler = new DynamicScheduler();
+        scheduler.shutdown();
+
+        final var result = resultOf(scheduler.scheduleCoarse(Duration.ofMillis(1), () -> {}));
+        assertTrue(result.get().fault() instanceof RejectedExecutionException);
+    }
+
+    private static <V> AtomicReference<Result<V>> resultOf(final Future<V> future) {
+        final var result = new AtomicReference<Result<V>>(null);
+        future.onResult(result::set);
+        return result;
+    }
+}
@@ -0,0 +1,125 @@
+package se.arkalix.util.concurrent._internal;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import se.arkalix.util.Result;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestFutureCompletion {
+    private static final int ITERATIONS = 2000;
+
+    private static ExecutorService executor;
+
+    @BeforeAll
+    static void createExecutor() {
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterAll
+    static void destroyExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldDeliverResultCompletedBeforeConsumerIsSet() {
+        final var completion = new FutureCompletion<Integer>();
+        final var result = new AtomicReference<Result<Integer>>();
+        completion.complete(Result.success(1));
+        completion.onResult(result::set);
+        assertEquals(1, result.get().value());
+    }
+
+    @Test
+    void shouldDeliverResultCompletedAfterConsumerIsSet() {
+        final var completion = new FutureCompletion<Integer>();
+        final var result = new AtomicReference<Result<Integer>>();
+        completion.onResult(result::set);
+        assertNull(result.get());
+        completion.complete(Result.success(1));
+        assertEquals(1, result.get().value());
+    }
+
+    @Test
+    void shouldRejectSecondCompletion() {
+        final var completion = new FutureCompletion<Integer>();
+        completion.complete(Result.success(1));
+        assertThrows(IllegalStateException.class, () -> completion.complete(Result.success(2)));
+    }
+
+    @Test
+    void shouldNotDeliverResultAfterCancellation() {
+        final var completion = new FutureCompletion<Integer>();
+        final var deliveries = new AtomicInteger();
+        completion.onResult(ignored -> deliveries.incrementAndGet());
+        completion.cancel();
+        completion.complete(Result.success(1));
+        assertTrue(completion.isCancelled());
+        assertEquals(0, deliveries.get());
+    }
+
+    @Test
+    void shouldDeliverExactlyOnceWhenCompletionRacesConsumer() throws Exception {
+        for (var i = 0; i < ITERATIONS; ++i) {
+            final var completion = new FutureCompletion<Integer>();
+            final var deliveries = new AtomicInteger();
+            final var value = new AtomicReference<Integer>();
+            race(
+                () -> completion.complete(Result.success(42)),
+                () -> completion.onResult(result -> {
+                    deliveries.incrementAndGet();
+                    value.set(result.value());
+                }));
+            assertEquals(1, deliveries.get(), "iteration " + i);
+            assertEquals(42, value.get());
+        }
+    }
+
+    @Test
+    void shouldDeliverAtMostOnceWhenCompletionRacesCancellation() throws Exception {
+        for (var i = 0; i < ITERATIONS; ++i) {
+            final var completion = new FutureCompletion<Integer>();
+            final var deliveries = new AtomicInteger();
+            final var cancellations = new AtomicInteger();
+            completion.setCancelCallback(ignored -> cancellations.incrementAndGet());
+            completion.onResult(ignored -> deliveries.incrementAndGet());
+            race(
+                () -> completion.complete(Result.success(42)),
+                completion::cancel);
+            assertTrue(deliveries.get() <= 1, "iteration " + i);
+            assertEquals(1, cancellations.get(), "iteration " + i);
+        }
+    }
+
+    @Test
+    void shouldInvokeCancelCallbackOnceWhenCancelledConcurrently() throws Exception {
+        for (var i = 0; i < ITERATIONS; ++i) {
+            final var completion = new FutureCompletion<Integer>();
+            final var cancellations = new AtomicInteger();
+            completion.setCancelCallback(ignored -> cancellations.incrementAndGet());
+            race(completion::cancel, completion::cancel);
+            assertEquals(1, cancellations.get(), "iteration " + i);
+        }
+    }
+
+    private static void race(final Runnable a, final Runnable b) throws Exception {
+        final var barrier = new CyclicBarrier(2);
+        final var futureA = executor.submit(() -> {
+            barrier.await();
+            a.run();
+            return null;
+        });
+        final var futureB = executor.submit(() -> {
+            barrier.await();
+            b.run();
+            return null;
+        });
+        futureA.get(10, TimeUnit.SECONDS);
+        futureB.get(10, TimeUnit.SECONDS);
+    }
+}
@@ -6,6 +6,7 @@ import se.arkalix.ArService;
 import se.arkalix.ArSystem;
 import se.arkalix.core.plugin.or.HttpJsonOrchestrationService;
 import se.arkalix.core.plugin.or.OrchestrationPattern;
+import se.arkalix.core.plugin.or.OrchestrationQueryDto;
 import se.arkalix.core.plugin.or.OrchestrationStrategy;
 import se.arkalix.core.plugin.sr.HttpJsonServiceDiscoveryService;
 import se.arkalix.core.plugin.sr.ServiceQueryDto;
@@ -28,10 +29,18 @@ import se.arkalix.util.Result;
 import se.arkalix.util.concurrent.Future;
 import se.arkalix.util.concurrent.FutureAnnouncement;
 import se.arkalix.util.concurrent.Futures;
+import se.arkalix.util.concurrent.Schedulers;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
 
 import java.net.InetSocketAddress;
 import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -52,6 +61,13 @@ import static se.arkalix.util.concurrent.Future.done;
  * as (3) helps resolve {@link se.arkalix.ArSystem#consume() service
  * consumption queries}.
  * <p>
+ * Orchestration query results may optionally be {@link
+ * Builder#orchestrationCacheTimeToLive(Duration) cached} by the plugin, and
+ * a {@link Builder#warmServiceNames(String...) list of services} may be
+ * resolved already when the plugin is attached to a system, which prevents
+ * the first attempts to consume those services from having to wait for the
+ * orchestrator.
+ * <p>
  * Note that the plugin currently assumes that the service registry,
  * authorization system public key and orchestrator of the cloud in question
  * will never change. It also never adds the service discovery or orchestration
@@ -67,6 +83,10 @@ public class HttpJsonCloudPlugin implements Plugin {
     private final InetSocketAddress serviceRegistrySocketAddress;
     private final String serviceDiscoveryBasePath;
     private final OrchestrationStrategy orchestrationStrategy;
+    private final Duration orchestrationCacheTimeToLive;
+    private final List<String> warmServiceNames;
+    private final Duration warmTimeout;
+    private final OrchestrationCache<OrchestrationQueryDto> orchestrationCache;
 
     private HttpJsonCloudPlugin(final Builder builder) {
         serviceRegistrationPredicate = Objects.requireNonNullElse(builder.serviceRegistrationPredicate, service -> true);
@@ -75,6 +95,15 @@ public class HttpJsonCloudPlugin implements Plugin {
             "serviceRegistrySocketAddress");
         orchestrationStrategy = Objects.requireNonNullElse(builder.orchestrationStrategy,
             OrchestrationStrategy.STORED_ONLY);
+        orchestrationCacheTimeToLive = builder.orchestrationCacheTimeToLive;
+        warmServiceNames = builder.warmServiceNames == null
+            ? Collections.emptyList()
+            : List.copyOf(builder.warmServiceNames);
+        warmTimeout = Objects.requireNonNullElse(builder.warmTimeout, Duration.ofSeconds(10));
+        orchestrationCache = orchestrationCacheTimeToLive != null
+            ? new OrchestrationCache<>(orchestrationCacheTimeToLive,
+                (delay, task) -> Schedulers.fixed().scheduleCoarse(delay, task))
+            : null;
     }
 
     /**
@@ -105,7 +134,13 @@ public class HttpJsonCloudPlugin implements Plugin {
         final ArSystem system,
         final Map<Class<? extends Plugin>, PluginFacade> dependencies
     ) {
-        return Future.success(new Attached(system));
+        final var attached = new Attached(system);
+        if (warmServiceNames.isEmpty()) {
+            return Future.success(attached);
+        }
+        return Futures.all(warmServiceNames.stream()
+            .map(name -> attached.warm(system.consume().name(name))))
+            .pass(attached);
     }
 
     private class Attached implements PluginAttached {
@@ -128,6 +163,33 @@ public class HttpJsonCloudPlugin implements Plugin {
             }
         }
 
+        Future<?> warm(final ServiceQuery query) {
+            if (logger.isInfoEnabled()) {
+                logger.info("HTTP/JSON cloud plugin resolving \"{}\" " +
+                    "on behalf of \"{}\" ...", query.name().orElse(null), system.name());
+            }
+            return awaitWarmed(onServiceQueried(query), warmTimeout,
+                services -> {
+                    if (services.isEmpty()) {
+                        if (logger.isWarnEnabled()) {
+                            logger.warn("HTTP/JSON cloud plugin could not " +
+                                    "resolve any \"{}\" service on behalf " +
+                                    "of \"{}\"", query.name().orElse(null),
+                                system.name());
+                        }
+                        return;
+                    }
+                    system.consumedServices().update(services);
+                },
+                fault -> {
+                    if (logger.isWarnEnabled()) {
+                        logger.warn("HTTP/JSON cloud plugin failed to " +
+                            "resolve \"" + query.name().orElse(null) +
+                            "\" on behalf of \"" + system.name() + "\"", fault);
+                    }
+                });
+        }
+
         @Override
         public void onDetach() {
             if (logger.isInfoEnabled()) {
@@ -253,26 +315,35 @@ public class HttpJsonCloudPlugin implements Plugin {
 
         @Override
         public Future<Collection<ServiceRecord>> onServiceQueried(final ServiceQuery query) {
-            return Futures.flatReducePlain(new ArrayList<>(), (services, pattern) -> {
-                if (pattern.isPlainStorePattern()) {
-                    synchronized (this) {
-                        if (orchestrationPlainStoreQueryAnnouncement == null) {
-                            orchestrationPlainStoreQueryAnnouncement = executeOrchestrationQueryUsing(null, pattern)
-                                .always(ignored -> {
-                                    synchronized (this) {
-                                        orchestrationPlainStoreQueryAnnouncement = null;
-                                    }
-                                })
-                                .toAnnouncement();
-                        }
-                        return orchestrationPlainStoreQueryAnnouncement.subscribe();
+            final var patterns = orchestrationStrategy.patterns();
+            if (orchestrationStrategy.isConcurrent() && patterns.size() > 1) {
+                return firstMatchingConcurrently(patterns.stream()
+                    .map(pattern -> executeOrchestrationPattern(query, pattern))
+                    .collect(Collectors.toList()), query::matches);
+            }
+            return firstMatchingSequentially(patterns, pattern -> executeOrchestrationPattern(query, pattern),
+                OrchestrationPattern::isPlainStorePattern, query::matches);
+        }
+
+        private Future<Collection<ServiceRecord>> executeOrchestrationPattern(
+            final ServiceQuery query,
+            final OrchestrationPattern pattern
+        ) {
+            if (pattern.isPlainStorePattern()) {
+                synchronized (this) {
+                    if (orchestrationPlainStoreQueryAnnouncement == null) {
+                        orchestrationPlainStoreQueryAnnouncement = executeOrchestrationQueryUsing(null, pattern)
+                            .always(ignored -> {
+                                synchronized (this) {
+                                    orchestrationPlainStoreQueryAnnouncement = null;
+                                }
+                            })
+                            .toAnnouncement();
                     }
+                    return orchestrationPlainStoreQueryAnnouncement.subscribe();
                 }
-                if (services.stream().anyMatch(query::matches)) {
-                    return Future.success(services);
-                }
-                return executeOrchestrationQueryUsing(query, pattern);
-            }, orchestrationStrategy.patterns());
+            }
+            return executeOrchestrationQueryUsing(query, pattern);
         }
 
         private Future<Collection<ServiceRecord>> executeOrchestrationQueryUsing(
@@ -281,6 +352,18 @@ public class HttpJsonCloudPlugin implements Plugin {
         ) {
             Objects.requireNonNull(pattern, "pattern");
 
+            final var orchestrationQuery = pattern.toQuery(systemDetails, query);
+            if (orchestrationCache != null) {
+                final var cachedServices = orchestrationCache.get(orchestrationQuery, Instant.now());
+                if (cachedServices != null) {
+                    if (logger.isTraceEnabled()) {
+                        logger.trace("HTTP/JSON cloud plugin using " +
+                            "cached result of {}", orchestrationQuery);
+                    }
+                    return Future.success(cachedServices);
+                }
+            }
+
             return requestOrchestration()
                 .ifSuccess(ignored -> {
                     if (logger.isTraceEnabled()) {
@@ -288,7 +371,9 @@ public class HttpJsonCloudPlugin implements Plugin {
                             "execute {} ...", query);
                     }
                 })
-                .flatMap(orchestration -> orchestration.query(pattern.toQuery(systemDetails, query)))
+                .flatMap(orchestration -> orchestration.query(
+                    orchestrationQuery,
+                    query != null ? query.deadline().orElse(null) : null))
                 .map(queryResult -> {
                     final var services = queryResult.services()
                         .stream()
@@ -297,6 +382,9 @@ public class HttpJsonCloudPlugin implements Plugin {
                     if (logger.isTraceEnabled()) {
                         logger.trace("HTTP/JSON cloud plugin received {}", services);
                     }
+                    if (orchestrationCache != null) {
+                        orchestrationCache.put(orchestrationQuery, services, Instant.now());
+                    }
                     return services;
                 });
         }
@@ -488,6 +576,169 @@ public class HttpJsonCloudPlugin implements Plugin {
         }
     }
 
+    // Executes given patterns one after the other until one of them yields a
+    // matching service. Patterns for which isAlwaysExecuted is true are
+    // executed even if a previous pattern yielded a matching service. The
+    // result of the last executed pattern is returned.
+    static <P, S> Future<Collection<S>> firstMatchingSequentially(
+        final List<P> patterns,
+        final Function<P, Future<Collection<S>>> executor,
+        final Predicate<P> isAlwaysExecuted,
+        final Predicate<S> isMatching
+    ) {
+        return Futures.flatReducePlain(new ArrayList<>(), (services, pattern) -> {
+            if (!isAlwaysExecuted.test(pattern) && services.stream().anyMatch(isMatching)) {
+                return Future.success(services);
+            }
+            return executor.apply(pattern);
+        }, patterns);
+    }
+
+    // Awaits given futures, each being the result of executing one pattern,
+    // and completes with the result of the first pattern either failing or
+    // yielding a matching service, but only after the results of all
+    // patterns before it are known. If no pattern yields a matching service,
+    // the result of the last pattern is used. Futures whose results become
+    // irrelevant are cancelled.
+    static <S> Future<Collection<S>> firstMatchingConcurrently(
+        final List<Future<Collection<S>>> futures,
+        final Predicate<S> isMatching
+    ) {
+        final var results = new ArrayList<Result<Collection<S>>>(futures.size());
+        final var completion = new FutureCompletion<Collection<S>>();
+        for (var i = 0; i < futures.size(); ++i) {
+            results.add(null);
+        }
+        completion.setCancelCallback(mayInterruptIfRunning -> {
+            for (final var future : futures) {
+                future.cancel(mayInterruptIfRunning);
+            }
+        });
+        for (var i = 0; i < futures.size(); ++i) {
+            final var index = i;
+            futures.get(i).onResult(result -> {
+                Result<Collection<S>> result0 = null;
+                final var pendingFutures = new ArrayList<Future<?>>();
+                synchronized (results) {
+                    if (results.isEmpty()) {
+                        return;
+                    }
+                    results.set(index, result);
+                    for (var j = 0; j < results.size(); ++j) {
+                        final var result1 = results.get(j);
+                        if (result1 == null) {
+                            return;
+                        }
+                        if (result1.isFailure() || result1.value().stream().anyMatch(isMatching) ||
+                            j == results.size() - 1)
+                        {
+                            result0 = result1;
+                            break;
+                        }
+                    }
+                    for (var j = 0; j < results.size(); ++j) {
+                        if (results.get(j) == null) {
+                            pendingFutures.add(futures.get(j));
+                        }
+                    }
+                    results.clear();
+                }
+                for (final var future : pendingFutures) {
+                    future.cancel(false);
+                }
+                completion.complete(result0);
+            });
+        }
+        return completion;
+    }
+
+    // Awaits the services resolved by given resolution for no longer than
+    // given timeout. A resolution failing or timing out is reported to
+    // onFault, rather than failing the returned future, which means that
+    // warming services never prevents a plugin from being attached.
+    static <S> Future<?> awaitWarmed(
+        final Future<Collection<S>> resolution,
+        final Duration timeout,
+        final Consumer<Collection<S>> onResolved,
+        final Consumer<Throwable> onFault
+    ) {
+        return resolution
+            .timeout(timeout)
+            .ifSuccess(onResolved::accept)
+            .mapCatch(Throwable.class, fault -> {
+                onFault.accept(fault);
+                return null;
+            });
+    }
+
+    /**
+     * Caches orchestration query results until the first of their services
+     * expires or the cache time to live has passed, whichever happens first.
+     * Empty results are never cached, as they are likely to be caused by
+     * providers not yet having been registered.
+     *
+     * @param <K> Type of query.
+     */
+    static class OrchestrationCache<K> {
+        private final Duration timeToLive;
+        private final BiConsumer<Duration, Runnable> timer;
+        private final Map<K, Entry> entries = new ConcurrentHashMap<>();
+
+        /**
+         * @param timeToLive Maximum duration for which results are cached.
+         * @param timer      Function used to schedule the removal of cached
+         *                   results after given delays.
+         */
+        OrchestrationCache(final Duration timeToLive, final BiConsumer<Duration, Runnable> timer) {
+            this.timeToLive = Objects.requireNonNull(timeToLive, "timeToLive");
+            this.timer = Objects.requireNonNull(timer, "timer");
+        }
+
+        Collection<ServiceRecord> get(final K query, final Instant now) {
+            final var entry = entries.get(query);
+            if (entry == null) {
+                return null;
+            }
+            if (!now.isBefore(entry.expiresAt)) {
+                entries.remove(query, entry);
+                return null;
+            }
+            return entry.services;
+        }
+
+        void put(final K query, final Collection<ServiceRecord> services, final Instant now) {
+            if (services.isEmpty()) {
+                return;
+            }
+            var expiresAt = now.plus(timeToLive);
+            for (final var service : services) {
+                if (service.expiresAt().isBefore(expiresAt)) {
+                    expiresAt = service.expiresAt();
+                }
+            }
+            if (!expiresAt.isAfter(now)) {
+                return;
+            }
+            final var entry = new Entry(List.copyOf(services), expiresAt);
+            entries.put(query, entry);
+            timer.accept(Duration.between(now, expiresAt), () -> entries.remove(query, entry));
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        private static class Entry {
+            private final Collection<ServiceRecord> services;
+            private final Instant expiresAt;
+
+            private Entry(final Collection<ServiceRecord> services, final Instant expiresAt) {
+                this.services = services;
+                this.expiresAt = expiresAt;
+            }
+        }
+    }
+
     /**
      * Builder useful for constructing {@link HttpJsonCloudPlugin} instances.
      */
@@ -497,6 +748,9 @@ public class HttpJsonCloudPlugin implements Plugin {
         private Predicate<ServiceRecord> serviceRegistrationPredicate;
         private InetSocketAddress serviceRegistrySocketAddress;
         private OrchestrationStrategy orchestrationStrategy;
+        private Duration orchestrationCacheTimeToLive;
+        private List<String> warmServiceNames;
+        private Duration warmTimeout;
 
         /**
          * Sets base path, or <i>service URI</i>, of the service discovery
@@ -555,6 +809,83 @@ public class HttpJsonCloudPlugin implements Plugin {
             return this;
         }
 
+        /**
+         * Enables caching of orchestration query results and sets the
+         * maximum duration for which cached results may be used. Results
+         * are cached by the plugin, which means that they may be shared by
+         * all systems it is attached to, and are keyed by the exact contents
+         * of the orchestration queries that produced them. A cached result
+         * is never used after any of its services have {@link
+         * ServiceRecord#expiresAt() expired}, as reported by the
+         * orchestrator. Results not containing any services are never
+         * cached. If not set, no results are cached.
+         *
+         * @param orchestrationCacheTimeToLive Maximum age of cached
+         *                                     orchestration results.
+         * @return This builder.
+         */
+        public Builder orchestrationCacheTimeToLive(final Duration orchestrationCacheTimeToLive) {
+            if (orchestrationCacheTimeToLive != null && (orchestrationCacheTimeToLive.isNegative() ||
+                orchestrationCacheTimeToLive.isZero()))
+            {
+                throw new IllegalArgumentException("orchestrationCacheTimeToLive <= 0");
+            }
+            this.orchestrationCacheTimeToLive = orchestrationCacheTimeToLive;
+            return this;
+        }
+
+        /**
+         * Sets names of services to be resolved, in parallel, whenever the
+         * plugin is attached to a system. Resolved services are added to the
+         * {@link ArSystem#consumedServices() service cache} of the system
+         * before it is considered attached, which means that they are
+         * immediately available to its first service consumption queries.
+         * Services that cannot be resolved are logged and ignored.
+         *
+         * @param warmServiceNames Names of services to resolve when
+         *                         attaching.
+         * @return This builder.
+         */
+        public Builder warmServiceNames(final List<String> warmServiceNames) {
+            this.warmServiceNames = warmServiceNames;
+            return this;
+        }
+
+        /**
+         * Sets names of services to be resolved, in parallel, whenever the
+         * plugin is attached to a system. Resolved services are added to the
+         * {@link ArSystem#consumedServices() service cache} of the system
+         * before it is considered attached, which means that they are
+         * immediately available to its first service consumption queries.
+         * Services that cannot be resolved are logged and ignored.
+         *
+         * @param warmServiceNames Names of services to resolve when
+         *                         attaching.
+         * @return This builder.
+         */
+        public Builder warmServiceNames(final String... warmServiceNames) {
+            return warmServiceNames(Arrays.asList(warmServiceNames));
+        }
+
+        /**
+         * Sets maximum duration to wait for the {@link
+         * #warmServiceNames(String...) warm services} of a system to be
+         * resolved when the plugin is attached to it. Services not resolved
+         * within that duration are logged and ignored. If not set, a default
+         * of 10 seconds is used.
+         *
+         * @param warmTimeout Maximum duration to wait for warm services to
+         *                    be resolved.
+         * @return This builder.
+         */
+        public Builder warmTimeout(final Duration warmTimeout) {
+            if (warmTimeout != null && (warmTimeout.isNegative() || warmTimeout.isZero())) {
+                throw new IllegalArgumentException("warmTimeout <= 0");
+            }
+            this.warmTimeout = warmTimeout;
+            return this;
+        }
+
         /**
          * @return New {@link HttpJsonCloudPlugin}.
          */
@@ -3,9 +3,11 @@ package se.arkalix.core.plugin.cp;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import se.arkalix.ArSystem;
+import se.arkalix.SystemRecord;
 import se.arkalix.core.plugin.eh.ArEventSubscriberPluginFacade;
 import se.arkalix.core.plugin.eh.EventSubscriptionHandle;
 import se.arkalix.core.plugin.eh.HttpJsonEventSubscriberPlugin;
+import se.arkalix.io.buf.Buffer;
 import se.arkalix.util.concurrent._internal.FutureCompletion;
 import se.arkalix.plugin.Plugin;
 import se.arkalix.plugin.PluginAttached;
@@ -14,9 +16,11 @@ import se.arkalix.util.Result;
 import se.arkalix.util.concurrent.Future;
 import se.arkalix.util.concurrent.Schedulers;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -63,6 +67,14 @@ import java.util.function.Supplier;
  *         }
  *     });
  * </pre>
+ * Whenever a negotiation event concerning a registered handler is received,
+ * the current state of its negotiation is needed. That state is looked up via
+ * the {@link HttpJsonTrustedContractObservationService contract observation
+ * service}, unless a {@link #negotiationCache(boolean) negotiation cache} is
+ * used and the state is already known locally, or unless {@link
+ * #payloadNegotiationState(boolean) payload negotiation state} is enabled and
+ * the event carries the state itself.
+ * <p>
  * Use of this plugin requires that another plugin is available that performs
  * service resolution, such as the {@link
  * se.arkalix.core.plugin.HttpJsonCloudPlugin HttpJsonCloudPlugin}.
@@ -71,6 +83,64 @@ import java.util.function.Supplier;
 public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContractNegotiatorPlugin {
     private static final Logger logger = LoggerFactory.getLogger(HttpJsonTrustedContractNegotiatorPlugin.class);
 
+    private volatile boolean isUsingNegotiationCache = false;
+    private volatile boolean isUsingPayloadNegotiationState = false;
+
+    /**
+     * Determines whether or not systems this plugin is attached to are to
+     * keep a local cache of the negotiations they take part in. Must be
+     * called before this plugin is attached to any systems in order to have
+     * an effect on them.
+     * <p>
+     * The cache of a system is updated with every offer it sends and with
+     * every negotiation state it looks up. When a negotiation event is
+     * received, the negotiation state is taken from the cache if the event
+     * concerns the latest offer known to the cache, such as when an offer
+     * sent by the system is accepted or rejected. The contract observation
+     * service is only consulted if the event announces an offer not yet in
+     * the cache, which means that every negotiation round requires at most
+     * one lookup rather than two. Negotiations are removed from the cache
+     * when closed or when their latest offers expire.
+     * <p>
+     * As cached state is derived from offers as they were sent, it may differ
+     * from that held by the contract proxy, such as if the proxy would modify
+     * offers before storing them. If not set, no cache is used.
+     *
+     * @param isUsingNegotiationCache {@code true} if a negotiation cache is to
+     *                                be used.
+     * @return This plugin.
+     */
+    public HttpJsonTrustedContractNegotiatorPlugin negotiationCache(final boolean isUsingNegotiationCache) {
+        this.isUsingNegotiationCache = isUsingNegotiationCache;
+        return this;
+    }
+
+    /**
+     * Determines whether or not systems this plugin is attached to are to
+     * use the negotiation state carried by received negotiation events. Must
+     * be called before this plugin is attached to any systems in order to
+     * have an effect on them.
+     * <p>
+     * If enabled, the contract proxy is resolved when this plugin is
+     * attached to a system, and negotiation events are only received if
+     * published by that proxy. Events with payloads that are JSON {@link
+     * TrustedContractNegotiation} objects, rather than only negotiation
+     * identifiers, then have those objects used as negotiation state without
+     * consulting the contract observation service. If not enabled, which is
+     * the default, the negotiation identifiers of such objects are used to
+     * look up negotiation states in the same way as if the payloads had only
+     * consisted of those identifiers.
+     *
+     * @param isUsingPayloadNegotiationState {@code true} if negotiation state
+     *                                       carried by negotiation events
+     *                                       is to be used.
+     * @return This plugin.
+     */
+    public HttpJsonTrustedContractNegotiatorPlugin payloadNegotiationState(final boolean isUsingPayloadNegotiationState) {
+        this.isUsingPayloadNegotiationState = isUsingPayloadNegotiationState;
+        return this;
+    }
+
     @Override
     public Set<Class<? extends Plugin>> dependencies() {
         return Collections.singleton(HttpJsonEventSubscriberPlugin.class);
@@ -85,8 +155,14 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
         if (eventSubscriber == null) {
             throw new IllegalStateException("Expected HttpJsonEventSubscriberPlugin to provide plugin facade");
         }
-        final var attached = new Attached(system, (ArEventSubscriberPluginFacade) eventSubscriber);
-        return attached.subscribe()
+        final var attached = new Attached(system, (ArEventSubscriberPluginFacade) eventSubscriber,
+            new NegotiationCache(isUsingNegotiationCache));
+        final Future<Collection<SystemRecord>> proxies = isUsingPayloadNegotiationState
+            ? system.consume()
+            .oneUsing(HttpJsonTrustedContractNegotiationService.factory())
+            .map(service -> Collections.singleton(service.service().provider()))
+            : Future.success(null);
+        return proxies.flatMap(attached::subscribe)
             .ifSuccess(ignored -> {
                 if (logger.isInfoEnabled()) {
                     logger.info("HTTP/JSON contract negotiator plugin attached to \"{}\"", system.name());
@@ -101,27 +177,67 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
             .pass(attached);
     }
 
+    /**
+     * Determines whether the negotiation state carried by a received event
+     * matches the offeror, receiver and status named by its metadata.
+     */
+    static boolean isConsistent(
+        final TrustedContractNegotiationDto negotiation,
+        final String offerorName,
+        final String receiverName,
+        final String status)
+    {
+        return negotiation.status().name().equalsIgnoreCase(status) &&
+            negotiation.offer().offerorName().equals(offerorName) &&
+            negotiation.offer().receiverName().equals(receiverName);
+    }
+
     private static class Attached implements PluginAttached {
         private final Facade facade = new Facade();
         private final ArSystem system;
         private final ArEventSubscriberPluginFacade eventSubscriber;
+        private final NegotiationCache cache;
         private final ExpectedEvents expectedEvents;
 
         private EventSubscriptionHandle eventSubscriptionHandle = null;
 
-        private Attached(final ArSystem system, final ArEventSubscriberPluginFacade eventSubscriber) {
+        private Attached(
+            final ArSystem system,
+            final ArEventSubscriberPluginFacade eventSubscriber,
+            final NegotiationCache cache)
+        {
             this.system = Objects.requireNonNull(system, "system");
             this.eventSubscriber = Objects.requireNonNull(eventSubscriber, "eventSubscriber");
+            this.cache = Objects.requireNonNull(cache, "cache");
 
-            expectedEvents = new ExpectedEvents(system);
+            expectedEvents = new ExpectedEvents(system, cache);
         }
 
-        public Future<?> subscribe() {
+        /**
+         * Subscribes to negotiation events.
+         *
+         * @param proxies Contract proxies to receive events from, or {@code
+         *                null} if events are to be received from any
+         *                provider. If given, the negotiation state carried by
+         *                received events is used.
+         */
+        public Future<?> subscribe(final Collection<SystemRecord> proxies) {
+            final var isUsingPayloadNegotiationState = proxies != null;
             return eventSubscriber
-                .subscribe(ContractNegotiationConstants.TOPIC_UPDATE, (metadata, data) -> {
+                .subscribe(ContractNegotiationConstants.TOPIC_UPDATE, proxies, (metadata, data) -> {
                     final long negotiationId;
+                    final TrustedContractNegotiationDto negotiation;
                     try {
-                        negotiationId = Long.parseLong(data);
+                        if (data.startsWith("{")) {
+                            final var negotiation0 = TrustedContractNegotiationDto
+                                .decodeJson(Buffer.wrap(data.getBytes(StandardCharsets.UTF_8)));
+                            negotiation = isUsingPayloadNegotiationState ? negotiation0 : null;
+                            negotiationId = negotiation0.id();
+                        }
+                        else {
+                            negotiation = null;
+                            negotiationId = Long.parseLong(data);
+                        }
                     }
                     catch (final Throwable throwable) {
                         logger.warn("HTTP/JSON contract negotiator received " +
@@ -155,7 +271,15 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
                         return;
                     }
 
-                    if (!expectedEvents.tryToHandle(offerorName, receiverName, negotiationId, status)) {
+                    if (negotiation != null && !isConsistent(negotiation, offerorName, receiverName, status)) {
+                        logger.warn("HTTP/JSON contract negotiator received " +
+                            "contract event with a negotiation state that " +
+                            "does not match its metadata; cannot process " +
+                            "event [data={}, metadata={}]", data, metadata);
+                        return;
+                    }
+
+                    if (!expectedEvents.tryToHandle(offerorName, receiverName, negotiationId, status, negotiation)) {
                         logger.debug("HTTP/JSON contract negotiator " +
                             "received contract event that does name an " +
                             "expected offeror, receiver, negotiation " +
@@ -201,7 +325,7 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
                 final String receiverName,
                 final Supplier<TrustedContractNegotiatorHandler> handlerFactory)
             {
-                expectedEvents.add(new ExpectedOfferForReceiver(system, receiverName, handlerFactory));
+                expectedEvents.listen(new ExpectedOfferForReceiver(system, cache, receiverName, handlerFactory));
             }
 
             @Override
@@ -209,39 +333,106 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
                 return system.consume()
                     .oneUsing(HttpJsonTrustedContractNegotiationService.factory())
                     .flatMap(service -> service.offer(offer))
-                    .ifSuccess(negotiationId -> expectedEvents.add(new ExpectedResponseToOffer(
-                        system, handler,
-                        offer.offerorName(), offer.receiverName(), negotiationId, offer.expiresIn())));
+                    .ifSuccess(negotiationId -> {
+                        cache.update(negotiationId, offer);
+                        expectedEvents.add(new ExpectedResponseToOffer(
+                            system, cache, handler,
+                            offer.offerorName(), offer.receiverName(), negotiationId, offer.expiresIn()));
+                    });
             }
         }
     }
 
-    private static class ExpectedEvents {
+    /**
+     * Events expected to be received, indexed by the negotiations they
+     * concern.
+     * <p>
+     * Expected responses to offers are indexed by negotiation, which means
+     * that finding the expectations matching a received event does not
+     * require that the expectations of any other negotiations be considered.
+     * Expected offers, which may concern any negotiation with a given
+     * receiver, are kept apart and are only considered if no expectation for
+     * the negotiation of a received event matches it.
+     */
+    static class ExpectedEvents {
         private final ArSystem system;
-        private final Queue<ExpectedEvent> expectedEvents = new ConcurrentLinkedQueue<>();
+        private final NegotiationCache cache;
+        private final Map<NegotiationKey, Queue<ExpectedEvent>> keyToExpectedEvents = new ConcurrentHashMap<>();
+        private final Map<String, Queue<ExpectedEvent>> receiverToExpectedOffers = new ConcurrentHashMap<>();
 
-        private ExpectedEvents(final ArSystem system) {
+        ExpectedEvents(final ArSystem system, final NegotiationCache cache) {
             this.system = system;
+            this.cache = cache;
         }
 
         public void add(final ExpectedEvent expectedEvent) {
             logger.trace("Adding {}", expectedEvent);
-            expectedEvents.add(expectedEvent);
+            final var key = Objects.requireNonNull(expectedEvent.key(), "expectedEvent.key()");
+            keyToExpectedEvents.compute(key, (ignored, expectedEvents) -> {
+                if (expectedEvents == null) {
+                    expectedEvents = new ConcurrentLinkedQueue<>();
+                }
+                expectedEvents.add(expectedEvent);
+                return expectedEvents;
+            });
+        }
+
+        public void listen(final ExpectedOfferForReceiver expectedOffer) {
+            logger.trace("Adding {}", expectedOffer);
+            receiverToExpectedOffers.computeIfAbsent(expectedOffer.receiverName, ignored -> new ConcurrentLinkedQueue<>())
+                .add(expectedOffer);
         }
 
         public boolean tryToHandle(
             final String offerorName,
             final String receiverName,
             final long negotiationId,
-            final String status)
+            final String status,
+            final TrustedContractNegotiationDto negotiation)
         {
             if (logger.isTraceEnabled()) {
                 logger.trace("Trying to handle event [offeror={}, receiver={}, negotiationId={}, status={}]",
                     offerorName, receiverName, negotiationId, status);
             }
+            final var key = new NegotiationKey(negotiationId, offerorName, receiverName);
+            final var expectedEvents = keyToExpectedEvents.get(key);
+            if (expectedEvents != null) {
+                final var expectedEvent = tryToMatch(expectedEvents, offerorName, receiverName, negotiationId, status);
+                keyToExpectedEvents.computeIfPresent(key, (ignored, expectedEvents0) ->
+                    expectedEvents0.isEmpty() ? null : expectedEvents0);
+                if (expectedEvent != null) {
+                    handle(expectedEvent, offerorName, receiverName, negotiationId, status, negotiation);
+                    return true;
+                }
+            }
+            final var expectedOffers = receiverToExpectedOffers.get(receiverName);
+            if (expectedOffers != null) {
+                final var expectedOffer = tryToMatch(expectedOffers, offerorName, receiverName, negotiationId, status);
+                if (expectedOffer != null) {
+                    handle(expectedOffer, offerorName, receiverName, negotiationId, status, negotiation);
+                    return true;
+                }
+            }
+            if (logger.isTraceEnabled()) {
+                logger.trace("No expected event matched handled event");
+            }
+            return false;
+        }
+
+        private ExpectedEvent tryToMatch(
+            final Queue<ExpectedEvent> expectedEvents,
+            final String offerorName,
+            final String receiverName,
+            final long negotiationId,
+            final String status)
+        {
             final var it = expectedEvents.iterator();
             while (it.hasNext()) {
                 final var expectedEvent = it.next();
+                if (expectedEvent.isExpired()) {
+                    it.remove();
+                    continue;
+                }
                 if (expectedEvent.matches(offerorName, receiverName, negotiationId, status)) {
                     if (logger.isTraceEnabled()) {
                         logger.trace("Matched {}", expectedEvent);
@@ -252,61 +443,277 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
                             logger.trace("Removed expected event");
                         }
                     }
-                    system.consume()
-                        .oneUsing(HttpJsonTrustedContractObservationService.factory())
-                        .flatMap(service -> service.getByNamesAndId(offerorName, receiverName, negotiationId)
-                            .map(optionalNegotiation -> optionalNegotiation
-                                .orElseThrow(() -> new IllegalStateException("" +
-                                    "Advertised negotiation [offeror=" +
-                                    offerorName + ", receiver=" + receiverName +
-                                    ", id=" + negotiationId + ", status=" +
-                                    status + "] not available via service \"" +
-                                    service.service().name() + "\"; cannot " +
-                                    "present negotiation update to " +
-                                    "negotiation handler"))))
-                        .flatMap(expectedEvent::handle)
-                        .ifSuccess(optionalNewExpectedEvent -> optionalNewExpectedEvent.ifPresent(this::add))
-                        .onFailure(fault -> logger.error("Failed to handle " +
-                            "negotiation [offeror=" + offerorName + ", " +
-                            "receiver=" + receiverName + ", id=" +
-                            negotiationId + ", status=" + status + "]", fault));
-                    return true;
+                    return expectedEvent;
                 }
             }
+            return null;
+        }
+
+        private void handle(
+            final ExpectedEvent expectedEvent,
+            final String offerorName,
+            final String receiverName,
+            final long negotiationId,
+            final String status,
+            final TrustedContractNegotiationDto negotiation)
+        {
+            final Future<TrustedContractNegotiationDto> future;
+            if (negotiation != null) {
+                future = Future.success(negotiation);
+            }
+            else {
+                final var cachedNegotiation = cache.get(offerorName, receiverName, negotiationId, status);
+                future = cachedNegotiation != null
+                    ? Future.success(cachedNegotiation)
+                    : lookup(offerorName, receiverName, negotiationId, status);
+            }
+            future
+                .ifSuccess(cache::update)
+                .flatMap(expectedEvent::handle)
+                .ifSuccess(optionalNewExpectedEvent -> optionalNewExpectedEvent.ifPresent(this::add))
+                .onFailure(fault -> logger.error("Failed to handle " +
+                    "negotiation [offeror=" + offerorName + ", " +
+                    "receiver=" + receiverName + ", id=" +
+                    negotiationId + ", status=" + status + "]", fault));
+        }
+
+        private Future<TrustedContractNegotiationDto> lookup(
+            final String offerorName,
+            final String receiverName,
+            final long negotiationId,
+            final String status)
+        {
+            return system.consume()
+                .oneUsing(HttpJsonTrustedContractObservationService.factory())
+                .flatMap(service -> service.getByNamesAndId(offerorName, receiverName, negotiationId)
+                    .map(optionalNegotiation -> optionalNegotiation
+                        .orElseThrow(() -> new IllegalStateException("" +
+                            "Advertised negotiation [offeror=" +
+                            offerorName + ", receiver=" + receiverName +
+                            ", id=" + negotiationId + ", status=" +
+                            status + "] not available via service \"" +
+                            service.service().name() + "\"; cannot " +
+                            "present negotiation update to " +
+                            "negotiation handler"))));
+        }
+    }
+
+    /**
+     * The latest offers of on-going negotiations, as known by the system
+     * owning the cache.
+     * <p>
+     * Each cached negotiation has a version, which is the number of offers
+     * of the negotiation the system has observed, either by sending them or
+     * by looking them up. A received event can be served from the cache only
+     * if it concerns the latest cached offer of its negotiation. If it
+     * announces a newer offer, which means that the cached version lags
+     * behind that of the contract proxy, the negotiation must be looked up.
+     */
+    static class NegotiationCache {
+        private final boolean isEnabled;
+        private final Map<NegotiationKey, CachedNegotiation> keyToNegotiation = new ConcurrentHashMap<>();
+
+        NegotiationCache(final boolean isEnabled) {
+            this.isEnabled = isEnabled;
+        }
+
+        public TrustedContractNegotiationDto get(
+            final String offerorName,
+            final String receiverName,
+            final long negotiationId,
+            final String status)
+        {
+            if (!isEnabled) {
+                return null;
+            }
+            final var key = new NegotiationKey(negotiationId, offerorName, receiverName);
+            final var cached = keyToNegotiation.get(key);
+            if (cached == null || cached.isExpired()) {
+                return null;
+            }
+            final ContractNegotiationStatus status0;
+            try {
+                status0 = ContractNegotiationStatus.valueOf(status.toUpperCase());
+            }
+            catch (final IllegalArgumentException exception) {
+                return null;
+            }
+            if (!cached.offer.offerorName().equals(offerorName) || !cached.offer.receiverName().equals(receiverName)) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("Negotiation [offeror={}, receiver={}, " +
+                            "id={}] advertises offer newer than version {}; " +
+                            "looking it up", offerorName, receiverName,
+                        negotiationId, cached.version);
+                }
+                return null;
+            }
             if (logger.isTraceEnabled()) {
-                logger.trace("No expected event matched handled event");
+                logger.trace("Using version {} of cached negotiation [offeror={}, receiver={}, id={}]",
+                    cached.version, offerorName, receiverName, negotiationId);
             }
-            return false;
+            return new TrustedContractNegotiationDto.Builder()
+                .id(negotiationId)
+                .offer(cached.offer)
+                .status(status0)
+                .build();
+        }
+
+        public void update(final long negotiationId, final TrustedContractOfferDto offer) {
+            if (!isEnabled) {
+                return;
+            }
+            final var key = new NegotiationKey(negotiationId, offer.offerorName(), offer.receiverName());
+            final var cached = keyToNegotiation.compute(key, (ignored, cached0) ->
+                new CachedNegotiation(cached0 != null ? cached0.version + 1 : 1, offer));
+            scheduleRemovalOf(key, cached);
+        }
+
+        public void update(final TrustedContractCounterOfferDto counterOffer) {
+            update(counterOffer.negotiationId(), new TrustedContractOfferDto.Builder()
+                .offerorName(counterOffer.offerorName())
+                .receiverName(counterOffer.receiverName())
+                .validAfter(counterOffer.validAfter())
+                .validUntil(counterOffer.validUntil())
+                .contracts(counterOffer.contractsAsDtos())
+                .offeredAt(counterOffer.offeredAt())
+                .build());
+        }
+
+        public void update(final TrustedContractNegotiationDto negotiation) {
+            if (!isEnabled) {
+                return;
+            }
+            if (negotiation.status() == ContractNegotiationStatus.OFFERING) {
+                final var offer = (TrustedContractOfferDto) negotiation.offer();
+                final var key = new NegotiationKey(negotiation.id(), offer.offerorName(), offer.receiverName());
+                final var isNew = new AtomicBoolean(false);
+                final var cached = keyToNegotiation.compute(key, (ignored, cached0) -> {
+                    if (cached0 != null && cached0.offer.equals(offer)) {
+                        return cached0;
+                    }
+                    isNew.set(true);
+                    return new CachedNegotiation(cached0 != null ? cached0.version + 1 : 1, offer);
+                });
+                if (isNew.get()) {
+                    scheduleRemovalOf(key, cached);
+                }
+            }
+            else {
+                remove(negotiation.id(), negotiation.offer().offerorName(), negotiation.offer().receiverName());
+            }
+        }
+
+        public void remove(final long negotiationId, final String offerorName, final String receiverName) {
+            if (isEnabled) {
+                keyToNegotiation.remove(new NegotiationKey(negotiationId, offerorName, receiverName));
+            }
+        }
+
+        /**
+         * Removes given {@code cached} negotiation when its offer expires,
+         * unless it has been replaced or removed before that.
+         */
+        private void scheduleRemovalOf(final NegotiationKey key, final CachedNegotiation cached) {
+            final var expiresIn = Duration.between(Instant.now(), cached.offer.validUntil());
+            Schedulers.fixed().scheduleCoarse(expiresIn.isNegative() ? Duration.ZERO : expiresIn,
+                () -> keyToNegotiation.remove(key, cached));
+        }
+    }
+
+    private static class CachedNegotiation {
+        private final int version;
+        private final TrustedContractOfferDto offer;
+
+        private CachedNegotiation(final int version, final TrustedContractOfferDto offer) {
+            this.version = version;
+            this.offer = offer;
+        }
+
+        public boolean isExpired() {
+            return offer.validUntil().isBefore(Instant.now());
+        }
+    }
+
+    /**
+     * Identifies a negotiation by its identifier and the names of its two
+     * parties, regardless of which of them is currently making an offer.
+     */
+    static class NegotiationKey {
+        private final long negotiationId;
+        private final String nameA;
+        private final String nameB;
+
+        NegotiationKey(final long negotiationId, final String name0, final String name1) {
+            this.negotiationId = negotiationId;
+            if (name0.compareTo(name1) <= 0) {
+                nameA = name0;
+                nameB = name1;
+            }
+            else {
+                nameA = name1;
+                nameB = name0;
+            }
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) { return true; }
+            if (other == null || getClass() != other.getClass()) { return false; }
+            final var that = (NegotiationKey) other;
+            return negotiationId == that.negotiationId &&
+                nameA.equals(that.nameA) &&
+                nameB.equals(that.nameB);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(negotiationId, nameA, nameB);
         }
     }
 
-    private interface ExpectedEvent {
+    interface ExpectedEvent {
+        /**
+         * @return Key of negotiation this event is expected for, or {@code
+         * null} if it may be expected for any negotiation.
+         */
+        NegotiationKey key();
+
         boolean matches(
             final String offerorName,
             final String receiverName,
             final long negotiationId,
             final String status);
 
+        boolean isExpired();
+
         boolean isToBeRemovedWhenMatched();
 
         Future<Optional<ExpectedEvent>> handle(final TrustedContractNegotiationDto negotiation);
     }
 
-    private static class ExpectedOfferForReceiver implements ExpectedEvent {
+    static class ExpectedOfferForReceiver implements ExpectedEvent {
         private final ArSystem system;
+        private final NegotiationCache cache;
         private final String receiverName;
         private final Supplier<TrustedContractNegotiatorHandler> handlerFactory;
 
-        private ExpectedOfferForReceiver(
+        ExpectedOfferForReceiver(
             final ArSystem system,
+            final NegotiationCache cache,
             final String receiverName,
             final Supplier<TrustedContractNegotiatorHandler> handlerFactory)
         {
             this.system = Objects.requireNonNull(system, "system");
+            this.cache = Objects.requireNonNull(cache, "cache");
             this.receiverName = Objects.requireNonNull(receiverName, "receiverName");
             this.handlerFactory = Objects.requireNonNull(handlerFactory, "handlerFactory");
         }
 
+        @Override
+        public NegotiationKey key() {
+            return null;
+        }
+
         @Override
         public boolean matches(
             final String offerorName,
@@ -317,6 +724,11 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
             return this.receiverName.equals(receiverName) && "OFFERING".equalsIgnoreCase(status);
         }
 
+        @Override
+        public boolean isExpired() {
+            return false;
+        }
+
         @Override
         public boolean isToBeRemovedWhenMatched() {
             return false;
@@ -340,7 +752,7 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
             }
 
             return new ExpectedResponseToOffer(
-                system, handlerFactory.get(),
+                system, cache, handlerFactory.get(),
                 negotiation.offer().offerorName(), receiverName, negotiation.id(),
                 expiresIn)
                 .handle(negotiation);
@@ -356,8 +768,9 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
         }
     }
 
-    private static class ExpectedResponseToOffer implements ExpectedEvent {
+    static class ExpectedResponseToOffer implements ExpectedEvent {
         private final ArSystem system;
+        private final NegotiationCache cache;
         private final TrustedContractNegotiatorHandler handler;
         private final long negotiationId;
 
@@ -367,8 +780,9 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
         private String offerorName;
         private String receiverName;
 
-        private ExpectedResponseToOffer(
+        ExpectedResponseToOffer(
             final ArSystem system,
+            final NegotiationCache cache,
             final TrustedContractNegotiatorHandler handler,
             final String offerorName,
             final String receiverName,
@@ -376,11 +790,12 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
             final Duration expiresIn)
         {
             this.system = Objects.requireNonNull(system, "system");
+            this.cache = Objects.requireNonNull(cache, "cache");
             this.handler = Objects.requireNonNull(handler, "handler");
             this.negotiationId = negotiationId;
             Objects.requireNonNull(expiresIn, "expiresIn");
 
-            expirationFuture = new AtomicReference<>(Schedulers.fixed().schedule(expiresIn, this::expire));
+            expirationFuture = new AtomicReference<>(Schedulers.fixed().scheduleCoarse(expiresIn, this::expire));
 
             this.offerorName = Objects.requireNonNull(offerorName, "offerorName");
             this.receiverName = Objects.requireNonNull(receiverName, "receiverName");
@@ -407,12 +822,17 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
             offerorName = offer.offerorName();
             receiverName = offer.receiverName();
 
-            final var future = expirationFuture.getAndSet(Schedulers.fixed().schedule(offer.expiresIn(), this::expire));
+            final var future = expirationFuture.getAndSet(Schedulers.fixed().scheduleCoarse(offer.expiresIn(), this::expire));
             if (future != null) {
                 future.cancel();
             }
         }
 
+        @Override
+        public NegotiationKey key() {
+            return new NegotiationKey(negotiationId, offerorName, receiverName);
+        }
+
         @Override
         public boolean matches(
             final String offerorName,
@@ -436,6 +856,11 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
             }
         }
 
+        @Override
+        public boolean isExpired() {
+            return isExpired.get();
+        }
+
         @Override
         public boolean isToBeRemovedWhenMatched() {
             return true;
@@ -458,7 +883,11 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
                                     .acceptorName(negotiation.offer().receiverName())
                                     .acceptedAt(Instant.now())
                                     .build()))
-                                .ifSuccess(ignored -> close());
+                                .ifSuccess(ignored -> {
+                                    cache.remove(negotiation.id(), negotiation.offer().offerorName(),
+                                        negotiation.offer().receiverName());
+                                    close();
+                                });
                         }
 
                         @Override
@@ -476,6 +905,7 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
                                 .oneUsing(HttpJsonTrustedContractNegotiationService.factory())
                                 .flatMap(service -> service.counterOffer(counterOffer))
                                 .ifSuccess(ignored -> {
+                                    cache.update(counterOffer);
                                     refresh(counterOffer);
                                     future.complete(Result.success(Optional.of(ExpectedResponseToOffer.this)));
                                 })
@@ -493,7 +923,11 @@ public class HttpJsonTrustedContractNegotiatorPlugin implements ArTrustedContrac
                                     .rejectorName(negotiation.offer().receiverName())
                                     .rejectedAt(Instant.now())
                                     .build()))
-                                .ifSuccess(ignored -> close());
+                                .ifSuccess(ignored -> {
+                                    cache.remove(negotiation.id(), negotiation.offer().offerorName(),
+                                        negotiation.offer().receiverName());
+                                    close();
+                                });
                         }
                     });
                     return future;
@@ -6,6 +6,8 @@ import se.arkalix.core.plugin.SystemDetails;
 import se.arkalix.util.concurrent.Future;
 
 import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -59,4 +61,31 @@ public interface ArEventPublishService {
             .createdAt(Instants.toAitiaDateTimeString(Instant.now()))
             .build());
     }
+
+    /**
+     * Publishes given arguments as an {@link EventOutgoing} with a base64
+     * encoded binary payload.
+     * <p>
+     * As event payloads must be strings, given {@code data} is base64
+     * encoded and the {@link EventPayload#METADATA_ENCODING} metadata entry
+     * of the event is set to {@link EventPayload#ENCODING_BASE64}. Receivers
+     * can recover the bytes via {@link EventPayload#asBytes()}.
+     *
+     * @param topic     Category of event.
+     * @param publisher System publishing the event.
+     * @param metadata  Arbitrary metadata associated with event.
+     * @param data      Arbitrary binary data associated with event.
+     * @return {@code Future} completed when the publishing attempt is known to
+     * have succeeded or failed.
+     */
+    default Future<?> publishBinary(
+        final String topic,
+        final ArSystem publisher,
+        final Map<String, String> metadata,
+        final byte[] data)
+    {
+        final var metadata0 = metadata != null ? new HashMap<>(metadata) : new HashMap<String, String>();
+        metadata0.put(EventPayload.METADATA_ENCODING, EventPayload.ENCODING_BASE64);
+        return publish(topic, publisher, metadata0, Base64.getEncoder().encodeToString(data));
+    }
 }
@@ -0,0 +1,176 @@
+package se.arkalix.core.plugin.eh;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Determines how events are coalesced and queued by a {@link
+ * HttpJsonEventBatchPublishService}.
+ */
+public final class EventBatchConfig {
+    private final int maxBatchSize;
+    private final Duration maxBatchDelay;
+    private final int maxPendingEvents;
+    private final int maxRequestsInFlight;
+    private final EventOverflowPolicy overflowPolicy;
+
+    private EventBatchConfig(final Builder builder) {
+        maxBatchSize = builder.maxBatchSize;
+        maxBatchDelay = builder.maxBatchDelay;
+        maxPendingEvents = builder.maxPendingEvents;
+        maxRequestsInFlight = builder.maxRequestsInFlight;
+        overflowPolicy = builder.overflowPolicy;
+    }
+
+    /**
+     * @return Configuration used if none other is provided.
+     */
+    public static EventBatchConfig defaults() {
+        return new Builder().build();
+    }
+
+    /**
+     * @return Maximum number of events with the same topic that are coalesced
+     * into a batch before the batch is sent.
+     */
+    public int maxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return Maximum time a batch may be kept open before it is sent,
+     * counting from when its first event was added to it.
+     */
+    public Duration maxBatchDelay() {
+        return maxBatchDelay;
+    }
+
+    /**
+     * @return Maximum number of events that may be waiting to be sent.
+     */
+    public int maxPendingEvents() {
+        return maxPendingEvents;
+    }
+
+    /**
+     * @return Maximum number of requests that may have been sent without a
+     * response having been received.
+     */
+    public int maxRequestsInFlight() {
+        return maxRequestsInFlight;
+    }
+
+    /**
+     * @return What to do with events that are published when {@link
+     * #maxPendingEvents()} events are already waiting to be sent.
+     */
+    public EventOverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    @Override
+    public String toString() {
+        return "EventBatchConfig{" +
+            "maxBatchSize=" + maxBatchSize +
+            ", maxBatchDelay=" + maxBatchDelay +
+            ", maxPendingEvents=" + maxPendingEvents +
+            ", maxRequestsInFlight=" + maxRequestsInFlight +
+            ", overflowPolicy=" + overflowPolicy +
+            '}';
+    }
+
+    /**
+     * Builder useful for creating {@link EventBatchConfig} instances.
+     */
+    public static class Builder {
+        private int maxBatchSize = 64;
+        private Duration maxBatchDelay = Duration.ofMillis(10);
+        private int maxPendingEvents = 4096;
+        private int maxRequestsInFlight = 32;
+        private EventOverflowPolicy overflowPolicy = EventOverflowPolicy.DROP_NEWEST;
+
+        /**
+         * Sets maximum number of events with the same topic that are
+         * coalesced into a batch before the batch is sent. Defaults to 64.
+         *
+         * @param maxBatchSize Maximum batch size.
+         * @return This builder.
+         */
+        public Builder maxBatchSize(final int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("maxBatchSize <= 0");
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets maximum time a batch may be kept open before it is sent,
+         * counting from when its first event was added. Defaults to 10
+         * milliseconds.
+         *
+         * @param maxBatchDelay Maximum batch delay.
+         * @return This builder.
+         */
+        public Builder maxBatchDelay(final Duration maxBatchDelay) {
+            Objects.requireNonNull(maxBatchDelay, "maxBatchDelay");
+            if (maxBatchDelay.isNegative()) {
+                throw new IllegalArgumentException("maxBatchDelay < 0");
+            }
+            this.maxBatchDelay = maxBatchDelay;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of events that may be waiting to be sent,
+         * beyond which the {@link #overflowPolicy(EventOverflowPolicy)
+         * overflow policy} is applied. Defaults to 4096.
+         *
+         * @param maxPendingEvents Maximum number of pending events.
+         * @return This builder.
+         */
+        public Builder maxPendingEvents(final int maxPendingEvents) {
+            if (maxPendingEvents <= 0) {
+                throw new IllegalArgumentException("maxPendingEvents <= 0");
+            }
+            this.maxPendingEvents = maxPendingEvents;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of requests that may have been pipelined over
+         * the connection to the event publishing service without a response
+         * having been received. Defaults to 32.
+         *
+         * @param maxRequestsInFlight Maximum number of requests in flight.
+         * @return This builder.
+         */
+        public Builder maxRequestsInFlight(final int maxRequestsInFlight) {
+            if (maxRequestsInFlight <= 0) {
+                throw new IllegalArgumentException("maxRequestsInFlight <= 0");
+            }
+            this.maxRequestsInFlight = maxRequestsInFlight;
+            return this;
+        }
+
+        /**
+         * Sets what to do with events that are published while the maximum
+         * number of pending events are already waiting to be sent. Defaults
+         * to {@link EventOverflowPolicy#DROP_NEWEST}.
+         *
+         * @param overflowPolicy Overflow policy.
+         * @return This builder.
+         */
+        public Builder overflowPolicy(final EventOverflowPolicy overflowPolicy) {
+            this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+            return this;
+        }
+
+        /**
+         * @return New event batch configuration.
+         */
+        public EventBatchConfig build() {
+            return new EventBatchConfig(this);
+        }
+    }
+}
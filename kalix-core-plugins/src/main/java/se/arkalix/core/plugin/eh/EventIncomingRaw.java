@@ -0,0 +1,27 @@
+package se.arkalix.core.plugin.eh;
+
+import se.arkalix.codec.json.JsonEscapedString;
+import se.arkalix.core.plugin.SystemDetails;
+import se.arkalix.dto.DtoReadableAs;
+import se.arkalix.dto.json.DtoJsonName;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static se.arkalix.dto.DtoCodec.JSON;
+
+/**
+ * An {@link EventIncoming event} received by a subscriber, only decoded to
+ * the extent required for dispatching it. Its payload is kept escaped.
+ */
+@DtoReadableAs(JSON)
+interface EventIncomingRaw {
+    @DtoJsonName("source")
+    Optional<SystemDetails> publisher();
+
+    @DtoJsonName("metaData")
+    Map<String, String> metadata();
+
+    @DtoJsonName("payload")
+    Optional<JsonEscapedString> payload();
+}
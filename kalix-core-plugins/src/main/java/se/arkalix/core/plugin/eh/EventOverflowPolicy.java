@@ -0,0 +1,35 @@
+package se.arkalix.core.plugin.eh;
+
+/**
+ * Determines what happens when an event is to be added to a bounded event
+ * queue that is already full.
+ */
+public enum EventOverflowPolicy {
+    /**
+     * The new event is dropped, which causes the operation that would have
+     * added it to the queue to fail.
+     */
+    DROP_NEWEST,
+
+    /**
+     * The oldest event in the queue is dropped to make room for the new
+     * event. The operation that added the dropped event to the queue, if
+     * any can be notified, fails.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The thread adding the new event is blocked until there is room for it
+     * in the queue.
+     * <p>
+     * As blocking a scheduler thread could prevent the very queue it is
+     * waiting for from ever being drained, events added by such threads are
+     * dropped rather than blocking them, just as if {@link #DROP_NEWEST}
+     * had been used.
+     * <p>
+     * When used by an {@link EventSubscription}, no thread is ever blocked.
+     * The event is instead refused, signalling to the event handler
+     * delivering it that it should back off.
+     */
+    BLOCK,
+}
@@ -0,0 +1,129 @@
+package se.arkalix.core.plugin.eh;
+
+import se.arkalix.codec.json.JsonEscapedString;
+
+import java.util.Base64;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The payload of a received event, decoded only if and when requested.
+ * <p>
+ * Event payloads are always transmitted as JSON strings. When an event is
+ * received, its payload is kept in its escaped form, exactly as it appeared
+ * in the received JSON document. It is only unescaped into a {@link String}
+ * if {@link #asString()} is called, which means that handlers only
+ * inspecting event metadata, or forwarding payloads {@link #rawJson()
+ * untouched}, never pay for decoding them.
+ * <p>
+ * Binary payloads are published as base64 strings, as described by the
+ * {@link ArEventPublishService#publishBinary(String, se.arkalix.ArSystem,
+ * Map, byte[]) publishBinary} method. Such payloads can be decoded into
+ * bytes using {@link #asBytes()}, which avoids creating any intermediary
+ * {@link String}.
+ */
+@SuppressWarnings("unused")
+public final class EventPayload {
+    /**
+     * Event metadata key used to name the encoding of event payloads, if
+     * any.
+     */
+    public static final String METADATA_ENCODING = "payloadEncoding";
+
+    /**
+     * Event metadata value signifying that an event payload consists of
+     * base64 encoded bytes.
+     */
+    public static final String ENCODING_BASE64 = "base64";
+
+    private final JsonEscapedString string;
+    private final boolean isBase64;
+
+    private EventPayload(final JsonEscapedString string, final boolean isBase64) {
+        this.string = string;
+        this.isBase64 = isBase64;
+    }
+
+    /**
+     * Creates payload from given string.
+     *
+     * @param string   Payload string.
+     * @param metadata Metadata of the event the payload belongs to.
+     * @return New event payload.
+     */
+    public static EventPayload ofString(final String string, final Map<String, String> metadata) {
+        return new EventPayload(new JsonEscapedString(string), isBase64(metadata));
+    }
+
+    /**
+     * Creates payload from given JSON string, which is not unescaped.
+     */
+    static EventPayload ofJson(final JsonEscapedString string, final Map<String, String> metadata) {
+        return new EventPayload(Objects.requireNonNull(string, "string"), isBase64(metadata));
+    }
+
+    private static boolean isBase64(final Map<String, String> metadata) {
+        return metadata != null && ENCODING_BASE64.equals(metadata.get(METADATA_ENCODING));
+    }
+
+    /**
+     * @return {@code true} only if the metadata of the event this payload
+     * belongs to marks it as consisting of base64 encoded bytes.
+     */
+    public boolean isBase64() {
+        return isBase64;
+    }
+
+    /**
+     * Gets payload as string, unescaping it if not already done.
+     *
+     * @return Payload string.
+     */
+    public String asString() {
+        return string.toString();
+    }
+
+    /**
+     * Gets payload as bytes. If the payload is {@link #isBase64() marked as
+     * base64}, it is decoded. Otherwise, the UTF-8 representation of the
+     * payload string is returned.
+     *
+     * @return Payload bytes.
+     * @throws IllegalArgumentException If the payload is marked as base64,
+     *                                  but is not valid base64.
+     */
+    public byte[] asBytes() {
+        final var bytes = string.toBytes();
+        return isBase64 ? Base64.getDecoder().decode(bytes) : bytes;
+    }
+
+    /**
+     * Gets payload as the contents of a JSON string, including any escape
+     * sequences but excluding the surrounding quotation marks. If the payload
+     * was received from a remote system, its contents are returned exactly as
+     * they were received.
+     *
+     * @return UTF-8 encoded JSON string contents.
+     */
+    public byte[] rawJson() {
+        return string.toEscapedBytes();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) { return true; }
+        if (other == null || getClass() != other.getClass()) { return false; }
+        final var that = (EventPayload) other;
+        return isBase64 == that.isBase64 && string.equals(that.string);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * string.hashCode() + (isBase64 ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
@@ -0,0 +1,407 @@
+package se.arkalix.core.plugin.eh;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.arkalix.io.buf.MappedByteBuffers;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.*;
+
+/**
+ * An append-only log of encoded events, stored in a directory as a sequence
+ * of fixed-size memory-mapped segment files.
+ * <p>
+ * Each record consists of a 4-byte length, a 4-byte CRC-32 checksum and the
+ * record bytes. The length is written last, which means that a record with
+ * a zero length has not been completely written. A negative length marks the
+ * end of a segment. The position of the oldest record not yet acknowledged
+ * is kept in a separate file, which is updated every time records are
+ * acknowledged. Segments only containing acknowledged records are deleted.
+ * <p>
+ * When opened, the last segment is scanned for records that were not
+ * completely written before the spool was last closed, all of which are
+ * discarded.
+ * <p>
+ * Segments are unmapped as soon as they are no longer used, and before they
+ * are deleted, as some platforms do not allow mapped files to be deleted.
+ */
+class EventSpool {
+    private static final Logger logger = LoggerFactory.getLogger(EventSpool.class);
+
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final int HEADER_SIZE = 8;
+    private static final int END_OF_SEGMENT = -1;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean isSyncOnAppend;
+    private final FileLock lock;
+    private final MappedByteBuffer position;
+
+    private long readSegment;
+    private int readOffset;
+    private MappedByteBuffer readBuffer;
+
+    private long writeSegment;
+    private int writeOffset;
+    private MappedByteBuffer writeBuffer;
+
+    private boolean isClosed = false;
+
+    private EventSpool(final EventSpoolConfig config) throws IOException {
+        directory = config.directory();
+        segmentSize = config.segmentSize();
+        maxSegments = config.maxSegments();
+        isSyncOnAppend = config.isSyncOnAppend();
+
+        Files.createDirectories(directory);
+
+        final var lockChannel = FileChannel.open(directory.resolve("lock"), CREATE, READ, WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        }
+        catch (final OverlappingFileLockException exception) {
+            lockChannel.close();
+            throw new IOException("Event spool directory " + directory + " already in use", exception);
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Event spool directory " + directory + " already in use");
+        }
+
+        MappedByteBuffer position0 = null;
+        try {
+            try (final var channel = FileChannel.open(directory.resolve("position"), CREATE, READ, WRITE)) {
+                position0 = channel.map(READ_WRITE, 0, 12);
+            }
+
+            final var segments = listSegments();
+            readSegment = position0.getLong(0);
+            readOffset = position0.getInt(8);
+            final var lastSegment = segments.isEmpty() ? -1L : segments.get(segments.size() - 1);
+            if (readSegment > lastSegment) {
+                readOffset = 0;
+                writeSegment = readSegment;
+            }
+            else {
+                if (readSegment < segments.get(0)) {
+                    readSegment = segments.get(0);
+                    readOffset = 0;
+                }
+                writeSegment = lastSegment;
+            }
+            for (final var segment : segments) {
+                if (segment < readSegment) {
+                    delete(segment);
+                }
+            }
+            writeBuffer = map(writeSegment);
+            recoverWriteOffset();
+            readBuffer = readSegment == writeSegment ? writeBuffer : map(readSegment);
+        }
+        catch (final Throwable throwable) {
+            unmap(position0);
+            unmap(writeBuffer);
+            if (readBuffer != writeBuffer) {
+                unmap(readBuffer);
+            }
+            try {
+                lockChannel.close();
+            }
+            catch (final IOException exception) {
+                throwable.addSuppressed(exception);
+            }
+            throw throwable;
+        }
+        position = position0;
+        savePosition();
+    }
+
+    /**
+     * Opens spool described by given {@code config}, creating its directory
+     * if it does not already exist.
+     *
+     * @param config Spool configuration.
+     * @return Opened spool.
+     * @throws IOException If the spool directory or any of its files cannot
+     *                     be created or opened, or if the spool is already
+     *                     in use.
+     */
+    static EventSpool open(final EventSpoolConfig config) throws IOException {
+        return new EventSpool(config);
+    }
+
+    /**
+     * Appends given {@code record} to the end of this spool.
+     *
+     * @param record Record to append.
+     * @throws IOException                If a new segment file is required
+     *                                    and cannot be created.
+     * @throws RejectedExecutionException If the spool is full.
+     */
+    synchronized void append(final byte[] record) throws IOException {
+        if (isClosed) {
+            throw new IllegalStateException("Event spool closed");
+        }
+        if (record.length == 0 || record.length > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Record of " + record.length +
+                " bytes cannot be spooled; records must be between 1 and " +
+                (segmentSize - HEADER_SIZE) + " bytes in size");
+        }
+        if (writeOffset + HEADER_SIZE + record.length > writeBuffer.capacity()) {
+            if (writeSegment - readSegment + 1 >= maxSegments) {
+                throw new RejectedExecutionException("Event spool full");
+            }
+            if (writeOffset + 4 <= writeBuffer.capacity()) {
+                writeBuffer.putInt(writeOffset, END_OF_SEGMENT);
+            }
+            writeBuffer.force();
+            final var nextBuffer = map(writeSegment + 1);
+            if (writeBuffer != readBuffer) {
+                unmap(writeBuffer);
+            }
+            writeBuffer = nextBuffer;
+            writeSegment += 1;
+            writeOffset = 0;
+        }
+        final var checksum = new CRC32();
+        checksum.update(record);
+        writeBuffer.duplicate().position(writeOffset + HEADER_SIZE).put(record);
+        writeBuffer.putInt(writeOffset + 4, (int) checksum.getValue());
+        writeBuffer.putInt(writeOffset, record.length);
+        writeOffset += HEADER_SIZE + record.length;
+        if (isSyncOnAppend) {
+            writeBuffer.force();
+        }
+    }
+
+    /**
+     * Reads up to {@code maxRecords} of the oldest records not yet
+     * acknowledged.
+     *
+     * @param maxRecords Maximum number of records to read.
+     * @return List of read records, which is empty if no unacknowledged
+     * records exist.
+     */
+    synchronized List<byte[]> read(final int maxRecords) {
+        if (isClosed) {
+            return Collections.emptyList();
+        }
+        final var records = new ArrayList<byte[]>();
+        var segment = readSegment;
+        var offset = readOffset;
+        var buffer = readBuffer;
+        while (records.size() < maxRecords && (segment != writeSegment || offset < writeOffset)) {
+            final var length = offset + HEADER_SIZE <= buffer.capacity() ? buffer.getInt(offset) : END_OF_SEGMENT;
+            if (length <= 0) {
+                segment += 1;
+                offset = 0;
+                final MappedByteBuffer nextBuffer;
+                try {
+                    nextBuffer = segment == writeSegment ? writeBuffer : map(segment);
+                }
+                catch (final IOException exception) {
+                    logger.error("Failed to map event spool segment " + segment, exception);
+                    break;
+                }
+                unmapIfUnused(buffer);
+                buffer = nextBuffer;
+                continue;
+            }
+            final var record = new byte[length];
+            buffer.duplicate().position(offset + HEADER_SIZE).get(record);
+            records.add(record);
+            offset += HEADER_SIZE + length;
+        }
+        unmapIfUnused(buffer);
+        return records;
+    }
+
+    /**
+     * Acknowledges the given number of oldest records, causing them to never
+     * be {@link #read(int) read} again.
+     *
+     * @param count Number of records to acknowledge.
+     */
+    synchronized void acknowledge(final int count) {
+        if (isClosed) {
+            return;
+        }
+        var remaining = count;
+        while (readSegment != writeSegment || readOffset < writeOffset) {
+            final var length = readOffset + HEADER_SIZE <= readBuffer.capacity()
+                ? readBuffer.getInt(readOffset)
+                : END_OF_SEGMENT;
+            if (length <= 0) {
+                final var segment = readSegment;
+                final var segmentBuffer = readBuffer;
+                try {
+                    readBuffer = segment + 1 == writeSegment ? writeBuffer : map(segment + 1);
+                }
+                catch (final IOException exception) {
+                    logger.error("Failed to map event spool segment " + (segment + 1), exception);
+                    break;
+                }
+                if (segmentBuffer != writeBuffer) {
+                    unmap(segmentBuffer);
+                }
+                readSegment = segment + 1;
+                readOffset = 0;
+                savePosition();
+                delete(segment);
+                continue;
+            }
+            if (remaining == 0) {
+                break;
+            }
+            readOffset += HEADER_SIZE + length;
+            remaining -= 1;
+        }
+        savePosition();
+    }
+
+    /**
+     * @return {@code true} only if this spool contains no unacknowledged
+     * records.
+     */
+    synchronized boolean isEmpty() {
+        return readSegment == writeSegment && readOffset >= writeOffset;
+    }
+
+    /**
+     * @return Number of segment files currently used by this spool.
+     */
+    synchronized int segments() {
+        return (int) (writeSegment - readSegment + 1);
+    }
+
+    /**
+     * Forces all spool contents to the storage device and releases the spool
+     * directory, after which no more records may be appended.
+     */
+    synchronized void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        writeBuffer.force();
+        position.force();
+        if (readBuffer != writeBuffer) {
+            unmap(readBuffer);
+        }
+        unmap(writeBuffer);
+        unmap(position);
+        readBuffer = null;
+        writeBuffer = null;
+        try {
+            lock.release();
+            lock.channel().close();
+        }
+        catch (final IOException exception) {
+            logger.warn("Failed to release event spool directory lock", exception);
+        }
+    }
+
+    private void recoverWriteOffset() {
+        final var capacity = writeBuffer.capacity();
+        var offset = 0;
+        while (offset + HEADER_SIZE <= capacity) {
+            final var length = writeBuffer.getInt(offset);
+            if (length <= 0) {
+                // An end-of-segment marker may be overwritten, as no records
+                // are ever written after it.
+                break;
+            }
+            if (length > capacity - offset - HEADER_SIZE || !isChecksumValid(offset, length)) {
+                logger.warn("Discarding incompletely written events at " +
+                    "offset {} of event spool segment {}", offset, writeSegment);
+                for (var i = offset; i < capacity; ++i) {
+                    writeBuffer.put(i, (byte) 0);
+                }
+                break;
+            }
+            offset += HEADER_SIZE + length;
+        }
+        writeOffset = offset;
+        if (readSegment == writeSegment && readOffset > writeOffset) {
+            readOffset = writeOffset;
+        }
+    }
+
+    private boolean isChecksumValid(final int offset, final int length) {
+        final var record = new byte[length];
+        writeBuffer.duplicate().position(offset + HEADER_SIZE).get(record);
+        final var checksum = new CRC32();
+        checksum.update(record);
+        return (int) checksum.getValue() == writeBuffer.getInt(offset + 4);
+    }
+
+    private void savePosition() {
+        position.putLong(0, readSegment);
+        position.putInt(8, readOffset);
+    }
+
+    private List<Long> listSegments() throws IOException {
+        final var segments = new ArrayList<Long>();
+        try (final var paths = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+            for (final var path : paths) {
+                final var name = path.getFileName().toString();
+                try {
+                    segments.add(Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+                }
+                catch (final NumberFormatException exception) {
+                    logger.warn("Ignoring unexpected file {} in event spool directory", path);
+                }
+            }
+        }
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private Path pathOf(final long segment) {
+        return directory.resolve(String.format("%020d", segment) + SEGMENT_SUFFIX);
+    }
+
+    private MappedByteBuffer map(final long segment) throws IOException {
+        try (final var channel = FileChannel.open(pathOf(segment), CREATE, READ, WRITE)) {
+            final var size = channel.size();
+            return channel.map(READ_WRITE, 0, size > 0 && size <= Integer.MAX_VALUE ? size : segmentSize);
+        }
+    }
+
+    // Unmaps given buffer unless it is the current read or write buffer.
+    private void unmapIfUnused(final MappedByteBuffer buffer) {
+        if (buffer != readBuffer && buffer != writeBuffer) {
+            unmap(buffer);
+        }
+    }
+
+    // The buffer must not be used after this method returns, as any access to
+    // its memory could crash the JVM.
+    private static void unmap(final MappedByteBuffer buffer) {
+        MappedByteBuffers.unmap(buffer);
+    }
+
+    private void delete(final long segment) {
+        try {
+            Files.deleteIfExists(pathOf(segment));
+        }
+        catch (final IOException exception) {
+            logger.warn("Failed to delete acknowledged event spool segment " + segment, exception);
+        }
+    }
+}
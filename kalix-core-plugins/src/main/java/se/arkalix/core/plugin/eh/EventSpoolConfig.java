@@ -0,0 +1,202 @@
+package se.arkalix.core.plugin.eh;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Determines where and how events are spooled by a {@link
+ * HttpJsonEventSpoolPublisher}.
+ */
+public final class EventSpoolConfig {
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final int maxEventsInFlight;
+    private final Duration retryDelay;
+    private final boolean isSyncOnAppend;
+
+    private EventSpoolConfig(final Builder builder) {
+        directory = Objects.requireNonNull(builder.directory, "directory");
+        segmentSize = builder.segmentSize;
+        maxSegments = builder.maxSegments;
+        maxEventsInFlight = builder.maxEventsInFlight;
+        retryDelay = builder.retryDelay;
+        isSyncOnAppend = builder.isSyncOnAppend;
+    }
+
+    /**
+     * @return Directory in which spool files are stored.
+     */
+    public Path directory() {
+        return directory;
+    }
+
+    /**
+     * @return Size, in bytes, of each spool segment file.
+     */
+    public int segmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * @return Maximum number of segment files that may exist at the same
+     * time, which limits how much disk space the spool may occupy.
+     */
+    public int maxSegments() {
+        return maxSegments;
+    }
+
+    /**
+     * @return Maximum number of spooled events that may have been sent to
+     * the event handler without having been acknowledged.
+     */
+    public int maxEventsInFlight() {
+        return maxEventsInFlight;
+    }
+
+    /**
+     * @return Time to wait before trying to send spooled events again after
+     * a failed attempt.
+     */
+    public Duration retryDelay() {
+        return retryDelay;
+    }
+
+    /**
+     * @return {@code true} only if every appended event is to be forced to
+     * the storage device before being considered spooled.
+     */
+    public boolean isSyncOnAppend() {
+        return isSyncOnAppend;
+    }
+
+    @Override
+    public String toString() {
+        return "EventSpoolConfig{" +
+            "directory=" + directory +
+            ", segmentSize=" + segmentSize +
+            ", maxSegments=" + maxSegments +
+            ", maxEventsInFlight=" + maxEventsInFlight +
+            ", retryDelay=" + retryDelay +
+            ", isSyncOnAppend=" + isSyncOnAppend +
+            '}';
+    }
+
+    /**
+     * Builder useful for creating {@link EventSpoolConfig} instances.
+     */
+    public static class Builder {
+        private Path directory;
+        private int segmentSize = 16 * 1024 * 1024;
+        private int maxSegments = 64;
+        private int maxEventsInFlight = 32;
+        private Duration retryDelay = Duration.ofSeconds(1);
+        private boolean isSyncOnAppend = false;
+
+        /**
+         * Sets directory in which spool files are to be stored. The
+         * directory is created if it does not exist. <b>Must be
+         * specified.</b>
+         * <p>
+         * The directory must not be used for any other purpose, and may only
+         * be used by one spool at a time.
+         *
+         * @param directory Spool directory.
+         * @return This builder.
+         */
+        public Builder directory(final Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        /**
+         * Sets size, in bytes, of each spool segment file. No single encoded
+         * event may be larger than this size minus 8 bytes. If not set,
+         * segments of 16 MiB are used.
+         *
+         * @param segmentSize Segment size, in bytes.
+         * @return This builder.
+         */
+        public Builder segmentSize(final int segmentSize) {
+            if (segmentSize < 1024) {
+                throw new IllegalArgumentException("segmentSize < 1024");
+            }
+            this.segmentSize = segmentSize;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of segment files that may exist at the same
+         * time. Events published while the spool is full are rejected. If
+         * not set, at most 64 segments are used.
+         *
+         * @param maxSegments Maximum number of segment files.
+         * @return This builder.
+         */
+        public Builder maxSegments(final int maxSegments) {
+            if (maxSegments < 2) {
+                throw new IllegalArgumentException("maxSegments < 2");
+            }
+            this.maxSegments = maxSegments;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of spooled events that may be sent to the
+         * event handler before their responses have been received. If not
+         * set, at most 32 events are in flight at a time.
+         *
+         * @param maxEventsInFlight Maximum number of events in flight.
+         * @return This builder.
+         */
+        public Builder maxEventsInFlight(final int maxEventsInFlight) {
+            if (maxEventsInFlight <= 0) {
+                throw new IllegalArgumentException("maxEventsInFlight <= 0");
+            }
+            this.maxEventsInFlight = maxEventsInFlight;
+            return this;
+        }
+
+        /**
+         * Sets time to wait before trying to send spooled events again after
+         * the event handler could not be reached. If not set, one second is
+         * used.
+         *
+         * @param retryDelay Retry delay.
+         * @return This builder.
+         */
+        public Builder retryDelay(final Duration retryDelay) {
+            Objects.requireNonNull(retryDelay, "retryDelay");
+            if (retryDelay.isNegative()) {
+                throw new IllegalArgumentException("retryDelay < 0");
+            }
+            this.retryDelay = retryDelay;
+            return this;
+        }
+
+        /**
+         * Sets whether or not every appended event is to be forced to the
+         * storage device before being considered spooled. If not set, or if
+         * set to {@code false}, appended events survive crashes of the
+         * application, as they are written to memory shared with the
+         * operating system, but may be lost if the operating system itself
+         * crashes.
+         *
+         * @param isSyncOnAppend {@code true} if each appended event is to be
+         *                       forced to the storage device.
+         * @return This builder.
+         */
+        public Builder syncOnAppend(final boolean isSyncOnAppend) {
+            this.isSyncOnAppend = isSyncOnAppend;
+            return this;
+        }
+
+        /**
+         * @return New event spool configuration.
+         */
+        public EventSpoolConfig build() {
+            return new EventSpoolConfig(this);
+        }
+    }
+}
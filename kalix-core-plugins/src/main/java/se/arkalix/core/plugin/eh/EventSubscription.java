@@ -3,6 +3,7 @@ package se.arkalix.core.plugin.eh;
 import se.arkalix.core.plugin.SystemDetails;
 import se.arkalix.core.plugin.SystemDetailsDto;
 import se.arkalix.SystemRecord;
+import se.arkalix.util.concurrent.Scheduler;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -12,6 +13,9 @@ public class EventSubscription {
     private Map<String, String> metadata;
     private Set<SystemRecord> providers;
     private EventSubscriptionHandler handler;
+    private Scheduler scheduler;
+    private int queueSize = 1024;
+    private EventOverflowPolicy overflowPolicy = EventOverflowPolicy.BLOCK;
 
     public Optional<String> topic() {
         return Optional.ofNullable(topic);
@@ -69,6 +73,92 @@ public class EventSubscription {
         return this;
     }
 
+    /**
+     * @return Scheduler on which the {@link #handler() handler} of this
+     * subscription is to be invoked, if any has been specified.
+     */
+    public Optional<Scheduler> scheduler() {
+        return Optional.ofNullable(scheduler);
+    }
+
+    /**
+     * Sets scheduler on which the {@link #handler() handler} of this
+     * subscription is to be invoked. Received events are added to a queue of
+     * their own for each subscription, from which they are handed to the
+     * handler in the order they were received, one at a time. If not set,
+     * the {@link se.arkalix.util.concurrent.Schedulers#dynamic() dynamic
+     * scheduler} is used.
+     * <p>
+     * Handlers are never invoked by the thread receiving the events they
+     * are handed, which means that a handler may be invoked by a different
+     * thread for each event it receives. Handlers that rely on running on a
+     * particular thread, or that are not thread-safe, must be given a
+     * scheduler that satisfies those requirements.
+     *
+     * @param scheduler Event handler scheduler.
+     * @return This subscription.
+     */
+    public EventSubscription scheduler(final Scheduler scheduler) {
+        this.scheduler = scheduler;
+        return this;
+    }
+
+    /**
+     * @return Maximum number of received events that may be waiting for
+     * being handled by the {@link #handler() handler} of this subscription.
+     */
+    public int queueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Sets maximum number of received events that may be waiting for being
+     * handled by the {@link #handler() handler} of this subscription. If not
+     * set, at most 1024 events may be waiting.
+     *
+     * @param queueSize Maximum number of waiting events.
+     * @return This subscription.
+     */
+    public EventSubscription queueSize(final int queueSize) {
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("queueSize <= 0");
+        }
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    /**
+     * @return What happens to events received when the queue of this
+     * subscription is full.
+     */
+    public EventOverflowPolicy overflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Sets what happens to events received when the queue of this
+     * subscription is full. If not set, {@link EventOverflowPolicy#BLOCK}
+     * is used, which means that no received event is ever dropped.
+     * <p>
+     * As event handler threads must never be blocked, the {@link
+     * EventOverflowPolicy#BLOCK} policy causes the event handler to be
+     * asked to back off, by responding to its attempt to deliver the event
+     * with {@link se.arkalix.net.http.HttpStatus#SERVICE_UNAVAILABLE 503
+     * Service Unavailable}. Whether or not the event handler retries
+     * refused events depends on how it is configured. The {@link
+     * EventOverflowPolicy#DROP_NEWEST} and {@link
+     * EventOverflowPolicy#DROP_OLDEST} policies instead accept every event
+     * and drop events that do not fit in the queue, which must be explicitly
+     * chosen.
+     *
+     * @param overflowPolicy Queue overflow policy.
+     * @return This subscription.
+     */
+    public EventSubscription overflowPolicy(final EventOverflowPolicy overflowPolicy) {
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflowPolicy");
+        return this;
+    }
+
     public EventSubscriptionRequestDto toSubscriptionRequest(final SystemDetailsDto subscriber, final String uri) {
         return new EventSubscriptionRequestDto.Builder()
             .topic(topic)
@@ -88,6 +178,8 @@ public class EventSubscription {
             "topic='" + topic + '\'' +
             ", metadata=" + metadata +
             ", providers=" + providers +
+            ", queueSize=" + queueSize +
+            ", overflowPolicy=" + overflowPolicy +
             '}';
     }
 }
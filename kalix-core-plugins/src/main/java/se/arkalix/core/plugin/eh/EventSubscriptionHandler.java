@@ -16,4 +16,20 @@ public interface EventSubscriptionHandler {
      * @param data     Data in event.
      */
     void onPublish(final Map<String, String> metadata, final String data);
+
+    /**
+     * Called to notify this handler about the availability of a matching
+     * event, the payload of which has not yet been decoded.
+     * <p>
+     * The default implementation decodes the payload into a string and calls
+     * {@link #onPublish(Map, String)}. Handlers that only need the payload
+     * in some cases, that need it as bytes, or that forward it without
+     * inspecting it, may override this method to avoid decoding it.
+     *
+     * @param metadata Metadata in event.
+     * @param payload  Payload of event.
+     */
+    default void onPublish(final Map<String, String> metadata, final EventPayload payload) {
+        onPublish(metadata, payload.asString());
+    }
 }
@@ -0,0 +1,424 @@
+package se.arkalix.core.plugin.eh;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.arkalix.ArConsumer;
+import se.arkalix.ArConsumerFactory;
+import se.arkalix.ArSystem;
+import se.arkalix.ServiceRecord;
+import se.arkalix.codec.CodecType;
+import se.arkalix.core.plugin._internal.HttpJsonServices;
+import se.arkalix.net.ProtocolType;
+import se.arkalix.net.http.consumer.HttpConsumer;
+import se.arkalix.net.http.consumer.HttpConsumerConnection;
+import se.arkalix.net.http.consumer.HttpConsumerRequest;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Schedulers;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
+import se.arkalix.util.concurrent._internal.NettyThread;
+
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+
+import static se.arkalix.codec.CodecType.JSON;
+import static se.arkalix.net.ProtocolType.HTTP;
+import static se.arkalix.net.http.HttpMethod.POST;
+
+/**
+ * A remote {@link ArEventPublishService} service that is communicated with via
+ * HTTP/JSON in either secure or insecure mode, and to which published events
+ * are sent in batches over a single persistent connection.
+ * <p>
+ * Unlike {@link HttpJsonEventPublishService}, which connects to the remote
+ * service once for every published event, this class queues published events
+ * and coalesces those with the same topic into batches. A batch is sent as
+ * soon as it is full or has been kept open for long enough, as determined by
+ * the {@link EventBatchConfig} provided when the service is created. As the
+ * Arrowhead event publishing service only accepts one event per request, a
+ * batch is sent as a burst of <i>pipelined</i> requests, each of which is
+ * sent without waiting for the responses to any previous requests.
+ * <p>
+ * If events are published faster than they can be sent, the queue of events
+ * waiting to be sent fills up, after which the configured {@link
+ * EventOverflowPolicy overflow policy} is applied to further events.
+ * <p>
+ * As each instance of this class maintains its own queue and connection,
+ * instances should be created once and then be used for as long as events
+ * are to be published. {@link #close()} should be called when an instance is
+ * no longer needed.
+ */
+@SuppressWarnings("unused")
+public class HttpJsonEventBatchPublishService implements ArConsumer, ArEventPublishService {
+    private static final Logger logger = LoggerFactory.getLogger(HttpJsonEventBatchPublishService.class);
+
+    private final HttpConsumer consumer;
+    private final EventBatchConfig config;
+
+    // All fields below are guarded by this object.
+
+    private final Map<String, Batch> openBatches = new LinkedHashMap<>();
+    private final Deque<Pending> ready = new ArrayDeque<>();
+    private final List<FutureCompletion<Object>> closeCompletions = new ArrayList<>();
+
+    private HttpConsumerConnection connection = null;
+    private int pendingCount = 0;
+    private int inFlightCount = 0;
+    private boolean isConnecting = false;
+    private boolean isClosing = false;
+    private boolean isClosed = false;
+    private Result<Object> closeResult = null;
+
+    HttpJsonEventBatchPublishService(final HttpConsumer consumer, final EventBatchConfig config) {
+        this.consumer = consumer;
+        this.config = config;
+    }
+
+    /**
+     * @return Consumer {@link ArConsumerFactory factory class} creating
+     * services using {@link EventBatchConfig#defaults() default} batching.
+     */
+    public static ArConsumerFactory<HttpJsonEventBatchPublishService> factory() {
+        return factory(EventBatchConfig.defaults());
+    }
+
+    /**
+     * @param config Batching configuration to use.
+     * @return Consumer {@link ArConsumerFactory factory class} creating
+     * services using given batching configuration.
+     */
+    public static ArConsumerFactory<HttpJsonEventBatchPublishService> factory(final EventBatchConfig config) {
+        return new Factory(Objects.requireNonNull(config, "config"));
+    }
+
+    /**
+     * Queues given {@code event} for being published.
+     *
+     * @param event Event to publish.
+     * @return {@code Future} completed when the publishing attempt is known to
+     * have succeeded or failed. If the event is dropped, due to the queue of
+     * events waiting to be sent being full, the {@code Future} is failed with
+     * a {@link RejectedExecutionException}.
+     */
+    @Override
+    public Future<?> publish(final EventOutgoingDto event) {
+        Objects.requireNonNull(event, "event");
+
+        final var pending = new Pending(event);
+        pending.setCancelCallback(ignored -> onCancel(pending));
+        Pending dropped = null;
+        synchronized (this) {
+            if (isClosing) {
+                return Future.failure(new IllegalStateException("Publisher " +
+                    "closed; cannot publish event"));
+            }
+            while (pendingCount >= config.maxPendingEvents()) {
+                switch (config.overflowPolicy()) {
+                case DROP_OLDEST:
+                    dropped = removeOldest();
+                    break;
+
+                case BLOCK:
+                    if (NettyThread.currentThreadEventLoop().isEmpty()) {
+                        try {
+                            wait();
+                        }
+                        catch (final InterruptedException exception) {
+                            Thread.currentThread().interrupt();
+                            return Future.failure(exception);
+                        }
+                        if (isClosing) {
+                            return Future.failure(new IllegalStateException("" +
+                                "Publisher closed; cannot publish event"));
+                        }
+                        continue;
+                    }
+                    // Falls through, as scheduler threads must not block.
+
+                case DROP_NEWEST:
+                    return Future.failure(new RejectedExecutionException("" +
+                        "Event queue full; event with topic \"" +
+                        event.topic() + "\" dropped"));
+
+                default:
+                    throw new IllegalStateException("Unexpected overflow " +
+                        "policy: " + config.overflowPolicy());
+                }
+            }
+            pendingCount += 1;
+
+            final var topic = event.topic();
+            var batch = openBatches.get(topic);
+            if (batch == null) {
+                batch = new Batch(topic);
+                openBatches.put(topic, batch);
+                if (!config.maxBatchDelay().isZero()) {
+                    final var batch0 = batch;
+                    batch.timeout = Schedulers.fixed()
+                        .scheduleCoarse(config.maxBatchDelay(), () -> onBatchDelayExpired(batch0));
+                }
+            }
+            batch.events.add(pending);
+            if (batch.events.size() >= config.maxBatchSize() || config.maxBatchDelay().isZero()) {
+                closeBatch(batch);
+            }
+        }
+        if (dropped != null) {
+            dropped.complete(Result.failure(new RejectedExecutionException("" +
+                "Event queue full; event with topic \"" +
+                dropped.event.topic() + "\" dropped")));
+        }
+        pump();
+        return pending;
+    }
+
+    /**
+     * @return Number of events currently waiting to be sent.
+     */
+    public synchronized int pendingEvents() {
+        return pendingCount;
+    }
+
+    /**
+     * Sends all queued events, after which the connection to the remote
+     * service is closed. Events published after this method is called are
+     * rejected.
+     *
+     * @return {@code Future} completed when all queued events have been sent
+     * and responded to and the connection has been closed. Every call
+     * returns a new {@code Future}, all of which are completed with the same
+     * result.
+     */
+    public Future<?> close() {
+        final var completion = new FutureCompletion<Object>();
+        synchronized (this) {
+            if (closeResult != null) {
+                return Future.of(closeResult);
+            }
+            closeCompletions.add(completion);
+            if (!isClosing) {
+                isClosing = true;
+                for (final var batch : new ArrayList<>(openBatches.values())) {
+                    closeBatch(batch);
+                }
+                notifyAll();
+            }
+        }
+        pump();
+        return completion;
+    }
+
+    @Override
+    public ServiceRecord service() {
+        return consumer.service();
+    }
+
+    private void onBatchDelayExpired(final Batch batch) {
+        synchronized (this) {
+            if (openBatches.get(batch.topic) != batch) {
+                return;
+            }
+            closeBatch(batch);
+        }
+        pump();
+    }
+
+    // Must be called while holding the lock of this object.
+    private void closeBatch(final Batch batch) {
+        openBatches.remove(batch.topic, batch);
+        if (batch.timeout != null) {
+            batch.timeout.cancel();
+            batch.timeout = null;
+        }
+        ready.addAll(batch.events);
+    }
+
+    // Must be called while holding the lock of this object.
+    private Pending removeOldest() {
+        var oldest = ready.pollFirst();
+        if (oldest == null) {
+            final var iterator = openBatches.values().iterator();
+            final var batch = iterator.next();
+            oldest = batch.events.remove(0);
+            if (batch.events.isEmpty()) {
+                iterator.remove();
+                if (batch.timeout != null) {
+                    batch.timeout.cancel();
+                }
+            }
+        }
+        pendingCount -= 1;
+        return oldest;
+    }
+
+    private void onCancel(final Pending pending) {
+        synchronized (this) {
+            final var batch = openBatches.get(pending.event.topic());
+            if (ready.remove(pending) || batch != null && batch.events.remove(pending)) {
+                pendingCount -= 1;
+                notifyAll();
+            }
+        }
+    }
+
+    // Sends as many ready events as the configured number of requests in
+    // flight allows, connecting first if not already connected.
+    private void pump() {
+        final var toSend = new ArrayList<Pending>();
+        final HttpConsumerConnection connection0;
+        var isToConnect = false;
+        var isToClose = false;
+        synchronized (this) {
+            if (connection != null && !connection.isLive()) {
+                connection = null;
+            }
+            connection0 = connection;
+            if (!ready.isEmpty()) {
+                if (connection0 == null) {
+                    if (!isConnecting) {
+                        isConnecting = true;
+                        isToConnect = true;
+                    }
+                }
+                else {
+                    while (inFlightCount < config.maxRequestsInFlight() && !ready.isEmpty()) {
+                        toSend.add(ready.pollFirst());
+                        inFlightCount += 1;
+                        pendingCount -= 1;
+                    }
+                    if (!toSend.isEmpty()) {
+                        notifyAll();
+                    }
+                }
+            }
+            else if (isClosing && !isClosed && openBatches.isEmpty() && inFlightCount == 0 && !isConnecting) {
+                isClosed = true;
+                isToClose = true;
+                connection = null;
+            }
+        }
+        if (isToConnect) {
+            consumer.connect().onResult(this::onConnectResult);
+        }
+        for (final var pending : toSend) {
+            send(connection0, pending);
+        }
+        if (isToClose) {
+            if (connection0 != null) {
+                connection0.close().onResult(result -> onClosed(result.map(ignored -> null)));
+            }
+            else {
+                onClosed(Result.done());
+            }
+        }
+    }
+
+    private void onConnectResult(final Result<HttpConsumerConnection> result) {
+        List<Pending> failed = null;
+        synchronized (this) {
+            isConnecting = false;
+            if (result.isSuccess()) {
+                connection = result.value();
+            }
+            else {
+                failed = new ArrayList<>(ready);
+                pendingCount -= ready.size();
+                ready.clear();
+                notifyAll();
+            }
+        }
+        if (failed != null) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Failed to connect to event publishing service; " +
+                    failed.size() + " event(s) could not be published", result.fault());
+            }
+            for (final var pending : failed) {
+                pending.complete(Result.failure(result.fault()));
+            }
+        }
+        pump();
+    }
+
+    private void onClosed(final Result<Object> result) {
+        final List<FutureCompletion<Object>> completions;
+        synchronized (this) {
+            closeResult = result;
+            completions = new ArrayList<>(closeCompletions);
+            closeCompletions.clear();
+        }
+        for (final var completion : completions) {
+            completion.complete(result);
+        }
+    }
+
+    private void send(final HttpConsumerConnection connection, final Pending pending) {
+        final var event = pending.event;
+        connection.send(new HttpConsumerRequest()
+            .method(POST)
+            .path(service().uri())
+            .body(event::encodeJson))
+            .flatMap(HttpJsonServices::unwrap)
+            .onResult(result -> {
+                synchronized (this) {
+                    inFlightCount -= 1;
+                }
+                pending.completeWith(result);
+                pump();
+            });
+    }
+
+    private static class Batch {
+        private final String topic;
+        private final List<Pending> events = new ArrayList<>();
+        private Future<?> timeout = null;
+
+        private Batch(final String topic) {
+            this.topic = topic;
+        }
+    }
+
+    private static class Pending extends FutureCompletion<Object> {
+        private final EventOutgoingDto event;
+
+        private Pending(final EventOutgoingDto event) {
+            this.event = event;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void completeWith(final Result<?> result) {
+            complete((Result<Object>) result);
+        }
+    }
+
+    private static class Factory implements ArConsumerFactory<HttpJsonEventBatchPublishService> {
+        private final EventBatchConfig config;
+
+        private Factory(final EventBatchConfig config) {
+            this.config = config;
+        }
+
+        @Override
+        public Optional<String> serviceName() {
+            return Optional.of("event-publish");
+        }
+
+        @Override
+        public Collection<ProtocolType> serviceProtocolTypes() {
+            return Collections.singleton(HTTP);
+        }
+
+        @Override
+        public Collection<CodecType> serviceCodecTypes() {
+            return Collections.singleton(JSON);
+        }
+
+        @Override
+        public HttpJsonEventBatchPublishService create(
+            final ArSystem system,
+            final ServiceRecord service,
+            final Collection<CodecType> codecTypes
+        ) {
+            return new HttpJsonEventBatchPublishService(HttpConsumer.create(system, service, codecTypes), config);
+        }
+    }
+}
@@ -54,6 +54,10 @@ public class HttpJsonEventPublishService implements ArConsumer, ArEventPublishSe
         return consumer.service();
     }
 
+    HttpConsumer consumer() {
+        return consumer;
+    }
+
     private static class Factory implements ArConsumerFactory<HttpJsonEventPublishService> {
         @Override
         public Optional<String> serviceName() {
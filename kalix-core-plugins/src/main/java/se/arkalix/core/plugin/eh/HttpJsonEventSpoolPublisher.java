@@ -0,0 +1,345 @@
+package se.arkalix.core.plugin.eh;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import se.arkalix.ArSystem;
+import se.arkalix.core.plugin.ErrorResponseException;
+import se.arkalix.core.plugin._internal.HttpJsonServices;
+import se.arkalix.io.buf.Buffer;
+import se.arkalix.net.http.consumer.HttpConsumerConnection;
+import se.arkalix.net.http.consumer.HttpConsumerRequest;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Futures;
+import se.arkalix.util.concurrent.Scheduler;
+import se.arkalix.util.concurrent.Schedulers;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static se.arkalix.codec.CodecType.JSON;
+import static se.arkalix.net.http.HttpMethod.POST;
+
+/**
+ * An {@link ArEventPublishService} that writes published events to a durable
+ * on-disk spool, from which they are sent to the event handler of the local
+ * cloud whenever it can be reached.
+ * <p>
+ * Publishing an event only involves appending it to a memory-mapped spool
+ * file, which means that publishers are not slowed down or failed if the
+ * event handler is unavailable or restarting. Spooled events are sent in the
+ * order they were published and are only removed from the spool after the
+ * event handler has acknowledged them. As events may be sent again if the
+ * application is restarted or the connection to the event handler is lost
+ * before responses are received, events are delivered <i>at least once</i>.
+ * Events explicitly rejected by the event handler are logged and discarded.
+ * <p>
+ * The spool is divided into fixed-size segment files, each of which is
+ * deleted as soon as all of its events have been acknowledged. As the number
+ * of segment files is {@link EventSpoolConfig#maxSegments() limited}, events
+ * published while the spool is full are rejected.
+ * <p>
+ * The event handler is located using the {@link ArSystem#consume() service
+ * query} facilities of the system provided when the publisher is opened,
+ * which means that a plugin, such as the {@link
+ * se.arkalix.core.plugin.HttpJsonCloudPlugin HttpJsonCloudPlugin}, must be
+ * available for it to be found.
+ */
+@SuppressWarnings("unused")
+public class HttpJsonEventSpoolPublisher implements ArEventPublishService {
+    private static final Logger logger = LoggerFactory.getLogger(HttpJsonEventSpoolPublisher.class);
+
+    private final EventSpoolConfig config;
+    private final EventSpool spool;
+    private final Sender sender;
+    private final Scheduler scheduler;
+
+    // All fields below are guarded by this object.
+
+    private boolean isDraining = false;
+    private boolean isClosed = false;
+
+    private HttpJsonEventSpoolPublisher(
+        final EventSpoolConfig config,
+        final Sender sender,
+        final Scheduler scheduler
+    ) throws IOException {
+        this.config = config;
+        this.sender = sender;
+        this.scheduler = scheduler;
+        spool = EventSpool.open(config);
+    }
+
+    /**
+     * Opens spool described by given {@code config} and starts sending any
+     * events it already contains, such as those left behind by a previous
+     * run of the application, via given {@code system}.
+     *
+     * @param system System to publish events as.
+     * @param config Spool configuration.
+     * @return New spooling publisher.
+     * @throws IOException If the spool directory or any of its files cannot
+     *                     be created or opened, or if the spool is already
+     *                     used by another publisher.
+     */
+    public static HttpJsonEventSpoolPublisher open(final ArSystem system, final EventSpoolConfig config)
+        throws IOException
+    {
+        Objects.requireNonNull(system, "system");
+        return open(config, new HttpSender(system), Schedulers.fixed());
+    }
+
+    // Opens spooling publisher sending events via given sender and
+    // scheduling retries via given scheduler, which is useful when testing.
+    static HttpJsonEventSpoolPublisher open(
+        final EventSpoolConfig config,
+        final Sender sender,
+        final Scheduler scheduler
+    ) throws IOException {
+        Objects.requireNonNull(config, "config");
+        Objects.requireNonNull(sender, "sender");
+        Objects.requireNonNull(scheduler, "scheduler");
+
+        final var publisher = new HttpJsonEventSpoolPublisher(config, sender, scheduler);
+        publisher.drain();
+        return publisher;
+    }
+
+    /**
+     * Appends given {@code event} to the spool of this publisher.
+     *
+     * @param event Event to publish.
+     * @return {@code Future} completed when the event has been spooled. If
+     * the spool is full, the {@code Future} is failed with a {@link
+     * java.util.concurrent.RejectedExecutionException
+     * RejectedExecutionException}.
+     */
+    @Override
+    public Future<?> publish(final EventOutgoingDto event) {
+        Objects.requireNonNull(event, "event");
+
+        final byte[] record;
+        final var buffer = Buffer.allocate(256, Integer.MAX_VALUE);
+        try {
+            event.encodeJson(buffer);
+            record = new byte[buffer.readableBytes()];
+            buffer.read(record);
+        }
+        catch (final Throwable throwable) {
+            return Future.failure(throwable);
+        }
+        finally {
+            buffer.close();
+        }
+
+        try {
+            spool.append(record);
+        }
+        catch (final Throwable throwable) {
+            return Future.failure(throwable);
+        }
+        drain();
+        return Future.done();
+    }
+
+    /**
+     * @return {@code true} only if all spooled events have been acknowledged
+     * by the event handler.
+     */
+    public boolean isDrained() {
+        return spool.isEmpty();
+    }
+
+    /**
+     * Stops sending spooled events and closes the spool. Spooled events not
+     * yet acknowledged by the event handler remain in the spool and are sent
+     * when it is opened again.
+     */
+    public void close() {
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+        }
+        sender.close();
+        spool.close();
+    }
+
+    // Sends the oldest spooled events, unless already doing so, and then
+    // keeps sending events until the spool is empty or sending fails.
+    private void drain() {
+        synchronized (this) {
+            if (isDraining || isClosed) {
+                return;
+            }
+            isDraining = true;
+        }
+        final var records = spool.read(config.maxEventsInFlight());
+        if (records.isEmpty()) {
+            synchronized (this) {
+                isDraining = false;
+            }
+            // An event may have been spooled after reading but before the
+            // draining flag was cleared.
+            if (!spool.isEmpty()) {
+                drain();
+            }
+            return;
+        }
+        sender.send(records)
+            .onResult(result -> {
+                // Events in flight when the publisher is closed remain
+                // spooled, as the closed spool ignores acknowledgements.
+                if (result.isSuccess()) {
+                    spool.acknowledge(records.size());
+                    synchronized (this) {
+                        isDraining = false;
+                    }
+                    drain();
+                    return;
+                }
+                if (logger.isWarnEnabled()) {
+                    logger.warn("Failed to send spooled events to event " +
+                        "handler; retrying in " + config.retryDelay(), result.fault());
+                }
+                // The draining flag is kept set until the retry delay has
+                // expired, preventing newly published events from causing
+                // premature retries.
+                sender.reset();
+                try {
+                    scheduler.schedule(config.retryDelay(), this::retry);
+                }
+                catch (final Throwable throwable) {
+                    logger.error("Failed to schedule retry of sending spooled events", throwable);
+                    retry();
+                }
+            });
+    }
+
+    private void retry() {
+        synchronized (this) {
+            isDraining = false;
+        }
+        drain();
+    }
+
+    /**
+     * Sends spooled events to the event handler.
+     */
+    interface Sender {
+        /**
+         * Sends given records, each of which is an encoded {@link
+         * EventOutgoingDto}, to the event handler.
+         *
+         * @param records Records to send.
+         * @return {@code Future} completed successfully only if every record
+         * was either accepted or explicitly rejected by the event handler.
+         */
+        Future<?> send(List<byte[]> records);
+
+        /**
+         * Forgets about any event handler or connection used to send
+         * records, making the next send look up the event handler again.
+         */
+        void reset();
+
+        /**
+         * Closes any connection used to send records.
+         */
+        void close();
+    }
+
+    private static class HttpSender implements Sender {
+        private final ArSystem system;
+
+        // All fields below are guarded by this object.
+
+        private HttpJsonEventPublishService service = null;
+        private HttpConsumerConnection connection = null;
+        private boolean isClosed = false;
+
+        private HttpSender(final ArSystem system) {
+            this.system = system;
+        }
+
+        @Override
+        public Future<?> send(final List<byte[]> records) {
+            return connect().flatMap(connection -> send(connection, records));
+        }
+
+        @Override
+        public synchronized void reset() {
+            service = null;
+            connection = null;
+        }
+
+        @Override
+        public void close() {
+            final HttpConsumerConnection connection0;
+            synchronized (this) {
+                isClosed = true;
+                connection0 = connection;
+                connection = null;
+            }
+            if (connection0 != null) {
+                connection0.close();
+            }
+        }
+
+        private Future<HttpConsumerConnection> connect() {
+            final HttpConsumerConnection connection0;
+            final HttpJsonEventPublishService service0;
+            synchronized (this) {
+                connection0 = connection;
+                service0 = service;
+            }
+            if (connection0 != null && connection0.isLive()) {
+                return Future.success(connection0);
+            }
+            final Future<HttpJsonEventPublishService> service1 = service0 != null
+                ? Future.success(service0)
+                : system.consume().oneUsing(HttpJsonEventPublishService.factory());
+
+            return service1
+                .flatMap(service2 -> {
+                    synchronized (this) {
+                        service = service2;
+                    }
+                    return service2.consumer().connect();
+                })
+                .ifSuccess(connection1 -> {
+                    // A connection established after closing is closed right
+                    // away, after which sending via it fails.
+                    synchronized (this) {
+                        if (!isClosed) {
+                            connection = connection1;
+                            return;
+                        }
+                    }
+                    connection1.close();
+                });
+        }
+
+        private Future<?> send(final HttpConsumerConnection connection, final List<byte[]> records) {
+            final String uri;
+            synchronized (this) {
+                uri = service.service().uri();
+            }
+            return Futures.<Boolean>all(records.stream()
+                .map(record -> connection.send(new HttpConsumerRequest()
+                    .method(POST)
+                    .path(uri)
+                    .codecType(JSON)
+                    .body(record))
+                    .flatMap(HttpJsonServices::unwrap)
+                    .map(ignored -> true)
+                    .mapCatch(ErrorResponseException.class, exception -> {
+                        logger.warn("Event handler rejected spooled event; discarding it", exception);
+                        return false;
+                    }))
+                .collect(Collectors.toList()));
+        }
+    }
+}
@@ -8,6 +8,10 @@ import se.arkalix.core.plugin.ErrorResponseException;
 import se.arkalix.core.plugin.SystemDetails;
 import se.arkalix.core.plugin.SystemDetailsDto;
 import se.arkalix.SystemRecord;
+import se.arkalix.codec.CodecType;
+import se.arkalix.codec.DecoderException;
+import se.arkalix.codec.MultiDecoderForLists;
+import se.arkalix.io.buf.BufferReader;
 import se.arkalix.net.http.HttpStatus;
 import se.arkalix.net.http.service.HttpService;
 import se.arkalix.plugin.Plugin;
@@ -16,7 +20,10 @@ import se.arkalix.plugin.PluginFacade;
 import se.arkalix.security.access.AccessPolicy;
 import se.arkalix.util.concurrent.Future;
 import se.arkalix.util.concurrent.Futures;
+import se.arkalix.util.concurrent.Scheduler;
+import se.arkalix.util.concurrent.Schedulers;
 
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -35,6 +42,29 @@ import static se.arkalix.codec.CodecType.JSON;
  * {@link ArSystem} it attaches to, and uses them to register and deregister
  * event subscriptions.
  * <p>
+ * Events are received either one at a time or in batches, the latter of which
+ * are delivered as JSON arrays of events. Batched events are handled in the
+ * order they appear in their arrays.
+ * <p>
+ * Received events are acknowledged as soon as they have been added to the
+ * queues of all matching subscriptions. Each subscription has a bounded queue
+ * of its own, from which events are handed to its handler in the order they
+ * were received, on the {@link EventSubscription#scheduler(
+ * se.arkalix.util.concurrent.Scheduler) scheduler} of the subscription. A
+ * slow handler can therefore neither delay the delivery of events to other
+ * subscriptions nor block the thread receiving the events. Handlers are
+ * consequently never invoked by the thread receiving their events, but by
+ * the {@link se.arkalix.util.concurrent.Schedulers#dynamic() dynamic
+ * scheduler}, unless another scheduler is set. By default, events that do
+ * not fit in the queue of a subscription are refused rather than dropped,
+ * as described by {@link EventSubscription#overflowPolicy(
+ * EventOverflowPolicy)}.
+ * <p>
+ * If a {@link #localEventBus(LocalEventBus) local event bus} is set, events
+ * published via that bus by systems in the same JVM are received directly,
+ * without passing through the event handler. Such events are not authorized
+ * by the event handler, as described by {@link LocalEventBus}.
+ * <p>
  * Subscriptions are currently assumed to remain valid for the entire lifetime
  * of the system this plugin attaches to. No renewal attempts are made
  * automatically.
@@ -49,7 +79,14 @@ import static se.arkalix.codec.CodecType.JSON;
 public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
     private static final Logger logger = LoggerFactory.getLogger(HttpJsonEventSubscriberPlugin.class);
 
+    /**
+     * Maximum number of default subscriptions registered concurrently with
+     * the event handler when this plugin is attached.
+     */
+    private static final int MAX_SUBSCRIPTIONS_IN_FLIGHT = 16;
+
     private final List<EventSubscription> defaultSubscriptions = new CopyOnWriteArrayList<>();
+    private volatile LocalEventBus localEventBus = null;
 
     @Override
     public HttpJsonEventSubscriberPlugin subscribe(final EventSubscription subscription) {
@@ -57,6 +94,22 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
         return this;
     }
 
+    /**
+     * Makes systems this plugin is attached to also receive events published
+     * via given in-process event bus, in addition to those received from the
+     * event handler. Must be called before this plugin is attached to any
+     * systems in order to have an effect on them.
+     *
+     * @param localEventBus Local event bus, or {@code null} if no local bus
+     *                      is to be used.
+     * @return This plugin.
+     * @see LocalEventBus
+     */
+    public HttpJsonEventSubscriberPlugin localEventBus(final LocalEventBus localEventBus) {
+        this.localEventBus = localEventBus;
+        return this;
+    }
+
     @Override
     public Future<PluginAttached> attachTo(
         final ArSystem system,
@@ -64,23 +117,72 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
     {
         logger.info("HTTP/JSON event subscriber attaching to system \"{}\" ...", system.name());
 
-        final var pluginAttached = new Attached(system);
+        final var localEventBus = this.localEventBus;
+        final var pluginAttached = new Attached(system, localEventBus);
         return pluginAttached.registerEventReceiver(defaultSubscriptions)
+            .ifSuccess(ignored -> {
+                if (localEventBus != null) {
+                    localEventBus.register(pluginAttached);
+                }
+            })
             .pass(pluginAttached);
     }
 
-    private static class Attached implements PluginAttached {
+    /**
+     * Decodes either a single JSON event object or a JSON array of such
+     * objects, the latter of which allows for bursts of events to be
+     * delivered via a single request.
+     */
+    static List<ReceivedEvent> decodeEvents(final BufferReader reader) {
+        byte b;
+        while (reader.readableBytes() > 0 && ((b = reader.peekS8()) == ' ' || b == '\t' || b == '\r' || b == '\n')) {
+            reader.skip(1);
+        }
+        if (reader.readableBytes() == 0 || reader.peekS8() != '[') {
+            return Collections.singletonList(decodeEvent(reader));
+        }
+        return MultiDecoderForLists.of(ignored -> HttpJsonEventSubscriberPlugin::decodeEvent)
+            .decoderForJson()
+            .decode(reader);
+    }
+
+    /**
+     * Decodes a single JSON event object, without unescaping its payload.
+     * Only the fields required for dispatching the event are decoded. The
+     * event must start at the current read offset of {@code reader}.
+     */
+    private static ReceivedEvent decodeEvent(final BufferReader reader) {
+        final var offset = reader.readOffset();
+        final var event = EventIncomingRawDto.decodeJson(reader);
+        final var metadata = event.metadata();
+        final var payload = event.payload()
+            .orElseThrow(() -> {
+                final var object = new byte[reader.readOffset() - offset];
+                reader.getAt(offset, object);
+                return new DecoderException(CodecType.JSON, reader,
+                    new String(object, StandardCharsets.UTF_8).stripTrailing(), offset,
+                    "required field 'payload' not specified");
+            });
+        return new ReceivedEvent(
+            event.publisher().map(SystemDetails::toSystemDescription).orElse(null),
+            metadata,
+            EventPayload.ofJson(payload, metadata));
+    }
+
+    private static class Attached implements PluginAttached, LocalEventBus.Receiver {
         private final Facade facade = new Facade();
 
         private final String basePath;
         private final ArSystem system;
         private final SystemDetailsDto subscriber;
+        private final LocalEventBus localEventBus;
 
         private final ConcurrentHashMap<String, Topic> nameToTopic = new ConcurrentHashMap<>();
         private final AtomicBoolean isDetached = new AtomicBoolean(false);
 
-        Attached(final ArSystem system) {
+        Attached(final ArSystem system, final LocalEventBus localEventBus) {
             this.system = system;
+            this.localEventBus = localEventBus;
             this.subscriber = SystemDetails.from(this.system);
             this.basePath = "/events/" + system.name();
         }
@@ -106,26 +208,34 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
 
                         .post("/#topic", (request, response) -> {
                             final var topicName = request.pathParameter(0);
-                            return request.bodyTo(EventIncomingDto::decodeJson)
-                                .ifSuccess(event -> {
+                            return request.bodyTo(HttpJsonEventSubscriberPlugin::decodeEvents)
+                                .ifSuccess(events -> {
+                                    var status = HttpStatus.OK;
                                     try {
                                         final var topic = nameToTopic.get(topicName.toLowerCase());
                                         if (topic != null) {
-                                            final var provider = event.publisher()
-                                                .map(SystemDetails::toSystemDescription)
-                                                .orElse(null);
-
-                                            topic.publish(provider, event.metadata(), event.data());
+                                            final var events0 = new ArrayList<ReceivedEvent>(events.size());
+                                            for (final var event : events) {
+                                                if (localEventBus == null || !localEventBus.isDeliveredLocally(this, event.metadata)) {
+                                                    events0.add(event);
+                                                }
+                                            }
+                                            if (!topic.publish(events0)) {
+                                                logger.debug("HTTP/JSON event subscriber " +
+                                                    "refused event(s) due to full " +
+                                                    "subscription queue [topic={}]", topicName);
+                                                status = HttpStatus.SERVICE_UNAVAILABLE;
+                                            }
                                         }
                                         else if (logger.isWarnEnabled()) {
                                             logger.warn("HTTP/JSON event " +
                                                 "subscriber received " +
-                                                "unexpected event " +
-                                                "[topic=" + topicName + "]: {}", event);
+                                                "unexpected event(s) " +
+                                                "[topic=" + topicName + "]: {}", events);
                                         }
                                     }
                                     finally {
-                                        response.status(HttpStatus.OK);
+                                        response.status(status);
                                     }
                                 })
                                 .mapCatch(Throwable.class, fault -> {
@@ -141,7 +251,7 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
                         });
 
                     return system.provide(service)
-                        .flatMap(ignored -> Futures.serialize(defaultSubscriptions.stream().map(this::subscribe)))
+                        .flatMap(ignored -> Futures.mapBounded(defaultSubscriptions, MAX_SUBSCRIPTIONS_IN_FLIGHT, this::subscribe))
                         .mapFault(Throwable.class, fault -> new CloudException("" +
                             "HTTP/JSON event subscriber failed to setup event " +
                             "receiver for the \"" + system.name() + "\" system", fault));
@@ -244,6 +354,17 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
                     "\"", fault));
         }
 
+        @Override
+        public boolean receive(
+            final String topicName,
+            final SystemRecord provider,
+            final Map<String, String> metadata,
+            final EventPayload payload)
+        {
+            final var topic = nameToTopic.get(topicName);
+            return topic == null || topic.publish(provider, metadata, payload);
+        }
+
         @Override
         public Optional<PluginFacade> facade() {
             return Optional.of(facade);
@@ -255,6 +376,10 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
                 return;
             }
 
+            if (localEventBus != null) {
+                localEventBus.unregister(this);
+            }
+
             if (logger.isInfoEnabled()) {
                 logger.info("HTTP/JSON event subscriber is detaching from " +
                     "system \"{}\" and unregistering its event " +
@@ -288,12 +413,28 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
         }
     }
 
-    private static class Topic {
+    /**
+     * The subscriptions registered for a single event topic.
+     * <p>
+     * Subscriptions are indexed by one of their filter criteria, which means
+     * that only subscriptions sharing at least one criterion with a received
+     * event need to be matched against it. Subscriptions requiring metadata
+     * are indexed by the key/value pair shared with the fewest other
+     * subscriptions at the time of registration. Subscriptions only filtering
+     * by provider are indexed by each of their providers.
+     */
+    static class Topic {
         private final String name;
         private final Consumer<String> onEmpty;
-        private final Set<Handle> handles = Collections.synchronizedSet(new HashSet<>());
 
-        private Topic(final String name, final Consumer<String> onEmpty) {
+        // All fields below are guarded by this object.
+
+        private final Set<Handle> unfiltered = new LinkedHashSet<>();
+        private final Map<SystemRecord, Set<Handle>> providerToHandles = new HashMap<>();
+        private final Map<String, Map<String, Set<Handle>>> metadataToHandles = new HashMap<>();
+        private int size = 0;
+
+        Topic(final String name, final Consumer<String> onEmpty) {
             this.name = Objects.requireNonNull(name, "name");
             this.onEmpty = Objects.requireNonNull(onEmpty, "onEmpty");
         }
@@ -302,69 +443,375 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
             return name;
         }
 
-        public void publish(final SystemRecord provider, final Map<String, String> metadata, final String data) {
-            for (final var subscription : handles) {
-                try {
-                    subscription.publish(provider, metadata, data);
+        /**
+         * Adds given event to the queues of all matching subscriptions.
+         *
+         * @return {@code false} only if the event was refused, due to the
+         * queue of a matching subscription with the {@link
+         * EventOverflowPolicy#BLOCK} policy being full.
+         */
+        public boolean publish(
+            final SystemRecord provider,
+            final Map<String, String> metadata,
+            final EventPayload payload)
+        {
+            return publish(List.of(new ReceivedEvent(provider, metadata, payload)));
+        }
+
+        /**
+         * Adds given events, in order, to the queues of all matching
+         * subscriptions.
+         *
+         * @return {@code false} only if the events were refused, due to the
+         * queue of a matching subscription with the {@link
+         * EventOverflowPolicy#BLOCK} policy not having room for all events
+         * matching it.
+         */
+        public boolean publish(final List<ReceivedEvent> events) {
+            // The events are either all added to their matching queues or
+            // none of them are, as they will be delivered again if refused.
+            // Room for every event is reserved in every matching queue before
+            // any event is added to any queue.
+            final var eventMatches = new ArrayList<List<Handle>>(events.size());
+            final var reservations = new ArrayList<Handle>();
+            for (final var event : events) {
+                final var matches = matches(event.provider, event.metadata);
+                for (final var handle : matches) {
+                    if (!handle.tryReserve()) {
+                        for (final var reservation : reservations) {
+                            reservation.release();
+                        }
+                        return false;
+                    }
+                    reservations.add(handle);
                 }
-                catch (final Throwable throwable) {
-                    logger.error("HTTP/JSON event subscription threw " +
-                        "unexpected exception while handling event " +
-                        "[topic=" + name + "]", throwable);
+                eventMatches.add(matches);
+            }
+            for (var i = 0; i < events.size(); ++i) {
+                final var event = events.get(i);
+                for (final var handle : eventMatches.get(i)) {
+                    handle.enqueue(event.metadata, event.payload);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Collects all subscriptions matching an event with given {@code
+         * provider} and {@code metadata}.
+         */
+        synchronized List<Handle> matches(final SystemRecord provider, final Map<String, String> metadata) {
+            final var matches = new ArrayList<Handle>(unfiltered);
+            if (provider != null) {
+                collectMatches(providerToHandles.get(provider), provider, metadata, matches);
+            }
+            if (!metadataToHandles.isEmpty()) {
+                for (final var entry : metadata.entrySet()) {
+                    final var valueToHandles = metadataToHandles.get(entry.getKey());
+                    if (valueToHandles != null) {
+                        collectMatches(valueToHandles.get(entry.getValue()), provider, metadata, matches);
+                    }
+                }
+            }
+            return matches;
+        }
+
+        /**
+         * @return Metadata entry by which given {@code handle} is indexed, if
+         * any.
+         */
+        synchronized Map.Entry<String, String> anchorOf(final Handle handle) {
+            return handle.anchor;
+        }
+
+        /**
+         * @return Number of subscriptions registered with this topic.
+         */
+        synchronized int size() {
+            return size;
+        }
+
+        private static void collectMatches(
+            final Set<Handle> candidates,
+            final SystemRecord provider,
+            final Map<String, String> metadata,
+            final List<Handle> matches)
+        {
+            if (candidates == null) {
+                return;
+            }
+            for (final var handle : candidates) {
+                if (handle.matches(provider, metadata)) {
+                    matches.add(handle);
                 }
             }
         }
 
-        public EventSubscriptionHandle register(final EventSubscription subscription) {
-            final var handle = new Handle(subscription, this::remove);
-            handles.add(handle);
+        public synchronized EventSubscriptionHandle register(final EventSubscription subscription) {
+            final var handle = new Handle(name, subscription, this::remove);
+            if (handle.metadata != null) {
+                Map.Entry<String, String> anchor = null;
+                var anchorSize = Integer.MAX_VALUE;
+                for (final var entry : handle.metadata.entrySet()) {
+                    final var handles = metadataToHandles
+                        .getOrDefault(entry.getKey(), Collections.emptyMap())
+                        .get(entry.getValue());
+                    final var size = handles != null ? handles.size() : 0;
+                    if (size < anchorSize) {
+                        anchor = entry;
+                        anchorSize = size;
+                    }
+                }
+                handle.anchor = anchor;
+                metadataToHandles.computeIfAbsent(anchor.getKey(), ignored -> new HashMap<>())
+                    .computeIfAbsent(anchor.getValue(), ignored -> new LinkedHashSet<>())
+                    .add(handle);
+            }
+            else if (handle.providers != null) {
+                for (final var provider : handle.providers) {
+                    providerToHandles.computeIfAbsent(provider, ignored -> new LinkedHashSet<>())
+                        .add(handle);
+                }
+            }
+            else {
+                unfiltered.add(handle);
+            }
+            size += 1;
             return handle;
         }
 
         private void remove(final Handle handle) {
-            if (handles.remove(handle)) {
-                if (handles.isEmpty()) {
-                    onEmpty.accept(name);
+            synchronized (this) {
+                final boolean isRemoved;
+                if (handle.anchor != null) {
+                    final var valueToHandles = metadataToHandles.get(handle.anchor.getKey());
+                    final var handles = valueToHandles != null
+                        ? valueToHandles.get(handle.anchor.getValue())
+                        : null;
+                    isRemoved = handles != null && handles.remove(handle);
+                    if (isRemoved && handles.isEmpty()) {
+                        valueToHandles.remove(handle.anchor.getValue());
+                        if (valueToHandles.isEmpty()) {
+                            metadataToHandles.remove(handle.anchor.getKey());
+                        }
+                    }
+                }
+                else if (handle.providers != null) {
+                    var isRemoved0 = false;
+                    for (final var provider : handle.providers) {
+                        final var handles = providerToHandles.get(provider);
+                        if (handles != null && handles.remove(handle)) {
+                            isRemoved0 = true;
+                            if (handles.isEmpty()) {
+                                providerToHandles.remove(provider);
+                            }
+                        }
+                    }
+                    isRemoved = isRemoved0;
+                }
+                else {
+                    isRemoved = unfiltered.remove(handle);
+                }
+                if (!isRemoved) {
+                    return;
+                }
+                size -= 1;
+                if (size > 0) {
+                    return;
                 }
             }
+            onEmpty.accept(name);
         }
     }
 
-    private static class Handle implements EventSubscriptionHandle {
+    /**
+     * A registered subscription, with a bounded queue of received events
+     * that are handed to its handler on its scheduler, one at a time.
+     */
+    static class Handle implements EventSubscriptionHandle {
+        /**
+         * Maximum number of events handled before the draining of a queue is
+         * resubmitted to its scheduler, which lets other subscriptions using
+         * the same scheduler handle their events.
+         */
+        private static final int MAX_EVENTS_PER_DRAIN = 64;
+
+        private final String topicName;
         private final EventSubscriptionHandler handler;
         private final Map<String, String> metadata;
         private final Set<SystemRecord> providers;
+        private final Scheduler scheduler;
+        private final int queueSize;
+        private final EventOverflowPolicy overflowPolicy;
         private final Consumer<Handle> onUnsubscribe;
         private final AtomicBoolean isUnsubscribed = new AtomicBoolean(false);
 
+        // Metadata entry by which this handle is indexed, if any. Guarded by
+        // the topic this handle belongs to.
+        private Map.Entry<String, String> anchor = null;
+
+        // All fields below are guarded by this object.
+
+        private final Deque<Event> queue = new ArrayDeque<>();
+        private int reservedCount = 0;
+        private boolean isDraining = false;
+        private int droppedCount = 0;
+
         private Handle(
+            final String topicName,
             final EventSubscription subscription,
             final Consumer<Handle> onUnsubscribe)
         {
             Objects.requireNonNull(subscription, "subscription");
+            this.topicName = Objects.requireNonNull(topicName, "topicName");
             this.onUnsubscribe = Objects.requireNonNull(onUnsubscribe, "onUnsubscribe");
 
             handler = subscription.handler()
                 .orElseThrow(() -> new IllegalArgumentException(subscription +
                     " does not contain an event handler; " +
                     "cannot register subscription"));
-            metadata = subscription.metadata().isEmpty() ? null : subscription.metadata();
-            providers = subscription.providers().isEmpty() ? null : subscription.providers();
+            metadata = subscription.metadata().isEmpty() ? null : new HashMap<>(subscription.metadata());
+            providers = subscription.providers().isEmpty() ? null : new HashSet<>(subscription.providers());
+            scheduler = subscription.scheduler().orElseGet(Schedulers::dynamic);
+            queueSize = subscription.queueSize();
+            overflowPolicy = subscription.overflowPolicy();
         }
 
-        public void publish(final SystemRecord provider, final Map<String, String> metadata, final String data) {
+        public boolean matches(final SystemRecord provider, final Map<String, String> metadata) {
             if (providers != null && !providers.contains(provider)) {
-                return;
+                return false;
             }
             if (this.metadata != null) {
                 for (final var entry : this.metadata.entrySet()) {
                     final var value = metadata.get(entry.getKey());
                     if (value == null || !value.equals(entry.getValue())) {
-                        return;
+                        return false;
                     }
                 }
             }
-            handler.onPublish(metadata, data);
+            return true;
+        }
+
+        /**
+         * Reserves room for one event in the queue of this handle, which
+         * must be followed by a call to either {@link #enqueue(Map,
+         * EventPayload)} or {@link #release()}. Only subscriptions with the
+         * {@link EventOverflowPolicy#BLOCK} policy ever refuse to reserve
+         * room.
+         *
+         * @return {@code false} only if the queue is full.
+         */
+        public synchronized boolean tryReserve() {
+            if (overflowPolicy != EventOverflowPolicy.BLOCK) {
+                return true;
+            }
+            if (queue.size() + reservedCount >= queueSize) {
+                return false;
+            }
+            reservedCount += 1;
+            return true;
+        }
+
+        /**
+         * Releases room reserved via {@link #tryReserve()} without using it.
+         */
+        public synchronized void release() {
+            if (overflowPolicy == EventOverflowPolicy.BLOCK) {
+                reservedCount -= 1;
+            }
+        }
+
+        synchronized int queuedCount() {
+            return queue.size();
+        }
+
+        /**
+         * Adds event to the queue of this handle, using room previously
+         * {@link #tryReserve() reserved} for it.
+         */
+        public void enqueue(final Map<String, String> metadata, final EventPayload payload) {
+            var isFirstDrop = false;
+            synchronized (this) {
+                if (overflowPolicy == EventOverflowPolicy.BLOCK) {
+                    reservedCount -= 1;
+                }
+                if (isUnsubscribed.get()) {
+                    return;
+                }
+                if (overflowPolicy == EventOverflowPolicy.BLOCK) {
+                    // Room was reserved, which means that the event is never
+                    // dropped.
+                    queue.addLast(new Event(metadata, payload));
+                }
+                else if (queue.size() >= queueSize) {
+                    isFirstDrop = droppedCount++ == 0;
+                    if (overflowPolicy == EventOverflowPolicy.DROP_OLDEST) {
+                        queue.pollFirst();
+                        queue.addLast(new Event(metadata, payload));
+                    }
+                }
+                else {
+                    queue.addLast(new Event(metadata, payload));
+                }
+                if (isDraining) {
+                    return;
+                }
+                isDraining = true;
+            }
+            if (isFirstDrop && logger.isWarnEnabled()) {
+                logger.warn("HTTP/JSON event subscription queue full; " +
+                    "dropping events [topic={}, overflowPolicy={}]", topicName, overflowPolicy);
+            }
+            submitDrain();
+        }
+
+        private void drain() {
+            for (var i = 0; i < MAX_EVENTS_PER_DRAIN; ++i) {
+                final Event event;
+                var droppedCount0 = 0;
+                synchronized (this) {
+                    event = queue.pollFirst();
+                    if (event == null) {
+                        isDraining = false;
+                        droppedCount0 = droppedCount;
+                        droppedCount = 0;
+                    }
+                }
+                if (event == null) {
+                    if (droppedCount0 > 0 && logger.isWarnEnabled()) {
+                        logger.warn("HTTP/JSON event subscription dropped " +
+                            "{} event(s) due to its queue being full " +
+                            "[topic={}]", droppedCount0, topicName);
+                    }
+                    return;
+                }
+                try {
+                    handler.onPublish(event.metadata, event.payload);
+                }
+                catch (final Throwable throwable) {
+                    logger.error("HTTP/JSON event subscription threw " +
+                        "unexpected exception while handling event " +
+                        "[topic=" + topicName + "]", throwable);
+                }
+            }
+            submitDrain();
+        }
+
+        private void submitDrain() {
+            try {
+                scheduler.execute(this::drain);
+            }
+            catch (final Throwable throwable) {
+                final int discardedCount;
+                synchronized (this) {
+                    discardedCount = queue.size();
+                    queue.clear();
+                    isDraining = false;
+                }
+                logger.error("HTTP/JSON event subscription failed to " +
+                    "schedule handling of " + discardedCount + " event(s); " +
+                    "discarding them [topic=" + topicName + "]", throwable);
+            }
         }
 
         @Override
@@ -372,7 +819,45 @@ public class HttpJsonEventSubscriberPlugin implements ArEventSubscriberPlugin {
             if (!isUnsubscribed.compareAndSet(false, true)) {
                 return;
             }
+            synchronized (this) {
+                queue.clear();
+            }
             onUnsubscribe.accept(this);
         }
     }
+
+    private static class Event {
+        private final Map<String, String> metadata;
+        private final EventPayload payload;
+
+        private Event(final Map<String, String> metadata, final EventPayload payload) {
+            this.metadata = metadata;
+            this.payload = payload;
+        }
+    }
+
+    static class ReceivedEvent {
+        private final SystemRecord provider;
+        private final Map<String, String> metadata;
+        private final EventPayload payload;
+
+        ReceivedEvent(
+            final SystemRecord provider,
+            final Map<String, String> metadata,
+            final EventPayload payload)
+        {
+            this.provider = provider;
+            this.metadata = metadata;
+            this.payload = payload;
+        }
+
+        @Override
+        public String toString() {
+            return "ReceivedEvent{" +
+                "provider=" + provider +
+                ", metadata=" + metadata +
+                ", payload=" + payload +
+                '}';
+        }
+    }
 }
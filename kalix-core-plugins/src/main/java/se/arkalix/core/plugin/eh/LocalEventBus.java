@@ -0,0 +1,222 @@
+package se.arkalix.core.plugin.eh;
+
+import se.arkalix.SystemRecord;
+import se.arkalix.core.plugin.SystemDetailsDto;
+import se.arkalix.util.concurrent.Future;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process event bus, useful for delivering events directly between
+ * systems running in the same JVM.
+ * <p>
+ * Local subscribers are {@link HttpJsonEventSubscriberPlugin event subscriber
+ * plugins} that have been {@link
+ * HttpJsonEventSubscriberPlugin#localEventBus(LocalEventBus) configured} to
+ * use a bus. Events published via a {@link #publisher(ArEventPublishService,
+ * Mode) publisher} of the same bus are handed directly to the queues of all
+ * matching local subscriptions, without being encoded, sent to the event
+ * handler or decoded. Events are matched against subscriptions exactly as if
+ * they had been received from the event handler.
+ * <p>
+ * If events are also sent to the event handler, as is the case when using
+ * {@link Mode#LOCAL_AND_REMOTE}, each event is given a unique identifier,
+ * stored in its metadata under the {@link #METADATA_EVENT_ID} key. Local
+ * subscribers that already received an event directly ignore any copies of
+ * it forwarded by the event handler, which means that every local
+ * subscription still receives each event only once. Only the identifiers of
+ * the most recently published events are remembered, which means that
+ * copies forwarded by the event handler long after being published, or
+ * after many other events have been published, may be received twice. The
+ * identifier is part of the event as it is published via the event handler,
+ * which means that remote subscribers will find it in the metadata of every
+ * such event. Subscriptions that match on metadata are unaffected, as they
+ * only require the entries they name to be present.
+ * <p>
+ * <b>Local delivery bypasses the authorization of the event handler.</b> An
+ * event handler forwards events only to subscribers it has authorized to
+ * receive events from their publishers. No such checks are made when events
+ * are delivered via a bus, which hands every published event to all local
+ * subscriptions matching it, whatever system published it. Local subscribers
+ * that must only receive events from certain publishers should name those
+ * publishers as {@link EventSubscription#providers(SystemRecord...)
+ * providers} of their subscriptions. The same bus should consequently only be
+ * shared by systems trusted to receive each other's events.
+ */
+public final class LocalEventBus {
+    /**
+     * Event metadata key used to identify events published via a local
+     * event bus in the {@link Mode#LOCAL_AND_REMOTE} mode.
+     */
+    public static final String METADATA_EVENT_ID = "localEventId";
+
+    /**
+     * Maximum number of published events for which the local receivers
+     * they were delivered to are remembered.
+     */
+    private static final int MAX_RECENT_EVENTS = 4096;
+
+    private static final LocalEventBus shared = new LocalEventBus();
+
+    private final String id = UUID.randomUUID().toString();
+    private final AtomicLong nextEventNumber = new AtomicLong();
+    private final CopyOnWriteArrayList<Receiver> receivers = new CopyOnWriteArrayList<>();
+
+    // Guarded by itself.
+    private final Map<String, List<Receiver>> recentEventIdToReceivers = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, List<Receiver>> eldest) {
+            return size() > MAX_RECENT_EVENTS;
+        }
+    };
+
+    /**
+     * @return JVM-wide event bus.
+     */
+    public static LocalEventBus shared() {
+        return shared;
+    }
+
+    /**
+     * Creates new publisher that only delivers events to local subscribers.
+     *
+     * @return New local event publisher.
+     */
+    public ArEventPublishService publisher() {
+        return publisher(null, Mode.LOCAL_ONLY);
+    }
+
+    /**
+     * Creates new publisher that delivers events to local subscribers and,
+     * depending on the given {@code mode}, also publishes them via the given
+     * {@code remote} service.
+     *
+     * @param remote Remote event publishing service, or {@code null} if
+     *               {@code mode} is {@link Mode#LOCAL_ONLY}.
+     * @param mode   Determines where published events are delivered.
+     * @return New event publisher.
+     */
+    public ArEventPublishService publisher(final ArEventPublishService remote, final Mode mode) {
+        Objects.requireNonNull(mode, "mode");
+        if (mode == Mode.LOCAL_AND_REMOTE) {
+            Objects.requireNonNull(remote, "remote");
+        }
+        return event -> publish(event, remote, mode);
+    }
+
+    private Future<?> publish(final EventOutgoingDto event, final ArEventPublishService remote, final Mode mode) {
+        Objects.requireNonNull(event, "event");
+
+        final String eventId;
+        final EventOutgoingDto event0;
+        if (mode == Mode.LOCAL_AND_REMOTE) {
+            eventId = id + ":" + nextEventNumber.getAndIncrement();
+            final var metadata = new HashMap<>(event.metadata());
+            metadata.put(METADATA_EVENT_ID, eventId);
+            event0 = new EventOutgoingDto.Builder()
+                .topic(event.topic())
+                .publisher((SystemDetailsDto) event.publisher())
+                .metadata(metadata)
+                .data(event.data())
+                .createdAt(event.createdAt().orElse(null))
+                .build();
+        }
+        else {
+            eventId = null;
+            event0 = event;
+        }
+
+        final var provider = event0.publisher().toSystemDescription();
+        final var topic = event0.topic().toLowerCase();
+        final var metadata = event0.metadata();
+        final var payload = EventPayload.ofString(event0.data(), metadata);
+
+        final var deliveredTo = new ArrayList<Receiver>();
+        var isRefused = false;
+        for (final var receiver : receivers) {
+            if (receiver.receive(topic, provider, metadata, payload)) {
+                deliveredTo.add(receiver);
+            }
+            else {
+                isRefused = true;
+            }
+        }
+        if (eventId != null && !deliveredTo.isEmpty()) {
+            synchronized (recentEventIdToReceivers) {
+                recentEventIdToReceivers.put(eventId, deliveredTo);
+            }
+        }
+        final Future<?> result = mode == Mode.LOCAL_AND_REMOTE
+            ? remote.publish(event0)
+            : Future.done();
+        if (isRefused) {
+            return result.flatMap(ignored -> Future.failure(new RejectedExecutionException("" +
+                "Event with topic \"" + topic + "\" refused by local " +
+                "subscriber due to full subscription queue")));
+        }
+        return result;
+    }
+
+    /**
+     * Determines whether an event received from the event handler was
+     * already delivered to given {@code receiver} via this bus, in which case
+     * the receiver should ignore it.
+     */
+    boolean isDeliveredLocally(final Receiver receiver, final Map<String, String> metadata) {
+        final var eventId = metadata.get(METADATA_EVENT_ID);
+        if (eventId == null || !eventId.startsWith(id)) {
+            return false;
+        }
+        final List<Receiver> deliveredTo;
+        synchronized (recentEventIdToReceivers) {
+            deliveredTo = recentEventIdToReceivers.get(eventId);
+        }
+        return deliveredTo != null && deliveredTo.contains(receiver);
+    }
+
+    void register(final Receiver receiver) {
+        receivers.addIfAbsent(receiver);
+    }
+
+    void unregister(final Receiver receiver) {
+        receivers.remove(receiver);
+    }
+
+    /**
+     * A local subscriber.
+     */
+    interface Receiver {
+        /**
+         * Hands given event to all matching subscriptions.
+         *
+         * @return {@code false} only if the event was refused by a
+         * subscription due to its queue being full.
+         */
+        boolean receive(String topic, SystemRecord provider, Map<String, String> metadata, EventPayload payload);
+    }
+
+    /**
+     * Determines where events published via a {@link LocalEventBus} are
+     * delivered.
+     */
+    public enum Mode {
+        /**
+         * Events are delivered to local subscribers and also published via
+         * the event handler, which forwards them to remote subscribers.
+         * <p>
+         * Events are published with an additional {@link #METADATA_EVENT_ID}
+         * metadata entry, which remote subscribers receive. Local delivery
+         * is not authorized by the event handler.
+         */
+        LOCAL_AND_REMOTE,
+
+        /**
+         * Events are only delivered to local subscribers, without being
+         * authorized by any event handler.
+         */
+        LOCAL_ONLY,
+    }
+}
@@ -3,6 +3,8 @@ package se.arkalix.core.plugin.or;
 import se.arkalix.ArConsumer;
 import se.arkalix.util.concurrent.Future;
 
+import java.time.Instant;
+
 /**
  * Represents an Arrowhead orchestration service.
  */
@@ -16,4 +18,21 @@ public interface ArOrchestrationService extends ArConsumer {
      * occurred.
      */
     Future<OrchestrationQueryResultDto> query(OrchestrationQueryDto query);
+
+    /**
+     * Queries orchestration service for services that should be consumed,
+     * giving up if no results are available at the given {@code deadline}.
+     * <p>
+     * The default implementation of this method ignores {@code deadline}.
+     *
+     * @param query    Description of the requesting system and its wants and
+     *                 needs related to service consumption.
+     * @param deadline Instant after which the results of the query are no
+     *                 longer of any use, or {@code null}.
+     * @return Future completed with the results of the query, if no errors
+     * occurred.
+     */
+    default Future<OrchestrationQueryResultDto> query(final OrchestrationQueryDto query, final Instant deadline) {
+        return query(query);
+    }
 }
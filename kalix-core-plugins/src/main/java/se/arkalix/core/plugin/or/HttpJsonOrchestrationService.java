@@ -6,6 +6,7 @@ import se.arkalix.net.http.consumer.HttpConsumer;
 import se.arkalix.net.http.consumer.HttpConsumerRequest;
 import se.arkalix.util.concurrent.Future;
 
+import java.time.Instant;
 import java.util.Objects;
 
 import static se.arkalix.core.plugin._internal.HttpJsonServices.unwrap;
@@ -29,10 +30,16 @@ public class HttpJsonOrchestrationService implements ArConsumer, ArOrchestration
 
     @Override
     public Future<OrchestrationQueryResultDto> query(final OrchestrationQueryDto query) {
+        return query(query, null);
+    }
+
+    @Override
+    public Future<OrchestrationQueryResultDto> query(final OrchestrationQueryDto query, final Instant deadline) {
         return consumer
             .send(new HttpConsumerRequest()
                 .method(POST)
                 .path(service().uri())
+                .deadline(deadline)
                 .body(query::encodeJson))
             .flatMap(response -> unwrap(response, OrchestrationQueryResultDto::decodeJson));
     }
@@ -13,6 +13,7 @@ import java.util.Objects;
 @SuppressWarnings("unused")
 public class OrchestrationStrategy {
     private final List<OrchestrationPattern> patterns;
+    private final boolean isConcurrent;
 
     /**
      * Only request predefined orchestration rules.
@@ -45,6 +46,18 @@ public class OrchestrationStrategy {
             .option(OrchestrationOption.OVERRIDE_STORE, true)
             .option(OrchestrationOption.PING_PROVIDERS, true));
 
+    /**
+     * Request predefined and dynamic orchestration rules concurrently, using
+     * the predefined rules if suitable and the dynamic rules otherwise.
+     * <p>
+     * Yields the same services as {@link #STORED_THEN_DYNAMIC}, but does not
+     * have to wait for the predefined rules to be received before requesting
+     * the dynamic rules.
+     *
+     * @see #concurrently()
+     */
+    public static final OrchestrationStrategy STORED_OR_DYNAMIC = STORED_THEN_DYNAMIC.concurrently();
+
     /**
      * Only request dynamic orchestration rules.
      * <p>
@@ -73,7 +86,41 @@ public class OrchestrationStrategy {
      * @param patterns Requests to attempt.
      */
     public OrchestrationStrategy(final List<OrchestrationPattern> patterns) {
+        this(patterns, false);
+    }
+
+    private OrchestrationStrategy(final List<OrchestrationPattern> patterns, final boolean isConcurrent) {
         this.patterns = Objects.requireNonNull(patterns, "requests");
+        this.isConcurrent = isConcurrent;
+    }
+
+    /**
+     * Creates copy of this orchestration strategy that sends all of its
+     * orchestration requests at once rather than in order.
+     * <p>
+     * The result of the first request yielding a matching service is used as
+     * soon as all requests before it are known not to yield any, after which
+     * any remaining requests are cancelled. The same services are resolved
+     * as when the requests are sent in order, but the time required to
+     * resolve them is bounded by the slowest request rather than by the sum
+     * of all requests. This comes at the cost of the orchestration service
+     * potentially having to handle requests whose results are never used.
+     *
+     * @return Concurrent copy of this strategy.
+     */
+    public OrchestrationStrategy concurrently() {
+        return new OrchestrationStrategy(patterns, true);
+    }
+
+    /**
+     * Whether or not all orchestration requests of this strategy are to be
+     * sent at once.
+     *
+     * @return {@code true} only if this strategy is concurrent.
+     * @see #concurrently()
+     */
+    public boolean isConcurrent() {
+        return isConcurrent;
     }
 
     /**
@@ -7,6 +7,7 @@ import se.arkalix.ServiceRecord;
 import se.arkalix.query.ServiceQuery;
 import se.arkalix.util.concurrent.Future;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
@@ -24,6 +25,22 @@ public interface ArServiceDiscoveryService extends ArConsumer {
      */
     Future<ServiceQueryResultDto> query(ServiceQueryDto query);
 
+    /**
+     * Queries registry for certain service definitions, giving up if no
+     * results are available at the given {@code deadline}.
+     * <p>
+     * The default implementation of this method ignores {@code deadline}.
+     *
+     * @param query    Description of what service definitions are desired.
+     * @param deadline Instant after which the results of the query are no
+     *                 longer of any use, or {@code null}.
+     * @return Future completed with the results of the query, if no errors
+     * occurred.
+     */
+    default Future<ServiceQueryResultDto> query(final ServiceQueryDto query, final Instant deadline) {
+        return query(query);
+    }
+
     /**
      * Queries registry for certain service definitions.
      *
@@ -32,7 +49,7 @@ public interface ArServiceDiscoveryService extends ArConsumer {
      * occurred.
      */
     default Future<Collection<ServiceRecord>> query(final ServiceQuery query) {
-        return query(se.arkalix.core.plugin.sr.ServiceQuery.from(query))
+        return query(se.arkalix.core.plugin.sr.ServiceQuery.from(query), query.deadline().orElse(null))
             .map(result -> result.services().stream()
                 .map(ServiceDetails::toServiceDescription)
                 .collect(Collectors.toUnmodifiableSet()));
@@ -9,6 +9,7 @@ import se.arkalix.net.http.consumer.HttpConsumer;
 import se.arkalix.net.http.consumer.HttpConsumerRequest;
 import se.arkalix.util.concurrent.Future;
 
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Objects;
 
@@ -46,10 +47,16 @@ public class HttpJsonServiceDiscoveryService implements ArServiceDiscoveryServic
 
     @Override
     public Future<ServiceQueryResultDto> query(final ServiceQueryDto query) {
+        return query(query, null);
+    }
+
+    @Override
+    public Future<ServiceQueryResultDto> query(final ServiceQueryDto query, final Instant deadline) {
         return consumer
             .send(new HttpConsumerRequest()
                 .method(POST)
                 .path(pathQuery)
+                .deadline(deadline)
                 .body(query::encodeJson))
             .flatMap(response -> unwrap(response, ServiceQueryResultDto::decodeJson));
     }
@@ -0,0 +1,266 @@
+package se.arkalix.core.plugin;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.ServiceInterface;
+import se.arkalix.ServiceRecord;
+import se.arkalix.SystemRecord;
+import se.arkalix.security.access.AccessPolicyType;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHttpJsonCloudPlugin {
+    private static final Predicate<String> isMatching = service -> service.startsWith("match");
+
+    @Test
+    void shouldAwaitHigherPriorityPatternsWhenCompletedOutOfOrder() {
+        final var patterns = completions(3);
+        final var result = resultOf(HttpJsonCloudPlugin.firstMatchingConcurrently(futures(patterns), isMatching));
+
+        patterns.get(2).complete(Result.success(List.of("match-c")));
+        patterns.get(1).complete(Result.success(List.of("match-b")));
+        assertNull(result.get());
+
+        patterns.get(0).complete(Result.success(List.of("other-a")));
+        assertEquals(List.of("match-b"), result.get().value());
+    }
+
+    @Test
+    void shouldFailIfHigherPriorityPatternFails() {
+        final var patterns = completions(3);
+        final var result = resultOf(HttpJsonCloudPlugin.firstMatchingConcurrently(futures(patterns), isMatching));
+        final var fault = new CloudException("a failed");
+
+        patterns.get(1).complete(Result.success(List.of("match-b")));
+        patterns.get(0).complete(Result.failure(fault));
+        assertSame(fault, result.get().fault());
+        assertTrue(patterns.get(2).isCancelled());
+    }
+
+    @Test
+    void shouldIgnoreFailuresOfLowerPriorityPatterns() {
+        final var patterns = completions(2);
+        final var result = resultOf(HttpJsonCloudPlugin.firstMatchingConcurrently(futures(patterns), isMatching));
+
+        patterns.get(1).complete(Result.failure(new CloudException("b failed")));
+        patterns.get(0).complete(Result.success(List.of("match-a")));
+        assertEquals(List.of("match-a"), result.get().value());
+    }
+
+    @Test
+    void shouldCancelPatternsWhoseResultsAreNoLongerNeeded() {
+        final var patterns = completions(3);
+        final var result = resultOf(HttpJsonCloudPlugin.firstMatchingConcurrently(futures(patterns), isMatching));
+
+        patterns.get(0).complete(Result.success(List.of("match-a")));
+        assertEquals(List.of("match-a"), result.get().value());
+        assertTrue(patterns.get(1).isCancelled());
+        assertTrue(patterns.get(2).isCancelled());
+    }
+
+    @Test
+    void shouldCancelAllPatternsIfResultIsCancelled() {
+        final var patterns = completions(3);
+        final var future = HttpJsonCloudPlugin.firstMatchingConcurrently(futures(patterns), isMatching);
+
+        patterns.get(1).complete(Result.success(List.of("other-b")));
+        future.cancel(false);
+        assertTrue(patterns.get(0).isCancelled());
+        assertTrue(patterns.get(2).isCancelled());
+
+        // Completing a cancelled pattern must not affect the result.
+        patterns.get(0).complete(Result.success(List.of("match-a")));
+    }
+
+    @Test
+    void shouldYieldSameServicesAsSequentialExecution() {
+        final var outcomes = List.<Result<Collection<String>>>of(
+            Result.success(List.of()),
+            Result.success(List.of("other")),
+            Result.success(List.of("other", "match")),
+            Result.failure(new CloudException("failed")));
+
+        for (final var a : outcomes) {
+            for (final var b : outcomes) {
+                for (final var c : outcomes) {
+                    final var combination = List.of(a, b, c);
+
+                    final var sequential = resultOf(HttpJsonCloudPlugin.firstMatchingSequentially(
+                        combination, Future::of, ignored -> false, isMatching));
+
+                    // Completed in reverse order to make sure higher priority
+                    // patterns are awaited.
+                    final var patterns = completions(3);
+                    final var concurrent = resultOf(HttpJsonCloudPlugin
+                        .firstMatchingConcurrently(futures(patterns), isMatching));
+                    for (var i = patterns.size(); i-- > 0; ) {
+                        if (!patterns.get(i).isCancelled()) {
+                            patterns.get(i).complete(combination.get(i));
+                        }
+                    }
+
+                    final var message = "combination " + combination;
+                    assertEquals(sequential.get().isSuccess(), concurrent.get().isSuccess(), message);
+                    if (sequential.get().isSuccess()) {
+                        assertEquals(sequential.get().value(), concurrent.get().value(), message);
+                    }
+                    else {
+                        assertSame(sequential.get().fault(), concurrent.get().fault(), message);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldExpireCachedResultWhenFirstServiceExpires() {
+        final var timer = new RecordingTimer();
+        final var cache = new HttpJsonCloudPlugin.OrchestrationCache<String>(Duration.ofMinutes(10), timer);
+        final var now = Instant.parse("2021-06-01T12:00:00Z");
+        final var services = List.of(
+            service("a", now.plusSeconds(120)),
+            service("b", now.plusSeconds(30)));
+
+        cache.put("query", services, now);
+        assertEquals(services, cache.get("query", now.plusSeconds(29)));
+        assertNull(cache.get("query", now.plusSeconds(30)));
+        assertEquals(0, cache.size());
+        assertEquals(List.of(Duration.ofSeconds(30)), timer.delays);
+    }
+
+    @Test
+    void shouldExpireCachedResultWhenTimeToLivePasses() {
+        final var timer = new RecordingTimer();
+        final var cache = new HttpJsonCloudPlugin.OrchestrationCache<String>(Duration.ofSeconds(10), timer);
+        final var now = Instant.parse("2021-06-01T12:00:00Z");
+
+        cache.put("query", List.of(service("a", now.plusSeconds(120))), now);
+        assertEquals(1, cache.size());
+        assertEquals(List.of(Duration.ofSeconds(10)), timer.delays);
+
+        timer.tasks.get(0).run();
+        assertEquals(0, cache.size());
+        assertNull(cache.get("query", now));
+    }
+
+    @Test
+    void shouldNotCacheEmptyOrAlreadyExpiredResults() {
+        final var timer = new RecordingTimer();
+        final var cache = new HttpJsonCloudPlugin.OrchestrationCache<String>(Duration.ofSeconds(10), timer);
+        final var now = Instant.parse("2021-06-01T12:00:00Z");
+
+        cache.put("empty", List.of(), now);
+        cache.put("expired", List.of(service("a", now)), now);
+        assertNull(cache.get("empty", now));
+        assertNull(cache.get("expired", now));
+        assertEquals(0, cache.size());
+        assertTrue(timer.delays.isEmpty());
+    }
+
+    @Test
+    void shouldCacheCopyOfResult() {
+        final var cache = new HttpJsonCloudPlugin.OrchestrationCache<String>(Duration.ofSeconds(10), new RecordingTimer());
+        final var now = Instant.parse("2021-06-01T12:00:00Z");
+        final var services = new ArrayList<ServiceRecord>();
+        services.add(service("a", now.plusSeconds(120)));
+
+        cache.put("query", services, now);
+        services.clear();
+        final var cached = cache.get("query", now);
+        assertEquals(1, cached.size());
+        assertThrows(UnsupportedOperationException.class, cached::clear);
+    }
+
+    @Test
+    void shouldNotFailWarmingIfResolutionFails() {
+        final var fault = new CloudException("unreachable");
+        final var faults = new ArrayList<Throwable>();
+        final var result = resultOf(HttpJsonCloudPlugin.<String>awaitWarmed(
+            Future.failure(fault), Duration.ofSeconds(10), services -> fail(), faults::add));
+
+        assertTrue(result.get().isSuccess());
+        assertEquals(List.of(fault), faults);
+    }
+
+    @Test
+    void shouldNotFailWarmingIfResolutionTimesOut() throws InterruptedException {
+        final var resolution = new FutureCompletion<Collection<String>>();
+        final var latch = new CountDownLatch(1);
+        final var faults = new ArrayList<Throwable>();
+        HttpJsonCloudPlugin.awaitWarmed(resolution, Duration.ofMillis(10), services -> fail(), faults::add)
+            .onResult(result -> {
+                if (result.isSuccess()) {
+                    latch.countDown();
+                }
+            });
+
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertEquals(1, faults.size());
+        assertTrue(faults.get(0) instanceof TimeoutException);
+    }
+
+    @Test
+    void shouldProvideWarmedServices() {
+        final var resolved = new ArrayList<Collection<String>>();
+        final var result = resultOf(HttpJsonCloudPlugin.awaitWarmed(
+            Future.success(List.of("a")), Duration.ofSeconds(10), resolved::add, fault -> fail()));
+
+        assertTrue(result.get().isSuccess());
+        assertEquals(List.of(List.of("a")), resolved);
+    }
+
+    private static ServiceRecord service(final String name, final Instant expiresAt) {
+        return new ServiceRecord.Builder()
+            .name(name)
+            .provider(SystemRecord.from("provider", new InetSocketAddress("127.0.0.1", 9001)))
+            .uri("/" + name)
+            .expiresAt(expiresAt)
+            .accessPolicyType(AccessPolicyType.NOT_SECURE)
+            .interfaces(ServiceInterface.HTTP_SECURE_JSON)
+            .build();
+    }
+
+    private static class RecordingTimer implements BiConsumer<Duration, Runnable> {
+        private final List<Duration> delays = new ArrayList<>();
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        @Override
+        public void accept(final Duration delay, final Runnable task) {
+            delays.add(delay);
+            tasks.add(task);
+        }
+    }
+
+    private static List<FutureCompletion<Collection<String>>> completions(final int count) {
+        final var completions = new ArrayList<FutureCompletion<Collection<String>>>(count);
+        for (var i = 0; i < count; ++i) {
+            completions.add(new FutureCompletion<>());
+        }
+        return completions;
+    }
+
+    private static List<Future<Collection<String>>> futures(final List<FutureCompletion<Collection<String>>> completions) {
+        return new ArrayList<>(completions);
+    }
+
+    private static <V> AtomicReference<Result<V>> resultOf(final Future<V> future) {
+        final var result = new AtomicReference<Result<V>>(null);
+        future.onResult(result::set);
+        return result;
+    }
+}
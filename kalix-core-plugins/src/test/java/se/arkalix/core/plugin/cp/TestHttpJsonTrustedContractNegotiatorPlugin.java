@@ -0,0 +1,189 @@
+package se.arkalix.core.plugin.cp;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.ArSystem;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static se.arkalix.core.plugin.cp.ContractNegotiationStatus.*;
+
+public class TestHttpJsonTrustedContractNegotiatorPlugin {
+    // Fails every attempt to consume services, such as to look up
+    // negotiations not available in the negotiation cache.
+    private static final ArSystem system = (ArSystem) Proxy.newProxyInstance(
+        TestHttpJsonTrustedContractNegotiatorPlugin.class.getClassLoader(),
+        new Class<?>[]{ArSystem.class},
+        (proxy, method, arguments) -> {
+            switch (method.getName()) {
+            case "name":
+            case "toString":
+                return "test";
+            default:
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+
+    @Test
+    void shouldMatchCounterOffersToExpectedResponsesRegardlessOfDirection() {
+        final var cache = new HttpJsonTrustedContractNegotiatorPlugin.NegotiationCache(false);
+        final var expectedEvents = new HttpJsonTrustedContractNegotiatorPlugin.ExpectedEvents(system, cache);
+        final var handler = new RecordingHandler();
+        expectedEvents.add(new HttpJsonTrustedContractNegotiatorPlugin.ExpectedResponseToOffer(
+            system, cache, handler, "a", "b", 1, Duration.ofMinutes(1)));
+
+        // Only the receiver of the expected offer may accept it or counter it.
+        assertFalse(expectedEvents.tryToHandle("b", "a", 1, "ACCEPTED", negotiation(1, "b", "a", ACCEPTED)));
+        assertFalse(expectedEvents.tryToHandle("a", "b", 1, "OFFERING", negotiation(1, "a", "b", OFFERING)));
+        assertFalse(expectedEvents.tryToHandle("b", "a", 2, "OFFERING", negotiation(2, "b", "a", OFFERING)));
+        assertEquals(List.of(), handler.events);
+
+        assertTrue(expectedEvents.tryToHandle("b", "a", 1, "OFFERING", negotiation(1, "b", "a", OFFERING)));
+        assertEquals(List.of("offer 1 b->a"), handler.events);
+
+        // Matched expectations are removed.
+        assertFalse(expectedEvents.tryToHandle("b", "a", 1, "OFFERING", negotiation(1, "b", "a", OFFERING)));
+    }
+
+    @Test
+    void shouldFallBackToReceiverListenersIfNoExpectedResponseMatches() {
+        final var cache = new HttpJsonTrustedContractNegotiatorPlugin.NegotiationCache(false);
+        final var expectedEvents = new HttpJsonTrustedContractNegotiatorPlugin.ExpectedEvents(system, cache);
+        final var responseHandler = new RecordingHandler();
+        final var listenerHandler = new RecordingHandler();
+        expectedEvents.add(new HttpJsonTrustedContractNegotiatorPlugin.ExpectedResponseToOffer(
+            system, cache, responseHandler, "a", "b", 1, Duration.ofMinutes(1)));
+        expectedEvents.listen(new HttpJsonTrustedContractNegotiatorPlugin.ExpectedOfferForReceiver(
+            system, cache, "b", () -> listenerHandler));
+
+        assertTrue(expectedEvents.tryToHandle("a", "b", 1, "OFFERING", negotiation(1, "a", "b", OFFERING)));
+        assertTrue(expectedEvents.tryToHandle("c", "b", 2, "OFFERING", negotiation(2, "c", "b", OFFERING)));
+        assertFalse(expectedEvents.tryToHandle("a", "c", 3, "OFFERING", negotiation(3, "a", "c", OFFERING)));
+        assertFalse(expectedEvents.tryToHandle("c", "b", 2, "ACCEPTED", negotiation(2, "c", "b", ACCEPTED)));
+
+        assertEquals(List.of(), responseHandler.events);
+        assertEquals(List.of("offer 1 a->b", "offer 2 c->b"), listenerHandler.events);
+    }
+
+    @Test
+    void shouldServeCachedNegotiationsOnlyWhileOfferDirectionIsUnchanged() {
+        final var cache = new HttpJsonTrustedContractNegotiatorPlugin.NegotiationCache(true);
+        final var offer = offer("a", "b");
+        cache.update(1, offer);
+
+        final var cached = cache.get("a", "b", 1, "OFFERING");
+        assertEquals(1, cached.id());
+        assertEquals(offer, cached.offer());
+        assertEquals(OFFERING, cached.status());
+
+        // A counter-offer not yet observed by the cache must be looked up.
+        assertNull(cache.get("b", "a", 1, "OFFERING"));
+
+        final var counterOffer = offer("b", "a");
+        cache.update(negotiation(1, counterOffer, OFFERING));
+        assertEquals(counterOffer, cache.get("b", "a", 1, "OFFERING").offer());
+        assertNull(cache.get("a", "b", 1, "OFFERING"));
+
+        cache.update(negotiation(1, counterOffer, ACCEPTED));
+        assertNull(cache.get("b", "a", 1, "ACCEPTED"));
+    }
+
+    @Test
+    void shouldNeverServeNegotiationsFromDisabledCache() {
+        final var cache = new HttpJsonTrustedContractNegotiatorPlugin.NegotiationCache(false);
+        cache.update(1, offer("a", "b"));
+        assertNull(cache.get("a", "b", 1, "OFFERING"));
+    }
+
+    @Test
+    void shouldLookUpNegotiationsOnlyIfNotCached() {
+        final var cache = new HttpJsonTrustedContractNegotiatorPlugin.NegotiationCache(true);
+        final var expectedEvents = new HttpJsonTrustedContractNegotiatorPlugin.ExpectedEvents(system, cache);
+        final var handler = new RecordingHandler();
+        expectedEvents.listen(new HttpJsonTrustedContractNegotiatorPlugin.ExpectedOfferForReceiver(
+            system, cache, "b", () -> handler));
+        expectedEvents.listen(new HttpJsonTrustedContractNegotiatorPlugin.ExpectedOfferForReceiver(
+            system, cache, "a", () -> handler));
+        cache.update(1, offer("a", "b"));
+
+        assertTrue(expectedEvents.tryToHandle("a", "b", 1, "OFFERING", null));
+        assertEquals(List.of("offer 1 a->b"), handler.events);
+
+        final var exception = assertThrows(UnsupportedOperationException.class, () ->
+            expectedEvents.tryToHandle("b", "a", 1, "OFFERING", null));
+        assertEquals("consume", exception.getMessage());
+    }
+
+    @Test
+    void shouldRejectNegotiationStateNotMatchingEventMetadata() {
+        final var negotiation = negotiation(1, "a", "b", OFFERING);
+        assertTrue(HttpJsonTrustedContractNegotiatorPlugin.isConsistent(negotiation, "a", "b", "offering"));
+        assertFalse(HttpJsonTrustedContractNegotiatorPlugin.isConsistent(negotiation, "b", "a", "OFFERING"));
+        assertFalse(HttpJsonTrustedContractNegotiatorPlugin.isConsistent(negotiation, "a", "c", "OFFERING"));
+        assertFalse(HttpJsonTrustedContractNegotiatorPlugin.isConsistent(negotiation, "a", "b", "ACCEPTED"));
+    }
+
+    private static TrustedContractOfferDto offer(final String offerorName, final String receiverName) {
+        final var now = Instant.now();
+        return new TrustedContractOfferDto.Builder()
+            .offerorName(offerorName)
+            .receiverName(receiverName)
+            .validAfter(now)
+            .validUntil(now.plus(Duration.ofHours(1)))
+            .offeredAt(now)
+            .build();
+    }
+
+    private static TrustedContractNegotiationDto negotiation(
+        final long id,
+        final String offerorName,
+        final String receiverName,
+        final ContractNegotiationStatus status)
+    {
+        return negotiation(id, offer(offerorName, receiverName), status);
+    }
+
+    private static TrustedContractNegotiationDto negotiation(
+        final long id,
+        final TrustedContractOfferDto offer,
+        final ContractNegotiationStatus status)
+    {
+        return new TrustedContractNegotiationDto.Builder()
+            .id(id)
+            .offer(offer)
+            .status(status)
+            .build();
+    }
+
+    private static class RecordingHandler implements TrustedContractNegotiatorHandler {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onAccept(final TrustedContractNegotiationDto negotiation) {
+            events.add("accept " + negotiation.id());
+        }
+
+        @Override
+        public void onOffer(
+            final TrustedContractNegotiationDto negotiation,
+            final TrustedContractNegotiatorResponder responder)
+        {
+            events.add("offer " + negotiation.id() + " " +
+                negotiation.offer().offerorName() + "->" + negotiation.offer().receiverName());
+        }
+
+        @Override
+        public void onReject(final TrustedContractNegotiationDto negotiation) {
+            events.add("reject " + negotiation.id());
+        }
+
+        @Override
+        public void onFault(final long negotiationId, final Throwable throwable) {
+            events.add("fault " + negotiationId);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package se.arkalix.core.plugin.eh;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.codec.DecoderException;
+import se.arkalix.codec.json.JsonEscapedString;
+import se.arkalix.io.buf.Buffer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEventPayload {
+    private static final Map<String, String> base64 = Map.of(EventPayload.METADATA_ENCODING, EventPayload.ENCODING_BASE64);
+
+    @Test
+    void shouldUnescapeReceivedPayloadsOnlyWhenRequested() {
+        final var payload = received("{\\\"x\\\":\\\"a\\\\nb\\\"}\\u00F6", Map.of());
+        assertArrayEquals(bytes("{\\\"x\\\":\\\"a\\\\nb\\\"}\\u00F6"), payload.rawJson());
+        assertEquals("{\"x\":\"a\\nb\"}ö", payload.asString());
+        assertArrayEquals(bytes("{\"x\":\"a\\nb\"}ö"), payload.asBytes());
+    }
+
+    @Test
+    void shouldDecodeBase64PayloadsAsBytes() {
+        final var data = new byte[]{0, 1, (byte) 0xFE, (byte) 0xFF, '"', '\\'};
+        final var encoded = Base64.getEncoder().encodeToString(data);
+
+        assertArrayEquals(data, received(encoded, base64).asBytes());
+        assertArrayEquals(data, EventPayload.ofString(encoded, base64).asBytes());
+
+        // Base64 characters may be escaped by the sender.
+        assertArrayEquals(data, received(encoded.replace("/", "\\/"), base64).asBytes());
+
+        assertArrayEquals(bytes(encoded), received(encoded, Map.of()).asBytes());
+        assertThrows(IllegalArgumentException.class, () -> received("not base64!", base64).asBytes());
+    }
+
+    @Test
+    void shouldRoundTripRawJson() {
+        final var string = "quote \" backslash \\ newline \n tab \t control \u0001 unicode ᛗ";
+        final var created = EventPayload.ofString(string, Map.of());
+        final var received = EventPayload.ofJson(JsonEscapedString.ofEscaped(created.rawJson()), Map.of());
+        assertEquals(string, received.asString());
+        assertArrayEquals(created.rawJson(), received.rawJson());
+
+        final var escaped = "a\\u0062\\/c";
+        assertArrayEquals(bytes(escaped), received(escaped, Map.of()).rawJson());
+    }
+
+    @Test
+    void shouldBeEqualOnlyIfContentsAndEncodingsAreEqual() {
+        final var received = received("x\\u0079z", Map.of());
+        final var created = EventPayload.ofString("xyz", Map.of());
+
+        assertEquals(received, created);
+        assertEquals(received.hashCode(), created.hashCode());
+        assertEquals(received("xyz", Map.of()).hashCode(), created.hashCode());
+        assertNotEquals(created, EventPayload.ofString("xyz", base64));
+        assertNotEquals(created, EventPayload.ofString("xy", Map.of()));
+    }
+
+    @Test
+    void shouldRejectInvalidEscapeSequencesWhenUnescaped() {
+        final var payload = received("\\x", Map.of());
+        assertArrayEquals(bytes("\\x"), payload.rawJson());
+        assertThrows(DecoderException.class, payload::asString);
+    }
+
+    private static EventPayload received(final String escaped, final Map<String, String> metadata) {
+        final var string = JsonEscapedString.decodeJson(Buffer.wrap(bytes("\"" + escaped + "\"")));
+        return EventPayload.ofJson(string, metadata);
+    }
+
+    private static byte[] bytes(final String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,171 @@
+package se.arkalix.core.plugin.eh;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestEventSpool {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRecoverUnacknowledgedRecordsAfterReopening() throws IOException {
+        var spool = EventSpool.open(config(64));
+        spool.append(record("a"));
+        spool.append(record("b"));
+        spool.append(record("c"));
+        spool.acknowledge(1);
+        spool.close();
+
+        spool = EventSpool.open(config(64));
+        try {
+            assertEquals(List.of("b", "c"), strings(spool.read(10)));
+        }
+        finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    void shouldDiscardTornRecordsWhenReopening() throws IOException {
+        var spool = EventSpool.open(config(64));
+        spool.append(record("a"));
+        spool.append(record("b"));
+        spool.close();
+
+        // Corrupt the data of the second record, which follows the 8-byte
+        // header and 1-byte data of the first and its own 8-byte header.
+        try (final var channel = FileChannel.open(segmentPaths().get(0), READ, WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'x'}), 17);
+        }
+
+        spool = EventSpool.open(config(64));
+        try {
+            assertEquals(List.of("a"), strings(spool.read(10)));
+
+            spool.append(record("c"));
+            assertEquals(List.of("a", "c"), strings(spool.read(10)));
+        }
+        finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    void shouldRotateSegmentsWhenFull() throws IOException {
+        final var spool = EventSpool.open(config(64));
+        try {
+            for (var i = 0; i < 7; ++i) {
+                spool.append(largeRecord(i));
+            }
+            assertEquals(3, spool.segments());
+            assertEquals(3, segmentPaths().size());
+
+            final var records = spool.read(10);
+            assertEquals(7, records.size());
+            for (var i = 0; i < 7; ++i) {
+                assertArrayEquals(largeRecord(i), records.get(i));
+            }
+        }
+        finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    void shouldDeleteSegmentsOnlyWhenAcknowledged() throws IOException {
+        final var spool = EventSpool.open(config(64));
+        try {
+            for (var i = 0; i < 7; ++i) {
+                spool.append(largeRecord(i));
+            }
+
+            spool.acknowledge(2);
+            assertEquals(3, segmentPaths().size());
+
+            spool.acknowledge(1);
+            assertEquals(2, segmentPaths().size());
+            assertArrayEquals(largeRecord(3), spool.read(1).get(0));
+
+            spool.acknowledge(4);
+            assertEquals(1, segmentPaths().size());
+            assertTrue(spool.isEmpty());
+        }
+        finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    void shouldRefuseRecordsWhenAllSegmentsAreUsed() throws IOException {
+        final var spool = EventSpool.open(config(2));
+        try {
+            for (var i = 0; i < 6; ++i) {
+                spool.append(largeRecord(i));
+            }
+            assertThrows(RejectedExecutionException.class, () -> spool.append(largeRecord(6)));
+
+            spool.acknowledge(3);
+            spool.append(largeRecord(6));
+        }
+        finally {
+            spool.close();
+        }
+    }
+
+    @Test
+    void shouldLockDirectoryUntilClosed() throws IOException {
+        final var spool = EventSpool.open(config(64));
+        assertThrows(IOException.class, () -> EventSpool.open(config(64)));
+        spool.close();
+
+        EventSpool.open(config(64)).close();
+    }
+
+    private EventSpoolConfig config(final int maxSegments) {
+        return new EventSpoolConfig.Builder()
+            .directory(directory)
+            .segmentSize(1024)
+            .maxSegments(maxSegments)
+            .build();
+    }
+
+    private List<Path> segmentPaths() throws IOException {
+        try (final var paths = Files.list(directory)) {
+            return paths.filter(path -> path.toString().endsWith(".segment"))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    private static byte[] record(final String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Three of these fit in a segment of 1024 bytes, but not four.
+    private static byte[] largeRecord(final int value) {
+        final var record = new byte[300];
+        Arrays.fill(record, (byte) value);
+        return record;
+    }
+
+    private static List<String> strings(final List<byte[]> records) {
+        return records.stream()
+            .map(record -> new String(record, StandardCharsets.UTF_8))
+            .collect(Collectors.toList());
+    }
+}
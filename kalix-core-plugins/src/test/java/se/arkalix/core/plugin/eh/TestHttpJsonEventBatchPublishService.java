@@ -0,0 +1,312 @@
+package se.arkalix.core.plugin.eh;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.ServiceInterface;
+import se.arkalix.ServiceRecord;
+import se.arkalix.SystemRecord;
+import se.arkalix.core.plugin.SystemDetailsDto;
+import se.arkalix.io.buf.Buffer;
+import se.arkalix.net.http.HttpStatus;
+import se.arkalix.net.http.consumer.HttpConsumer;
+import se.arkalix.net.http.consumer.HttpConsumerConnection;
+import se.arkalix.net.http.consumer.HttpConsumerRequest;
+import se.arkalix.net.http.consumer.HttpConsumerResponse;
+import se.arkalix.security.access.AccessPolicyType;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHttpJsonEventBatchPublishService {
+    @Test
+    void shouldSendEventsInBatchesPerTopic() {
+        final var consumer = new FakeConsumer();
+        final var service = new HttpJsonEventBatchPublishService(consumer.proxy(), config(2, 100).build());
+
+        final var a1 = resultOf(service.publish(event("a", "1")));
+        final var b1 = resultOf(service.publish(event("b", "1")));
+        assertEquals(0, consumer.connects.size());
+
+        final var a2 = resultOf(service.publish(event("a", "2")));
+        assertEquals(1, consumer.connects.size());
+        assertEquals(3, service.pendingEvents());
+
+        final var connection = consumer.connect();
+        assertEquals(List.of("1", "2"), connection.payloads());
+        assertEquals(1, service.pendingEvents());
+
+        connection.respond(0, HttpStatus.OK);
+        connection.respond(1, HttpStatus.OK);
+        assertTrue(a1.get().isSuccess());
+        assertTrue(a2.get().isSuccess());
+        assertNull(b1.get());
+    }
+
+    @Test
+    void shouldLimitRequestsInFlight() {
+        final var consumer = new FakeConsumer();
+        final var service = new HttpJsonEventBatchPublishService(consumer.proxy(), config(1, 100)
+            .maxRequestsInFlight(2)
+            .build());
+
+        service.publish(event("a", "1"));
+        final var connection = consumer.connect();
+        service.publish(event("a", "2"));
+        service.publish(event("a", "3"));
+        assertEquals(List.of("1", "2"), connection.payloads());
+
+        connection.respond(0, HttpStatus.OK);
+        assertEquals(List.of("1", "2", "3"), connection.payloads());
+    }
+
+    @Test
+    void shouldDropNewestEventsWhenQueueIsFull() {
+        final var consumer = new FakeConsumer();
+        final var service = new HttpJsonEventBatchPublishService(consumer.proxy(), config(100, 2)
+            .overflowPolicy(EventOverflowPolicy.DROP_NEWEST)
+            .build());
+
+        final var e1 = resultOf(service.publish(event("a", "1")));
+        final var e2 = resultOf(service.publish(event("a", "2")));
+        final var e3 = resultOf(service.publish(event("a", "3")));
+
+        assertNull(e1.get());
+        assertNull(e2.get());
+        assertTrue(e3.get().fault() instanceof RejectedExecutionException);
+        assertEquals(2, service.pendingEvents());
+    }
+
+    @Test
+    void shouldDropOldestEventsWhenQueueIsFull() {
+        final var consumer = new FakeConsumer();
+        final var service = new HttpJsonEventBatchPublishService(consumer.proxy(), config(100, 2)
+            .overflowPolicy(EventOverflowPolicy.DROP_OLDEST)
+            .build());
+
+        final var e1 = resultOf(service.publish(event("a", "1")));
+        final var e2 = resultOf(service.publish(event("b", "2")));
+        final var e3 = resultOf(service.publish(event("a", "3")));
+
+        assertTrue(e1.get().fault() instanceof RejectedExecutionException);
+        assertNull(e2.get());
+        assertNull(e3.get());
+        assertEquals(2, service.pendingEvents());
+    }
+
+    @Test
+    void shouldBlockPublisherUntilQueueHasRoom() throws InterruptedException {
+        final var consumer = new FakeConsumer();
+        final var service = new HttpJsonEventBatchPublishService(consumer.proxy(), config(1, 1)
+            .overflowPolicy(EventOverflowPolicy.BLOCK)
+            .build());
+
+        service.publish(event("a", "1"));
+        final var e2 = new AtomicReference<Future<?>>();
+        final var thread = new Thread(() -> e2.set(service.publish(event("a", "2"))));
+        thread.start();
+        thread.join(100);
+        assertTrue(thread.isAlive());
+
+        // Sending the first event makes room for the second.
+        final var connection = consumer.connect();
+        thread.join(10_000);
+        assertFalse(thread.isAlive());
+        assertNotNull(e2.get());
+
+        // The two events are sent by different threads, in any order.
+        assertEquals(Set.of("1", "2"), new HashSet<>(connection.payloads()));
+    }
+
+    @Test
+    void shouldFailEventsInFlightIfConnectionFails() {
+        final var consumer = new FakeConsumer();
+        final var service = new HttpJsonEventBatchPublishService(consumer.proxy(), config(1, 100).build());
+
+        final var e1 = resultOf(service.publish(event("a", "1")));
+        final var connection = consumer.connect();
+        final var fault = new IOException("Connection reset");
+        connection.isLive = false;
+        connection.completions.get(0).complete(Result.failure(fault));
+        assertSame(fault, e1.get().fault());
+
+        // Events published after the failure cause a new connection to be
+        // established.
+        service.publish(event("a", "2"));
+        assertEquals(2, consumer.connects.size());
+    }
+
+    @Test
+    void shouldFailQueuedEventsIfConnectingFails() {
+        final var consumer = new FakeConsumer();
+        final var service = new HttpJsonEventBatchPublishService(consumer.proxy(), config(1, 100).build());
+
+        final var e1 = resultOf(service.publish(event("a", "1")));
+        final var fault = new IOException("Connection refused");
+        consumer.connects.get(0).complete(Result.failure(fault));
+        assertSame(fault, e1.get().fault());
+        assertEquals(0, service.pendingEvents());
+    }
+
+    @Test
+    void shouldCloseOnceAfterEventsInFlightAreResponded() {
+        final var consumer = new FakeConsumer();
+        final var service = new HttpJsonEventBatchPublishService(consumer.proxy(), config(1, 100).build());
+
+        service.publish(event("a", "1"));
+        final var connection = consumer.connect();
+
+        final var closed0 = resultOf(service.close());
+        final var closed1 = resultOf(service.close());
+        assertTrue(resultOf(service.publish(event("a", "2"))).get().fault() instanceof IllegalStateException);
+        assertNull(closed0.get());
+        assertEquals(0, connection.closeCount);
+
+        connection.respond(0, HttpStatus.OK);
+        assertEquals(1, connection.closeCount);
+        assertTrue(closed0.get().isSuccess());
+        assertTrue(closed1.get().isSuccess());
+
+        assertTrue(resultOf(service.close()).get().isSuccess());
+        assertEquals(1, connection.closeCount);
+    }
+
+    @Test
+    void shouldRejectEventsPublishedAfterClosing() {
+        final var consumer = new FakeConsumer();
+        final var service = new HttpJsonEventBatchPublishService(consumer.proxy(), config(1, 100).build());
+
+        assertTrue(resultOf(service.close()).get().isSuccess());
+        assertTrue(resultOf(service.publish(event("a", "1"))).get().fault() instanceof IllegalStateException);
+        assertEquals(0, consumer.connects.size());
+    }
+
+    private static EventBatchConfig.Builder config(final int maxBatchSize, final int maxPendingEvents) {
+        return new EventBatchConfig.Builder()
+            .maxBatchSize(maxBatchSize)
+            .maxBatchDelay(Duration.ofHours(1))
+            .maxPendingEvents(maxPendingEvents);
+    }
+
+    private static EventOutgoingDto event(final String topic, final String data) {
+        return new EventOutgoingDto.Builder()
+            .topic(topic)
+            .publisher(new SystemDetailsDto.Builder()
+                .name("a")
+                .hostname("127.0.0.1")
+                .port(9001)
+                .build())
+            .metadata(Map.of())
+            .data(data)
+            .build();
+    }
+
+    private static <V> AtomicReference<Result<V>> resultOf(final Future<V> future) {
+        final var result = new AtomicReference<Result<V>>(null);
+        future.onResult(result::set);
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T fake(final Class<T> type, final Map<String, Function<Object[], Object>> methods) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, arguments) -> {
+            final var implementation = methods.get(method.getName());
+            if (implementation == null) {
+                throw new UnsupportedOperationException(method.getName());
+            }
+            return implementation.apply(arguments);
+        });
+    }
+
+    private static class FakeConsumer {
+        private final ServiceRecord service = new ServiceRecord.Builder()
+            .name("event-publish")
+            .provider(SystemRecord.from("eventhandler", new InetSocketAddress("127.0.0.1", 8455)))
+            .uri("/eventhandler/publish")
+            .accessPolicyType(AccessPolicyType.NOT_SECURE)
+            .interfaces(ServiceInterface.HTTP_SECURE_JSON)
+            .build();
+
+        final List<FutureCompletion<HttpConsumerConnection>> connects = new ArrayList<>();
+
+        HttpConsumer proxy() {
+            return fake(HttpConsumer.class, Map.of(
+                "service", arguments -> service,
+                "connect", arguments -> {
+                    final var completion = new FutureCompletion<HttpConsumerConnection>();
+                    connects.add(completion);
+                    return completion;
+                }));
+        }
+
+        // Completes the latest connection attempt successfully.
+        FakeConnection connect() {
+            final var connection = new FakeConnection();
+            connects.get(connects.size() - 1).complete(Result.success(connection.proxy()));
+            return connection;
+        }
+    }
+
+    private static class FakeConnection {
+        private static final Pattern PAYLOAD = Pattern.compile("\"payload\":\"([^\"]*)\"");
+
+        final List<HttpConsumerRequest> requests = Collections.synchronizedList(new ArrayList<>());
+        final List<FutureCompletion<HttpConsumerResponse>> completions = Collections.synchronizedList(new ArrayList<>());
+        boolean isLive = true;
+        int closeCount = 0;
+
+        HttpConsumerConnection proxy() {
+            return fake(HttpConsumerConnection.class, Map.of(
+                "isLive", arguments -> isLive,
+                "send", arguments -> {
+                    final var completion = new FutureCompletion<HttpConsumerResponse>();
+                    requests.add((HttpConsumerRequest) arguments[0]);
+                    completions.add(completion);
+                    return completion;
+                },
+                "close", arguments -> {
+                    closeCount += 1;
+                    isLive = false;
+                    return Future.done();
+                }));
+        }
+
+        void respond(final int index, final HttpStatus status) {
+            completions.get(index).complete(Result.success(fake(HttpConsumerResponse.class, Map.of(
+                "status", arguments -> status))));
+        }
+
+        // Gets the payload of each sent event.
+        List<String> payloads() {
+            final var payloads = new ArrayList<String>();
+            for (final var request : requests) {
+                final var encodable = request.body().orElseThrow().asEncodable().orElseThrow();
+                try (final var buffer = Buffer.allocate(256, 65536)) {
+                    encodable.encode(buffer);
+                    final var bytes = new byte[buffer.readableBytes()];
+                    buffer.read(bytes);
+                    final var matcher = PAYLOAD.matcher(new String(bytes, StandardCharsets.UTF_8));
+                    assertTrue(matcher.find());
+                    payloads.add(matcher.group(1));
+                }
+            }
+            return payloads;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package se.arkalix.core.plugin.eh;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import se.arkalix.core.plugin.SystemDetailsDto;
+import se.arkalix.util.Result;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Scheduler;
+import se.arkalix.util.concurrent.SchedulerShutdownListener;
+import se.arkalix.util.concurrent._internal.FutureCompletion;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHttpJsonEventSpoolPublisher {
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldAcknowledgeEventsOnlyAfterSuccessfulSend() throws IOException {
+        final var sender = new RecordingSender();
+        final var publisher = HttpJsonEventSpoolPublisher.open(config(), sender, new ManualScheduler());
+        try {
+            publisher.publish(event("a"));
+            publisher.publish(event("b"));
+            assertEquals(List.of(List.of("a")), sender.payloads());
+            assertFalse(publisher.isDrained());
+
+            sender.complete(0, Result.done());
+            assertEquals(List.of(List.of("a"), List.of("b")), sender.payloads());
+            assertFalse(publisher.isDrained());
+
+            sender.complete(1, Result.done());
+            assertTrue(publisher.isDrained());
+            assertEquals(2, sender.sends.size());
+        }
+        finally {
+            publisher.close();
+        }
+    }
+
+    @Test
+    void shouldRetryAfterFailedSendOnlyWhenRetryDelayExpires() throws IOException {
+        final var sender = new RecordingSender();
+        final var scheduler = new ManualScheduler();
+        final var publisher = HttpJsonEventSpoolPublisher.open(config(), sender, scheduler);
+        try {
+            publisher.publish(event("a"));
+            sender.complete(0, Result.failure(new IOException("unreachable")));
+            assertEquals(1, sender.resets);
+            assertEquals(1, scheduler.tasks.size());
+
+            // Publishing while waiting to retry must not cause a premature
+            // attempt to send.
+            publisher.publish(event("b"));
+            assertEquals(1, sender.sends.size());
+
+            scheduler.runAll();
+            assertEquals(List.of(List.of("a"), List.of("a", "b")), sender.payloads());
+
+            sender.complete(1, Result.done());
+            assertTrue(publisher.isDrained());
+        }
+        finally {
+            publisher.close();
+        }
+    }
+
+    @Test
+    void shouldKeepEventsInFlightSpooledIfClosedDuringSend() throws IOException {
+        final var sender = new RecordingSender();
+        final var scheduler = new ManualScheduler();
+        final var publisher = HttpJsonEventSpoolPublisher.open(config(), sender, scheduler);
+        publisher.publish(event("a"));
+        publisher.close();
+        assertTrue(sender.isClosed);
+
+        sender.complete(0, Result.done());
+        assertEquals(1, sender.sends.size());
+        assertTrue(scheduler.tasks.isEmpty());
+
+        final var sender1 = new RecordingSender();
+        final var publisher1 = HttpJsonEventSpoolPublisher.open(config(), sender1, scheduler);
+        try {
+            assertEquals(List.of(List.of("a")), sender1.payloads());
+        }
+        finally {
+            publisher1.close();
+        }
+    }
+
+    private EventSpoolConfig config() {
+        return new EventSpoolConfig.Builder()
+            .directory(directory)
+            .segmentSize(4096)
+            .maxSegments(4)
+            .maxEventsInFlight(10)
+            .build();
+    }
+
+    private static EventOutgoingDto event(final String data) {
+        return new EventOutgoingDto.Builder()
+            .topic("test")
+            .publisher(new SystemDetailsDto.Builder()
+                .name("a")
+                .hostname("127.0.0.1")
+                .port(9001)
+                .build())
+            .metadata(Map.of())
+            .data(data)
+            .build();
+    }
+
+    private static class RecordingSender implements HttpJsonEventSpoolPublisher.Sender {
+        private static final Pattern PAYLOAD = Pattern.compile("\"payload\":\"([^\"]*)\"");
+
+        private final List<List<byte[]>> sends = new ArrayList<>();
+        private final List<FutureCompletion<Object>> completions = new ArrayList<>();
+        private int resets = 0;
+        private boolean isClosed = false;
+
+        @Override
+        public Future<?> send(final List<byte[]> records) {
+            final var completion = new FutureCompletion<>();
+            sends.add(records);
+            completions.add(completion);
+            return completion;
+        }
+
+        @Override
+        public void reset() {
+            resets += 1;
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+
+        void complete(final int index, final Result<Object> result) {
+            completions.get(index).complete(result);
+        }
+
+        // Gets the payload of each sent event, grouped by send.
+        List<List<String>> payloads() {
+            return sends.stream()
+                .map(records -> records.stream()
+                    .map(RecordingSender::payloadOf)
+                    .collect(Collectors.toList()))
+                .collect(Collectors.toList());
+        }
+
+        private static String payloadOf(final byte[] record) {
+            final var matcher = PAYLOAD.matcher(new String(record, StandardCharsets.UTF_8));
+            assertTrue(matcher.find());
+            return matcher.group(1);
+        }
+    }
+
+    /**
+     * A scheduler that only runs the tasks scheduled via it when told to.
+     */
+    private static class ManualScheduler implements Scheduler {
+        private final List<Runnable> tasks = new ArrayList<>();
+
+        void runAll() {
+            final var tasks0 = new ArrayList<>(tasks);
+            tasks.clear();
+            tasks0.forEach(Runnable::run);
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            tasks.add(command);
+        }
+
+        @Override
+        public Future<?> submit(final Runnable task) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <V> Future<V> submit(final Callable<V> task) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <V> Future<V> submit(final Runnable task, final V result) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> schedule(final Duration delay, final Runnable command) {
+            tasks.add(command);
+            return Future.done();
+        }
+
+        @Override
+        public <V> Future<V> schedule(final Duration delay, final Callable<V> callable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> scheduleAtFixedRate(final Duration initialDelay, final Duration rate, final Runnable command) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> scheduleWithFixedDelay(final Duration initialDelay, final Duration delay, final Runnable command) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isShuttingDown() {
+            return false;
+        }
+
+        @Override
+        public void addShutdownListener(final SchedulerShutdownListener listener) {
+            // Does nothing.
+        }
+
+        @Override
+        public void removeShutdownListener(final SchedulerShutdownListener listener) {
+            // Does nothing.
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package se.arkalix.core.plugin.eh;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.SystemRecord;
+import se.arkalix.codec.DecoderException;
+import se.arkalix.io.buf.Buffer;
+import se.arkalix.util.concurrent.Future;
+import se.arkalix.util.concurrent.Scheduler;
+import se.arkalix.util.concurrent.SchedulerShutdownListener;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestHttpJsonEventSubscriberPlugin {
+    private static final SystemRecord providerA = SystemRecord.from("a", new InetSocketAddress("127.0.0.1", 9001));
+    private static final SystemRecord providerB = SystemRecord.from("b", new InetSocketAddress("127.0.0.1", 9002));
+
+    @Test
+    void shouldMatchUnfilteredSubscriptionsAlways() {
+        final var topic = newTopic();
+        final var handle = register(topic, new EventSubscription());
+        assertEquals(List.of(handle), topic.matches(null, Map.of()));
+        assertEquals(List.of(handle), topic.matches(providerA, Map.of("x", "1")));
+    }
+
+    @Test
+    void shouldMatchProviderOnlySubscriptionsByProvider() {
+        final var topic = newTopic();
+        final var handleA = register(topic, new EventSubscription().providers(providerA));
+        final var handleAB = register(topic, new EventSubscription().providers(providerA, providerB));
+        assertEquals(List.of(handleA, handleAB), topic.matches(providerA, Map.of()));
+        assertEquals(List.of(handleAB), topic.matches(providerB, Map.of()));
+        assertEquals(List.of(), topic.matches(null, Map.of()));
+        assertNull(topic.anchorOf(handleA));
+    }
+
+    @Test
+    void shouldMatchMetadataOnlySubscriptionsByAllMetadata() {
+        final var topic = newTopic();
+        final var handle = register(topic, new EventSubscription()
+            .metadata("x", "1")
+            .metadata("y", "2"));
+        assertEquals(List.of(handle), topic.matches(null, Map.of("x", "1", "y", "2", "z", "3")));
+        assertEquals(List.of(), topic.matches(null, Map.of("x", "1")));
+        assertEquals(List.of(), topic.matches(null, Map.of("x", "1", "y", "3")));
+    }
+
+    @Test
+    void shouldMatchSubscriptionsByProviderAndMetadata() {
+        final var topic = newTopic();
+        final var handle = register(topic, new EventSubscription()
+            .providers(providerA)
+            .metadata("x", "1"));
+        assertEquals(List.of(handle), topic.matches(providerA, Map.of("x", "1")));
+        assertEquals(List.of(), topic.matches(providerB, Map.of("x", "1")));
+        assertEquals(List.of(), topic.matches(providerA, Map.of("x", "2")));
+    }
+
+    @Test
+    void shouldAnchorOnLeastPopulatedMetadataEntry() {
+        final var topic = newTopic();
+        register(topic, new EventSubscription().metadata("type", "update"));
+        register(topic, new EventSubscription().metadata("type", "update"));
+        final var handle = register(topic, new EventSubscription()
+            .metadata("type", "update")
+            .metadata("device", "7"));
+        assertEquals(Map.entry("device", "7"), topic.anchorOf(handle));
+        assertEquals(3, topic.matches(null, Map.of("type", "update", "device", "7")).size());
+    }
+
+    @Test
+    void shouldStopMatchingRemovedSubscriptions() {
+        final var emptied = new ArrayList<String>();
+        final var topic = new HttpJsonEventSubscriberPlugin.Topic("t", emptied::add);
+        final var unfiltered = register(topic, new EventSubscription());
+        final var byProvider = register(topic, new EventSubscription().providers(providerA, providerB));
+        final var byMetadata = register(topic, new EventSubscription().metadata("x", "1"));
+        assertEquals(3, topic.size());
+
+        byProvider.unsubscribe();
+        assertEquals(List.of(unfiltered, byMetadata), topic.matches(providerB, Map.of("x", "1")));
+        byMetadata.unsubscribe();
+        byMetadata.unsubscribe();
+        assertEquals(List.of(unfiltered), topic.matches(providerA, Map.of("x", "1")));
+        assertEquals(1, topic.size());
+        assertEquals(List.of(), emptied);
+
+        unfiltered.unsubscribe();
+        assertEquals(List.of(), topic.matches(providerA, Map.of("x", "1")));
+        assertEquals(List.of("t"), emptied);
+    }
+
+    @Test
+    void shouldRefuseEventsWhenBlockingQueueIsFull() {
+        final var topic = newTopic();
+        final var handle = register(topic, new EventSubscription()
+            .scheduler(new IdleScheduler())
+            .queueSize(2)
+            .overflowPolicy(EventOverflowPolicy.BLOCK));
+        assertTrue(topic.publish(null, Map.of(), payload()));
+        assertTrue(topic.publish(null, Map.of(), payload()));
+        assertFalse(topic.publish(null, Map.of(), payload()));
+        assertEquals(2, handle.queuedCount());
+    }
+
+    @Test
+    void shouldRefuseRatherThanDropEventsByDefault() {
+        final var topic = newTopic();
+        final var handle = register(topic, new EventSubscription()
+            .scheduler(new IdleScheduler())
+            .queueSize(1));
+        assertTrue(topic.publish(null, Map.of(), payload()));
+        assertFalse(topic.publish(null, Map.of(), payload()));
+        assertEquals(1, handle.queuedCount());
+    }
+
+    @Test
+    void shouldNotEnqueueRefusedEventsInAnyQueue() {
+        final var topic = newTopic();
+        final var dropping = register(topic, new EventSubscription()
+            .scheduler(new IdleScheduler())
+            .queueSize(4)
+            .overflowPolicy(EventOverflowPolicy.DROP_NEWEST));
+        final var blocking = register(topic, new EventSubscription()
+            .scheduler(new IdleScheduler())
+            .queueSize(1)
+            .overflowPolicy(EventOverflowPolicy.BLOCK));
+        assertTrue(topic.publish(null, Map.of(), payload()));
+        assertFalse(topic.publish(null, Map.of(), payload()));
+        assertEquals(1, dropping.queuedCount());
+        assertEquals(1, blocking.queuedCount());
+    }
+
+    @Test
+    void shouldAcceptOrRefuseBatchesAsUnits() {
+        final var topic = newTopic();
+        final var handleA = register(topic, new EventSubscription()
+            .scheduler(new IdleScheduler())
+            .providers(providerA)
+            .queueSize(2)
+            .overflowPolicy(EventOverflowPolicy.BLOCK));
+        final var handleB = register(topic, new EventSubscription()
+            .scheduler(new IdleScheduler())
+            .providers(providerB)
+            .queueSize(2)
+            .overflowPolicy(EventOverflowPolicy.BLOCK));
+
+        assertFalse(topic.publish(List.of(
+            new HttpJsonEventSubscriberPlugin.ReceivedEvent(providerA, Map.of(), payload()),
+            new HttpJsonEventSubscriberPlugin.ReceivedEvent(providerB, Map.of(), payload()),
+            new HttpJsonEventSubscriberPlugin.ReceivedEvent(providerA, Map.of(), payload()),
+            new HttpJsonEventSubscriberPlugin.ReceivedEvent(providerA, Map.of(), payload()))));
+        assertEquals(0, handleA.queuedCount());
+        assertEquals(0, handleB.queuedCount());
+
+        assertTrue(topic.publish(List.of(
+            new HttpJsonEventSubscriberPlugin.ReceivedEvent(providerA, Map.of(), payload()),
+            new HttpJsonEventSubscriberPlugin.ReceivedEvent(providerB, Map.of(), payload()),
+            new HttpJsonEventSubscriberPlugin.ReceivedEvent(providerA, Map.of(), payload()))));
+        assertEquals(2, handleA.queuedCount());
+        assertEquals(1, handleB.queuedCount());
+
+        assertTrue(topic.publish(providerB, Map.of(), payload()));
+        assertFalse(topic.publish(providerB, Map.of(), payload()));
+    }
+
+    @Test
+    void shouldNeverDropEventsAcceptedByBlockingQueueUnderContention() throws Exception {
+        final var nThreads = 4;
+        final var executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            for (var iteration = 0; iteration < 200; ++iteration) {
+                final var topic = newTopic();
+                final var handle = register(topic, new EventSubscription()
+                    .scheduler(new IdleScheduler())
+                    .queueSize(8)
+                    .overflowPolicy(EventOverflowPolicy.BLOCK));
+                final var accepted = new AtomicInteger();
+                final var barrier = new CyclicBarrier(nThreads);
+                final var futures = new ArrayList<java.util.concurrent.Future<?>>();
+                for (var t = 0; t < nThreads; ++t) {
+                    futures.add(executor.submit(() -> {
+                        barrier.await();
+                        for (var i = 0; i < 4; ++i) {
+                            if (topic.publish(null, Map.of(), payload())) {
+                                accepted.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                for (final var future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+                assertEquals(8, accepted.get(), "iteration " + iteration);
+                assertEquals(8, handle.queuedCount(), "iteration " + iteration);
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldDecodeSingleEventsAndBatchesOfEvents() {
+        final var event = "{\"eventType\":\"t\",\"metaData\":{\"x\":\"1\"},\"payload\":\"a\\nb\"}";
+        assertEquals(1, HttpJsonEventSubscriberPlugin.decodeEvents(reader(" " + event)).size());
+        assertEquals(2, HttpJsonEventSubscriberPlugin.decodeEvents(reader("[" + event + ", " + event + "]")).size());
+        assertEquals(0, HttpJsonEventSubscriberPlugin.decodeEvents(reader(" [ ]")).size());
+    }
+
+    @Test
+    void shouldReportEventsWithoutPayloads() {
+        final var event = "{\"eventType\":\"t\"}";
+        final var exception = assertThrows(DecoderException.class, () -> HttpJsonEventSubscriberPlugin
+            .decodeEvents(reader("[{\"payload\":\"x\"}, " + event + "]")));
+        assertEquals(event, exception.token());
+        assertEquals(18, exception.offset());
+    }
+
+    private static Buffer reader(final String json) {
+        return Buffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static EventPayload payload() {
+        return EventPayload.ofString("x", Map.of());
+    }
+
+    private static HttpJsonEventSubscriberPlugin.Topic newTopic() {
+        return new HttpJsonEventSubscriberPlugin.Topic("t", ignored -> {});
+    }
+
+    private static HttpJsonEventSubscriberPlugin.Handle register(
+        final HttpJsonEventSubscriberPlugin.Topic topic,
+        final EventSubscription subscription)
+    {
+        return (HttpJsonEventSubscriberPlugin.Handle) topic.register(subscription.handler((metadata, data) -> {}));
+    }
+
+    /**
+     * A scheduler that never runs the tasks submitted to it, which keeps
+     * subscription queues from being drained.
+     */
+    private static class IdleScheduler implements Scheduler {
+        @Override
+        public void execute(final Runnable command) {
+            // Does nothing.
+        }
+
+        @Override
+        public Future<?> submit(final Runnable task) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <V> Future<V> submit(final Callable<V> task) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <V> Future<V> submit(final Runnable task, final V result) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> schedule(final Duration delay, final Runnable command) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <V> Future<V> schedule(final Duration delay, final Callable<V> callable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> scheduleAtFixedRate(final Duration initialDelay, final Duration rate, final Runnable command) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> scheduleWithFixedDelay(final Duration initialDelay, final Duration delay, final Runnable command) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isShuttingDown() {
+            return false;
+        }
+
+        @Override
+        public void addShutdownListener(final SchedulerShutdownListener listener) {
+            // Does nothing.
+        }
+
+        @Override
+        public void removeShutdownListener(final SchedulerShutdownListener listener) {
+            // Does nothing.
+        }
+    }
+}
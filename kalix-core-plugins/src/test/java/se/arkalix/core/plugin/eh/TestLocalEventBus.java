@@ -0,0 +1,88 @@
+package se.arkalix.core.plugin.eh;
+
+import org.junit.jupiter.api.Test;
+import se.arkalix.core.plugin.SystemDetailsDto;
+import se.arkalix.util.concurrent.Future;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestLocalEventBus {
+    @Test
+    void shouldOnlyDeduplicateEventsDeliveredToSameReceiver() {
+        final var bus = new LocalEventBus();
+        final var remote = new RecordingPublishService();
+        final LocalEventBus.Receiver accepting = (topic, provider, metadata, payload) -> true;
+        final LocalEventBus.Receiver refusing = (topic, provider, metadata, payload) -> false;
+        bus.register(accepting);
+        bus.register(refusing);
+
+        bus.publisher(remote, LocalEventBus.Mode.LOCAL_AND_REMOTE).publish(event(Map.of()));
+
+        assertEquals(1, remote.events.size());
+        final var metadata = remote.events.get(0).metadata();
+        assertTrue(metadata.containsKey(LocalEventBus.METADATA_EVENT_ID));
+        assertTrue(bus.isDeliveredLocally(accepting, metadata));
+        assertFalse(bus.isDeliveredLocally(refusing, metadata));
+    }
+
+    @Test
+    void shouldNotDeduplicateEventsPublishedOnlyRemotely() {
+        final var bus = new LocalEventBus();
+        final var remote = new RecordingPublishService();
+        final LocalEventBus.Receiver receiver = (topic, provider, metadata, payload) -> true;
+        bus.register(receiver);
+
+        bus.publisher(remote, LocalEventBus.Mode.LOCAL_AND_REMOTE).publish(event(Map.of()));
+
+        // Published by the same provider, but not via the bus.
+        assertFalse(bus.isDeliveredLocally(receiver, Map.of()));
+
+        // Published via another bus.
+        final var other = new LocalEventBus();
+        other.publisher(remote, LocalEventBus.Mode.LOCAL_AND_REMOTE).publish(event(Map.of()));
+        assertFalse(bus.isDeliveredLocally(receiver, remote.events.get(1).metadata()));
+    }
+
+    @Test
+    void shouldForgetOldestEvents() {
+        final var bus = new LocalEventBus();
+        final var remote = new RecordingPublishService();
+        final LocalEventBus.Receiver receiver = (topic, provider, metadata, payload) -> true;
+        bus.register(receiver);
+
+        final var publisher = bus.publisher(remote, LocalEventBus.Mode.LOCAL_AND_REMOTE);
+        for (var i = 0; i < 10_000; ++i) {
+            publisher.publish(event(Map.of()));
+        }
+
+        assertFalse(bus.isDeliveredLocally(receiver, remote.events.get(0).metadata()));
+        assertTrue(bus.isDeliveredLocally(receiver, remote.events.get(9_999).metadata()));
+    }
+
+    private static EventOutgoingDto event(final Map<String, String> metadata) {
+        return new EventOutgoingDto.Builder()
+            .topic("test")
+            .publisher(new SystemDetailsDto.Builder()
+                .name("a")
+                .hostname("127.0.0.1")
+                .port(9001)
+                .build())
+            .metadata(metadata)
+            .data("data")
+            .build();
+    }
+
+    private static class RecordingPublishService implements ArEventPublishService {
+        private final List<EventOutgoingDto> events = new ArrayList<>();
+
+        @Override
+        public Future<?> publish(final EventOutgoingDto event) {
+            events.add(event);
+            return Future.done();
+        }
+    }
+}
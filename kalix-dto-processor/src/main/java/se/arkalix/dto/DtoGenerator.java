@@ -376,9 +376,19 @@ public class DtoGenerator {
             for (final var codec : dtoWritableAs.value()) {
                 final var backend = getBackendByCodecOrThrow(codec);
                 backend.generateEncodeMethodFor(target, implementation);
+
+                // Shared by all instances, as it is used to estimate the
+                // encoded sizes of future instances.
+                final var sizeEstimatorName = codec.name().toLowerCase() + "SizeEstimator";
+                implementation.addField(FieldSpec.builder(
+                    ClassName.get(EncodableSizeEstimator.class), sizeEstimatorName,
+                    Modifier.PRIVATE, Modifier.STATIC, Modifier.FINAL)
+                    .initializer("new $T()", EncodableSizeEstimator.class)
+                    .build());
+
                 encode
                     .beginControlFlow("if (codecType == $T.$N)", CodecType.class, codec.name())
-                    .addStatement("return this::$N", backend.encodeMethodName())
+                    .addStatement("return $N.estimate(this::$N)", sizeEstimatorName, backend.encodeMethodName())
                     .endControlFlow();
             }
 